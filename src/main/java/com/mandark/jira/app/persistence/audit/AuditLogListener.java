@@ -0,0 +1,171 @@
+package com.mandark.jira.app.persistence.audit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mandark.jira.app.persistence.orm.JpaAuditEntity;
+import com.mandark.jira.spi.app.persistence.AuditLogged;
+import com.mandark.jira.spi.app.persistence.IEntity;
+
+
+/**
+ * Hibernate pre-update listener, recording the property changes of the {@link AuditLogged} entities
+ * in the audit log.
+ *
+ * <p>
+ * The changes (diff of the loaded and the flushed states) are captured on the flush, and handed over to
+ * the {@link AuditLogWriter} after the commit : the rolled back changes are not recorded, and the
+ * updating transaction doesn't wait for the audit log.
+ * </p>
+ */
+public class AuditLogListener implements PreUpdateEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditLogListener.class);
+
+    private static final Set<String> SKIPPED_PROPS = Set.of(JpaAuditEntity.FIELD_VERSION,
+            JpaAuditEntity.FIELD_UPDATED_BY, JpaAuditEntity.FIELD_UPDATED_ON);
+
+
+    private final transient EntityManagerFactory entityManagerFactory;
+    private final transient AuditLogWriter writer;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public AuditLogListener(final EntityManagerFactory entityManagerFactory, final AuditLogWriter writer) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(entityManagerFactory) || Objects.isNull(writer)) {
+            throw new IllegalArgumentException("#AuditLogListener :: EntityManagerFactory / AuditLogWriter is NULL");
+        }
+
+        // init
+        this.entityManagerFactory = entityManagerFactory;
+        this.writer = writer;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Registers the listener with the Hibernate session factory.
+     */
+    public void init() {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        final EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.PRE_UPDATE, this);
+
+        LOGGER.info("#init :: audit log listener registered");
+    }
+
+    @Override
+    public boolean onPreUpdate(final PreUpdateEvent event) {
+        final EntityPersister persister = event.getPersister();
+        final Class<?> mappedCls = persister.getMappedClass();
+        final AuditLogged auditLogged = mappedCls.getAnnotation(AuditLogged.class);
+
+        // Loaded state :: not known for the updates of the detached entities
+        final Object[] oldState = event.getOldState();
+        if (Objects.isNull(auditLogged) || Objects.isNull(oldState)) {
+            return false;
+        }
+
+        final List<AuditRecord> records = this.diff(event, Arrays.asList(auditLogged.exclude()));
+        if (!records.isEmpty()) {
+            this.appendOnCommit(records);
+        }
+
+        return false; // no veto
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private List<AuditRecord> diff(final PreUpdateEvent event, final List<String> excludedProps) {
+        final EntityPersister persister = event.getPersister();
+        final String[] propNames = persister.getPropertyNames();
+        final Type[] propTypes = persister.getPropertyTypes();
+
+        final Object[] oldState = event.getOldState();
+        final Object[] state = event.getState();
+
+        final Object version = persister.isVersioned() ? state[persister.getVersionProperty()] : null;
+        final String changedBy = event.getEntity() instanceof JpaAuditEntity //
+                ? ((JpaAuditEntity) event.getEntity()).getUpdatedBy()
+                : null;
+        final LocalDateTime changedOn = LocalDateTime.now();
+
+        final List<AuditRecord> records = new ArrayList<>();
+        for (int i = 0; i < propNames.length; i++) {
+            if (propTypes[i].isCollectionType() || SKIPPED_PROPS.contains(propNames[i])
+                    || excludedProps.contains(propNames[i])) {
+                continue;
+            }
+
+            if (propTypes[i].isEqual(oldState[i], state[i])) {
+                continue;
+            }
+
+            records.add(AuditRecord.of(persister.getEntityName(), event.getId(), version, propNames[i],
+                    this.toText(oldState[i]), this.toText(state[i]), changedBy, changedOn));
+        }
+
+        return records;
+    }
+
+    private String toText(final Object value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+
+        // Associations :: by identifier
+        if (value instanceof IEntity) {
+            return String.valueOf(((IEntity<?>) value).getId());
+        }
+
+        return String.valueOf(value);
+    }
+
+    private void appendOnCommit(final List<AuditRecord> records) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writer.append(records);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                writer.append(records);
+            }
+
+        });
+    }
+
+}
@@ -0,0 +1,343 @@
+package com.mandark.jira.app.persistence.audit;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mandark.jira.spi.lang.ServiceException;
+
+
+/**
+ * Writes the {@link AuditRecord}s to the append-only audit table, in batches, from a background thread.
+ *
+ * <p>
+ * The records are buffered in a bounded (ring) buffer. When the buffer is full, the appending thread
+ * waits for a slot up to the offer timeout, and then writes its records itself (in its own connection) :
+ * so the writes are slowed down to the audit log throughput, but no record is dropped. The records are
+ * written in the order of the buffer, except for these overflow writes.
+ * </p>
+ *
+ * <p>
+ * On {@link #close()}, the buffer is closed to the new records (written right away from then on), and
+ * the buffered records are all written before the return.
+ * </p>
+ */
+public class AuditLogWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String SQL_CREATE_TABLE = "CREATE TABLE IF NOT EXISTS %s (" //
+            + "id BIGINT NOT NULL AUTO_INCREMENT, " //
+            + "entity_type VARCHAR(255) NOT NULL, entity_id VARCHAR(64) NOT NULL, entity_version INT, " //
+            + "property VARCHAR(255) NOT NULL, old_value TEXT, new_value TEXT, " //
+            + "changed_by VARCHAR(255), changed_on DATETIME(6) NOT NULL, " //
+            + "PRIMARY KEY (id), KEY idx_%s_entity (entity_type, entity_id))";
+
+    private static final String SQL_INSERT = "INSERT INTO %s (entity_type, entity_id, entity_version, property, "
+            + "old_value, new_value, changed_by, changed_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+
+    private final DataSource dataSource;
+
+    private final ReadWriteLock bufferLock; // read :: offers, write :: close
+    private final AtomicLong written;
+    private final AtomicLong overflowed;
+    private final AtomicLong failed;
+
+    private BlockingQueue<AuditRecord> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private String tableName;
+    private int capacity;
+    private int batchSize;
+    private long flushIntervalMillis;
+    private long offerTimeoutMillis;
+    private long shutdownTimeoutMillis;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public AuditLogWriter(final DataSource dataSource) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(dataSource)) {
+            throw new IllegalArgumentException("#AuditLogWriter :: DataSource is NULL");
+        }
+
+        // init
+        this.dataSource = dataSource;
+
+        this.bufferLock = new ReentrantReadWriteLock();
+        this.written = new AtomicLong();
+        this.overflowed = new AtomicLong();
+        this.failed = new AtomicLong();
+
+        this.tableName = "audit_log";
+        this.capacity = 10_000;
+        this.batchSize = 500;
+        this.flushIntervalMillis = 1000;
+        this.offerTimeoutMillis = 50;
+        this.shutdownTimeoutMillis = 30_000;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Creates the audit table (if not there) and starts the background writer.
+     */
+    public void init() {
+        try (final Connection connection = dataSource.getConnection();
+                final Statement stmt = connection.createStatement()) {
+            stmt.execute(String.format(SQL_CREATE_TABLE, tableName, tableName));
+
+        } catch (SQLException e) {
+            final String errMsg = String.format("#init :: failed to create the audit table %s : %s", tableName,
+                    e.getMessage());
+            LOGGER.error(errMsg, e);
+            throw new ServiceException(errMsg, ServiceException.DEFAULT_USER_MESSAGE, e);
+        }
+
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.running = true;
+
+        this.writerThread = new Thread(this::run, "audit-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+
+        LOGGER.info("#init :: audit log writer started, table {}, capacity {}, batch size {}", tableName, capacity,
+                batchSize);
+    }
+
+    /**
+     * Appends the records to the audit log, see the backpressure above.
+     *
+     * @param records the audit records
+     */
+    public void append(final List<AuditRecord> records) {
+        if (Objects.isNull(records) || records.isEmpty()) {
+            return;
+        }
+
+        final List<AuditRecord> overflow = new ArrayList<>();
+        for (final AuditRecord record : records) {
+            if (!this.offer(record)) {
+                overflow.add(record);
+            }
+        }
+
+        // Backpressure :: the caller writes the records not buffered
+        if (!overflow.isEmpty()) {
+            overflowed.addAndGet(overflow.size());
+            this.write(overflow);
+        }
+    }
+
+    /**
+     * Stops the background writer, after writing all the buffered records.
+     */
+    public void close() {
+        // No more offers, after the ongoing ones
+        bufferLock.writeLock().lock();
+        try {
+            if (!running) {
+                return;
+            }
+
+            running = false;
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+
+        // Writer :: exits once the buffer is empty
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("#close :: interrupted waiting for the audit log writer");
+        }
+
+        // Left over :: on the timeout / interrupt
+        final List<AuditRecord> remaining = new ArrayList<>();
+        while (buffer.drainTo(remaining, batchSize) > 0) {
+            this.write(remaining);
+            remaining.clear();
+        }
+
+        LOGGER.info("#close :: audit log writer stopped, {} written, {} overflowed, {} failed", written.get(),
+                overflowed.get(), failed.get());
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private boolean offer(final AuditRecord record) {
+        bufferLock.readLock().lock();
+        try {
+            return running && buffer.offer(record, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+
+    private void run() {
+        final List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                final AuditRecord first = buffer.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(first)) {
+                    continue;
+                }
+
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                this.write(batch);
+
+            } catch (InterruptedException e) {
+                LOGGER.warn("#run :: audit log writer interrupted, {} records buffered", buffer.size());
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(final List<AuditRecord> records) {
+        final String insertSql = String.format(SQL_INSERT, tableName);
+        try (final Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            try (final PreparedStatement pstmt = connection.prepareStatement(insertSql)) {
+                for (final AuditRecord r : records) {
+                    this.bind(pstmt, r);
+                    pstmt.addBatch();
+                }
+
+                pstmt.executeBatch();
+                connection.commit();
+
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+
+            written.addAndGet(records.size());
+
+        } catch (SQLException e) {
+            failed.addAndGet(records.size());
+            LOGGER.error("#write :: failed to write {} audit records : {}", records.size(), e.getMessage(), e);
+        }
+    }
+
+    private void bind(final PreparedStatement pstmt, final AuditRecord record) throws SQLException {
+        pstmt.setString(1, record.getEntityType());
+        pstmt.setString(2, String.valueOf(record.getEntityId()));
+
+        if (record.getEntityVersion() instanceof Number) {
+            pstmt.setInt(3, ((Number) record.getEntityVersion()).intValue());
+        } else {
+            pstmt.setNull(3, Types.INTEGER);
+        }
+
+        pstmt.setString(4, record.getProperty());
+        pstmt.setString(5, record.getOldValue());
+        pstmt.setString(6, record.getNewValue());
+        pstmt.setString(7, record.getChangedBy());
+        pstmt.setTimestamp(8, Timestamp.valueOf(record.getChangedOn()));
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    /**
+     * Max records buffered, waiting to be written.
+     *
+     * @param capacity buffer capacity, at least 1
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("#setCapacity :: capacity should be at least 1");
+        }
+
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("#setBatchSize :: batch size should be at least 1");
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+    }
+
+    /**
+     * Time an append waits for a slot in the full buffer, before writing the record itself.
+     *
+     * @param offerTimeoutMillis offer timeout in milliseconds
+     */
+    public void setOfferTimeoutMillis(long offerTimeoutMillis) {
+        this.offerTimeoutMillis = Math.max(0, offerTimeoutMillis);
+    }
+
+    public void setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+        this.shutdownTimeoutMillis = Math.max(0, shutdownTimeoutMillis);
+    }
+
+    public int getPending() {
+        return Objects.isNull(buffer) ? 0 : buffer.size();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Records written by the appending threads, on a full buffer.
+     *
+     * @return the overflowed records
+     */
+    public long getOverflowed() {
+        return overflowed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.mandark.jira.app.persistence.audit;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+
+/**
+ * Entry of the audit log : change of a property of an entity, by an update.
+ */
+public final class AuditRecord {
+
+    private final String entityType;
+    private final Serializable entityId;
+    private final Object entityVersion;
+
+    private final String property;
+    private final String oldValue;
+    private final String newValue;
+
+    private final String changedBy;
+    private final LocalDateTime changedOn;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private AuditRecord(String entityType, Serializable entityId, Object entityVersion, String property,
+            String oldValue, String newValue, String changedBy, LocalDateTime changedOn) {
+        super();
+
+        // init
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.entityVersion = entityVersion;
+
+        this.property = property;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+
+        this.changedBy = changedBy;
+        this.changedOn = changedOn;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public Serializable getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * Version of the entity after the change.
+     *
+     * @return the entity version, <code>null</code> for the entities without a version
+     */
+    public Object getEntityVersion() {
+        return entityVersion;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    public String getChangedBy() {
+        return changedBy;
+    }
+
+    public LocalDateTime getChangedOn() {
+        return changedOn;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "AuditRecord [entityType=" + entityType + ", entityId=" + entityId + ", entityVersion="
+                + entityVersion + ", property=" + property + ", changedBy=" + changedBy + ", changedOn=" + changedOn
+                + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    public static AuditRecord of(String entityType, Serializable entityId, Object entityVersion, String property,
+            String oldValue, String newValue, String changedBy, LocalDateTime changedOn) {
+        return new AuditRecord(entityType, entityId, entityVersion, property, oldValue, newValue, changedBy,
+                changedOn);
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.mandark.jira.app.persistence.cache;
+
+
+/**
+ * Eviction policy of a local cache region, once it reaches its maximum size.
+ */
+public enum CachePolicy {
+
+    /**
+     * Least Recently Used : evicts the entry accessed the longest time ago.
+     */
+    LRU,
+
+    /**
+     * Window TinyLFU : admits / evicts the entries by their (recency and) access frequency, which
+     * retains the hot entries under scans. Backed by Caffeine.
+     */
+    TINY_LFU;
+
+}
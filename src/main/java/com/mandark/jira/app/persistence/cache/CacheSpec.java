@@ -0,0 +1,128 @@
+package com.mandark.jira.app.persistence.cache;
+
+import java.util.Objects;
+
+import com.mandark.jira.spi.lang.ValidationException;
+
+
+/**
+ * Size, time-to-live and eviction policy of a local cache region.
+ *
+ * <p>
+ * The spec is configured as comma separated key-values, for ex. :
+ * <code>size=10000,ttl=300,policy=TINY_LFU</code> (ttl in seconds, 0 for no expiry).
+ * </p>
+ */
+public final class CacheSpec {
+
+    public static final CacheSpec DEFAULT = new CacheSpec(10_000, 300, CachePolicy.TINY_LFU);
+
+    /**
+     * Regions which must not lose entries (for ex. update timestamps).
+     */
+    public static final CacheSpec UNBOUNDED = new CacheSpec(Integer.MAX_VALUE, 0, CachePolicy.LRU);
+
+
+    private final int maxSize;
+    private final long ttlSeconds;
+    private final CachePolicy policy;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public CacheSpec(int maxSize, long ttlSeconds, CachePolicy policy) {
+        super();
+
+        // Sanity checks
+        if (maxSize < 1 || ttlSeconds < 0 || Objects.isNull(policy)) {
+            final String errMsg = String.format("#CacheSpec :: invalid spec - size %d, ttl %d, policy %s", maxSize,
+                    ttlSeconds, policy);
+            throw new ValidationException(errMsg);
+        }
+
+        // init
+        this.maxSize = maxSize;
+        this.ttlSeconds = ttlSeconds;
+        this.policy = policy;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public CachePolicy getPolicy() {
+        return policy;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "size=" + maxSize + ",ttl=" + ttlSeconds + ",policy=" + policy;
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Parses the spec string, the keys missing in it are taken from the passed defaults.
+     *
+     * @param specStr spec string, for ex. <code>size=10000,ttl=300,policy=LRU</code>
+     * @param defaults default spec
+     *
+     * @return the cache spec
+     */
+    public static CacheSpec parse(final String specStr, final CacheSpec defaults) {
+        // Sanity checks
+        if (Objects.isNull(specStr) || specStr.isBlank()) {
+            return defaults;
+        }
+
+        int maxSize = defaults.getMaxSize();
+        long ttlSeconds = defaults.getTtlSeconds();
+        CachePolicy policy = defaults.getPolicy();
+
+        for (final String keyValue : specStr.split(",")) {
+            final String[] kv = keyValue.split("=", 2);
+            if (kv.length != 2) {
+                throw new ValidationException("#parse :: invalid cache spec entry : " + keyValue);
+            }
+
+            final String key = kv[0].trim().toLowerCase();
+            final String value = kv[1].trim();
+            try {
+                switch (key) {
+                    case "size":
+                        maxSize = Integer.parseInt(value);
+                        break;
+                    case "ttl":
+                        ttlSeconds = Long.parseLong(value);
+                        break;
+                    case "policy":
+                        policy = CachePolicy.valueOf(value.toUpperCase());
+                        break;
+                    default:
+                        throw new ValidationException("#parse :: unknown cache spec key : " + key);
+                }
+
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("#parse :: invalid cache spec value : " + keyValue);
+            }
+        }
+
+        return new CacheSpec(maxSize, ttlSeconds, policy);
+    }
+
+}
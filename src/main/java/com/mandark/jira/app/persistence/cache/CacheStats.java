@@ -0,0 +1,77 @@
+package com.mandark.jira.app.persistence.cache;
+
+
+/**
+ * Snapshot of the metrics of a local cache region.
+ */
+public final class CacheStats {
+
+    private final String region;
+    private final CacheSpec spec;
+
+    private final long size;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    CacheStats(String region, CacheSpec spec, long size, long hitCount, long missCount, long evictionCount) {
+        super();
+
+        // init
+        this.region = region;
+        this.spec = spec;
+
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public String getRegion() {
+        return region;
+    }
+
+    public CacheSpec getSpec() {
+        return spec;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public double getHitRatio() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0.0 : (double) hitCount / requestCount;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "CacheStats [region=" + region + ", spec=" + spec + ", size=" + size + ", hits=" + hitCount
+                + ", misses=" + missCount + ", evictions=" + evictionCount + "]";
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.mandark.jira.app.persistence.cache;
+
+import java.util.Set;
+
+
+/**
+ * In-process, bounded key-value cache of a cache region.
+ */
+interface LocalCache {
+
+    Object get(Object key);
+
+    void put(Object key, Object value);
+
+    boolean contains(Object key);
+
+    void remove(Object key);
+
+    void clear();
+
+    /**
+     * @return snapshot of the current keys
+     */
+    Set<Object> keys();
+
+
+    /**
+     * @return current number of entries
+     */
+    long size();
+
+    /**
+     * @return number of the entries evicted by the size / time-to-live limits
+     */
+    long evictionCount();
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    static LocalCache of(final CacheSpec spec) {
+        switch (spec.getPolicy()) {
+            case LRU:
+                return new LruCache(spec);
+            case TINY_LFU:
+            default:
+                return new TinyLfuCache(spec);
+        }
+    }
+
+}
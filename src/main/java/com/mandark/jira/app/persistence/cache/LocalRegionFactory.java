@@ -0,0 +1,153 @@
+package com.mandark.jira.app.persistence.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mandark.jira.spi.lang.ServiceException;
+
+
+/**
+ * Hibernate second-level cache (RegionFactory) keeping the cache regions in-process, each with its
+ * own {@link CacheSpec} (size, time-to-live and {@link CachePolicy eviction policy}).
+ *
+ * <p>
+ * The entities opt in to the cache with the <code>@Cacheable</code> / <code>@Cache</code> annotations.
+ * Their region (the entity class name, by default) spec is configured in the properties resource
+ * {@value #CONFIG_REGIONS} as <code>region=spec</code> lines, else the spec {@value #CONFIG_DEFAULT}
+ * applies. The cached entries are invalidated by Hibernate on the entity writes (and the bulk
+ * statements).
+ * </p>
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalRegionFactory.class);
+
+    public static final String CONFIG_DEFAULT = "hibernate.cache.local.default";
+
+    public static final String CONFIG_REGIONS = "hibernate.cache.local.config";
+
+
+    private CacheSpec defaultSpec;
+    private Map<String, CacheSpec> regionSpecs;
+
+    private final Map<String, LocalStorageAccess> storages = new ConcurrentHashMap<>();
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Metrics of the cache regions, by region name.
+     *
+     * @return the region metrics
+     */
+    public Map<String, CacheStats> getStats() {
+        final Map<String, CacheStats> stats = new TreeMap<>();
+        storages.forEach((region, storage) -> stats.put(region, storage.getStats()));
+
+        return stats;
+    }
+
+
+    // RegionFactoryTemplate
+    // ------------------------------------------------------------------------
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected void prepareForUse(final SessionFactoryOptions settings, final Map configValues) {
+        final Object defaultSpecStr = configValues.get(CONFIG_DEFAULT);
+        this.defaultSpec = CacheSpec.parse(Objects.isNull(defaultSpecStr) ? null : defaultSpecStr.toString(),
+                CacheSpec.DEFAULT);
+
+        final Object regionsResource = configValues.get(CONFIG_REGIONS);
+        this.regionSpecs = Objects.isNull(regionsResource) ? Collections.emptyMap()
+                : this.loadRegionSpecs(regionsResource.toString());
+
+        LOGGER.info("#prepareForUse :: default spec [{}], region specs : {}", defaultSpec, regionSpecs);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        storages.values().forEach(LocalStorageAccess::release);
+        storages.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(final DomainDataRegionConfig regionConfig,
+            final DomainDataRegionBuildingContext buildingContext) {
+        final String region = regionConfig.getRegionName();
+        return this.createStorage(region, regionSpecs.getOrDefault(region, defaultSpec));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(final String regionName,
+            final SessionFactoryImplementor sessionFactory) {
+        return this.createStorage(regionName, regionSpecs.getOrDefault(regionName, defaultSpec));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(final String regionName,
+            final SessionFactoryImplementor sessionFactory) {
+        // evicting the update timestamps would serve stale query results
+        return this.createStorage(regionName, CacheSpec.UNBOUNDED);
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private LocalStorageAccess createStorage(final String region, final CacheSpec spec) {
+        LOGGER.debug("#createStorage :: region {} with spec [{}]", region, spec);
+
+        final LocalStorageAccess storage = new LocalStorageAccess(region, spec);
+        storages.put(region, storage);
+
+        return storage;
+    }
+
+    private Map<String, CacheSpec> loadRegionSpecs(final String resourceName) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try (final InputStream in = classLoader.getResourceAsStream(resourceName)) {
+            if (Objects.isNull(in)) {
+                LOGGER.warn("#loadRegionSpecs :: cache region config {} not found", resourceName);
+                return Collections.emptyMap();
+            }
+
+            final Properties props = new Properties();
+            props.load(in);
+
+            final Map<String, CacheSpec> specs = new HashMap<>();
+            for (final String region : props.stringPropertyNames()) {
+                specs.put(region, CacheSpec.parse(props.getProperty(region), defaultSpec));
+            }
+
+            return specs;
+
+        } catch (IOException e) {
+            final String errMsg = String.format("#loadRegionSpecs :: failed to read %s : %s", resourceName,
+                    e.getMessage());
+            LOGGER.error(errMsg, e);
+            throw new ServiceException(errMsg, ServiceException.DEFAULT_USER_MESSAGE, e);
+        }
+    }
+
+}
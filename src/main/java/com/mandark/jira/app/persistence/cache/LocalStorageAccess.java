@@ -0,0 +1,97 @@
+package com.mandark.jira.app.persistence.cache;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+
+/**
+ * Hibernate cache region storage over a {@link LocalCache}, counting the hits and misses.
+ */
+final class LocalStorageAccess implements DomainDataStorageAccess {
+
+    private final String region;
+    private final CacheSpec spec;
+    private final LocalCache cache;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    LocalStorageAccess(final String region, final CacheSpec spec) {
+        super();
+
+        // init
+        this.region = region;
+        this.spec = spec;
+        this.cache = LocalCache.of(spec);
+
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+
+    // StorageAccess
+    // ------------------------------------------------------------------------
+
+    @Override
+    public Object getFromCache(final Object key, final SharedSessionContractImplementor session) {
+        final Object value = cache.get(key);
+        if (Objects.isNull(value)) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(final Object key, final Object value, final SharedSessionContractImplementor session) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public boolean contains(final Object key) {
+        return cache.contains(key);
+    }
+
+    @Override
+    public void removeFromCache(final Object key, final SharedSessionContractImplementor session) {
+        cache.remove(key);
+    }
+
+    @Override
+    public void clearCache(final SharedSessionContractImplementor session) {
+        cache.clear();
+    }
+
+    @Override
+    public void evictData() {
+        cache.clear();
+    }
+
+    @Override
+    public void evictData(final Object key) {
+        cache.remove(key);
+    }
+
+    @Override
+    public void release() {
+        cache.clear();
+    }
+
+
+    // Stats
+    // ------------------------------------------------------------------------
+
+    CacheStats getStats() {
+        return new CacheStats(region, spec, cache.size(), hits.sum(), misses.sum(), cache.evictionCount());
+    }
+
+}
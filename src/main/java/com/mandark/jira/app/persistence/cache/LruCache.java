@@ -0,0 +1,168 @@
+package com.mandark.jira.app.persistence.cache;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+
+/**
+ * {@link LocalCache} evicting the Least Recently Used entry, over an access ordered
+ * {@link LinkedHashMap}. The entries past their time-to-live are dropped on access, and swept on the
+ * writes.
+ */
+final class LruCache implements LocalCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<Object, Entry> entries;
+    private final LongAdder evictions;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    LruCache(final CacheSpec spec) {
+        this(spec, System::nanoTime);
+    }
+
+    /**
+     * Cache reading the time from the passed clock.
+     *
+     * @param nanoClock time source of the time-to-live, in nanoseconds
+     */
+    LruCache(final CacheSpec spec, final LongSupplier nanoClock) {
+        super();
+
+        // init
+        this.maxSize = spec.getMaxSize();
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(spec.getTtlSeconds());
+        this.nanoClock = nanoClock;
+
+        this.evictions = new LongAdder();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, LruCache.Entry> eldest) {
+                final boolean isEvicted = this.size() > maxSize;
+                if (isEvicted) {
+                    evictions.increment();
+                }
+
+                return isEvicted;
+            }
+        };
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public synchronized Object get(final Object key) {
+        final Entry entry = entries.get(key);
+        if (Objects.isNull(entry)) {
+            return null;
+        }
+
+        if (this.isExpired(entry, nanoClock.getAsLong())) {
+            entries.remove(key);
+            evictions.increment();
+            return null;
+        }
+
+        return entry.value;
+    }
+
+    @Override
+    public synchronized void put(final Object key, final Object value) {
+        final long now = nanoClock.getAsLong();
+        this.sweep(now);
+
+        entries.put(key, new Entry(value, now));
+    }
+
+    @Override
+    public synchronized boolean contains(final Object key) {
+        final Entry entry = entries.get(key);
+        return Objects.nonNull(entry) && !this.isExpired(entry, nanoClock.getAsLong());
+    }
+
+    @Override
+    public synchronized void remove(final Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized Set<Object> keys() {
+        return new HashSet<>(entries.keySet());
+    }
+
+    @Override
+    public synchronized long size() {
+        return entries.size();
+    }
+
+    @Override
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private boolean isExpired(final Entry entry, final long now) {
+        return ttlNanos > 0 && now - entry.writtenAt > ttlNanos;
+    }
+
+    /**
+     * Drops the expired entries from the least recently used end, till the first live entry.
+     */
+    private void sweep(final long now) {
+        if (ttlNanos == 0) {
+            return;
+        }
+
+        final Iterator<Entry> entryItr = entries.values().iterator();
+        while (entryItr.hasNext()) {
+            if (!this.isExpired(entryItr.next(), now)) {
+                break;
+            }
+
+            entryItr.remove();
+            evictions.increment();
+        }
+    }
+
+
+    // Entry
+    // ------------------------------------------------------------------------
+
+    private static final class Entry {
+
+        private final Object value;
+        private final long writtenAt;
+
+        private Entry(final Object value, final long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+
+    }
+
+}
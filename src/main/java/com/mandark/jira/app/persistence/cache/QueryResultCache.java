@@ -0,0 +1,420 @@
+package com.mandark.jira.app.persistence.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mandark.jira.spi.app.query.CompoundCriteria;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.OrderBy;
+import com.mandark.jira.spi.app.query.PropertyCriteria;
+
+
+/**
+ * Cache of the query results (the matching entity IDs of a page, or the count), keyed by the
+ * canonical form of the entity type, {@link Criteria}, {@link OrderBy} and the page.
+ *
+ * <p>
+ * The writes invalidate the cached results of the entity type (and its super / sub types). A write
+ * with known changed properties (an update) invalidates only the results whose criteria or order
+ * depend on any of them; the inserts and deletes invalidate all of them. Within a transaction, the
+ * results are invalidated again after it completes, and the transaction doesn't cache the results of
+ * the types it has written (they may be uncommitted).
+ * </p>
+ *
+ * <p>
+ * A result is cached only if no invalidation of its type happened while it was being read (see
+ * {@link #generation(Class)}), so a concurrent write never leaves a stale result behind.
+ * </p>
+ */
+public final class QueryResultCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryResultCache.class);
+
+
+    private final CacheSpec spec;
+
+    private final Map<Class<?>, LocalCache> caches;
+    private final Map<Class<?>, AtomicLong> generations;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public QueryResultCache(final CacheSpec spec) {
+        super();
+
+        // init
+        this.spec = Objects.isNull(spec) ? CacheSpec.DEFAULT : spec;
+
+        this.caches = new ConcurrentHashMap<>();
+        this.generations = new ConcurrentHashMap<>();
+
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Key of the query result.
+     *
+     * @param entityCls the entity type
+     * @param criteria query criteria (optional)
+     * @param orderBy query order (optional)
+     * @param page page specifics (page number, size ..), <code>null</code> for the count
+     *
+     * @return the query key
+     */
+    public QueryKey keyOf(final Class<?> entityCls, final Criteria criteria, final OrderBy orderBy, final String page) {
+        final StringBuilder keySB = new StringBuilder();
+        keySB.append(Objects.isNull(page) ? "count" : "page:" + page).append('|');
+        appendCanonical(criteria, keySB);
+        if (Objects.nonNull(orderBy)) {
+            keySB.append('|').append(orderBy);
+        }
+
+        // Properties :: root property of the paths
+        final Set<String> properties = new HashSet<>();
+        addProperties(criteria, properties);
+        if (Objects.nonNull(orderBy)) {
+            orderBy.getProperties().forEach(p -> properties.add(rootOf(p)));
+        }
+
+        return new QueryKey(entityCls, keySB.toString(), properties);
+    }
+
+    /**
+     * Current invalidation generation of the entity type, to be read before running the query and
+     * passed to {@link #put(QueryKey, Object, long)}.
+     *
+     * @param entityCls the entity type
+     *
+     * @return the generation
+     */
+    public long generation(final Class<?> entityCls) {
+        return generations.computeIfAbsent(entityCls, k -> new AtomicLong()).get();
+    }
+
+    public Object get(final QueryKey key) {
+        final LocalCache cache = caches.get(key.getEntityCls());
+        final Object value = Objects.isNull(cache) ? null : cache.get(key);
+        if (Objects.isNull(value)) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return value;
+    }
+
+    /**
+     * Caches the query result, unless its entity type has been invalidated since the passed generation
+     * or is written in the current transaction.
+     *
+     * @param key query key
+     * @param value query result
+     * @param generation generation read before running the query
+     */
+    public void put(final QueryKey key, final Object value, final long generation) {
+        final Class<?> entityCls = key.getEntityCls();
+        if (generation != this.generation(entityCls) || this.isWrittenInTransaction(entityCls)) {
+            return;
+        }
+
+        caches.computeIfAbsent(entityCls, k -> LocalCache.of(spec)).put(key, value);
+    }
+
+    /**
+     * Invalidates the cached results of the entity type, on its write.
+     *
+     * @param entityCls the entity type
+     * @param changedProps changed properties, <code>null</code> if unknown (inserts, deletes ..)
+     */
+    public void invalidate(final Class<?> entityCls, final Collection<String> changedProps) {
+        final Set<String> changedRoots = Objects.isNull(changedProps) ? null
+                : changedProps.stream().map(QueryResultCache::rootOf).collect(Collectors.toSet());
+        this.invalidateNow(entityCls, changedRoots);
+
+        // Transaction :: again after the completion
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        PendingInvalidations pending = (PendingInvalidations) TransactionSynchronizationManager.getResource(this);
+        if (Objects.isNull(pending)) {
+            pending = new PendingInvalidations();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        pending.add(entityCls, changedRoots);
+    }
+
+    /**
+     * Invalidates all the cached results.
+     */
+    public void clear() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        caches.values().forEach(LocalCache::clear);
+    }
+
+
+    // Stats
+    // ------------------------------------------------------------------------
+
+    /**
+     * Metrics of the cached results, by entity type.
+     *
+     * @return the metrics, the hits and misses are of all the entity types together
+     */
+    public Map<String, CacheStats> getStats() {
+        final Map<String, CacheStats> stats = new TreeMap<>();
+        caches.forEach((cls, cache) -> stats.put(cls.getName(),
+                new CacheStats(cls.getName(), spec, cache.size(), hits.sum(), misses.sum(), cache.evictionCount())));
+
+        return stats;
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private void invalidateNow(final Class<?> entityCls, final Set<String> changedRoots) {
+        final List<Class<?>> relatedClasses = new ArrayList<>();
+        for (final Class<?> cls : generations.keySet()) {
+            if (cls.isAssignableFrom(entityCls) || entityCls.isAssignableFrom(cls)) {
+                relatedClasses.add(cls);
+            }
+        }
+
+        for (final Class<?> cls : relatedClasses) {
+            generations.get(cls).incrementAndGet();
+
+            final LocalCache cache = caches.get(cls);
+            if (Objects.isNull(cache)) {
+                continue;
+            }
+
+            if (Objects.isNull(changedRoots)) {
+                cache.clear();
+                continue;
+            }
+
+            // Fine grained :: only the results depending on the changed properties
+            for (final Object key : cache.keys()) {
+                if (!Collections.disjoint(((QueryKey) key).getProperties(), changedRoots)) {
+                    cache.remove(key);
+                }
+            }
+        }
+
+        LOGGER.debug("#invalidate :: {} - changed properties {}", entityCls.getSimpleName(), changedRoots);
+    }
+
+    private boolean isWrittenInTransaction(final Class<?> entityCls) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+
+        final PendingInvalidations pending = (PendingInvalidations) TransactionSynchronizationManager.getResource(this);
+        return Objects.nonNull(pending) && pending.isWritten(entityCls);
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    private static String rootOf(final String property) {
+        final int dotIdx = property.indexOf('.');
+        return dotIdx < 0 ? property : property.substring(0, dotIdx);
+    }
+
+    private static void addProperties(final Criteria criteria, final Set<String> properties) {
+        if (criteria instanceof CompoundCriteria) {
+            ((CompoundCriteria) criteria).getCriteriaList().forEach(cr -> addProperties(cr, properties));
+
+        } else if (criteria instanceof PropertyCriteria) {
+            properties.add(rootOf(((PropertyCriteria<?>) criteria).getProperty()));
+        }
+    }
+
+    /**
+     * Canonical form of the criteria (tree) : the compound criteria children and the collection values
+     * are sorted, and the values are typed.
+     */
+    private static void appendCanonical(final Criteria criteria, final StringBuilder keySB) {
+        if (Objects.isNull(criteria)) {
+            return;
+        }
+
+        keySB.append(criteria.getClass().getSimpleName());
+        if (criteria instanceof CompoundCriteria) {
+            final List<String> childKeys = new ArrayList<>();
+            for (final Criteria cr : ((CompoundCriteria) criteria).getCriteriaList()) {
+                final StringBuilder childSB = new StringBuilder();
+                appendCanonical(cr, childSB);
+                childKeys.add(childSB.toString());
+            }
+
+            Collections.sort(childKeys);
+            keySB.append('(').append(String.join(",", childKeys)).append(')');
+
+        } else if (criteria instanceof PropertyCriteria) {
+            final PropertyCriteria<?> propCriteria = (PropertyCriteria<?>) criteria;
+            keySB.append(':').append(propCriteria.getProperty()).append('=');
+            keySB.append(canonicalOf(propCriteria.getValue()));
+        }
+    }
+
+    private static String canonicalOf(final Object value) {
+        if (Objects.isNull(value)) {
+            return "null";
+        }
+
+        if (value instanceof Collection) {
+            final List<String> values = ((Collection<?>) value).stream() //
+                    .map(QueryResultCache::canonicalOf) //
+                    .sorted() //
+                    .collect(Collectors.toList());
+            return values.toString();
+        }
+
+        return value.getClass().getSimpleName() + ":" + value;
+    }
+
+
+
+    // QueryKey Class definition
+    // ------------------------------------------------------------------------
+
+    public static final class QueryKey {
+
+        private final Class<?> entityCls;
+        private final String canonical;
+        private final Set<String> properties;
+
+
+        // Constructor
+
+        private QueryKey(final Class<?> entityCls, final String canonical, final Set<String> properties) {
+            super();
+
+            // init
+            this.entityCls = entityCls;
+            this.canonical = canonical;
+            this.properties = properties;
+        }
+
+
+        // Getters and Setters
+
+        public Class<?> getEntityCls() {
+            return entityCls;
+        }
+
+        /**
+         * Properties (root of the property paths) the query result depends upon.
+         *
+         * @return criteria and order by properties
+         */
+        public Set<String> getProperties() {
+            return Collections.unmodifiableSet(properties);
+        }
+
+
+        // Object Methods
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityCls, canonical);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof QueryKey)) {
+                return false;
+            }
+
+            final QueryKey other = (QueryKey) obj;
+            return entityCls.equals(other.entityCls) && canonical.equals(other.canonical);
+        }
+
+        @Override
+        public String toString() {
+            return "QueryKey [" + entityCls.getSimpleName() + "|" + canonical + "]";
+        }
+
+    }
+
+
+
+    // PendingInvalidations Class definition
+    // ------------------------------------------------------------------------
+
+    /**
+     * Invalidations of a transaction, replayed after its completion (commit or rollback).
+     */
+    private final class PendingInvalidations implements TransactionSynchronization {
+
+        private final Map<Class<?>, Set<String>> changes = new ConcurrentHashMap<>();
+        private final Set<Class<?>> coarseChanges = ConcurrentHashMap.newKeySet();
+
+
+        void add(final Class<?> entityCls, final Set<String> changedRoots) {
+            if (Objects.isNull(changedRoots)) {
+                coarseChanges.add(entityCls);
+                return;
+            }
+
+            changes.computeIfAbsent(entityCls, k -> ConcurrentHashMap.newKeySet()).addAll(changedRoots);
+        }
+
+        boolean isWritten(final Class<?> entityCls) {
+            return changes.keySet().stream().anyMatch(c -> isRelated(c, entityCls))
+                    || coarseChanges.stream().anyMatch(c -> isRelated(c, entityCls));
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(QueryResultCache.this);
+
+            coarseChanges.forEach(cls -> invalidateNow(cls, null));
+            changes.forEach((cls, changedRoots) -> {
+                if (!coarseChanges.contains(cls)) {
+                    invalidateNow(cls, changedRoots);
+                }
+            });
+        }
+
+        private boolean isRelated(final Class<?> cls1, final Class<?> cls2) {
+            return cls1.isAssignableFrom(cls2) || cls2.isAssignableFrom(cls1);
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.mandark.jira.app.persistence.cache;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+
+/**
+ * {@link LocalCache} with the Window TinyLFU eviction of Caffeine.
+ */
+final class TinyLfuCache implements LocalCache {
+
+    private final Cache<Object, Object> cache;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    TinyLfuCache(final CacheSpec spec) {
+        this(spec, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cache reading the time from the passed ticker, and running its maintenance (the evictions) on the
+     * passed executor.
+     *
+     * @param ticker time source of the time-to-live
+     * @param executor executor of the maintenance
+     */
+    TinyLfuCache(final CacheSpec spec, final Ticker ticker, final Executor executor) {
+        super();
+
+        final Caffeine<Object, Object> builder = Caffeine.newBuilder() //
+                .maximumSize(spec.getMaxSize()) //
+                .ticker(ticker) //
+                .executor(executor) //
+                .recordStats();
+        if (spec.getTtlSeconds() > 0) {
+            builder.expireAfterWrite(Duration.ofSeconds(spec.getTtlSeconds()));
+        }
+
+        // init
+        this.cache = builder.build();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public Object get(final Object key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public boolean contains(final Object key) {
+        return cache.asMap().containsKey(key);
+    }
+
+    @Override
+    public void remove(final Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public Set<Object> keys() {
+        return new HashSet<>(cache.asMap().keySet());
+    }
+
+    @Override
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+}
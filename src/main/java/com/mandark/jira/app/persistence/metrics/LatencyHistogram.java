@@ -0,0 +1,121 @@
+package com.mandark.jira.app.persistence.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Lock-free latency histogram (in microseconds), of log-linear buckets as the HdrHistogram : the values
+ * below {@value #LINEAR_LIMIT} have a bucket each, and each power of 2 above is split in
+ * {@value #SUB_BUCKETS} buckets, i.e. a precision of 1 / {@value #SUB_BUCKETS} (12.5%) of the value.
+ *
+ * <p>
+ * A record is a counter increment (and a sum add), without a lock nor an allocation. The values over
+ * {@value #MAX_VALUE} micros (19 hours) are recorded as the max value.
+ * </p>
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    private static final int LINEAR_BITS = SUB_BUCKET_BITS + 1;
+
+    private static final int MAX_VALUE_BITS = 36;
+    static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_VALUE_BITS - LINEAR_BITS) * SUB_BUCKETS;
+
+
+    private final AtomicLongArray counts;
+    private final LongAdder sumMicros;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    LatencyHistogram() {
+        super();
+
+        // init
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.sumMicros = new LongAdder();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    void record(final long micros) {
+        final long value = Math.min(Math.max(0, micros), MAX_VALUE);
+
+        counts.incrementAndGet(indexOf(value));
+        sumMicros.add(value);
+    }
+
+    /**
+     * Cumulative counts of the values up to each bound (inclusive), the last one being the total count,
+     * from a single pass over the buckets : so the counts are consistent, even while recording.
+     *
+     * @param boundsMicros upper bounds in micros, ascending
+     *
+     * @return the counts up to the bounds, and the total count (one more entry than the bounds)
+     */
+    long[] cumulativeCounts(final long[] boundsMicros) {
+        final long[] cumulative = new long[boundsMicros.length + 1];
+
+        int boundIdx = 0;
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            // Bucket :: counted up to a bound, if all of its values are within the bound
+            while (boundIdx < boundsMicros.length && upperValueOf(i) > boundsMicros[boundIdx]) {
+                cumulative[boundIdx++] = count;
+            }
+
+            count += counts.get(i);
+        }
+
+        while (boundIdx < boundsMicros.length) {
+            cumulative[boundIdx++] = count;
+        }
+
+        cumulative[boundsMicros.length] = count;
+        return cumulative;
+    }
+
+    long getSumMicros() {
+        return sumMicros.sum();
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    static int indexOf(final long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+
+        // Power of 2 (exponent), and the sub-bucket :: the bits following the highest one
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Highest value of the bucket.
+     */
+    static long upperValueOf(final int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+
+        final int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_BITS;
+        final int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + subBucket) * width + width - 1;
+    }
+
+}
@@ -0,0 +1,282 @@
+package com.mandark.jira.app.persistence.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mandark.jira.spi.app.persistence.PersistenceMetrics;
+import com.mandark.jira.spi.app.query.CompoundCriteria;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.PropertyCriteria;
+
+
+/**
+ * {@link PersistenceMetrics} of a layer (the DAO, the services ..) : a {@link LatencyHistogram}, a row
+ * counter and an error counter per series, i.e. per entity type, operation and criteria shape hash.
+ *
+ * <p>
+ * The recording is lock-free, once the series exists. The number of the series is bounded (max series),
+ * the operations of the series beyond are counted as dropped. The series are exported in the Prometheus
+ * text format by the {@link PrometheusFormat}.
+ * </p>
+ */
+public class OperationMetrics implements PersistenceMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationMetrics.class);
+
+    static final String NO_SHAPE = "none";
+
+
+    private final String layer;
+
+    private final Map<SeriesKey, Series> series;
+    private final LongAdder dropped;
+
+    private int maxSeries;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public OperationMetrics(final String layer) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(layer) || layer.isBlank()) {
+            throw new IllegalArgumentException("#OperationMetrics :: layer is BLANK");
+        }
+
+        // init
+        this.layer = layer;
+
+        this.series = new ConcurrentHashMap<>();
+        this.dropped = new LongAdder();
+
+        this.maxSeries = 2000;
+    }
+
+
+    // PersistenceMetrics Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public <T> T record(final Class<?> entityCls, final String operation, final Criteria criteria,
+            final Supplier<T> action, final ToIntFunction<? super T> rowCounter) {
+        final long startNanos = System.nanoTime();
+
+        final T result;
+        try {
+            result = action.get();
+
+        } catch (RuntimeException | Error e) {
+            this.onOperation(entityCls, operation, criteria, startNanos, 0, true);
+            throw e;
+        }
+
+        int rowCount = 0;
+        try {
+            rowCount = Objects.isNull(result) ? 0 : rowCounter.applyAsInt(result);
+        } catch (RuntimeException e) {
+            LOGGER.debug("#record :: failed to count the rows of {} : {}", operation, e.getMessage());
+        }
+
+        this.onOperation(entityCls, operation, criteria, startNanos, rowCount, false);
+        return result;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Clears the series.
+     */
+    public void reset() {
+        series.clear();
+        dropped.reset();
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private void onOperation(final Class<?> entityCls, final String operation, final Criteria criteria,
+            final long startNanos, final int rowCount, final boolean failed) {
+        final long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+
+        final String entityName = Objects.isNull(entityCls) ? "unknown" : entityCls.getSimpleName();
+        final SeriesKey key = new SeriesKey(entityName, operation, shapeHashOf(criteria));
+
+        // Series :: bounded number of series
+        Series opSeries = series.get(key);
+        if (Objects.isNull(opSeries)) {
+            if (series.size() >= maxSeries) {
+                dropped.increment();
+                return;
+            }
+
+            opSeries = series.computeIfAbsent(key, Series::new);
+        }
+
+        opSeries.latency.record(elapsedMicros);
+        opSeries.rows.add(rowCount);
+        if (failed) {
+            opSeries.errors.increment();
+        }
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public String getLayer() {
+        return layer;
+    }
+
+    /**
+     * Max number of the series (entity type, operation and criteria shape) tracked.
+     *
+     * @param maxSeries max series, at least 1
+     */
+    public void setMaxSeries(int maxSeries) {
+        if (maxSeries < 1) {
+            throw new IllegalArgumentException("#setMaxSeries :: max series should be at least 1");
+        }
+
+        this.maxSeries = maxSeries;
+    }
+
+    /**
+     * Operations of the series not tracked, beyond the max series.
+     *
+     * @return the untracked operations
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Series, sorted by the entity type, the operation and the shape.
+     */
+    List<Series> getSeries() {
+        return series.values().stream() //
+                .sorted(Comparator.comparing((Series s) -> s.key.toString())) //
+                .collect(Collectors.toList());
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    /**
+     * Hash of the criteria shape : the criteria types and properties, without the values.
+     */
+    static String shapeHashOf(final Criteria criteria) {
+        if (Objects.isNull(criteria)) {
+            return NO_SHAPE;
+        }
+
+        final StringBuilder shapeSB = new StringBuilder();
+        appendShape(shapeSB, criteria);
+        return String.format("%08x", shapeSB.toString().hashCode());
+    }
+
+    private static void appendShape(final StringBuilder shapeSB, final Criteria criteria) {
+        shapeSB.append(criteria.getClass().getSimpleName());
+        if (criteria instanceof CompoundCriteria) {
+            shapeSB.append('(');
+            for (final Criteria cr : ((CompoundCriteria) criteria).getCriteriaList()) {
+                appendShape(shapeSB, cr);
+                shapeSB.append(',');
+            }
+            shapeSB.append(')');
+
+        } else if (criteria instanceof PropertyCriteria) {
+            shapeSB.append(':').append(((PropertyCriteria<?>) criteria).getProperty());
+        }
+    }
+
+
+    // Series
+    // ------------------------------------------------------------------------
+
+    static final class SeriesKey {
+
+        private final String entityName;
+        private final String operation;
+        private final String shapeHash;
+
+        SeriesKey(final String entityName, final String operation, final String shapeHash) {
+            this.entityName = entityName;
+            this.operation = operation;
+            this.shapeHash = shapeHash;
+        }
+
+        String getEntityName() {
+            return entityName;
+        }
+
+        String getOperation() {
+            return operation;
+        }
+
+        String getShapeHash() {
+            return shapeHash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityName, operation, shapeHash);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof SeriesKey)) {
+                return false;
+            }
+
+            final SeriesKey other = (SeriesKey) obj;
+            return Objects.equals(entityName, other.entityName) && Objects.equals(operation, other.operation)
+                    && Objects.equals(shapeHash, other.shapeHash);
+        }
+
+        @Override
+        public String toString() {
+            return entityName + "/" + operation + "/" + shapeHash;
+        }
+
+    }
+
+    static final class Series {
+
+        final SeriesKey key;
+
+        final LatencyHistogram latency;
+        final LongAdder rows;
+        final LongAdder errors;
+
+        Series(final SeriesKey key) {
+            this.key = key;
+
+            this.latency = new LatencyHistogram();
+            this.rows = new LongAdder();
+            this.errors = new LongAdder();
+        }
+
+    }
+
+}
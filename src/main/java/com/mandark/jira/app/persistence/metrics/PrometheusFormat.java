@@ -0,0 +1,126 @@
+package com.mandark.jira.app.persistence.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import com.mandark.jira.app.persistence.metrics.OperationMetrics.Series;
+
+
+/**
+ * Writes the {@link OperationMetrics} in the Prometheus text exposition format (version 0.0.4) : the
+ * latency as a histogram (in seconds), and the rows, the errors and the dropped operations as counters.
+ *
+ * <p>
+ * The histogram buckets are cumulative over the {@link LatencyHistogram} buckets, so a bucket bound is
+ * as precise as the histogram (12.5%).
+ * </p>
+ */
+public final class PrometheusFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String METRIC_LATENCY = "jira_persistence_operation_seconds";
+    private static final String METRIC_ROWS = "jira_persistence_operation_rows_total";
+    private static final String METRIC_ERRORS = "jira_persistence_operation_errors_total";
+    private static final String METRIC_DROPPED = "jira_persistence_operation_dropped_total";
+
+    private static final String[] BUCKET_LABELS = {"0.0005", "0.001", "0.0025", "0.005", "0.01", "0.025", "0.05",
+            "0.1", "0.25", "0.5", "1", "2.5", "5", "10"};
+
+    private static final long[] BUCKET_MICROS = {500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000,
+            250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000};
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private PrometheusFormat() {
+        super();
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    /**
+     * Writes the metrics of the layers, each metric family once.
+     *
+     * @param layerMetrics the metrics of the layers
+     *
+     * @return the metrics, in the text format
+     */
+    public static String write(final Collection<OperationMetrics> layerMetrics) {
+        final StringBuilder textSB = new StringBuilder();
+        if (Objects.isNull(layerMetrics) || layerMetrics.isEmpty()) {
+            return textSB.toString();
+        }
+
+        // Latency
+        family(textSB, METRIC_LATENCY, "histogram", "Latency of the persistence operations, in seconds",
+                layerMetrics, (layer, s) -> {
+                    final String labels = labelsOf(layer, s);
+                    final long[] cumulative = s.latency.cumulativeCounts(BUCKET_MICROS);
+                    for (int i = 0; i < BUCKET_LABELS.length; i++) {
+                        sample(textSB, METRIC_LATENCY.concat("_bucket"),
+                                labels + ",le=\"" + BUCKET_LABELS[i] + "\"", cumulative[i]);
+                    }
+
+                    final long count = cumulative[BUCKET_LABELS.length];
+                    sample(textSB, METRIC_LATENCY.concat("_bucket"), labels + ",le=\"+Inf\"", count);
+                    textSB.append(METRIC_LATENCY).append("_sum{").append(labels).append("} ")
+                            .append(s.latency.getSumMicros() / 1_000_000.0).append('\n');
+                    sample(textSB, METRIC_LATENCY.concat("_count"), labels, count);
+                });
+
+        // Rows, Errors
+        family(textSB, METRIC_ROWS, "counter", "Rows of the persistence operations", layerMetrics,
+                (layer, s) -> sample(textSB, METRIC_ROWS, labelsOf(layer, s), s.rows.sum()));
+
+        family(textSB, METRIC_ERRORS, "counter", "Failed persistence operations", layerMetrics,
+                (layer, s) -> sample(textSB, METRIC_ERRORS, labelsOf(layer, s), s.errors.sum()));
+
+        // Dropped :: per layer
+        header(textSB, METRIC_DROPPED, "counter", "Persistence operations not recorded, beyond the max series");
+        for (final OperationMetrics metrics : layerMetrics) {
+            sample(textSB, METRIC_DROPPED, "layer=\"" + escape(metrics.getLayer()) + "\"", metrics.getDropped());
+        }
+
+        return textSB.toString();
+    }
+
+    private static void family(final StringBuilder textSB, final String name, final String type, final String help,
+            final Collection<OperationMetrics> layerMetrics, final BiConsumer<String, Series> seriesWriter) {
+        header(textSB, name, type, help);
+        for (final OperationMetrics metrics : layerMetrics) {
+            final List<Series> allSeries = metrics.getSeries();
+            allSeries.forEach(s -> seriesWriter.accept(metrics.getLayer(), s));
+        }
+    }
+
+    private static void header(final StringBuilder textSB, final String name, final String type,
+            final String help) {
+        textSB.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        textSB.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(final StringBuilder textSB, final String name, final String labels,
+            final long value) {
+        textSB.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static String labelsOf(final String layer, final Series s) {
+        return "layer=\"" + escape(layer) + "\",entity=\"" + escape(s.key.getEntityName()) + "\",operation=\""
+                + escape(s.key.getOperation()) + "\",shape=\"" + escape(s.key.getShapeHash()) + "\"";
+    }
+
+    /**
+     * Label value escaped :: the backslash, the double quote and the line feed.
+     */
+    private static String escape(final String value) {
+        return Objects.isNull(value) ? ""
+                : value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+}
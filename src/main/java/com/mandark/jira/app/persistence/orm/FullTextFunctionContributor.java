@@ -0,0 +1,33 @@
+package com.mandark.jira.app.persistence.orm;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+
+/**
+ * Registers the full-text match (MySQL <code>MATCH .. AGAINST</code> in boolean mode) as a JPQL function,
+ * e.g. <code>fulltext_match(ins.description, :text) &gt; 0</code> (see {@link FullTextSearch}).
+ *
+ * <p>
+ * Registered through the <code>hibernate.metadata_builder_contributor</code> setting, so the dialect
+ * stays as configured.
+ * </p>
+ */
+public class FullTextFunctionContributor implements MetadataBuilderContributor {
+
+    static final String FUNCTION_NAME = "fulltext_match";
+
+    private static final String SQL_MATCH = "MATCH (?1) AGAINST (?2 IN BOOLEAN MODE)";
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void contribute(final MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction(FUNCTION_NAME, new SQLFunctionTemplate(StandardBasicTypes.DOUBLE, SQL_MATCH));
+    }
+
+}
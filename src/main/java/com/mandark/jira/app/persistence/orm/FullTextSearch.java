@@ -0,0 +1,311 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mandark.jira.spi.app.persistence.FullText;
+import com.mandark.jira.spi.app.query.AndCriteria;
+import com.mandark.jira.spi.app.query.CompoundCriteria;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.FullTextCriteria;
+import com.mandark.jira.spi.app.query.LikeCriteria;
+import com.mandark.jira.spi.lang.ServiceException;
+
+
+/**
+ * Full-text search of the {@link FullText} entity properties, with the MySQL FULLTEXT indexes.
+ *
+ * <p>
+ * On the startup, the missing FULLTEXT indexes of these properties are created (the schema update
+ * doesn't create them), and the minimum token size of the server is read. The {@link JpaQueryBuilder}
+ * then runs the like criteria on these properties as a {@link FullTextCriteria}, i.e. a match in boolean
+ * mode (see {@link FullTextFunctionContributor}), unless a word of the like is too short for the index,
+ * or is a stop word : these are not indexed, so the like runs as such.
+ * </p>
+ */
+public class FullTextSearch {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FullTextSearch.class);
+
+    private static final String SQL_FULLTEXT_INDEXES = "SELECT INDEX_NAME, MAX(COLUMN_NAME), COUNT(*) "
+            + "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? "
+            + "AND INDEX_TYPE = 'FULLTEXT' GROUP BY INDEX_NAME";
+
+    private static final String SQL_ADD_INDEX = "ALTER TABLE %s ADD FULLTEXT INDEX %s (%s)";
+
+    private static final String SQL_MIN_TOKEN_SIZE = "SELECT @@innodb_ft_min_token_size";
+
+    private static final int MAX_INDEX_NAME_LENGTH = 64;
+
+    // InnoDB default stop words (INFORMATION_SCHEMA.INNODB_FT_DEFAULT_STOPWORD)
+    private static final Set<String> STOP_WORDS = Set.of("a", "about", "an", "are", "as", "at", "be", "by", "com",
+            "de", "en", "for", "from", "how", "i", "in", "is", "it", "la", "of", "on", "or", "that", "the", "this",
+            "to", "was", "what", "when", "where", "who", "will", "with", "und", "www");
+
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    private final Map<Class<?>, Set<String>> properties; // by (root) entity type
+
+    private int minTokenSize;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public FullTextSearch(final EntityManagerFactory entityManagerFactory, final DataSource dataSource) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(entityManagerFactory) || Objects.isNull(dataSource)) {
+            throw new IllegalArgumentException("#FullTextSearch :: EntityManagerFactory / DataSource is NULL");
+        }
+
+        // init
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+
+        this.properties = new HashMap<>();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Creates the missing FULLTEXT indexes of the full-text properties, and reads the minimum token size
+     * (unless configured).
+     */
+    public void init() {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        try (final Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+
+            for (final EntityPersister persister : sessionFactory.getMetamodel().entityPersisters().values()) {
+                // Root entities only, the sub-classes share the root tables
+                if (!persister.getEntityName().equals(persister.getRootEntityName())
+                        || !(persister instanceof AbstractEntityPersister)) {
+                    continue;
+                }
+
+                final List<String> fullTextProps = fullTextPropertiesOf(persister.getMappedClass());
+                if (fullTextProps.isEmpty()) {
+                    continue;
+                }
+
+                this.createIndexes(connection, (AbstractEntityPersister) persister, fullTextProps);
+                properties.put(persister.getMappedClass(), new HashSet<>(fullTextProps));
+            }
+
+            if (minTokenSize < 1 && !properties.isEmpty()) {
+                minTokenSize = this.readMinTokenSize(connection);
+            }
+
+        } catch (SQLException e) {
+            final String errMsg = String.format("#init :: failed to create the FULLTEXT indexes : %s", e.getMessage());
+            LOGGER.error(errMsg, e);
+            throw new ServiceException(errMsg, ServiceException.DEFAULT_USER_MESSAGE, e);
+        }
+
+        LOGGER.info("#init :: full-text properties {}, min token size {}", properties.values(), minTokenSize);
+    }
+
+    /**
+     * Rewrites the like criteria on the full-text properties to the {@link FullTextCriteria}, where the
+     * words of the like are all indexed.
+     *
+     * @param entityCls the entity type queried
+     * @param criteria the query criteria
+     *
+     * @return the rewritten criteria, the criteria itself if there is nothing to rewrite
+     */
+    Criteria rewrite(final Class<?> entityCls, final Criteria criteria) {
+        if (Objects.isNull(criteria) || properties.isEmpty()) {
+            return criteria;
+        }
+
+        final Set<String> fullTextProps = this.propertiesOf(entityCls);
+        return fullTextProps.isEmpty() ? criteria : this.rewrite(fullTextProps, criteria);
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private Criteria rewrite(final Set<String> fullTextProps, final Criteria criteria) {
+        if (criteria instanceof CompoundCriteria) {
+            boolean isRewritten = false;
+
+            final List<Criteria> criteriaList = new ArrayList<>();
+            for (final Criteria cr : ((CompoundCriteria) criteria).getCriteriaList()) {
+                final Criteria rewritten = this.rewrite(fullTextProps, cr);
+                isRewritten |= rewritten != cr;
+                criteriaList.add(rewritten);
+            }
+
+            if (!isRewritten) {
+                return criteria;
+            }
+
+            return criteria instanceof AndCriteria ? Criteria.and(criteriaList) : Criteria.or(criteriaList);
+        }
+
+        if (!(criteria instanceof LikeCriteria)) {
+            return criteria;
+        }
+
+        final LikeCriteria likeCriteria = (LikeCriteria) criteria;
+        if (!fullTextProps.contains(likeCriteria.getProperty())) {
+            return criteria;
+        }
+
+        final FullTextCriteria matchCriteria = Criteria.match(likeCriteria.getProperty(), likeCriteria.getText());
+        return this.isIndexed(likeCriteria.getText(), matchCriteria.getWords()) ? matchCriteria : criteria;
+    }
+
+    /**
+     * Like text fully served by the index :: no wildcards, and only the words of the index.
+     */
+    private boolean isIndexed(final String text, final List<String> words) {
+        if (words.isEmpty() || text.indexOf('%') >= 0 || text.indexOf('_') >= 0) {
+            return false;
+        }
+
+        for (final String word : words) {
+            final int wordLength = word.codePointCount(0, word.length());
+            if (wordLength < minTokenSize || STOP_WORDS.contains(word.toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Set<String> propertiesOf(final Class<?> entityCls) {
+        for (Class<?> cls = entityCls; Objects.nonNull(cls); cls = cls.getSuperclass()) {
+            final Set<String> fullTextProps = properties.get(cls);
+            if (Objects.nonNull(fullTextProps)) {
+                return fullTextProps;
+            }
+        }
+
+        return Set.of();
+    }
+
+    private void createIndexes(final Connection connection, final AbstractEntityPersister persister,
+            final List<String> fullTextProps) throws SQLException {
+        for (final String prop : fullTextProps) {
+            final String tableName = persister.getPropertyTableName(prop);
+            final String columnName = persister.getPropertyColumnNames(prop)[0];
+
+            if (this.readIndexedColumns(connection, tableName).contains(columnName.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+
+            String indexName = "ft_" + tableName + "_" + columnName;
+            indexName = indexName.length() > MAX_INDEX_NAME_LENGTH ? indexName.substring(0, MAX_INDEX_NAME_LENGTH)
+                    : indexName;
+
+            // InnoDB :: rebuilds the table, on the first FULLTEXT index
+            LOGGER.info("#createIndexes :: creating the FULLTEXT index {} of {}.{}", indexName, tableName,
+                    columnName);
+            try (final Statement stmt = connection.createStatement()) {
+                stmt.execute(String.format(SQL_ADD_INDEX, tableName, indexName, columnName));
+            }
+        }
+    }
+
+    /**
+     * Columns with a (single column) FULLTEXT index of their own, lower cased.
+     */
+    private Set<String> readIndexedColumns(final Connection connection, final String tableName)
+            throws SQLException {
+        final Set<String> indexedColumns = new HashSet<>();
+        try (final PreparedStatement pstmt = connection.prepareStatement(SQL_FULLTEXT_INDEXES)) {
+            pstmt.setString(1, tableName);
+
+            try (final ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getInt(3) == 1) {
+                        indexedColumns.add(rs.getString(2).toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+
+        return indexedColumns;
+    }
+
+    private int readMinTokenSize(final Connection connection) throws SQLException {
+        try (final Statement stmt = connection.createStatement();
+                final ResultSet rs = stmt.executeQuery(SQL_MIN_TOKEN_SIZE)) {
+            return rs.next() ? rs.getInt(1) : 3;
+        }
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Minimum length of the indexed words, as the server's <code>innodb_ft_min_token_size</code>.
+     *
+     * @param minTokenSize min token size, 0 to read it from the server
+     */
+    public void setMinTokenSize(int minTokenSize) {
+        this.minTokenSize = Math.max(0, minTokenSize);
+    }
+
+    public int getMinTokenSize() {
+        return minTokenSize;
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    private static List<String> fullTextPropertiesOf(final Class<?> entityCls) {
+        final List<String> fullTextProps = new ArrayList<>();
+        for (Class<?> cls = entityCls; Objects.nonNull(cls); cls = cls.getSuperclass()) {
+            for (final Field field : cls.getDeclaredFields()) {
+                if (field.isAnnotationPresent(FullText.class)) {
+                    fullTextProps.add(field.getName());
+                }
+            }
+
+            for (final Method method : cls.getDeclaredMethods()) {
+                final String name = method.getName();
+                if (method.isAnnotationPresent(FullText.class) && name.startsWith("get") && name.length() > 3) {
+                    fullTextProps.add(Character.toLowerCase(name.charAt(3)) + name.substring(4));
+                }
+            }
+        }
+
+        return fullTextProps;
+    }
+
+}
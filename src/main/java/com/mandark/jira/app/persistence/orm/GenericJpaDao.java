@@ -3,11 +3,35 @@ package com.mandark.jira.app.persistence.orm;
 import static com.mandark.jira.app.persistence.orm.JpaEntity.FIELD_ID;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import javax.persistence.FlushModeType;
 import javax.persistence.PersistenceContext;
@@ -15,16 +39,51 @@ import javax.persistence.Query;
 import javax.persistence.Table;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mandark.jira.app.persistence.cache.CacheSpec;
+import com.mandark.jira.app.persistence.cache.CacheStats;
+import com.mandark.jira.app.persistence.cache.LocalRegionFactory;
+import com.mandark.jira.app.persistence.cache.QueryResultCache;
+import com.mandark.jira.app.persistence.cache.QueryResultCache.QueryKey;
+import com.mandark.jira.app.persistence.orm.JpaQueryBuilder.QueryType;
+import com.mandark.jira.app.persistence.search.TextIndexManager;
+import com.mandark.jira.spi.app.Validatable;
+import com.mandark.jira.spi.app.persistence.AuditLogged;
+import com.mandark.jira.spi.app.persistence.CountStrategy;
+import com.mandark.jira.spi.app.persistence.EntityCount;
+import com.mandark.jira.spi.app.persistence.FullText;
 import com.mandark.jira.spi.app.persistence.IDao;
 import com.mandark.jira.spi.app.persistence.IEntity;
+import com.mandark.jira.spi.app.persistence.Page;
+import com.mandark.jira.spi.app.persistence.PersistenceMetrics;
+import com.mandark.jira.spi.app.persistence.Projection;
 import com.mandark.jira.spi.app.persistence.QueryBuilder;
+import com.mandark.jira.spi.app.persistence.Slice;
+import com.mandark.jira.spi.app.persistence.UpdateResult;
 import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.CriteriaOptimizer;
 import com.mandark.jira.spi.app.query.InCriteria;
+import com.mandark.jira.spi.app.query.Keyset;
 import com.mandark.jira.spi.app.query.OrderBy;
 import com.mandark.jira.spi.lang.ObjectNotFoundException;
+import com.mandark.jira.spi.lang.ServiceException;
 
 
 /**
@@ -54,10 +113,30 @@ public class GenericJpaDao implements IDao<Integer> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GenericJpaDao.class);
 
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final int DEFAULT_IN_CHUNK_SIZE = 1000;
+
+    private static final String SQL_TABLE_ROWS = "SELECT TABLE_ROWS FROM information_schema.TABLES "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
     protected EntityManager entityManager;
     protected QueryBuilder<Query> queryBuilder;
 
-    private int batchSize;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int inChunkSize = DEFAULT_IN_CHUNK_SIZE;
+    private boolean sortIndexCheck;
+    private FullTextSearch fullTextSearch;
+
+    private QueryResultCache queryCache;
+
+    private Executor countExecutor;
+    private TransactionTemplate countTxTemplate;
+
+    private TextIndexManager textIndex;
+
+    private SlowQueryRecorder slowQueryRecorder;
+
+    private PersistenceMetrics metrics;
 
 
     // Getters and Setters
@@ -84,7 +163,126 @@ public class GenericJpaDao implements IDao<Integer> {
 
         // init QueryBuilder
         // TODO move it to appCtx XML
-        this.queryBuilder = new JpaQueryBuilder(entityManager);
+        final JpaQueryBuilder jpaQueryBuilder = new JpaQueryBuilder(entityManager);
+        jpaQueryBuilder.setSortIndexCheck(sortIndexCheck);
+        jpaQueryBuilder.setFullTextSearch(fullTextSearch);
+        this.queryBuilder = jpaQueryBuilder;
+    }
+
+
+    /**
+     * Cache of the compiled JPQL query templates, with its hit/miss counters.
+     * 
+     * @return the query template cache
+     */
+    public JpqlTemplateCache<?> getQueryTemplateCache() {
+        return ((JpaQueryBuilder) queryBuilder).getTemplateCache();
+    }
+
+
+    /**
+     * Metrics of the second level (entity) cache regions, by region name.
+     * 
+     * @return the region metrics, empty if the local cache is not in use
+     */
+    public Map<String, CacheStats> getEntityCacheStats() {
+        final SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+
+        final RegionFactory regionFactory = sessionFactory.getCache().getRegionFactory();
+        if (regionFactory instanceof LocalRegionFactory) {
+            return ((LocalRegionFactory) regionFactory).getStats();
+        }
+
+        return new HashMap<>();
+    }
+
+
+    /**
+     * Metrics of the query result cache, by entity type.
+     * 
+     * @return the metrics, empty if the query result cache is disabled
+     */
+    public Map<String, CacheStats> getQueryCacheStats() {
+        return Objects.isNull(queryCache) ? new HashMap<>() : queryCache.getStats();
+    }
+
+    /**
+     * Query result cache, to be invalidated by the writes bypassing the DAO (see {@link JpaWriteBehind}).
+     * 
+     * @return the query result cache, <code>null</code> if disabled
+     */
+    public QueryResultCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Enables the cache of the {@link #find(Class, Criteria, OrderBy, int, int)} and
+     * {@link #count(Class, Criteria)} results (see {@link QueryResultCache}).
+     * 
+     * @param queryCacheSpec cache spec (see {@link CacheSpec}), blank to disable the cache
+     */
+    public void setQueryCacheSpec(String queryCacheSpec) {
+        this.queryCache = Objects.isNull(queryCacheSpec) || queryCacheSpec.isBlank() ? null
+                : new QueryResultCache(CacheSpec.parse(queryCacheSpec, CacheSpec.DEFAULT));
+    }
+
+
+    /**
+     * Executor of the {@link #findPage(Class, Criteria, OrderBy, int, int)} counts, run in parallel with
+     * the page query, each on its own connection. Without it (or when it rejects), the pages are counted
+     * after the page query, on the same connection.
+     * 
+     * @param countExecutor the count executor, <code>null</code> to count sequentially
+     */
+    public void setCountExecutor(Executor countExecutor) {
+        this.countExecutor = countExecutor;
+    }
+
+    /**
+     * Transaction manager of the parallel counts (see {@link #setCountExecutor(Executor)}), each run in a
+     * new read-only transaction, i.e. routed as the other reads (see
+     * {@link com.mandark.jira.app.persistence.routing.ReplicaRoutingDataSource}).
+     * 
+     * @param transactionManager the transaction manager, <code>null</code> to count sequentially
+     */
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        if (Objects.isNull(transactionManager)) {
+            this.countTxTemplate = null;
+            return;
+        }
+
+        this.countTxTemplate = new TransactionTemplate(transactionManager);
+        this.countTxTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.countTxTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Text indexes of the searchable properties, pre-filtering the like criteria (see
+     * {@link TextIndexManager}).
+     * 
+     * @param textIndex the text indexes, <code>null</code> to run the like criteria as such
+     */
+    public void setTextIndex(TextIndexManager textIndex) {
+        this.textIndex = textIndex;
+    }
+
+    /**
+     * Recorder of the slow find / count / read queries (see {@link SlowQueryRecorder}).
+     * 
+     * @param slowQueryRecorder the recorder, <code>null</code> to not time the queries
+     */
+    public void setSlowQueryRecorder(SlowQueryRecorder slowQueryRecorder) {
+        this.slowQueryRecorder = slowQueryRecorder;
+    }
+
+    /**
+     * Metrics of the save / update / read / count / find operations (see {@link PersistenceMetrics}).
+     * 
+     * @param metrics the metrics, <code>null</code> to not measure the operations
+     */
+    public void setMetrics(PersistenceMetrics metrics) {
+        this.metrics = metrics;
     }
 
 
@@ -92,8 +290,60 @@ public class GenericJpaDao implements IDao<Integer> {
         return batchSize;
     }
 
+    /**
+     * JDBC batch size of the writes (see <code>hibernate.jdbc.batch_size</code>) : the persistence context
+     * is flushed and cleared, and the statement batches are executed, every this many entities.
+     * 
+     * @param batchSize JDBC batch size
+     */
     public void setBatchSize(int batchSize) {
-        this.batchSize = batchSize;
+        this.batchSize = batchSize < 1 ? DEFAULT_BATCH_SIZE : batchSize;
+    }
+
+
+    public int getInChunkSize() {
+        return inChunkSize;
+    }
+
+    /**
+     * Maximum number of the IDs in a single IN query of {@link #read(Class, Collection)}, larger ID
+     * collections are read in chunks of this size.
+     * 
+     * @param inChunkSize IN query chunk size
+     */
+    public void setInChunkSize(int inChunkSize) {
+        this.inChunkSize = inChunkSize < 1 ? DEFAULT_IN_CHUNK_SIZE : inChunkSize;
+    }
+
+
+    public boolean isSortIndexCheck() {
+        return sortIndexCheck;
+    }
+
+    /**
+     * Enables/disables the warning for the sorted queries which are not backed by an index of the entity
+     * table (see {@link SortIndexAdvisor}).
+     * 
+     * @param sortIndexCheck <code>true</code> to enable the check
+     */
+    public void setSortIndexCheck(boolean sortIndexCheck) {
+        this.sortIndexCheck = sortIndexCheck;
+        if (queryBuilder instanceof JpaQueryBuilder) {
+            ((JpaQueryBuilder) queryBuilder).setSortIndexCheck(sortIndexCheck);
+        }
+    }
+
+    /**
+     * Runs the like criteria on the {@link FullText} properties as full-text matches (see
+     * {@link FullTextSearch}).
+     * 
+     * @param fullTextSearch the full-text search, <code>null</code> to run the like criteria as such
+     */
+    public void setFullTextSearch(FullTextSearch fullTextSearch) {
+        this.fullTextSearch = fullTextSearch;
+        if (queryBuilder instanceof JpaQueryBuilder) {
+            ((JpaQueryBuilder) queryBuilder).setFullTextSearch(fullTextSearch);
+        }
     }
 
 
@@ -105,6 +355,11 @@ public class GenericJpaDao implements IDao<Integer> {
 
     @Override
     public Integer save(final IEntity<Integer> inEntity) {
+        return this.measure(Objects.isNull(inEntity) ? null : inEntity.getClass(), "save", null,
+                () -> this.saveEntity(inEntity), pKey -> 1);
+    }
+
+    private Integer saveEntity(final IEntity<Integer> inEntity) {
         // Sanity checks
         if (Objects.isNull(inEntity)) {
             throw new IllegalArgumentException("#save :: in Entity object is NULL");
@@ -112,6 +367,7 @@ public class GenericJpaDao implements IDao<Integer> {
 
         entityManager.persist(inEntity);
         entityManager.flush();
+        this.onWrite(inEntity.getClass(), null);
 
         final Integer pKey = inEntity.getId();
         return pKey;
@@ -119,6 +375,11 @@ public class GenericJpaDao implements IDao<Integer> {
 
     @Override
     public List<Integer> save(final Collection<? extends IEntity<Integer>> inEntities) {
+        return this.measure(entityClassOf(inEntities), "save", null, () -> this.saveEntities(inEntities),
+                List::size);
+    }
+
+    private List<Integer> saveEntities(final Collection<? extends IEntity<Integer>> inEntities) {
         // Sanity checks
         if (Objects.isNull(inEntities) || inEntities.isEmpty()) {
             LOGGER.debug("#save(Collection) :: Empty collection of entities passed.");
@@ -142,6 +403,7 @@ public class GenericJpaDao implements IDao<Integer> {
             pKeys.add(pKey);
         }
 
+        this.onWrite(inEntities, null);
         return pKeys;
     }
 
@@ -150,6 +412,11 @@ public class GenericJpaDao implements IDao<Integer> {
 
     @Override
     public void update(final Integer id, final IEntity<Integer> inEntity) {
+        this.measure(Objects.isNull(inEntity) ? null : inEntity.getClass(), "update",
+                () -> this.updateEntity(id, inEntity), 1);
+    }
+
+    private void updateEntity(final Integer id, final IEntity<Integer> inEntity) {
         // Sanity checks
         if (Objects.isNull(id)) {
             throw new IllegalArgumentException("#update :: in Entity ID is NULL");
@@ -161,11 +428,19 @@ public class GenericJpaDao implements IDao<Integer> {
 
         // Update
         inEntity.setId(id);
+        final Set<String> changedProps = this.getChangedProperties(inEntity);
+
         entityManager.merge(inEntity);
+        this.onWrite(inEntity.getClass(), changedProps);
     }
 
     @Override
     public void update(final Collection<? extends IEntity<Integer>> inEntities) {
+        this.measure(entityClassOf(inEntities), "update", () -> this.updateEntities(inEntities),
+                Objects.isNull(inEntities) ? 0 : inEntities.size());
+    }
+
+    private void updateEntities(final Collection<? extends IEntity<Integer>> inEntities) {
         // Sanity checks
         if (Objects.isNull(inEntities) || inEntities.isEmpty()) {
             LOGGER.debug("#update(Collection) :: Empty collection of entities passed.");
@@ -182,201 +457,1153 @@ public class GenericJpaDao implements IDao<Integer> {
 
             entityManager.merge(e);
         }
-    }
-
 
-    // Purge
+        this.onWrite(inEntities, null);
+    }
 
     @Override
-    public void purge(final Class<? extends IEntity<Integer>> entityCls, final Integer id) {
+    public <E extends IEntity<Integer>> int updateWhere(final Class<E> entityCls, final Criteria inCriteria,
+            final Map<String, Object> values) {
         // Sanity checks
-        if (Objects.isNull(id)) {
-            throw new IllegalArgumentException("#purge :: in Entity ID is BLANK");
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#updateWhere :: in Entity Class is NULL");
         }
 
-        // Read
-        final IEntity<Integer> entity = this.read(entityCls, id, false);
-        if (Objects.isNull(entity)) {
-            return;
+        if (Objects.isNull(inCriteria)) {
+            throw new IllegalArgumentException("#updateWhere :: criteria is NULL");
         }
 
-        entityManager.remove(entity);
-    }
+        checkNotAuditLogged("updateWhere", entityCls);
 
-    @Override
-    public void purge(final Class<? extends IEntity<Integer>> entityCls, final Collection<Integer> ids) {
-        // Sanity checks
-        if (Objects.isNull(ids) || ids.isEmpty()) {
-            LOGGER.debug("#purge(Collection) :: Empty collection of IDs passed.");
-            return;
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return 0;
         }
 
-        // Read
-        final List<? extends IEntity<Integer>> entities = this.read(entityCls, ids);
+        // Query
+        final Query query = queryBuilder.toUpdateQuery(entityCls, criteria, values);
+        LOGGER.debug("#updateWhere (JPA Query) :: {}", query);
 
-        // Iterate and purge
-        int i = 0;
-        for (final IEntity<Integer> e : entities) {
-            if (i > 0 && i % batchSize == 0) {
-                entityManager.flush();
-                entityManager.clear();
-            }
+        final int count = this.executeBulk(query);
+        if (Objects.nonNull(textIndex)) {
+            textIndex.invalidate(entityCls, values.keySet());
+        }
 
-            entityManager.remove(e);
-            i++;
+        // Changed :: the set properties, and the audit properties set by the statement
+        final Set<String> changedProps = new HashSet<>(values.keySet());
+        if (JpaAuditEntity.class.isAssignableFrom(entityCls)) {
+            changedProps.add(JpaAuditEntity.FIELD_VERSION);
+            changedProps.add(JpaAuditEntity.FIELD_UPDATED_ON);
         }
+
+        this.onWrite(entityCls, changedProps);
+        return count;
     }
 
 
-    // Read
-    // ------------------------------------------------------------------------
+    // Update (versioned)
 
     @Override
-    public <E extends IEntity<Integer>> E read(final Class<E> entityCls, final Integer inPkey,
-            final boolean errorIfNotFound) {
+    public UpdateResult<Integer> updateVersioned(final Collection<? extends IEntity<Integer>> inEntities) {
         // Sanity checks
-        if (Objects.isNull(entityCls)) {
-            throw new IllegalArgumentException("#read :: in Entity Class is NULL");
+        if (Objects.isNull(inEntities) || inEntities.isEmpty()) {
+            LOGGER.debug("#updateVersioned(Collection) :: Empty collection of entities passed.");
+            return UpdateResult.of(null, null, 0);
         }
 
-        if (Objects.isNull(inPkey)) {
-            throw new IllegalArgumentException("#purge :: in Entity ID is BLANK");
+        inEntities.forEach(e -> checkNotAuditLogged("updateVersioned", Hibernate.getClass(e)));
+
+        // Detach :: written by the statement only, not by the flush; the managed copies would be stale
+        for (final IEntity<Integer> e : inEntities) {
+            this.detach(e.getClass(), Collections.singletonList(e.getId()));
         }
 
-        // Entity Obj
-        final E entityObj = entityManager.find(entityCls, inPkey);
+        // Pending changes (flush mode is COMMIT)
+        entityManager.flush();
 
-        // non-null
-        if (errorIfNotFound && Objects.isNull(entityObj)) {
-            String errMsg = String.format("No Entity Object found with the passed ID : %s", inPkey);
-            LOGGER.error(errMsg);
-            throw new ObjectNotFoundException(errMsg);
-        }
+        final UpdateResult<Integer> result = this.executeVersioned(inEntities, 1);
+        this.onWrite(inEntities, null);
 
-        return entityObj;
+        return result;
     }
 
     @Override
-    public <E extends IEntity<Integer>> List<E> read(final Class<E> entityCls, final Collection<Integer> inPkeys) {
+    public <E extends IEntity<Integer>> UpdateResult<Integer> updateVersioned(final Class<E> entityCls,
+            final Collection<Integer> ids, final Consumer<? super E> mutation, final int maxRetries) {
         // Sanity checks
-        if (Objects.isNull(entityCls)) {
-            throw new IllegalArgumentException("#read :: in Entity Class is NULL");
+        if (Objects.isNull(entityCls) || Objects.isNull(mutation)) {
+            throw new IllegalArgumentException("#updateVersioned :: in Entity Class / mutation is NULL");
         }
 
-        if (CollectionUtils.isEmpty(inPkeys)) {
-            LOGGER.debug("#read(Collection) :: input IDs collection is EMPTY");
-            return new ArrayList<>();
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("#updateVersioned :: max retries is negative");
         }
 
-        // Criteria
-        final InCriteria criteria = Criteria.in(FIELD_ID, inPkeys);
+        checkNotAuditLogged("updateVersioned", entityCls);
 
-        // Query
-        final Query query = queryBuilder.toQuery(entityCls, criteria);
-        LOGGER.debug("#read (JPA Query) :: {}", query);
+        if (Objects.isNull(ids) || ids.isEmpty()) {
+            LOGGER.debug("#updateVersioned(Collection) :: Empty collection of IDs passed.");
+            return UpdateResult.of(null, null, 0);
+        }
 
-        // Result
-        final List<E> resultList = (List<E>) query.getResultList();
-        return resultList;
-    }
+        // Pending changes (flush mode is COMMIT)
+        entityManager.flush();
 
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
 
+        final List<Integer> updated = new ArrayList<>();
+        final List<Integer> notFound = new ArrayList<>();
 
-    @Override
-    public <E extends IEntity<Integer>> int count(final Class<E> entityCls) {
-        // Sanity checks
-        if (Objects.isNull(entityCls)) {
-            throw new IllegalArgumentException("#count :: in Entity Class is NULL");
-        }
+        List<Integer> pending = new ArrayList<>(new LinkedHashSet<>(ids));
+        int attempt = 0;
+        while (!pending.isEmpty() && attempt <= maxRetries) {
+            attempt++;
 
-        // Query
-        final Query query = queryBuilder.toCountQuery(entityCls);
-        LOGGER.debug("#count (JPA Query) :: {}", query);
+            // Read :: fresh, and detached (written by the statement only)
+            this.detach(entityCls, pending);
+            final List<E> entities = this.read(entityCls, pending);
+            entities.forEach(entityManager::detach);
 
-        // Result
-        final Long count = (Long) query.getSingleResult();
-        return count.intValue();
-    }
+            final Set<Integer> foundIds = entities.stream().map(IEntity::getId).collect(Collectors.toSet());
+            pending.stream().filter(id -> !foundIds.contains(id)).forEach(notFound::add);
 
-    @Override
-    public <E extends IEntity<Integer>> List<E> read(final Class<E> entityCls, final int pageNo, final int pageSize) {
-        return this.read(entityCls, null, pageNo, pageSize);
+            // Mutate and update
+            entities.forEach(mutation);
+
+            final UpdateResult<Integer> result = this.executeVersioned(entities, attempt);
+            updated.addAll(result.getUpdated());
+            pending = new ArrayList<>(result.getConflicts());
+
+            // Conflicts :: re-read from the database
+            pending.forEach(id -> cache.evict(entityCls, id));
+            if (!pending.isEmpty()) {
+                LOGGER.debug("#updateVersioned :: {} conflicts of {} at attempt {}", pending.size(),
+                        entityCls.getSimpleName(), attempt);
+            }
+        }
+
+        this.onWrite(entityCls, null);
+        return UpdateResult.of(updated, pending, notFound, attempt);
     }
 
+
+    // Upsert
+
     @Override
-    public <E extends IEntity<Integer>> List<E> read(final Class<E> entityCls, final OrderBy orderby, final int pageNo,
-            final int pageSize) {
+    public void upsert(final Collection<? extends IEntity<Integer>> inEntities, final String... conflictKeys) {
         // Sanity checks
-        if (Objects.isNull(entityCls)) {
-            throw new IllegalArgumentException("#read :: in Entity Class is NULL");
+        if (Objects.isNull(inEntities) || inEntities.isEmpty()) {
+            LOGGER.debug("#upsert(Collection) :: Empty collection of entities passed.");
+            return;
         }
 
-        // Query
-        final Query query = queryBuilder.toQuery(entityCls);
-        query.setFirstResult((pageNo - 1) * pageSize);
-        query.setMaxResults(pageSize);
+        inEntities.forEach(e -> checkNotAuditLogged("upsert", Hibernate.getClass(e)));
 
-        LOGGER.debug("#read (JPA Query) :: {}", query);
+        // Pending changes (flush mode is COMMIT)
+        entityManager.flush();
 
-        // Result
-        final List<E> resultList = (List<E>) query.getResultList();
-        return resultList;
-    }
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final LocalDateTime now = LocalDateTime.now();
 
+        // Group :: by entity type, and version check
+        final Map<String, List<IEntity<Integer>>> groups = new LinkedHashMap<>();
+        for (final IEntity<Integer> e : inEntities) {
+            final AbstractEntityPersister persister = this.getPersister(session, e);
 
+            // Validate and Audit (as the JpaLogInterceptor)
+            if (e instanceof Validatable) {
+                ((Validatable) e).validate();
+            }
 
-    // Find
+            if (e instanceof JpaAuditEntity && Objects.isNull(((JpaAuditEntity) e).getCreatedOn())) {
+                ((JpaAuditEntity) e).setCreatedOn(now);
+            }
 
-    @Override
-    public <E extends IEntity<Integer>> int count(Class<E> entityCls, Criteria criteria) {
-        // Sanity checks
-        if (Objects.isNull(entityCls)) {
-            throw new IllegalArgumentException("#count :: in Entity Class is NULL");
+            // ID :: assigned by the generator (no round trip with pooled-lo)
+            if (Objects.isNull(e.getId())) {
+                e.setId((Integer) persister.getIdentifierGenerator().generate(session, e));
+            }
+
+            final String groupKey = persister.getEntityName() + "|" + this.isVersionChecked(persister, e);
+            groups.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(e);
         }
 
-        // Query
-        final Query query = queryBuilder.toCountQuery(entityCls, criteria);
-        LOGGER.debug("#count (JPA Query) :: {}", query);
+        // Batch Upsert
+        for (final List<IEntity<Integer>> group : groups.values()) {
+            final AbstractEntityPersister persister = this.getPersister(session, group.get(0));
+            final boolean isVersionChecked = this.isVersionChecked(persister, group.get(0));
+
+            final UpsertStatement upsertStmt = UpsertStatement.of(persister, conflictKeys, isVersionChecked);
+            LOGGER.debug("#upsert :: {} entities with {}", group.size(), upsertStmt);
+
+            session.doWork(connection -> {
+                try (final PreparedStatement pstmt = connection.prepareStatement(upsertStmt.getSql())) {
+                    int i = 0;
+                    for (final IEntity<Integer> e : group) {
+                        upsertStmt.bind(pstmt, e, now, session);
+                        pstmt.addBatch();
+
+                        if (++i % batchSize == 0) {
+                            pstmt.executeBatch();
+                        }
+                    }
+
+                    if (i % batchSize != 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+            });
+
+            // IDs :: the entries matched by a unique key keep their IDs
+            if (hasUniqueConflictKeys(conflictKeys)) {
+                this.resolveIds(persister, group, conflictKeys);
+            }
 
-        // Result
-        final Long count = (Long) query.getSingleResult();
-        return count.intValue();
-    }
+            // Second level cache, and the managed copies :: stale
+            entityManager.getEntityManagerFactory().getCache().evict(persister.getMappedClass());
+            this.detach(persister.getMappedClass(), group.stream().map(IEntity::getId).collect(Collectors.toList()));
+        }
 
-    @Override
-    public <E extends IEntity<Integer>> List<E> find(final Class<E> entityCls, final Criteria criteria,
-            final int pageNo, final int pageSize) {
-        return this.find(entityCls, criteria, null, pageNo, pageSize);
+        this.onWrite(inEntities, null);
+
+        // Text index :: as written, the existing entries with a version mismatch are left untouched
+        if (Objects.nonNull(textIndex)) {
+            for (final List<IEntity<Integer>> group : groups.values()) {
+                this.indexOnCommit(this.getPersister(session, group.get(0)), group);
+            }
+        }
     }
 
-    @Override
-    public <E extends IEntity<Integer>> List<E> find(final Class<E> entityCls, final Criteria criteria,
-            final OrderBy orderBy, final int pageNo, final int pageSize) {
-        // Sanity checks
-        if (Objects.isNull(entityCls)) {
-            throw new IllegalArgumentException("#find :: in Entity Class is NULL");
+    /**
+     * Sets the IDs of the existing entries on the entities matching them by the (non identifier) conflict
+     * keys, in place of the IDs assigned before the upsert.
+     */
+    private void resolveIds(final AbstractEntityPersister persister, final List<IEntity<Integer>> group,
+            final String[] conflictKeys) {
+        @SuppressWarnings("unchecked")
+        final Class<IEntity<Integer>> entityCls = persister.getMappedClass();
+        final List<String> keyProps = Arrays.asList(conflictKeys);
+
+        final List<String> properties = new ArrayList<>();
+        properties.add(FIELD_ID);
+        properties.addAll(keyProps);
+
+        for (int from = 0; from < group.size(); from += inChunkSize) {
+            final List<IEntity<Integer>> chunk = group.subList(from, Math.min(from + inChunkSize, group.size()));
+
+            // Entries :: by the first key, matched on all the keys
+            final Set<Object> firstKeys = chunk.stream() //
+                    .map(e -> persister.getPropertyValue(e, keyProps.get(0))) //
+                    .filter(Objects::nonNull) //
+                    .collect(Collectors.toSet());
+            if (firstKeys.isEmpty()) {
+                continue;
+            }
+
+            final Query query = queryBuilder.toProjectionQuery(entityCls, Criteria.in(keyProps.get(0), firstKeys),
+                    null, properties, null);
+
+            final Map<List<Object>, Integer> idsByKey = new HashMap<>();
+            for (final Object row : query.getResultList()) {
+                final Object[] values = (Object[]) row;
+                idsByKey.put(Arrays.asList(values).subList(1, values.length), (Integer) values[0]);
+            }
+
+            for (final IEntity<Integer> e : chunk) {
+                final List<Object> key = keyProps.stream() //
+                        .map(k -> persister.getPropertyValue(e, k)) //
+                        .collect(Collectors.toList());
+                final Integer id = idsByKey.get(key);
+                if (Objects.nonNull(id) && !id.equals(e.getId())) {
+                    LOGGER.debug("#resolveIds :: {} {} matched the existing entry {}", persister.getEntityName(),
+                            e.getId(), id);
+                    e.setId(id);
+                }
+            }
         }
+    }
 
-        // Query
-        final Query query = queryBuilder.toQuery(entityCls, criteria);
-        query.setFirstResult((pageNo - 1) * pageSize);
-        query.setMaxResults(pageSize);
+    /**
+     * Indexes the upserted entities of an indexed type, as read back from the database.
+     */
+    private void indexOnCommit(final AbstractEntityPersister persister, final List<IEntity<Integer>> group) {
+        @SuppressWarnings("unchecked")
+        final Class<IEntity<Integer>> entityCls = persister.getMappedClass();
+        if (!textIndex.isIndexed(entityCls)) {
+            return;
+        }
 
-        LOGGER.debug("#read (JPA Query) :: {}", query);
+        final List<Integer> ids = group.stream().map(IEntity::getId).collect(Collectors.toList());
+        textIndex.indexOnCommit(this.readEntities(entityCls, ids));
+    }
 
-        // Result
-        final List<E> resultList = (List<E>) query.getResultList();
-        return resultList;
+    private static boolean hasUniqueConflictKeys(final String[] conflictKeys) {
+        return Objects.nonNull(conflictKeys) && conflictKeys.length > 0
+                && Arrays.stream(conflictKeys).noneMatch(FIELD_ID::equals);
     }
 
 
-    // Other Utilities
-    // ------------------------------------------------------------------------
+    // Delete (soft)
 
     @Override
-    public void truncate(Class<? extends IEntity<Integer>> entityCls) {
+    public void delete(final Class<? extends IEntity<Integer>> entityCls, final Integer id) {
         // Sanity checks
-        if (Objects.isNull(entityCls)) {
+        if (Objects.isNull(id)) {
+            throw new IllegalArgumentException("#delete :: in Entity ID is BLANK");
+        }
+
+        this.delete(entityCls, List.of(id));
+    }
+
+    @Override
+    public void delete(final Class<? extends IEntity<Integer>> entityCls, final Collection<Integer> ids) {
+        // Sanity checks
+        if (Objects.isNull(entityCls) || !JpaAuditEntity.class.isAssignableFrom(entityCls)) {
+            throw new IllegalArgumentException("#delete :: in Entity Class is not soft deletable : " + entityCls);
+        }
+
+        if (Objects.isNull(ids) || ids.isEmpty()) {
+            LOGGER.debug("#delete(Collection) :: Empty collection of IDs passed.");
+            return;
+        }
+
+        // Mark deleted :: updated (version, audit info) on flush
+        final LocalDateTime deletedOn = LocalDateTime.now();
+        for (final IEntity<Integer> e : this.read(entityCls, ids)) {
+            ((JpaAuditEntity) e).setDeletedOn(deletedOn);
+        }
+
+        // all the cached queries exclude the deleted entries
+        this.onWrite(entityCls, null);
+    }
+
+
+    // Purge
+
+    @Override
+    public void purge(final Class<? extends IEntity<Integer>> entityCls, final Integer id) {
+        // Sanity checks
+        if (Objects.isNull(id)) {
+            throw new IllegalArgumentException("#purge :: in Entity ID is BLANK");
+        }
+
+        // Read :: soft deleted or not
+        final IEntity<Integer> entity = entityManager.find(entityCls, id);
+        if (Objects.isNull(entity)) {
+            return;
+        }
+
+        entityManager.remove(entity);
+        this.onWrite(entityCls, null);
+    }
+
+    @Override
+    public void purge(final Class<? extends IEntity<Integer>> entityCls, final Collection<Integer> ids) {
+        // Sanity checks
+        if (Objects.isNull(ids) || ids.isEmpty()) {
+            LOGGER.debug("#purge(Collection) :: Empty collection of IDs passed.");
+            return;
+        }
+
+        // Purge :: in chunks of the JDBC batch size, each read after the previous chunk is flushed and
+        // cleared, so the entities removed are never detached
+        final List<Integer> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += batchSize) {
+            if (from > 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+
+            // Read :: soft deleted or not
+            final int to = Math.min(from + batchSize, idList.size());
+            final List<Integer> chunkIds = new ArrayList<>(idList.subList(from, to));
+            final List<? extends IEntity<Integer>> entities = entityManager.unwrap(Session.class) //
+                    .byMultipleIds(entityCls) //
+                    .withBatchSize(inChunkSize) //
+                    .multiLoad(chunkIds);
+
+            for (final IEntity<Integer> e : entities) {
+                if (Objects.nonNull(e)) {
+                    entityManager.remove(e);
+                }
+            }
+        }
+
+        this.onWrite(entityCls, null);
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> int purgeDeleted(final Class<E> entityCls, final LocalDateTime deletedBefore,
+            final int batchSize) {
+        // Sanity checks
+        if (Objects.isNull(entityCls) || !JpaAuditEntity.class.isAssignableFrom(entityCls)) {
+            throw new IllegalArgumentException("#purgeDeleted :: in Entity Class is not soft deletable : " + entityCls);
+        }
+
+        if (Objects.isNull(deletedBefore) || batchSize < 1) {
+            throw new IllegalArgumentException("#purgeDeleted :: deleted before is NULL / batch size is less than 1");
+        }
+
+        // Query :: criteria on the deleted timestamp includes the soft deleted entries
+        final Criteria criteria = Criteria.max(JpaAuditEntity.FIELD_DELETED_ON, deletedBefore);
+        final Query query = queryBuilder.toIdQuery(entityCls, criteria);
+        query.setMaxResults(batchSize);
+
+        LOGGER.debug("#purgeDeleted (JPA Query) :: {}", query);
+
+        // Purge
+        final List<Integer> ids = (List<Integer>) query.getResultList();
+        if (!ids.isEmpty()) {
+            this.purge(entityCls, ids);
+        }
+
+        return ids.size();
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> int deleteWhere(final Class<E> entityCls, final Criteria inCriteria) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#deleteWhere :: in Entity Class is NULL");
+        }
+
+        if (Objects.isNull(inCriteria)) {
+            throw new IllegalArgumentException("#deleteWhere :: criteria is NULL, use #truncate instead");
+        }
+
+        checkNotAuditLogged("deleteWhere", entityCls);
+
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return 0;
+        }
+
+        if (Objects.isNull(criteria)) {
+            throw new IllegalArgumentException("#deleteWhere :: criteria matches all, use #truncate instead");
+        }
+
+        // Query :: the soft deletable entities marked deleted (as #delete), the others purged
+        final Query query = JpaAuditEntity.class.isAssignableFrom(entityCls)
+                ? queryBuilder.toUpdateQuery(entityCls, criteria,
+                        Map.of(JpaAuditEntity.FIELD_DELETED_ON, LocalDateTime.now()))
+                : queryBuilder.toDeleteQuery(entityCls, criteria);
+        LOGGER.debug("#deleteWhere (JPA Query) :: {}", query);
+
+        final int count = this.executeBulk(query);
+        if (Objects.nonNull(textIndex)) {
+            textIndex.invalidate(entityCls, null);
+        }
+
+        this.onWrite(entityCls, null);
+        return count;
+    }
+
+
+    // Read
+    // ------------------------------------------------------------------------
+
+    @Override
+    public <E extends IEntity<Integer>> E read(final Class<E> entityCls, final Integer inPkey,
+            final boolean errorIfNotFound) {
+        return this.measure(entityCls, "read", null, () -> this.readEntity(entityCls, inPkey, errorIfNotFound),
+                e -> 1);
+    }
+
+    private <E extends IEntity<Integer>> E readEntity(final Class<E> entityCls, final Integer inPkey,
+            final boolean errorIfNotFound) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#read :: in Entity Class is NULL");
+        }
+
+        if (Objects.isNull(inPkey)) {
+            throw new IllegalArgumentException("#purge :: in Entity ID is BLANK");
+        }
+
+        // Entity Obj :: excluding the soft deleted
+        final E foundObj = entityManager.find(entityCls, inPkey);
+        final E entityObj = isDeleted(foundObj) ? null : foundObj;
+
+        // non-null
+        if (errorIfNotFound && Objects.isNull(entityObj)) {
+            String errMsg = String.format("No Entity Object found with the passed ID : %s", inPkey);
+            LOGGER.error(errMsg);
+            throw new ObjectNotFoundException(errMsg);
+        }
+
+        return entityObj;
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> List<E> read(final Class<E> entityCls, final Collection<Integer> inPkeys) {
+        return this.measure(entityCls, "read", null, () -> this.readEntities(entityCls, inPkeys), List::size);
+    }
+
+    private <E extends IEntity<Integer>> List<E> readEntities(final Class<E> entityCls,
+            final Collection<Integer> inPkeys) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#read :: in Entity Class is NULL");
+        }
+
+        if (CollectionUtils.isEmpty(inPkeys)) {
+            LOGGER.debug("#read(Collection) :: input IDs collection is EMPTY");
+            return new ArrayList<>();
+        }
+
+        // Second level cache :: cached entities are read by ID, the rest by IN queries
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+        final Set<Integer> pKeys = new LinkedHashSet<>(inPkeys);
+        pKeys.remove(null);
+
+        final Map<Integer, E> entityMap = new HashMap<>();
+        final List<Integer> uncachedPkeys = new ArrayList<>();
+        for (final Integer pKey : pKeys) {
+            final E cachedEntity = cache.contains(entityCls, pKey) ? entityManager.find(entityCls, pKey) : null;
+            if (Objects.isNull(cachedEntity)) {
+                uncachedPkeys.add(pKey);
+                continue;
+            }
+
+            if (isDeleted(cachedEntity)) {
+                continue;
+            }
+
+            entityMap.put(pKey, cachedEntity);
+        }
+
+        // Query :: in chunks, bounding the statement size
+        for (int from = 0; from < uncachedPkeys.size(); from += inChunkSize) {
+            final List<Integer> chunkPkeys = uncachedPkeys.subList(from,
+                    Math.min(from + inChunkSize, uncachedPkeys.size()));
+
+            // Criteria
+            final InCriteria criteria = Criteria.in(FIELD_ID, chunkPkeys);
+
+            // Query
+            final Query query = queryBuilder.toQuery(entityCls, criteria);
+            LOGGER.debug("#read (JPA Query) :: {}", query);
+
+            final List<E> chunkEntities = this.execute(QueryType.SELECT, entityCls, criteria, null, query,
+                    () -> (List<E>) query.getResultList(), List::size);
+            for (final E entity : chunkEntities) {
+                entityMap.put(entity.getId(), entity);
+            }
+        }
+
+        // Result :: in the order of the IDs
+        final List<E> resultList = new ArrayList<>(entityMap.size());
+        for (final Integer pKey : pKeys) {
+            final E entity = entityMap.get(pKey);
+            if (Objects.nonNull(entity)) {
+                resultList.add(entity);
+            }
+        }
+
+        return resultList;
+    }
+
+
+
+    @Override
+    public <E extends IEntity<Integer>> int count(final Class<E> entityCls) {
+        return this.measure(entityCls, "count", null, () -> this.countEntities(entityCls), c -> 1);
+    }
+
+    private <E extends IEntity<Integer>> int countEntities(final Class<E> entityCls) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#count :: in Entity Class is NULL");
+        }
+
+        // Query
+        final Query query = queryBuilder.toCountQuery(entityCls);
+        LOGGER.debug("#count (JPA Query) :: {}", query);
+
+        // Result
+        final Long count = this.execute(QueryType.COUNT, entityCls, null, null, query,
+                () -> (Long) query.getSingleResult(), c -> 1);
+        return count.intValue();
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> List<E> read(final Class<E> entityCls, final int pageNo, final int pageSize) {
+        return this.read(entityCls, null, pageNo, pageSize);
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> List<E> read(final Class<E> entityCls, final OrderBy orderby, final int pageNo,
+            final int pageSize) {
+        return this.measure(entityCls, "read", null, () -> this.readPage(entityCls, orderby, pageNo, pageSize),
+                List::size);
+    }
+
+    private <E extends IEntity<Integer>> List<E> readPage(final Class<E> entityCls, final OrderBy orderby,
+            final int pageNo, final int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#read :: in Entity Class is NULL");
+        }
+
+        // Query
+        final Query query = queryBuilder.toQuery(entityCls, null, orderby);
+        query.setFirstResult((pageNo - 1) * pageSize);
+        query.setMaxResults(pageSize);
+
+        LOGGER.debug("#read (JPA Query) :: {}", query);
+
+        // Result
+        final List<E> resultList = this.execute(QueryType.SORTED, entityCls, null, orderby, query,
+                () -> (List<E>) query.getResultList(), List::size);
+        return resultList;
+    }
+
+
+
+    // Find
+
+    @Override
+    public <E extends IEntity<Integer>> int count(final Class<E> entityCls, final Criteria inCriteria) {
+        return this.measure(entityCls, "count", inCriteria, () -> this.countEntities(entityCls, inCriteria),
+                c -> 1);
+    }
+
+    private <E extends IEntity<Integer>> int countEntities(final Class<E> entityCls, final Criteria inCriteria) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#count :: in Entity Class is NULL");
+        }
+
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return 0;
+        }
+
+        // Query Cache
+        if (Objects.isNull(queryCache)) {
+            return this.countQuery(entityCls, criteria);
+        }
+
+        final QueryKey cacheKey = queryCache.keyOf(entityCls, criteria, null, null);
+        final long generation = queryCache.generation(entityCls);
+        final Integer cachedCount = (Integer) queryCache.get(cacheKey);
+        if (Objects.nonNull(cachedCount)) {
+            return cachedCount;
+        }
+
+        final int count = this.countQuery(entityCls, criteria);
+        queryCache.put(cacheKey, count, generation);
+
+        return count;
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> EntityCount count(final Class<E> entityCls, final Criteria inCriteria,
+            final CountStrategy strategy) {
+        return this.measure(entityCls, "count", inCriteria,
+                () -> this.countEntities(entityCls, inCriteria, strategy), c -> 1);
+    }
+
+    private <E extends IEntity<Integer>> EntityCount countEntities(final Class<E> entityCls,
+            final Criteria inCriteria, final CountStrategy strategy) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#count :: in Entity Class is NULL");
+        }
+
+        if (Objects.isNull(strategy)) {
+            throw new IllegalArgumentException("#count :: Count Strategy is NULL");
+        }
+
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return EntityCount.exact(0);
+        }
+
+        switch (strategy.getType()) {
+            case CAPPED:
+                return this.countCapped(entityCls, criteria, strategy.getCap());
+
+            case ESTIMATE:
+                return this.countEstimate(entityCls, criteria, strategy.getCap());
+
+            default:
+                return EntityCount.exact(this.countEntities(entityCls, criteria));
+        }
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> List<E> find(final Class<E> entityCls, final Criteria criteria,
+            final int pageNo, final int pageSize) {
+        return this.find(entityCls, criteria, null, pageNo, pageSize);
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> List<E> find(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final int pageNo, final int pageSize) {
+        return this.measure(entityCls, "find", inCriteria,
+                () -> this.findEntities(entityCls, inCriteria, orderBy, pageNo, pageSize), List::size);
+    }
+
+    private <E extends IEntity<Integer>> List<E> findEntities(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final int pageNo, final int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#find :: in Entity Class is NULL");
+        }
+
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return new ArrayList<>();
+        }
+
+        return this.findOptimized(entityCls, criteria, orderBy, pageNo, pageSize);
+    }
+
+    /**
+     * Finds the entities of the criteria already text pre-filtered and optimized, through the query cache.
+     */
+    private <E extends IEntity<Integer>> List<E> findOptimized(final Class<E> entityCls, final Criteria criteria,
+            final OrderBy orderBy, final int pageNo, final int pageSize) {
+        // Query Cache
+        if (Objects.isNull(queryCache)) {
+            return this.findQuery(entityCls, criteria, orderBy, pageNo, pageSize);
+        }
+
+        final QueryKey cacheKey = queryCache.keyOf(entityCls, criteria, orderBy, pageNo + ":" + pageSize);
+        final long generation = queryCache.generation(entityCls);
+        final List<Integer> cachedIds = (List<Integer>) queryCache.get(cacheKey);
+        if (Objects.nonNull(cachedIds)) {
+            final List<E> cachedEntities = this.readInOrder(entityCls, cachedIds);
+            if (Objects.nonNull(cachedEntities)) {
+                return cachedEntities;
+            }
+        }
+
+        final List<E> resultList = this.findQuery(entityCls, criteria, orderBy, pageNo, pageSize);
+        final List<Integer> resultIds = resultList.stream().map(IEntity::getId).collect(Collectors.toList());
+        queryCache.put(cacheKey, resultIds, generation);
+
+        return resultList;
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> Page<E> findPage(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final int pageNo, final int pageSize) {
+        return this.measure(entityCls, "findPage", inCriteria,
+                () -> this.findEntityPage(entityCls, inCriteria, orderBy, pageNo, pageSize),
+                p -> p.getItems().size());
+    }
+
+    private <E extends IEntity<Integer>> Page<E> findEntityPage(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final int pageNo, final int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#findPage :: in Entity Class is NULL");
+        }
+
+        if (pageNo < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("#findPage :: page number and size should be at least 1");
+        }
+
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return Page.of(new ArrayList<>(), pageNo, pageSize, 0);
+        }
+
+        // Count :: cached, else in parallel with the page
+        final QueryKey countKey = Objects.isNull(queryCache) ? null
+                : queryCache.keyOf(entityCls, criteria, null, null);
+        final long generation = Objects.isNull(queryCache) ? 0 : queryCache.generation(entityCls);
+        final Integer cachedCount = Objects.isNull(countKey) ? null : (Integer) queryCache.get(countKey);
+
+        final CompletableFuture<Integer> countFuture = Objects.isNull(cachedCount)
+                ? this.countAsync(entityCls, criteria)
+                : null;
+
+        // Page
+        final List<E> items = this.findOptimized(entityCls, criteria, orderBy, pageNo, pageSize);
+
+        // Count :: a partial page is the last one
+        final boolean isLastPage = items.size() < pageSize && (!items.isEmpty() || pageNo == 1);
+
+        final int totalCount;
+        if (Objects.nonNull(cachedCount)) {
+            totalCount = cachedCount;
+
+        } else if (isLastPage) {
+            totalCount = (pageNo - 1) * pageSize + items.size();
+            if (Objects.nonNull(countFuture)) {
+                countFuture.cancel(false);
+            }
+
+        } else if (Objects.nonNull(countFuture)) {
+            totalCount = this.awaitCount(countFuture);
+
+        } else {
+            totalCount = this.countQuery(entityCls, criteria);
+        }
+
+        if (Objects.nonNull(countKey) && Objects.isNull(cachedCount)) {
+            queryCache.put(countKey, totalCount, generation);
+        }
+
+        LOGGER.debug("#findPage :: {} - {} : page {} of {} entities", entityCls, criteria, pageNo, totalCount);
+        return Page.of(items, pageNo, pageSize, totalCount);
+    }
+
+    /**
+     * Counts the entities on the count executor, in a separate read-only transaction (and connection) : the
+     * count runs outside the transaction of the caller, so it doesn't see its pending changes.
+     * 
+     * @return the count future, <code>null</code> if there is no executor or it rejected the count
+     */
+    private <E extends IEntity<Integer>> CompletableFuture<Integer> countAsync(final Class<E> entityCls,
+            final Criteria criteria) {
+        if (Objects.isNull(countExecutor) || Objects.isNull(countTxTemplate)) {
+            return null;
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> countTxTemplate.execute(status -> {
+                final Query query = queryBuilder.toCountQuery(entityCls, criteria);
+                LOGGER.debug("#countAsync (JPA Query) :: {}", query);
+
+                final Long count = (Long) query.getSingleResult();
+                return count.intValue();
+            }), countExecutor);
+
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("#countAsync :: count executor is saturated, counting sequentially : {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private int awaitCount(final CompletableFuture<Integer> countFuture) {
+        try {
+            return countFuture.join();
+
+        } catch (CompletionException e) {
+            final Throwable cause = Objects.isNull(e.getCause()) ? e : e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            final String errMsg = String.format("#awaitCount :: failed to count the entities : %s", cause.getMessage());
+            LOGGER.error(errMsg, cause);
+            throw new ServiceException(errMsg, ServiceException.DEFAULT_USER_MESSAGE, cause);
+        }
+    }
+
+    private <E extends IEntity<Integer>> int countQuery(final Class<E> entityCls, final Criteria criteria) {
+        // Query
+        final Query query = queryBuilder.toCountQuery(entityCls, criteria);
+        LOGGER.debug("#count (JPA Query) :: {}", query);
+
+        // Result
+        final Long count = this.execute(QueryType.COUNT, entityCls, criteria, null, query,
+                () -> (Long) query.getSingleResult(), c -> 1);
+        return count.intValue();
+    }
+
+    /**
+     * Counts the matching entries up to the cap, reading (cap + 1) IDs : the database stops the scan
+     * there, so the cost is bounded by the cap irrespective of the table size.
+     */
+    private <E extends IEntity<Integer>> EntityCount countCapped(final Class<E> entityCls, final Criteria criteria,
+            final int cap) {
+        // Query Cache
+        final QueryKey cacheKey = Objects.isNull(queryCache) ? null
+                : queryCache.keyOf(entityCls, criteria, null, "cap:" + cap);
+        final long generation = Objects.isNull(queryCache) ? 0 : queryCache.generation(entityCls);
+        Integer count = Objects.isNull(cacheKey) ? null : (Integer) queryCache.get(cacheKey);
+
+        if (Objects.isNull(count)) {
+            // Query
+            final Query query = queryBuilder.toIdQuery(entityCls, criteria);
+            query.setMaxResults(cap + 1);
+            LOGGER.debug("#count (JPA Query) :: {} - cap {}", query, cap);
+
+            count = this.execute(QueryType.ID, entityCls, criteria, null, query, () -> query.getResultList().size(),
+                    c -> c);
+            if (Objects.nonNull(cacheKey)) {
+                queryCache.put(cacheKey, count, generation);
+            }
+        }
+
+        return count > cap ? EntityCount.capped(cap) : EntityCount.exact(count);
+    }
+
+    /**
+     * Row estimate of the entity table from the (InnoDB) table statistics, without scanning the table.
+     * The filtered counts, the soft deletable entities (the statistics count the deleted rows too), and
+     * the tables small enough (within the cap), are counted capped instead.
+     * 
+     * <p>
+     * Please Note that MySQL caches the statistics (see <code>information_schema_stats_expiry</code>),
+     * and the InnoDB row estimates may be off by 40-50% of the actual count.
+     * </p>
+     */
+    private <E extends IEntity<Integer>> EntityCount countEstimate(final Class<E> entityCls, final Criteria criteria,
+            final int cap) {
+        final Table tableAnnotation = entityCls.getAnnotation(Table.class);
+        if (Objects.nonNull(criteria) || Objects.isNull(tableAnnotation)
+                || JpaAuditEntity.class.isAssignableFrom(entityCls)) {
+            return this.countCapped(entityCls, criteria, cap);
+        }
+
+        // Native Query
+        final Query query = entityManager.createNativeQuery(SQL_TABLE_ROWS);
+        query.setParameter(1, tableAnnotation.name());
+
+        final List<Number> results = (List<Number>) query.getResultList();
+        final Number tableRows = results.isEmpty() ? null : results.get(0);
+        if (Objects.isNull(tableRows) || tableRows.longValue() <= cap) {
+            return this.countCapped(entityCls, null, cap);
+        }
+
+        return EntityCount.estimate((int) Math.min(tableRows.longValue(), Integer.MAX_VALUE));
+    }
+
+    private <E extends IEntity<Integer>> List<E> findQuery(final Class<E> entityCls, final Criteria criteria,
+            final OrderBy orderBy, final int pageNo, final int pageSize) {
+        // Query
+        final Query query = queryBuilder.toQuery(entityCls, criteria, orderBy);
+        query.setFirstResult((pageNo - 1) * pageSize);
+        query.setMaxResults(pageSize);
+
+        LOGGER.debug("#read (JPA Query) :: {}", query);
+
+        // Result
+        final List<E> resultList = this.execute(QueryType.SORTED, entityCls, criteria, orderBy, query,
+                () -> (List<E>) query.getResultList(), List::size);
+        return resultList;
+    }
+
+    /**
+     * Reads the entities of the (cached) IDs, in the order of the IDs.
+     * 
+     * @return the entities, <code>null</code> if any of them is no more found
+     */
+    private <E extends IEntity<Integer>> List<E> readInOrder(final Class<E> entityCls, final List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final Map<Integer, E> entityMap = new HashMap<>();
+        for (final E e : this.readEntities(entityCls, ids)) {
+            entityMap.put(e.getId(), e);
+        }
+
+        final List<E> entities = new ArrayList<>();
+        for (final Integer id : ids) {
+            final E entity = entityMap.get(id);
+            if (Objects.isNull(entity)) {
+                return null;
+            }
+
+            entities.add(entity);
+        }
+
+        return entities;
+    }
+
+
+    // Projection
+
+    @Override
+    public <E extends IEntity<Integer>> List<Map<String, Object>> findProperties(final Class<E> entityCls,
+            final Criteria inCriteria, final OrderBy orderBy, final List<String> properties, final int pageNo,
+            final int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#findProperties :: in Entity Class is NULL");
+        }
+
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return new ArrayList<>();
+        }
+
+        // Query
+        final Query query = queryBuilder.toProjectionQuery(entityCls, criteria, orderBy, properties, null);
+        query.setFirstResult((pageNo - 1) * pageSize);
+        query.setMaxResults(pageSize);
+
+        LOGGER.debug("#findProperties (JPA Query) :: {}", query);
+
+        // Result :: a single property is selected as the value, else as a tuple
+        final List<?> rows = query.getResultList();
+        final List<Map<String, Object>> results = new ArrayList<>(rows.size());
+        for (final Object row : rows) {
+            final Object[] values = properties.size() == 1 ? new Object[] {row} : (Object[]) row;
+
+            final Map<String, Object> valueMap = new LinkedHashMap<>();
+            for (int i = 0; i < properties.size(); i++) {
+                valueMap.put(properties.get(i), values[i]);
+            }
+
+            results.add(valueMap);
+        }
+
+        return results;
+    }
+
+    @Override
+    public <E extends IEntity<Integer>, P> List<P> findProjections(final Class<E> entityCls,
+            final Class<P> projectionCls, final Criteria inCriteria, final OrderBy orderBy, final int pageNo,
+            final int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(entityCls) || Objects.isNull(projectionCls)) {
+            throw new IllegalArgumentException("#findProjections :: in Entity / Projection Class is NULL");
+        }
+
+        final Projection projection = projectionCls.getAnnotation(Projection.class);
+        if (Objects.isNull(projection)) {
+            final String errMsg = String.format("#findProjections :: %s is not annotated with @Projection",
+                    projectionCls.getName());
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        final List<String> properties = Arrays.asList(projection.value());
+        final boolean hasConstructor = Arrays.stream(projectionCls.getConstructors()) //
+                .anyMatch(c -> c.getParameterCount() == properties.size());
+        if (!hasConstructor) {
+            final String errMsg = String.format("#findProjections :: %s has no public constructor of %d parameters",
+                    projectionCls.getName(), properties.size());
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return new ArrayList<>();
+        }
+
+        // Query
+        final Query query = queryBuilder.toProjectionQuery(entityCls, criteria, orderBy, properties, projectionCls);
+        query.setFirstResult((pageNo - 1) * pageSize);
+        query.setMaxResults(pageSize);
+
+        LOGGER.debug("#findProjections (JPA Query) :: {}", query);
+
+        // Result
+        final List<P> resultList = (List<P>) query.getResultList();
+        return resultList;
+    }
+
+
+    // Seek
+
+    @Override
+    public <E extends IEntity<Integer>> Slice<E> seek(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final String after, final int pageSize) {
+        return this.measure(entityCls, "seek", inCriteria,
+                () -> this.seekEntities(entityCls, inCriteria, orderBy, after, pageSize), sl -> sl.getItems().size());
+    }
+
+    private <E extends IEntity<Integer>> Slice<E> seekEntities(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final String after, final int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#seek :: in Entity Class is NULL");
+        }
+
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("#seek :: page size should be at least 1");
+        }
+
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return Slice.of(new ArrayList<>(), pageSize, after, null);
+        }
+
+        // Query :: one extra entry to know if there is a next page
+        final Keyset afterKeyset = Keyset.decode(after, this.keysetTypesOf(entityCls, orderBy));
+        final Query query = queryBuilder.toSeekQuery(entityCls, criteria, orderBy, afterKeyset);
+        query.setMaxResults(pageSize + 1);
+
+        LOGGER.debug("#seek (JPA Query) :: {}", query);
+
+        // Result
+        final List<E> resultList = (List<E>) query.getResultList();
+        if (resultList.size() <= pageSize) {
+            return Slice.of(resultList, pageSize, after, null);
+        }
+
+        // Next :: position of the last entry of the page
+        final List<E> pageList = new ArrayList<>(resultList.subList(0, pageSize));
+        final E lastEntity = pageList.get(pageSize - 1);
+
+        final List<Object> sortValues = new ArrayList<>();
+        for (final String prop : JpaQueryBuilder.sortPropertiesOf(orderBy)) {
+            sortValues.add(this.readProperty(lastEntity, prop));
+        }
+
+        final String next = Keyset.of(sortValues, lastEntity.getId()).encode();
+        return Slice.of(pageList, pageSize, after, next);
+    }
+
+
+    // Stream
+
+    @Override
+    public <E extends IEntity<Integer>> Stream<E> stream(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final int fetchSize) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#stream :: in Entity Class is NULL");
+        }
+
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("#stream :: fetch size must be positive : " + fetchSize);
+        }
+
+        // Criteria :: text pre-filtered and optimized, the contradicting criteria answered without a query
+        final Criteria criteria = CriteriaOptimizer.optimize(this.prefilter(entityCls, inCriteria));
+        if (CriteriaOptimizer.isNone(criteria)) {
+            return Stream.empty();
+        }
+
+        // Pending changes (flush mode is COMMIT)
+        entityManager.flush();
+
+        // Query
+        final Query query = queryBuilder.toQuery(entityCls, criteria, orderBy);
+        LOGGER.debug("#stream (JPA Query) :: {}", query);
+
+        // MySQL streams the rows one by one (instead of buffering the result set) only with this fetch size
+        final org.hibernate.query.Query<?> hQuery = query.unwrap(org.hibernate.query.Query.class);
+        hQuery.setFetchSize(Integer.MIN_VALUE);
+        hQuery.setReadOnly(true);
+        hQuery.setCacheMode(CacheMode.IGNORE);
+
+        // Cursor
+        final Session session = entityManager.unwrap(Session.class);
+        final ScrollableResults results = hQuery.scroll(ScrollMode.FORWARD_ONLY);
+        final ScrollIterator<E> iterator = new ScrollIterator<>(session, results, fetchSize);
+
+        final int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false) //
+                .onClose(iterator::close);
+    }
+
+
+    // Other Utilities
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void truncate(Class<? extends IEntity<Integer>> entityCls) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
             throw new IllegalArgumentException("#truncate :: in Entity Class is NULL");
         }
 
@@ -391,6 +1618,318 @@ public class GenericJpaDao implements IDao<Integer> {
         // Execute Query
         final String query = querySB.toString();
         entityManager.createNativeQuery(query).executeUpdate();
+        this.onWrite(entityCls, null);
+    }
+
+
+    // Private Utilities
+    // ------------------------------------------------------------------------
+
+    // Text Index
+
+    private Criteria prefilter(final Class<?> entityCls, final Criteria criteria) {
+        return Objects.isNull(textIndex) ? criteria : textIndex.prefilter(entityCls, criteria);
+    }
+
+
+    // Metrics
+
+    private <T> T measure(final Class<?> entityCls, final String operation, final Criteria criteria,
+            final Supplier<T> action, final ToIntFunction<? super T> rowCounter) {
+        return Objects.isNull(metrics) ? action.get()
+                : metrics.record(entityCls, operation, criteria, action, rowCounter);
+    }
+
+    private void measure(final Class<?> entityCls, final String operation, final Runnable action,
+            final int rowCount) {
+        this.measure(entityCls, operation, null, () -> {
+            action.run();
+            return rowCount;
+        }, Integer::intValue);
+    }
+
+    private static Class<?> entityClassOf(final Collection<? extends IEntity<Integer>> entities) {
+        final IEntity<Integer> entity = Objects.isNull(entities) || entities.isEmpty() ? null
+                : entities.iterator().next();
+        return Objects.isNull(entity) ? null : entity.getClass();
+    }
+
+
+    // Slow Queries
+
+    private <T> T execute(final QueryType queryType, final Class<?> entityCls, final Criteria criteria,
+            final OrderBy orderBy, final Query query, final Supplier<T> execution, final ToIntFunction<T> rowCounter) {
+        return Objects.isNull(slowQueryRecorder) ? execution.get()
+                : slowQueryRecorder.record(queryType, entityCls, criteria, orderBy, query, execution, rowCounter);
+    }
+
+
+    // Query Cache
+
+    private void onWrite(final Class<?> entityCls, final Set<String> changedProps) {
+        if (Objects.nonNull(queryCache)) {
+            queryCache.invalidate(entityCls, changedProps);
+        }
+    }
+
+    private void onWrite(final Collection<? extends IEntity<Integer>> entities, final Set<String> changedProps) {
+        if (Objects.isNull(queryCache)) {
+            return;
+        }
+
+        final Set<Class<?>> entityClasses = new HashSet<>();
+        entities.forEach(e -> entityClasses.add(e.getClass()));
+        entityClasses.forEach(cls -> queryCache.invalidate(cls, changedProps));
+    }
+
+    /**
+     * Properties of the entity changed from its persisted (loaded) state, for the fine grained query
+     * cache invalidation.
+     * 
+     * @return changed properties, <code>null</code> if not known
+     */
+    private Set<String> getChangedProperties(final IEntity<Integer> inEntity) {
+        if (Objects.isNull(queryCache)) {
+            return null;
+        }
+
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final AbstractEntityPersister persister = this.getPersister(session, inEntity);
+
+        final Object managedEntity = session.contains(inEntity) ? inEntity
+                : entityManager.find(inEntity.getClass(), inEntity.getId());
+        final EntityEntry entry = Objects.isNull(managedEntity) ? null
+                : session.getPersistenceContext().getEntry(managedEntity);
+        if (Objects.isNull(entry) || Objects.isNull(entry.getLoadedState())) {
+            return null;
+        }
+
+        final int[] dirtyIdxs = persister.findDirty(persister.getPropertyValues(inEntity), entry.getLoadedState(),
+                inEntity, session);
+
+        final Set<String> changedProps = new HashSet<>();
+        if (Objects.nonNull(dirtyIdxs)) {
+            for (final int idx : dirtyIdxs) {
+                changedProps.add(persister.getPropertyNames()[idx]);
+            }
+        }
+
+        // Soft Delete :: all the queries exclude the deleted entries
+        if (changedProps.contains(JpaAuditEntity.FIELD_DELETED_ON)) {
+            return null;
+        }
+
+        // Audit :: set on every update
+        if (!changedProps.isEmpty() && inEntity instanceof JpaAuditEntity) {
+            changedProps.add(JpaAuditEntity.FIELD_VERSION);
+            changedProps.add(JpaAuditEntity.FIELD_UPDATED_ON);
+        }
+
+        return changedProps;
+    }
+
+
+    /**
+     * Updates the (detached) entities in JDBC batches, each only if its version matches.
+     * 
+     * @return the updated and the conflicting entity identifiers
+     */
+    private UpdateResult<Integer> executeVersioned(final Collection<? extends IEntity<Integer>> inEntities,
+            final int attempt) {
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+        final LocalDateTime now = LocalDateTime.now();
+
+        // Group :: by entity type
+        final Map<String, List<IEntity<Integer>>> groups = new LinkedHashMap<>();
+        for (final IEntity<Integer> e : inEntities) {
+            // Validate and Audit (as the JpaLogInterceptor)
+            if (e instanceof Validatable) {
+                ((Validatable) e).validate();
+            }
+
+            if (e instanceof JpaAuditEntity) {
+                ((JpaAuditEntity) e).setUpdatedOn(now);
+            }
+
+            final String groupKey = this.getPersister(session, e).getEntityName();
+            groups.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(e);
+        }
+
+        // Batch Update
+        final List<Integer> updated = new ArrayList<>();
+        final List<Integer> conflicts = new ArrayList<>();
+        final List<IEntity<Integer>> updatedEntities = new ArrayList<>();
+        for (final List<IEntity<Integer>> group : groups.values()) {
+            final AbstractEntityPersister persister = this.getPersister(session, group.get(0));
+
+            final VersionedUpdateStatement updateStmt = VersionedUpdateStatement.of(persister);
+            LOGGER.debug("#updateVersioned :: {} entities with {}", group.size(), updateStmt);
+
+            // Update counts :: per statement, also with the (multi statement) batch rewrite
+            final int[] updateCounts = session.doReturningWork(connection -> {
+                final int[] counts = new int[group.size()];
+                try (final PreparedStatement pstmt = connection.prepareStatement(updateStmt.getSql())) {
+                    int i = 0;
+                    int from = 0;
+                    for (final IEntity<Integer> e : group) {
+                        updateStmt.bind(pstmt, e, session);
+                        pstmt.addBatch();
+
+                        if (++i % batchSize == 0) {
+                            final int[] batchCounts = pstmt.executeBatch();
+                            System.arraycopy(batchCounts, 0, counts, from, batchCounts.length);
+                            from = i;
+                        }
+                    }
+
+                    if (i > from) {
+                        final int[] batchCounts = pstmt.executeBatch();
+                        System.arraycopy(batchCounts, 0, counts, from, batchCounts.length);
+                    }
+                }
+
+                return counts;
+            });
+
+            for (int i = 0; i < group.size(); i++) {
+                final IEntity<Integer> e = group.get(i);
+                cache.evict(persister.getMappedClass(), e.getId());
+
+                if (updateCounts[i] == 0) {
+                    conflicts.add(e.getId());
+                    continue;
+                }
+
+                updateStmt.incrementVersion(e, session);
+                updated.add(e.getId());
+                updatedEntities.add(e);
+            }
+        }
+
+        if (Objects.nonNull(textIndex)) {
+            textIndex.indexOnCommit(updatedEntities);
+        }
+
+        return UpdateResult.of(updated, conflicts, attempt);
+    }
+
+
+    /**
+     * Rejects the statement writes of the {@link AuditLogged} entities : they bypass the flush, where the
+     * changes are recorded in the audit log.
+     */
+    private static void checkNotAuditLogged(final String method, final Class<?> entityCls) {
+        if (entityCls.isAnnotationPresent(AuditLogged.class)) {
+            final String errMsg = String.format("#%s :: the statement writes of %s wouldn't be audit logged",
+                    method, entityCls.getSimpleName());
+            throw new IllegalArgumentException(errMsg);
+        }
+    }
+
+    /**
+     * Detaches the managed instances of the entities (if any), leaving the rest of the persistence
+     * context to the caller.
+     */
+    private void detach(final Class<?> entityCls, final Collection<Integer> ids) {
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final EntityPersister persister = session.getFactory().getMetamodel().entityPersister(entityCls);
+
+        for (final Integer id : ids) {
+            final Object managedEntity = Objects.isNull(id) ? null
+                    : session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+            if (Objects.nonNull(managedEntity)) {
+                entityManager.detach(managedEntity);
+            }
+        }
+    }
+
+    private static boolean isDeleted(final Object entity) {
+        return entity instanceof JpaAuditEntity && Objects.nonNull(((JpaAuditEntity) entity).getDeletedOn());
+    }
+
+    private AbstractEntityPersister getPersister(final SessionImplementor session, final Object entity) {
+        return (AbstractEntityPersister) session.getEntityPersister(null, entity);
+    }
+
+    /**
+     * Upsert :: the existing entries are version checked for the entities carrying a version.
+     */
+    private boolean isVersionChecked(final AbstractEntityPersister persister, final Object entity) {
+        return persister.isVersioned() && Objects.nonNull(persister.getVersion(entity));
+    }
+
+    /**
+     * Executes a bulk statement. The pending changes are flushed first (the flush mode is COMMIT), and
+     * the persistence context is cleared after, as the statement doesn't update the managed entities.
+     * 
+     * @param query bulk UPDATE / DELETE statement
+     * 
+     * @return number of the entities updated / deleted
+     */
+    private int executeBulk(final Query query) {
+        entityManager.flush();
+
+        final int count = query.executeUpdate();
+        entityManager.clear();
+
+        return count;
+    }
+
+    /**
+     * Types of the keyset values : the types of the sort properties, followed by the identifier type.
+     */
+    private List<Class<?>> keysetTypesOf(final Class<?> entityCls, final OrderBy orderBy) {
+        final List<Class<?>> types = new ArrayList<>();
+        for (final String prop : JpaQueryBuilder.sortPropertiesOf(orderBy)) {
+            Class<?> type = entityCls;
+            for (final String propPart : prop.split("\\.")) {
+                final Field field = FieldUtils.getField(type, propPart, true);
+                if (Objects.isNull(field)) {
+                    final String errMsg = String.format("#seek :: unknown sort property %s of %s", prop,
+                            entityCls.getSimpleName());
+                    throw new IllegalArgumentException(errMsg);
+                }
+
+                type = field.getType();
+            }
+
+            types.add(type);
+        }
+
+        types.add(Integer.class);
+        return types;
+    }
+
+    /**
+     * Reads the value of an entity property (dot separated for nested properties).
+     * 
+     * <p>
+     * The lazy associations on the path are initialized (unproxied) first, their proxies don't hold the
+     * values in their fields.
+     * </p>
+     * 
+     * @param entity the entity object
+     * @param property property name
+     * 
+     * @return value of the property
+     */
+    private Object readProperty(final Object entity, final String property) {
+        Object value = entity;
+        for (final String propPart : property.split("\\.")) {
+            if (Objects.isNull(value)) {
+                return null;
+            }
+
+            try {
+                value = FieldUtils.readField(Hibernate.unproxy(value), propPart, true);
+            } catch (IllegalAccessException | IllegalArgumentException e) {
+                final String errMsg = String.format("#readProperty :: unable to read %s of %s", property, entity);
+                throw new IllegalArgumentException(errMsg, e);
+            }
+        }
+
+        return value;
     }
 
 
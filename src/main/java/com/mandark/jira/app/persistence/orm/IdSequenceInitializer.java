@@ -0,0 +1,149 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mandark.jira.spi.lang.ServiceException;
+
+
+/**
+ * Seeds the identifier allocation table ({@value JpaEntity#ID_TABLE}) of the {@link JpaEntity}
+ * {@link TableGenerator}, from the current maximum identifier of each entity table.
+ *
+ * <p>
+ * This is the migration path from the IDENTITY (AUTO_INCREMENT) identifiers : without it, the
+ * generator would start the existing tables at the initial value and collide with their rows. The seed
+ * never moves an allocation backwards, so it is safe to run on every startup and from every node.
+ * </p>
+ */
+public class IdSequenceInitializer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    private static final String SQL_CREATE_TABLE = "CREATE TABLE IF NOT EXISTS %s "
+            + "(%s VARCHAR(255) NOT NULL, %s BIGINT, PRIMARY KEY (%s))";
+
+    private static final String SQL_MAX_ID = "SELECT COALESCE(MAX(%s), 0) FROM %s";
+
+    private static final String SQL_SEED = "INSERT INTO %s (%s, %s) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE %s = GREATEST(%s, VALUES(%s))";
+
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+
+    // Constructor
+
+    public IdSequenceInitializer(final EntityManagerFactory entityManagerFactory, final DataSource dataSource) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(entityManagerFactory) || Objects.isNull(dataSource)) {
+            throw new IllegalArgumentException("#IdSequenceInitializer :: EntityManagerFactory / DataSource is NULL");
+        }
+
+        // init
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Seeds the allocation of every entity (hierarchy) using the {@link TableGenerator}.
+     */
+    public void init() {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        final Set<String> seededSegments = new HashSet<>();
+        try (final Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+
+            for (final EntityPersister persister : sessionFactory.getMetamodel().entityPersisters().values()) {
+                // Root entities only, the sub-classes share the root identifiers
+                if (!persister.getEntityName().equals(persister.getRootEntityName())) {
+                    continue;
+                }
+
+                final IdentifierGenerator idGenerator = persister.getIdentifierGenerator();
+                if (!(idGenerator instanceof TableGenerator) || !(persister instanceof AbstractEntityPersister)) {
+                    continue;
+                }
+
+                final TableGenerator tableGenerator = (TableGenerator) idGenerator;
+                if (!seededSegments.add(tableGenerator.getSegmentValue())) {
+                    continue;
+                }
+
+                final AbstractEntityPersister entityPersister = (AbstractEntityPersister) persister;
+                this.seed(connection, tableGenerator, entityPersister.getTableName(),
+                        entityPersister.getIdentifierColumnNames()[0]);
+            }
+
+        } catch (SQLException e) {
+            final String errMsg = String.format("#init :: failed to seed the ID allocations : %s", e.getMessage());
+            LOGGER.error(errMsg, e);
+            throw new ServiceException(errMsg, ServiceException.DEFAULT_USER_MESSAGE, e);
+        }
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Seeds the allocation of the generator segment, from the max identifier of the entity table.
+     */
+    void seed(final Connection connection, final TableGenerator tableGenerator, final String entityTable,
+            final String idColumn) throws SQLException {
+        final String idTable = tableGenerator.getTableName();
+        final String segmentCol = tableGenerator.getSegmentColumnName();
+        final String valueCol = tableGenerator.getValueColumnName();
+
+        // Allocation Table (when not created by the schema update)
+        try (final Statement stmt = connection.createStatement()) {
+            stmt.execute(String.format(SQL_CREATE_TABLE, idTable, segmentCol, valueCol, segmentCol));
+        }
+
+        // Max ID
+        long maxId = 0;
+        try (final Statement stmt = connection.createStatement();
+                final ResultSet rs = stmt.executeQuery(String.format(SQL_MAX_ID, idColumn, entityTable))) {
+            if (rs.next()) {
+                maxId = rs.getLong(1);
+            }
+        }
+
+        // Seed :: pooled-lo hands out the stored value as the next low
+        final long nextVal = Math.max(maxId + 1, tableGenerator.getInitialValue());
+        final String seedSql = String.format(SQL_SEED, idTable, segmentCol, valueCol, valueCol, valueCol, valueCol);
+        try (final PreparedStatement pstmt = connection.prepareStatement(seedSql)) {
+            pstmt.setString(1, tableGenerator.getSegmentValue());
+            pstmt.setLong(2, nextVal);
+            pstmt.executeUpdate();
+        }
+
+        LOGGER.info("#seed :: ID allocation of {} seeded from max id {}", tableGenerator.getSegmentValue(), maxId);
+    }
+
+}
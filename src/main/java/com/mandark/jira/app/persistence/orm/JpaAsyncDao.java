@@ -0,0 +1,155 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mandark.jira.spi.app.persistence.AsyncDao;
+import com.mandark.jira.spi.app.persistence.IDao;
+import com.mandark.jira.spi.app.persistence.IEntity;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.OrderBy;
+import com.mandark.jira.spi.lang.ServiceException;
+import com.mandark.jira.spi.lang.ServiceUnavailableException;
+
+
+/**
+ * {@link AsyncDao} running the {@link IDao} reads on a bounded executor, each in a new read-only
+ * transaction (and so with its own {@link javax.persistence.EntityManager} and connection).
+ *
+ * <p>
+ * The number of the reads running at a time is limited to the max concurrency, which is to be kept well
+ * below the connection pool size, so the parallel reads can't starve the request threads of the
+ * connections. The reads beyond the limit wait for a permit; the reads rejected by the (saturated)
+ * executor fail with a {@link ServiceUnavailableException}.
+ * </p>
+ */
+public class JpaAsyncDao implements AsyncDao<Integer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JpaAsyncDao.class);
+
+
+    private final IDao<Integer> dao;
+    private final TransactionTemplate txTemplate;
+    private final Executor executor;
+
+    private final Semaphore permits;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public JpaAsyncDao(final IDao<Integer> dao, final PlatformTransactionManager transactionManager,
+            final Executor executor, final int maxConcurrency) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(dao) || Objects.isNull(transactionManager) || Objects.isNull(executor)) {
+            throw new IllegalArgumentException("#JpaAsyncDao :: DAO / TransactionManager / Executor is NULL");
+        }
+
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("#JpaAsyncDao :: max concurrency should be at least 1");
+        }
+
+        // init
+        this.dao = dao;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency, true);
+
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.txTemplate.setReadOnly(true);
+    }
+
+
+    // Read
+    // ------------------------------------------------------------------------
+
+    @Override
+    public <E extends IEntity<Integer>> CompletableFuture<E> read(final Class<E> entityCls, final Integer id) {
+        return this.submit("read", () -> dao.read(entityCls, id, false));
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> CompletableFuture<List<E>> read(final Class<E> entityCls,
+            final Collection<Integer> idList) {
+        return this.submit("read", () -> dao.read(entityCls, idList));
+    }
+
+
+    // Find
+    // ------------------------------------------------------------------------
+
+    @Override
+    public <E extends IEntity<Integer>> CompletableFuture<Integer> count(final Class<E> entityCls,
+            final Criteria criteria) {
+        return this.submit("count", () -> dao.count(entityCls, criteria));
+    }
+
+    @Override
+    public <E extends IEntity<Integer>> CompletableFuture<List<E>> find(final Class<E> entityCls,
+            final Criteria criteria, final OrderBy orderBy, final int pageNo, final int pageSize) {
+        return this.submit("find", () -> dao.find(entityCls, criteria, orderBy, pageNo, pageSize));
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Number of the reads which can start right away (without waiting for a running read).
+     *
+     * @return available permits
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private <T> CompletableFuture<T> submit(final String operation, final Supplier<T> read) {
+        try {
+            return CompletableFuture.supplyAsync(() -> this.execute(operation, read), executor);
+
+        } catch (RejectedExecutionException e) {
+            final String errMsg = String.format("#%s :: async read executor is saturated", operation);
+            LOGGER.warn(errMsg);
+
+            final CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new ServiceUnavailableException(errMsg, e));
+            return rejected;
+        }
+    }
+
+    private <T> T execute(final String operation, final Supplier<T> read) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            final String errMsg = String.format("#%s :: interrupted waiting for a read permit", operation);
+            throw new ServiceException(errMsg, ServiceException.DEFAULT_USER_MESSAGE, e);
+        }
+
+        try {
+            return txTemplate.execute(status -> read.get());
+        } finally {
+            permits.release();
+        }
+    }
+
+}
@@ -20,6 +20,11 @@ import com.mandark.jira.spi.app.persistence.IAuditEntity;
  * <p>
  * Note: {@link EntityListeners} are registered through XML (META-INF/mappings.xml)
  * </p>
+ *
+ * <p>
+ * The audit entities are soft deleted (see {@link #getDeletedOn()}) : the queries of the
+ * {@link JpaQueryBuilder} exclude them, unless the query criteria is on the deleted timestamp itself.
+ * </p>
  * 
  * @see JpaEntity
  */
@@ -27,6 +32,14 @@ import com.mandark.jira.spi.app.persistence.IAuditEntity;
 @XmlAccessorType(XmlAccessType.NONE)
 public abstract class JpaAuditEntity extends JpaEntity implements IAuditEntity<Integer>, Validatable {
 
+    // Field Labels
+    public static final String FIELD_VERSION = "version";
+    public static final String FIELD_CREATED_BY = "createdBy";
+    public static final String FIELD_CREATED_ON = "createdOn";
+    public static final String FIELD_UPDATED_BY = "updatedBy";
+    public static final String FIELD_UPDATED_ON = "updatedOn";
+    public static final String FIELD_DELETED_ON = "deletedOn";
+
 
     @JsonIgnore
     @Version
@@ -51,6 +64,11 @@ public abstract class JpaAuditEntity extends JpaEntity implements IAuditEntity<I
     private LocalDateTime updatedOn;
 
 
+    @JsonIgnore
+    @Column(name = "deleted_on")
+    private LocalDateTime deletedOn;
+
+
     // Getters and Setters
     // ------------------------------------------------------------------------
 
@@ -107,6 +125,17 @@ public abstract class JpaAuditEntity extends JpaEntity implements IAuditEntity<I
     }
 
 
+    @Override
+    public LocalDateTime getDeletedOn() {
+        return deletedOn;
+    }
+
+    @Override
+    public void setDeletedOn(LocalDateTime deletedOn) {
+        this.deletedOn = deletedOn;
+    }
+
+
     // Validatable
     // ------------------------------------------------------------------------
 
@@ -9,6 +9,8 @@ import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.mandark.jira.spi.app.Validatable;
@@ -18,6 +20,13 @@ import com.mandark.jira.spi.app.persistence.IEntity;
 /**
  * Base definition for persistable meta objects/entities.
  *
+ * <p>
+ * The unique identifiers are allocated by a pooled-lo {@link TableGenerator} : a row per entity table
+ * in {@value #ID_TABLE} hands out blocks of {@value #ID_ALLOCATION_SIZE} identifiers, so the inserts
+ * need no per-row database round trip (unlike IDENTITY) and can be JDBC batched. See
+ * {@link IdSequenceInitializer} for the existing tables.
+ * </p>
+ *
  * @see JpaAuditEntity
  */
 @MappedSuperclass
@@ -27,6 +36,12 @@ public abstract class JpaEntity implements IEntity<Integer>, Validatable {
     // Field Labels
     public static final String FIELD_ID = "id";
 
+    // ID Allocation
+    public static final String ID_TABLE = "id_sequences";
+    public static final String ID_SEGMENT_COLUMN = "sequence_name";
+    public static final String ID_VALUE_COLUMN = "next_val";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
 
     // Properties
     private Integer id;
@@ -37,8 +52,15 @@ public abstract class JpaEntity implements IEntity<Integer>, Validatable {
 
     @JsonIgnore
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO, generator = "native")
-    @GenericGenerator(name = "native", strategy = "native")
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pooled")
+    @GenericGenerator(name = "pooled", strategy = "org.hibernate.id.enhanced.TableGenerator", parameters = {
+            @Parameter(name = TableGenerator.TABLE_PARAM, value = ID_TABLE),
+            @Parameter(name = TableGenerator.SEGMENT_COLUMN_PARAM, value = ID_SEGMENT_COLUMN),
+            @Parameter(name = TableGenerator.VALUE_COLUMN_PARAM, value = ID_VALUE_COLUMN),
+            @Parameter(name = TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, value = "true"),
+            @Parameter(name = TableGenerator.INITIAL_PARAM, value = "1"),
+            @Parameter(name = TableGenerator.INCREMENT_PARAM, value = "" + ID_ALLOCATION_SIZE),
+            @Parameter(name = TableGenerator.OPT_PARAM, value = "pooled-lo")})
     @Column(name = "id", unique = true)
     @Override
     public Integer getId() {
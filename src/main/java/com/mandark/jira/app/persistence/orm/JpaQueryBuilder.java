@@ -1,11 +1,11 @@
 package com.mandark.jira.app.persistence.orm;
 
 import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.Hashtable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeSet;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -18,20 +18,32 @@ import org.slf4j.LoggerFactory;
 import com.mandark.jira.spi.app.persistence.IEntity;
 import com.mandark.jira.spi.app.persistence.QueryBuilder;
 import com.mandark.jira.spi.app.query.AndCriteria;
+import com.mandark.jira.spi.app.query.CompoundCriteria;
 import com.mandark.jira.spi.app.query.Criteria;
 import com.mandark.jira.spi.app.query.EqualsCriteria;
+import com.mandark.jira.spi.app.query.FullTextCriteria;
 import com.mandark.jira.spi.app.query.InCriteria;
+import com.mandark.jira.spi.app.query.Keyset;
 import com.mandark.jira.spi.app.query.LikeCriteria;
 import com.mandark.jira.spi.app.query.MaxCriteria;
 import com.mandark.jira.spi.app.query.MinCriteria;
+import com.mandark.jira.spi.app.query.NoneCriteria;
 import com.mandark.jira.spi.app.query.NotNullCriteria;
 import com.mandark.jira.spi.app.query.NullCriteria;
 import com.mandark.jira.spi.app.query.OrCriteria;
+import com.mandark.jira.spi.app.query.OrderBy;
 import com.mandark.jira.spi.app.query.PropertyCriteria;
+import com.mandark.jira.spi.lang.ValidationException;
 
 
 /**
  * This is the {@link QueryBuilder} implementation for JPA entity objects..
+ *
+ * <p>
+ * The JPQL of a query depends only on its shape (entity, criteria types and properties ..), and not
+ * on the criteria values. The compiled {@link JpaQuery} templates are cached against their shape
+ * (see {@link JpqlTemplateCache}), so the repeated queries only bind the values.
+ * </p>
  */
 class JpaQueryBuilder implements QueryBuilder<Query> {
 
@@ -39,9 +51,19 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
 
     private static final String INSTANCE_ALIAS = "ins";
 
+    private static final int TEMPLATE_CACHE_SIZE = 1024;
+
+    private static final int IN_BUCKET_MIN = 8;
+    private static final int IN_BUCKET_MAX = 1024;
+
 
     private final EntityManager entityManager;
 
+    private final JpqlTemplateCache<JpaQuery> templateCache;
+
+    private SortIndexAdvisor sortIndexAdvisor;
+    private FullTextSearch fullTextSearch;
+
 
     // Constructor
 
@@ -50,6 +72,7 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
 
         // init
         this.entityManager = entityManager;
+        this.templateCache = new JpqlTemplateCache<>(TEMPLATE_CACHE_SIZE);
     }
 
 
@@ -68,17 +91,46 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
             throw new IllegalArgumentException("#toQuery :: IEntity class in NULL");
         }
 
-        // Construct Query
-        final JpaQuery jpaQuery = new JpaQuery(entityCls, inCriteria, false);
-        final String jpaQueryStr = jpaQuery.getQueryString();
-        final Hashtable<String, Object> qryParamValues = jpaQuery.getQueryParamValues();
-        LOGGER.debug("JPA Query :: [{}] : {} - {}", inCriteria, jpaQueryStr, qryParamValues);
+        return this.createQuery(QueryType.SELECT, entityCls, inCriteria, null, null, null, null);
+    }
 
-        // Create Entity Query
-        final Query query = entityManager.createQuery(jpaQueryStr);
-        this.applyQueryParamValues(query, qryParamValues);
+    @Override
+    public <E extends IEntity<?>> Query toQuery(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#toQuery :: IEntity class in NULL");
+        }
 
-        return query;
+        return this.createQuery(QueryType.SORTED, entityCls, inCriteria, orderBy, null, null, null);
+    }
+
+    @Override
+    public <E extends IEntity<?>> Query toSeekQuery(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final Keyset after) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#toSeekQuery :: IEntity class in NULL");
+        }
+
+        return this.createQuery(QueryType.SEEK, entityCls, inCriteria, orderBy, after, null, null);
+    }
+
+
+    @Override
+    public <E extends IEntity<?>> Query toProjectionQuery(final Class<E> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final List<String> properties, final Class<?> resultCls) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#toProjectionQuery :: IEntity class in NULL");
+        }
+
+        if (Objects.isNull(properties) || properties.isEmpty()) {
+            throw new IllegalArgumentException("#toProjectionQuery :: projection properties are EMPTY");
+        }
+
+        final Selection selection = new Selection(properties, resultCls);
+        return this.createQuery(QueryType.PROJECTION, entityCls, inCriteria, orderBy, null, null, selection);
     }
 
 
@@ -94,51 +146,194 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
             throw new IllegalArgumentException("#toCountQuery :: IEntity class in NULL");
         }
 
-        // Construct Query
-        final JpaQuery jpaQuery = new JpaQuery(entityCls, inCriteria, true);
-        final String jpaQueryStr = jpaQuery.getQueryString();
-        final Hashtable<String, Object> qryParamValues = jpaQuery.getQueryParamValues();
-        LOGGER.debug("JPA Count Query :: [{}] : {} - {}", inCriteria, jpaQueryStr, qryParamValues);
+        return this.createQuery(QueryType.COUNT, entityCls, inCriteria, null, null, null, null);
+    }
+
+    @Override
+    public <E extends IEntity<?>> Query toIdQuery(Class<E> entityCls, Criteria inCriteria) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#toIdQuery :: IEntity class in NULL");
+        }
+
+        return this.createQuery(QueryType.ID, entityCls, inCriteria, null, null, null, null);
+    }
 
-        // Create Entity Query
-        final Query query = entityManager.createQuery(jpaQueryStr);
-        this.applyQueryParamValues(query, qryParamValues);
 
-        return query;
+    @Override
+    public <E extends IEntity<?>> Query toUpdateQuery(final Class<E> entityCls, final Criteria inCriteria,
+            final Map<String, Object> values) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#toUpdateQuery :: IEntity class in NULL");
+        }
+
+        if (Objects.isNull(values) || values.isEmpty()) {
+            throw new IllegalArgumentException("#toUpdateQuery :: update values are EMPTY");
+        }
+
+        for (final String prop : values.keySet()) {
+            if (JpaEntity.FIELD_ID.equals(prop) || JpaAuditEntity.FIELD_VERSION.equals(prop)) {
+                throw new IllegalArgumentException("#toUpdateQuery :: property can not be updated : " + prop);
+            }
+        }
+
+        return this.createQuery(QueryType.UPDATE, entityCls, inCriteria, null, null, values, null);
+    }
+
+    @Override
+    public <E extends IEntity<?>> Query toDeleteQuery(final Class<E> entityCls, final Criteria inCriteria) {
+        // Sanity checks
+        if (Objects.isNull(entityCls)) {
+            throw new IllegalArgumentException("#toDeleteQuery :: IEntity class in NULL");
+        }
+
+        return this.createQuery(QueryType.DELETE, entityCls, inCriteria, null, null, null, null);
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Cache of the compiled JPQL templates, with its hit/miss counters.
+     *
+     * @return the template cache
+     */
+    JpqlTemplateCache<JpaQuery> getTemplateCache() {
+        return templateCache;
+    }
+
+    /**
+     * Enables/disables the check (and warning) for the sorted queries without a backing index. The
+     * check runs once per query shape, when its template is compiled.
+     *
+     * @param sortIndexCheck <code>true</code> to enable the check
+     */
+    void setSortIndexCheck(final boolean sortIndexCheck) {
+        this.sortIndexAdvisor = sortIndexCheck ? new SortIndexAdvisor() : null;
+    }
+
+    /**
+     * Runs the like criteria on the full-text properties as full-text matches (see {@link FullTextSearch}).
+     *
+     * @param fullTextSearch the full-text search, <code>null</code> to run the like criteria as such
+     */
+    void setFullTextSearch(final FullTextSearch fullTextSearch) {
+        this.fullTextSearch = fullTextSearch;
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    /**
+     * Properties of the {@link OrderBy} the query is sorted by, before the unique identifier
+     * tie-breaker. The properties after the unique identifier (if explicitly sorted by) are ignored, as
+     * they never take part in the order.
+     *
+     * @param orderBy order by properties (optional)
+     *
+     * @return sort properties, excluding the unique identifier
+     */
+    static List<String> sortPropertiesOf(final OrderBy orderBy) {
+        final List<String> sortProps = new ArrayList<>();
+        if (Objects.isNull(orderBy)) {
+            return sortProps;
+        }
+
+        for (final String prop : orderBy.getProperties()) {
+            if (JpaEntity.FIELD_ID.equals(prop)) {
+                break;
+            }
+
+            sortProps.add(prop);
+        }
+
+        return sortProps;
     }
 
 
     // Private Utilities
     // ------------------------------------------------------------------------
 
+    private Query createQuery(final QueryType queryType, final Class<?> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final Keyset after, final Map<String, Object> setValues,
+            final Selection selection) {
+        // Full-text :: decided by the like values, so before the shape
+        final Criteria criteria = Objects.isNull(fullTextSearch) ? inCriteria
+                : fullTextSearch.rewrite(entityCls, inCriteria);
+
+        // Update properties :: sorted, as they are part of the shape
+        final List<String> setProps = Objects.isNull(setValues) ? new ArrayList<>() //
+                : new ArrayList<>(new TreeSet<>(setValues.keySet()));
+
+        // Template
+        final String shapeKey = JpaQuery.shapeOf(queryType, entityCls, criteria, orderBy, after, setProps,
+                selection);
+        final JpaQuery jpaQuery = templateCache.get(shapeKey, //
+                () -> this.compile(queryType, entityCls, criteria, orderBy, after, setProps, selection));
+
+        // Param Values
+        final List<Object> qryParamValues = new ArrayList<>();
+        for (final String prop : setProps) {
+            qryParamValues.add(setValues.get(prop));
+        }
+        qryParamValues.addAll(JpaQuery.paramValuesOf(criteria, after));
+        LOGGER.debug("JPA {} Query :: [{}] : {} - {}", queryType, criteria, jpaQuery, qryParamValues);
+
+        // Create Entity Query
+        final Query query = entityManager.createQuery(jpaQuery.getQueryString());
+        this.applyQueryParamValues(query, jpaQuery.getQueryParams(), qryParamValues);
+
+        return query;
+    }
+
+    private JpaQuery compile(final QueryType queryType, final Class<?> entityCls, final Criteria inCriteria,
+            final OrderBy orderBy, final Keyset after, final List<String> setProps, final Selection selection) {
+        // Sort Index Check
+        final boolean isSorted = queryType == QueryType.SORTED || queryType == QueryType.SEEK
+                || queryType == QueryType.PROJECTION;
+        if (isSorted && Objects.nonNull(sortIndexAdvisor)) {
+            final List<String> sortProps = sortPropertiesOf(orderBy);
+            final List<Boolean> sortDirs = new ArrayList<>();
+            for (int i = 0; i < sortProps.size(); i++) {
+                sortDirs.add(orderBy.isAsc(i));
+            }
+
+            sortIndexAdvisor.check(entityCls, inCriteria, sortProps, sortDirs);
+        }
+
+        return new JpaQuery(queryType, entityCls, inCriteria, orderBy, after, setProps, selection);
+    }
+
     /**
-     * Prepares the named query with the provided criteria.
-     * 
-     * @param jpaQry JPA Query(Named Query) to be executed
-     * @param qryParamValues entity select criteria
+     * Binds the values to the query parameters, in the order of the template parameters.
+     *
+     * @param jpaQry JPA Query to be executed
+     * @param qryParams query parameter names, in the binding order
+     * @param qryParamValues query parameter values, in the binding order
      */
-    private void applyQueryParamValues(final Query jpaQry, final Hashtable<String, Object> qryParamValues) {
+    private void applyQueryParamValues(final Query jpaQry, final List<String> qryParams,
+            final List<Object> qryParamValues) {
         // Sanity checks
-        if (Objects.isNull(qryParamValues) || qryParamValues.isEmpty()) {
-            return;
+        if (qryParams.size() != qryParamValues.size()) {
+            final String errMsg = String.format("#applyQueryParamValues :: expected %d values, found %d",
+                    qryParams.size(), qryParamValues.size());
+            throw new ValidationException(errMsg);
         }
 
         // Iterate and apply
-        final Enumeration<String> keys = qryParamValues.keys();
-        while (keys.hasMoreElements()) {
-            final String key = keys.nextElement();
-            final Object value = qryParamValues.get(key);
-
-            jpaQry.setParameter(key, value);
+        for (int i = 0; i < qryParams.size(); i++) {
+            jpaQry.setParameter(qryParams.get(i), qryParamValues.get(i));
         }
-
     }
 
 
     // Property Parameter
 
-    private static final BiFunction<String, Integer, String> JPQL_PARAM = (propName, index) -> {
-        final String crTxt = String.format("%s_param_%d", propName, index);
+    private static final Function<Integer, String> JPQL_PARAM = (index) -> {
+        final String crTxt = String.format("param_%d", index);
         return crTxt;
     };
 
@@ -160,6 +355,12 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
         return crTxt;
     };
 
+    private static final BiFunction<String, String, String> JPQL_MATCH = (propName, propParam) -> {
+        final String crTxt = String.format("%s(%s.%s, :%s) > 0", FullTextFunctionContributor.FUNCTION_NAME,
+                INSTANCE_ALIAS, propName, propParam);
+        return crTxt;
+    };
+
     private static final BiFunction<String, String, String> JPQL_MIN = (propName, propParam) -> {
         final String crTxt = String.format("%s.%s > :%s", INSTANCE_ALIAS, propName, propParam);
         return crTxt;
@@ -180,6 +381,80 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
         return crTxt;
     };
 
+    private static final String JPQL_NONE = "1 = 0";
+
+
+    // Update
+
+    private static final BiFunction<String, String, String> JPQL_SET = (propName, propParam) -> {
+        final String setTxt = String.format("%s.%s = :%s", INSTANCE_ALIAS, propName, propParam);
+        return setTxt;
+    };
+
+
+    // Order By
+
+    private static final BiFunction<String, Boolean, String> JPQL_ORDER = (propName, isAsc) -> {
+        final String orderTxt = String.format("%s.%s %s", INSTANCE_ALIAS, propName, isAsc ? "ASC" : "DESC");
+        return orderTxt;
+    };
+
+
+
+    // QueryType definition
+    // ------------------------------------------------------------------------
+
+    enum QueryType {
+        SELECT, SORTED, COUNT, ID, PROJECTION, SEEK, UPDATE, DELETE;
+    }
+
+
+
+    // Selection Class definition
+    // ------------------------------------------------------------------------
+
+    /**
+     * Selected properties of a projection query, with the class (constructor) of the result rows.
+     */
+    final static class Selection {
+
+        private final List<String> properties;
+        private final Class<?> resultCls;
+
+
+        // Constructor
+
+        Selection(final List<String> properties, final Class<?> resultCls) {
+            super();
+
+            // init
+            this.properties = new ArrayList<>(properties);
+            this.resultCls = resultCls;
+        }
+
+
+        // Methods
+
+        String asSelectTxt() {
+            final List<String> selectStrs = new ArrayList<>();
+            for (final String prop : properties) {
+                selectStrs.add(INSTANCE_ALIAS + "." + prop);
+            }
+
+            final String selectTxt = String.join(", ", selectStrs);
+            return Objects.isNull(resultCls) ? selectTxt : String.format("NEW %s(%s)", resultCls.getName(), selectTxt);
+        }
+
+
+        // Object Methods
+
+        @Override
+        public String toString() {
+            return properties + (Objects.isNull(resultCls) ? "" : "->" + resultCls.getName());
+        }
+
+    }
+
 
 
     // JpaQuery Class definition
@@ -189,67 +464,247 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
     final static class JpaQuery {
 
         private final String queryString;
-        private final Hashtable<String, Object> queryParamValues;
+        private final List<String> queryParams;
 
 
         // Constructor
         // --------------------------------------------------------------------
 
-        JpaQuery(final Class<?> entityCls, final Criteria inCriteria, boolean isCountQuery) {
+        JpaQuery(final QueryType queryType, final Class<?> entityCls, final Criteria inCriteria,
+                final OrderBy orderBy, final Keyset after, final List<String> setProps, final Selection selection) {
             super();
 
             // Entity Name
             final String entityName = entityCls.getSimpleName();
 
             final StringBuilder querySB = new StringBuilder();
-            querySB.append("SELECT ");
-            if (isCountQuery) {
-                querySB.append("COUNT(").append(INSTANCE_ALIAS).append(")");
+            final List<String> jpaQueryParams = new ArrayList<>();
+            if (queryType == QueryType.UPDATE) {
+                querySB.append("UPDATE ");
+                querySB.append(entityName).append(" ");
+                querySB.append(INSTANCE_ALIAS);
+                querySB.append(" SET ");
+                querySB.append(this.asSetTxt(entityCls, setProps, jpaQueryParams));
+
+            } else if (queryType == QueryType.DELETE) {
+                querySB.append("DELETE FROM ");
+                querySB.append(entityName).append(" ");
+                querySB.append(INSTANCE_ALIAS);
+
             } else {
+                querySB.append("SELECT ");
+                if (queryType == QueryType.COUNT) {
+                    querySB.append("COUNT(").append(INSTANCE_ALIAS).append(")");
+                } else if (queryType == QueryType.ID) {
+                    querySB.append(INSTANCE_ALIAS).append(".").append(JpaEntity.FIELD_ID);
+                } else if (queryType == QueryType.PROJECTION) {
+                    querySB.append(selection.asSelectTxt());
+                } else {
+                    querySB.append(INSTANCE_ALIAS);
+                }
+                querySB.append(" FROM ");
+                querySB.append(entityName).append(" ");
                 querySB.append(INSTANCE_ALIAS);
             }
-            querySB.append(" FROM ");
-            querySB.append(entityName).append(" ");
-            querySB.append(INSTANCE_ALIAS);
 
             // WHERE clause
-            final Hashtable<String, Object> jpaQueryParamValues = new Hashtable<>();
+            final List<String> whereStrs = new ArrayList<>();
             if (Objects.nonNull(inCriteria)) {
+                whereStrs.add(this.asCriteriaTxt(inCriteria, jpaQueryParams));
+            }
+
+            // Soft Delete :: exclude the deleted entries
+            if (isSoftDeleteFiltered(queryType, entityCls, inCriteria)) {
+                whereStrs.add(JPQL_IS_NULL.apply(JpaAuditEntity.FIELD_DELETED_ON));
+            }
+
+            // Sort properties with the ID tie-breaker
+            final boolean isSorted = queryType == QueryType.SORTED || queryType == QueryType.SEEK
+                    || queryType == QueryType.PROJECTION;
+            final List<String> sortProps = new ArrayList<>();
+            final List<Boolean> sortDirs = new ArrayList<>();
+            if (isSorted) {
+                this.addSortProperties(orderBy, sortProps, sortDirs);
+            }
+
+            if (Objects.nonNull(after)) {
+                whereStrs.add(this.asSeekTxt(sortProps, sortDirs, after, jpaQueryParams));
+            }
+
+            if (!whereStrs.isEmpty()) {
                 querySB.append(" WHERE ");
-                querySB.append(this.asCriteriaTxt(inCriteria, jpaQueryParamValues));
+                querySB.append(String.join(" AND ", whereStrs));
             }
 
-            // TODO Order By
+            // Order By
+            if (isSorted) {
+                final List<String> orderStrs = new ArrayList<>();
+                for (int i = 0; i < sortProps.size(); i++) {
+                    orderStrs.add(JPQL_ORDER.apply(sortProps.get(i), sortDirs.get(i)));
+                }
+
+                querySB.append(" ORDER BY ");
+                querySB.append(String.join(", ", orderStrs));
+            }
 
             final String jpaQueryStr = querySB.toString();
 
             // init
             this.queryString = jpaQueryStr;
-            this.queryParamValues = jpaQueryParamValues;
+            this.queryParams = jpaQueryParams;
         }
 
 
         // Methods
         // --------------------------------------------------------------------
 
+        // Update
+
+        /**
+         * SET clause of the bulk update. Bulk statements bypass the entity listeners and the optimistic
+         * locking, so for the audited entities the version and the updated timestamp are set here.
+         */
+        private String asSetTxt(final Class<?> entityCls, final List<String> setProps,
+                final List<String> queryParams) {
+            final List<String> setStrs = new ArrayList<>();
+            for (final String prop : setProps) {
+                final String propParam = JPQL_PARAM.apply(queryParams.size() + 1);
+                queryParams.add(propParam);
+
+                setStrs.add(JPQL_SET.apply(prop, propParam));
+            }
+
+            // Audit
+            if (JpaAuditEntity.class.isAssignableFrom(entityCls)) {
+                final String version = INSTANCE_ALIAS + "." + JpaAuditEntity.FIELD_VERSION;
+                setStrs.add(String.format("%s = %s + 1", version, version));
+
+                if (!setProps.contains(JpaAuditEntity.FIELD_UPDATED_ON)) {
+                    setStrs.add(String.format("%s.%s = CURRENT_TIMESTAMP", INSTANCE_ALIAS,
+                            JpaAuditEntity.FIELD_UPDATED_ON));
+                }
+            }
+
+            return String.join(", ", setStrs);
+        }
+
+
+        // Order By
+
+        /**
+         * Sort properties with their directions, ending with the unique identifier as the tie-breaker.
+         * The tie-breaker takes the direction of the last sort property (unless sorted explicitly),
+         * so that a single index scan direction serves the whole sort.
+         */
+        private void addSortProperties(final OrderBy orderBy, final List<String> sortProps,
+                final List<Boolean> sortDirs) {
+            // Sort Properties
+            final List<String> orderProps = sortPropertiesOf(orderBy);
+            for (int i = 0; i < orderProps.size(); i++) {
+                sortProps.add(orderProps.get(i));
+                sortDirs.add(orderBy.isAsc(i));
+            }
+
+            // Tie-breaker
+            boolean isIdAsc = sortDirs.isEmpty() ? true : sortDirs.get(sortDirs.size() - 1);
+            if (Objects.nonNull(orderBy) && orderProps.size() < orderBy.getProperties().size()) {
+                isIdAsc = orderBy.isAsc(orderProps.size()); // explicitly sorted by ID
+            }
+
+            sortProps.add(JpaEntity.FIELD_ID);
+            sortDirs.add(isIdAsc);
+        }
+
+
+        // Seek
+
+        /**
+         * Keyset predicate to read the entries sorted after the passed position. For the sort
+         * properties (p1, p2, .. id), it expands to
+         * <code>(p1 > :v1) OR (p1 = :v1 AND p2 > :v2) OR .. (p1 = :v1 AND .. id > :id)</code>, the
+         * comparison flipped for the descending properties.
+         * 
+         * <p>
+         * The NULL values sort first ascending (last descending), as in MySQL : after a NULL value come
+         * the non NULL values ascending (none descending), and after a value come the NULL values
+         * descending. A NULL value has no parameter, so the NULL positions are part of the query shape.
+         * </p>
+         */
+        private String asSeekTxt(final List<String> sortProps, final List<Boolean> sortDirs, final Keyset after,
+                final List<String> queryParams) {
+            // Keyset values :: sort values + id
+            if (after.getSortValues().size() + 1 != sortProps.size()) {
+                throw new ValidationException("#toSeekQuery :: pagination token doesn't match the sort order");
+            }
+
+            final List<Object> values = new ArrayList<>(after.getSortValues());
+            values.add(after.getId());
+
+            // Params :: none for the NULL values
+            final List<String> propParams = new ArrayList<>();
+            for (final Object value : values) {
+                if (Objects.isNull(value)) {
+                    propParams.add(null);
+                    continue;
+                }
+
+                final String propParam = JPQL_PARAM.apply(queryParams.size() + 1);
+                queryParams.add(propParam);
+                propParams.add(propParam);
+            }
+
+            // Expand
+            final List<String> orStrs = new ArrayList<>();
+            for (int i = 0; i < sortProps.size(); i++) {
+                final String propName = sortProps.get(i);
+                final String propParam = propParams.get(i);
+                final boolean isAsc = sortDirs.get(i);
+                if (Objects.isNull(propParam) && !isAsc) {
+                    continue; // nothing after NULL, descending
+                }
+
+                final List<String> andStrs = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    andStrs.add(Objects.isNull(propParams.get(j)) ? JPQL_IS_NULL.apply(sortProps.get(j))
+                            : JPQL_EQUAL.apply(sortProps.get(j), propParams.get(j)));
+                }
+
+                if (Objects.isNull(propParam)) {
+                    andStrs.add(JPQL_NOT_NULL.apply(propName));
+                } else if (isAsc) {
+                    andStrs.add(JPQL_MIN.apply(propName, propParam));
+                } else if (i == sortProps.size() - 1) {
+                    andStrs.add(JPQL_MAX.apply(propName, propParam)); // the id, never NULL
+                } else {
+                    andStrs.add("(" + JPQL_MAX.apply(propName, propParam) + " OR " + JPQL_IS_NULL.apply(propName)
+                            + ")");
+                }
+
+                orStrs.add("(" + String.join(" AND ", andStrs) + ")");
+            }
+
+            return "(" + String.join(" OR ", orStrs) + ")";
+        }
+
+
         // Criteria :: Compound
 
-        private String asCriteriaTxt(final AndCriteria andCriteria, final Map<String, Object> paramValues) {
+        private String asCriteriaTxt(final AndCriteria andCriteria, final List<String> queryParams) {
             // Criteria Strings
             final List<String> criteriaStrs = new ArrayList<>();
             for (final Criteria cr : andCriteria.getCriteriaList()) {
-                final String crStr = this.asCriteriaTxt(cr, paramValues);
+                final String crStr = this.asCriteriaTxt(cr, queryParams);
                 criteriaStrs.add(crStr);
             }
 
             return "(" + String.join(" AND ", criteriaStrs) + ")";
         }
 
-        private String asCriteriaTxt(final OrCriteria orCriteria, final Map<String, Object> paramValues) {
+        private String asCriteriaTxt(final OrCriteria orCriteria, final List<String> queryParams) {
             // Criteria Strings
             final List<String> criteriaStrs = new ArrayList<>();
             for (final Criteria cr : orCriteria.getCriteriaList()) {
-                final String crStr = this.asCriteriaTxt(cr, paramValues);
+                final String crStr = this.asCriteriaTxt(cr, queryParams);
                 criteriaStrs.add(crStr);
             }
 
@@ -259,25 +714,25 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
 
         // Criteria :: Generic
 
-        private String asCriteriaTxt(final Criteria criteria, final Map<String, Object> paramValues) {
+        private String asCriteriaTxt(final Criteria criteria, final List<String> queryParams) {
             // Handle Criteria Group
             if (criteria instanceof AndCriteria) {
-                return this.asCriteriaTxt((AndCriteria) criteria, paramValues);
+                return this.asCriteriaTxt((AndCriteria) criteria, queryParams);
             } else if (criteria instanceof OrCriteria) {
-                return this.asCriteriaTxt((OrCriteria) criteria, paramValues);
+                return this.asCriteriaTxt((OrCriteria) criteria, queryParams);
+            } else if (criteria instanceof NoneCriteria) {
+                return JPQL_NONE;
             }
 
-            // Update the index
-            final int crIdx = paramValues.size() + 1;
-
             // Property Criteria
             final PropertyCriteria<?> propCriteria = (PropertyCriteria<?>) criteria;
             final String propName = propCriteria.getProperty();
-            final String propParam = JPQL_PARAM.apply(propName, crIdx);
 
-            final Object propValue = propCriteria.getValue();
-            if (Objects.nonNull(propValue)) {
-                paramValues.put(propParam, propValue);
+            // Param :: in the order of #paramValuesOf
+            String propParam = null;
+            if (hasParamValue(criteria)) {
+                propParam = JPQL_PARAM.apply(queryParams.size() + 1);
+                queryParams.add(propParam);
             }
 
             // Criteria
@@ -290,6 +745,9 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
             } else if (criteria instanceof LikeCriteria) {
                 return JPQL_LIKE.apply(propName, propParam);
 
+            } else if (criteria instanceof FullTextCriteria) {
+                return JPQL_MATCH.apply(propName, propParam);
+
             } else if (criteria instanceof MinCriteria) {
                 return JPQL_MIN.apply(propName, propParam);
 
@@ -318,8 +776,13 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
             return queryString;
         }
 
-        public Hashtable<String, Object> getQueryParamValues() {
-            return queryParamValues;
+        /**
+         * Names of the query parameters, in the order their values are to be bound.
+         *
+         * @return query parameter names
+         */
+        public List<String> getQueryParams() {
+            return queryParams;
         }
 
 
@@ -328,18 +791,162 @@ class JpaQueryBuilder implements QueryBuilder<Query> {
 
         @Override
         public String toString() {
-            return "JpaQuery [queryStr=" + queryString + ", paramValues=" + queryParamValues + "]";
+            return "JpaQuery [queryStr=" + queryString + ", params=" + queryParams + "]";
         }
 
-    }
 
+        // Static Utilities
+        // --------------------------------------------------------------------
+
+        /**
+         * The soft deleted entries are excluded from all the queries of the audit entities, except the
+         * (hard) DELETE statements and the queries with a criteria on the deleted timestamp itself.
+         */
+        private static boolean isSoftDeleteFiltered(final QueryType queryType, final Class<?> entityCls,
+                final Criteria criteria) {
+            return queryType != QueryType.DELETE //
+                    && JpaAuditEntity.class.isAssignableFrom(entityCls) //
+                    && !hasProperty(criteria, JpaAuditEntity.FIELD_DELETED_ON);
+        }
+
+        private static boolean hasProperty(final Criteria criteria, final String property) {
+            if (criteria instanceof CompoundCriteria) {
+                for (final Criteria cr : ((CompoundCriteria) criteria).getCriteriaList()) {
+                    if (hasProperty(cr, property)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+
+            return criteria instanceof PropertyCriteria
+                    && property.equals(((PropertyCriteria<?>) criteria).getProperty());
+        }
+
+        private static boolean hasParamValue(final Criteria criteria) {
+            return criteria instanceof EqualsCriteria //
+                    || criteria instanceof InCriteria //
+                    || criteria instanceof LikeCriteria //
+                    || criteria instanceof FullTextCriteria //
+                    || criteria instanceof MinCriteria //
+                    || criteria instanceof MaxCriteria;
+        }
+
+        /**
+         * Shape of the query, i.e. everything the JPQL depends upon, excluding the criteria values.
+         *
+         * @return query shape key
+         */
+        static String shapeOf(final QueryType queryType, final Class<?> entityCls, final Criteria inCriteria,
+                final OrderBy orderBy, final Keyset after, final List<String> setProps, final Selection selection) {
+            final StringBuilder shapeSB = new StringBuilder();
+            shapeSB.append(queryType).append('|').append(entityCls.getName()).append('|');
+            appendShape(inCriteria, shapeSB);
+
+            if (Objects.nonNull(setProps) && !setProps.isEmpty()) {
+                shapeSB.append("|set:").append(setProps);
+            }
+
+            if (Objects.nonNull(selection)) {
+                shapeSB.append("|select:").append(selection);
+            }
+
+            if (Objects.nonNull(orderBy)) {
+                shapeSB.append('|').append(orderBy);
+            }
+
+            if (Objects.nonNull(after)) {
+                shapeSB.append("|after:");
+                after.getSortValues().forEach(v -> shapeSB.append(Objects.isNull(v) ? '0' : '1'));
+            }
+
+            return shapeSB.toString();
+        }
+
+        private static void appendShape(final Criteria criteria, final StringBuilder shapeSB) {
+            if (Objects.isNull(criteria)) {
+                return;
+            }
+
+            shapeSB.append(criteria.getClass().getSimpleName());
+            if (criteria instanceof CompoundCriteria) {
+                shapeSB.append('(');
+                for (final Criteria cr : ((CompoundCriteria) criteria).getCriteriaList()) {
+                    appendShape(cr, shapeSB);
+                    shapeSB.append(',');
+                }
+                shapeSB.append(')');
+
+            } else if (criteria instanceof PropertyCriteria) {
+                shapeSB.append(':').append(((PropertyCriteria<?>) criteria).getProperty());
+            }
+        }
+
+        /**
+         * Values of the query parameters, in the same order as the parameters of the compiled
+         * template.
+         *
+         * @return query parameter values
+         */
+        static List<Object> paramValuesOf(final Criteria inCriteria, final Keyset after) {
+            final List<Object> paramValues = new ArrayList<>();
+            addParamValues(inCriteria, paramValues);
+
+            if (Objects.nonNull(after)) {
+                after.getSortValues().stream().filter(Objects::nonNull).forEach(paramValues::add);
+                paramValues.add(after.getId());
+            }
+
+            return paramValues;
+        }
+
+        private static void addParamValues(final Criteria criteria, final List<Object> paramValues) {
+            if (criteria instanceof CompoundCriteria) {
+                for (final Criteria cr : ((CompoundCriteria) criteria).getCriteriaList()) {
+                    addParamValues(cr, paramValues);
+                }
+
+            } else if (criteria instanceof InCriteria) {
+                paramValues.add(paddedValues(((InCriteria) criteria).getValues()));
+
+            } else if (criteria instanceof FullTextCriteria) {
+                paramValues.add(((FullTextCriteria) criteria).getBooleanQuery());
+
+            } else if (hasParamValue(criteria)) {
+                paramValues.add(((PropertyCriteria<?>) criteria).getValue());
+            }
+        }
+
+        /**
+         * IN list values padded (with the last value) to the next bucket size, i.e. the powers of 2 from 8
+         * up to 1024, and then the multiples of 1024. The SQL of an IN list varies with the number of its
+         * values, so the buckets bound the number of distinct statements (and their plans) of a query.
+         */
+        static List<Object> paddedValues(final Collection<?> values) {
+            final List<Object> paddedValues = new ArrayList<>(values);
+            if (paddedValues.isEmpty()) {
+                return paddedValues;
+            }
 
+            int bucketSize = IN_BUCKET_MIN;
+            while (bucketSize < paddedValues.size() && bucketSize < IN_BUCKET_MAX) {
+                bucketSize *= 2;
+            }
 
-    // if (orderby == null) {
-    // sQuery += " ORDER BY instance.createdOn DESC";
-    // } else {
-    // sQuery += " ORDER BY instance." + orderby;
-    // }
+            if (bucketSize < paddedValues.size()) {
+                bucketSize = ((paddedValues.size() - 1) / IN_BUCKET_MAX + 1) * IN_BUCKET_MAX;
+            }
+
+            final Object lastValue = paddedValues.get(paddedValues.size() - 1);
+            while (paddedValues.size() < bucketSize) {
+                paddedValues.add(lastValue);
+            }
+
+            return paddedValues;
+        }
+
+    }
 
 
 }
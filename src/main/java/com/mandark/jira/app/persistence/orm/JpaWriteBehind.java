@@ -0,0 +1,604 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mandark.jira.app.persistence.cache.QueryResultCache;
+import com.mandark.jira.spi.app.persistence.AuditLogged;
+import com.mandark.jira.spi.app.persistence.FullText;
+import com.mandark.jira.spi.app.persistence.IEntity;
+import com.mandark.jira.spi.app.persistence.Searchable;
+import com.mandark.jira.spi.app.persistence.WriteBehind;
+
+
+/**
+ * {@link WriteBehind} buffering the property updates in memory, coalesced per (entity type, identifier,
+ * property), and writing them as batched JDBC updates : on a timer, or when the buffered updates reach
+ * the flush threshold.
+ *
+ * <p>
+ * A flush writes all the buffered updates in one transaction; on a failure, the updates are buffered
+ * back (ahead of the ones buffered meanwhile) for the next flush. The written entities are evicted from
+ * the second level cache, and the cached query results depending on the written properties are
+ * invalidated. The values are bound by the mapped types of the properties (e.g. the enums, the
+ * converted values), which are to be of the basic types.
+ * </p>
+ *
+ * <p>
+ * As the bulk updates (see {@link JpaQueryBuilder}), the updates increment the version of the versioned
+ * entities, and set the updated timestamp of the audited ones. The text indexed properties
+ * ({@link Searchable}, {@link FullText}) are not accepted, their indexes are maintained on the entity
+ * writes; nor the {@link AuditLogged} entities, their changes are recorded on the entity writes.
+ * </p>
+ *
+ * <p>
+ * On {@link #close()}, the timer is stopped and the buffered updates are written; the updates after
+ * the close are written right away.
+ * </p>
+ */
+public class JpaWriteBehind implements WriteBehind<Integer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JpaWriteBehind.class);
+
+    private static final String SQL_INCREMENT = "UPDATE %s SET %s = COALESCE(%s, 0) + ?%s WHERE %s = ?";
+    private static final String SQL_SET = "UPDATE %s SET %s = ?%s WHERE %s = ?";
+    private static final String SQL_SET_VERSION = ", %s = %s + 1";
+    private static final String SQL_SET_UPDATED_ON = ", %s = CURRENT_TIMESTAMP";
+
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    private final ConcurrentMap<FieldKey, PendingUpdate> pending;
+    private final Map<String, String> statements; // entity|property|type - SQL
+    private final AtomicBoolean flushRequested;
+
+    private final AtomicLong accepted;
+    private final AtomicLong coalesced;
+    private final AtomicLong written;
+    private final AtomicLong failedFlushes;
+
+    private QueryResultCache queryCache;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    private long flushIntervalMillis;
+    private int flushThreshold;
+    private int batchSize;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public JpaWriteBehind(final EntityManagerFactory entityManagerFactory, final DataSource dataSource) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(entityManagerFactory) || Objects.isNull(dataSource)) {
+            throw new IllegalArgumentException("#JpaWriteBehind :: EntityManagerFactory / DataSource is NULL");
+        }
+
+        // init
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+
+        this.pending = new ConcurrentHashMap<>();
+        this.statements = new ConcurrentHashMap<>();
+        this.flushRequested = new AtomicBoolean();
+
+        this.accepted = new AtomicLong();
+        this.coalesced = new AtomicLong();
+        this.written = new AtomicLong();
+        this.failedFlushes = new AtomicLong();
+
+        this.flushIntervalMillis = 1000;
+        this.flushThreshold = 1000;
+        this.batchSize = 500;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Starts the flush timer.
+     */
+    public void init() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "write-behind-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        this.running = true;
+
+        LOGGER.info("#init :: write-behind started, flush every {} ms or at {} updates", flushIntervalMillis,
+                flushThreshold);
+    }
+
+    /**
+     * Stops the flush timer, and writes the buffered updates.
+     */
+    public void close() {
+        this.running = false;
+        if (Objects.nonNull(scheduler)) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(flushIntervalMillis * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("#close :: interrupted waiting for the write-behind flush");
+            }
+        }
+
+        this.flush();
+        LOGGER.info("#close :: write-behind stopped, {} updates accepted, {} coalesced, {} written, {} pending",
+                accepted.get(), coalesced.get(), written.get(), pending.size());
+    }
+
+
+    @Override
+    public void increment(final Class<? extends IEntity<Integer>> entityCls, final Integer id,
+            final String property, final long delta) {
+        final FieldKey key = this.toKey(entityCls, id, property);
+
+        final Class<?> propCls = this.getPersister(entityCls).getPropertyType(property).getReturnedClass();
+        if (!Number.class.isAssignableFrom(propCls) && !(propCls.isPrimitive() && propCls != boolean.class)) {
+            final String errMsg = String.format("#increment :: %s.%s is not numeric", entityCls.getSimpleName(),
+                    property);
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        this.enqueue(key, PendingUpdate.increment(delta));
+    }
+
+    @Override
+    public void set(final Class<? extends IEntity<Integer>> entityCls, final Integer id, final String property,
+            final Object value) {
+        final FieldKey key = this.toKey(entityCls, id, property);
+        this.enqueue(key, PendingUpdate.set(value));
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Drain :: the updates arriving meanwhile are buffered for the next flush
+        final Map<FieldKey, PendingUpdate> drained = new LinkedHashMap<>();
+        for (final FieldKey key : pending.keySet()) {
+            final PendingUpdate update = pending.remove(key);
+            if (Objects.nonNull(update)) {
+                drained.put(key, update);
+            }
+        }
+
+        // Group :: by statement
+        final Map<String, List<FieldKey>> groups = new LinkedHashMap<>();
+        for (final Map.Entry<FieldKey, PendingUpdate> entry : drained.entrySet()) {
+            final String sql = this.getSql(entry.getKey(), entry.getValue().isSet());
+            groups.computeIfAbsent(sql, k -> new ArrayList<>()).add(entry.getKey());
+        }
+
+        // Batch Update :: the values bound by their mapped types, in a stateless session on the connection
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        try (final Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            final StatelessSession session = sessionFactory.openStatelessSession(connection);
+            try {
+                for (final Map.Entry<String, List<FieldKey>> group : groups.entrySet()) {
+                    this.executeBatch(connection, group.getKey(), group.getValue(), drained,
+                            (SharedSessionContractImplementor) session);
+                }
+
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                session.close();
+            }
+
+        } catch (SQLException | HibernateException e) {
+            failedFlushes.incrementAndGet();
+            LOGGER.error("#flush :: failed to write {} updates, retrying with the next flush : {}", drained.size(),
+                    e.getMessage(), e);
+
+            // Retry :: ahead of the updates buffered meanwhile
+            drained.forEach((key, update) -> pending.merge(key, update, (current, older) -> older.then(current)));
+            return;
+        }
+
+        written.addAndGet(drained.size());
+
+        // Second level cache
+        final Cache cache = entityManagerFactory.getCache();
+        drained.keySet().forEach(key -> cache.evict(key.entityCls, key.id));
+
+        // Query result cache :: the results depending on the written properties
+        if (Objects.nonNull(queryCache)) {
+            final Map<Class<?>, Set<String>> changedProps = new LinkedHashMap<>();
+            for (final FieldKey key : drained.keySet()) {
+                changedProps.computeIfAbsent(key.entityCls, k -> new HashSet<>()).add(key.property);
+            }
+
+            changedProps.forEach((entityCls, props) -> {
+                if (JpaAuditEntity.class.isAssignableFrom(entityCls)) {
+                    props.add(JpaAuditEntity.FIELD_VERSION);
+                    props.add(JpaAuditEntity.FIELD_UPDATED_ON);
+                }
+
+                queryCache.invalidate(entityCls, props);
+            });
+        }
+
+        LOGGER.debug("#flush :: {} updates written in {} statements", drained.size(), groups.size());
+    }
+
+    @Override
+    public int getPending() {
+        return pending.size();
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private void enqueue(final FieldKey key, final PendingUpdate update) {
+        accepted.incrementAndGet();
+        pending.merge(key, update, (current, next) -> {
+            coalesced.incrementAndGet();
+            return current.then(next);
+        });
+
+        // Closed :: written right away
+        if (!running) {
+            this.flush();
+            return;
+        }
+
+        // Size threshold :: one flush request at a time
+        if (pending.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    flushRequested.set(false);
+                    this.flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+                this.flush();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            this.flush();
+        } catch (RuntimeException e) {
+            LOGGER.error("#flushQuietly :: write-behind flush failed : {}", e.getMessage(), e);
+        }
+    }
+
+    private void executeBatch(final Connection connection, final String sql, final List<FieldKey> keys,
+            final Map<FieldKey, PendingUpdate> updates, final SharedSessionContractImplementor session)
+            throws SQLException {
+        try (final PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int i = 0;
+            for (final FieldKey key : keys) {
+                final PendingUpdate update = updates.get(key);
+                if (update.isSet()) {
+                    final Type propType = this.getPersister(key.entityCls).getPropertyType(key.property);
+                    propType.nullSafeSet(pstmt, update.value, 1, session);
+                } else {
+                    pstmt.setLong(1, update.delta);
+                }
+
+                pstmt.setInt(2, key.id);
+                pstmt.addBatch();
+
+                if (++i % batchSize == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+
+            if (i % batchSize != 0) {
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    private FieldKey toKey(final Class<? extends IEntity<Integer>> entityCls, final Integer id,
+            final String property) {
+        // Sanity checks
+        if (Objects.isNull(entityCls) || Objects.isNull(id) || Objects.isNull(property)) {
+            throw new IllegalArgumentException("#toKey :: in Entity Class / ID / property is NULL");
+        }
+
+        if (JpaEntity.FIELD_ID.equals(property) || JpaAuditEntity.FIELD_VERSION.equals(property)) {
+            throw new IllegalArgumentException("#toKey :: the identifier / version can't be updated : " + property);
+        }
+
+        if (entityCls.isAnnotationPresent(AuditLogged.class)) {
+            throw new IllegalArgumentException("#toKey :: the updates of the AuditLogged entities can't be "
+                    + "written behind, they wouldn't be audit logged : " + entityCls.getSimpleName());
+        }
+
+        if (isTextIndexed(entityCls, property)) {
+            throw new IllegalArgumentException("#toKey :: text indexed properties can't be written behind : "
+                    + property);
+        }
+
+        final AbstractEntityPersister persister = this.getPersister(entityCls);
+        try {
+            final Type propType = persister.getPropertyType(property);
+            if (propType.isCollectionType() || propType.isEntityType() || propType.isComponentType()) {
+                throw new IllegalArgumentException("#toKey :: not a basic property : " + property);
+            }
+        } catch (MappingException e) {
+            final String errMsg = String.format("#toKey :: unknown property %s of %s", property,
+                    entityCls.getSimpleName());
+            throw new IllegalArgumentException(errMsg, e);
+        }
+
+        return new FieldKey(entityCls, id, property);
+    }
+
+    private AbstractEntityPersister getPersister(final Class<?> entityCls) {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        final AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMetamodel()
+                .entityPersister(entityCls);
+        if (!(persister instanceof SingleTableEntityPersister) || persister.isMultiTable()) {
+            final String errMsg = String.format("#getPersister :: single table entities only : %s",
+                    persister.getEntityName());
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        return persister;
+    }
+
+    private String getSql(final FieldKey key, final boolean isSet) {
+        final String statementKey = key.entityCls.getName() + "|" + key.property + "|" + isSet;
+        return statements.computeIfAbsent(statementKey, k -> {
+            final AbstractEntityPersister persister = this.getPersister(key.entityCls);
+            final String table = persister.getTableName();
+            final String column = persister.getPropertyColumnNames(key.property)[0];
+            final String idColumn = persister.getIdentifierColumnNames()[0];
+
+            // Audit :: the version, and the updated timestamp (unless set)
+            final StringBuilder auditSB = new StringBuilder();
+            if (persister.isVersioned()) {
+                final String versionColumn = persister.getVersionColumnName();
+                auditSB.append(String.format(SQL_SET_VERSION, versionColumn, versionColumn));
+            }
+
+            if (JpaAuditEntity.class.isAssignableFrom(key.entityCls)
+                    && !JpaAuditEntity.FIELD_UPDATED_ON.equals(key.property)) {
+                final String updatedOnColumn = persister.getPropertyColumnNames(JpaAuditEntity.FIELD_UPDATED_ON)[0];
+                auditSB.append(String.format(SQL_SET_UPDATED_ON, updatedOnColumn));
+            }
+
+            return isSet ? String.format(SQL_SET, table, column, auditSB, idColumn)
+                    : String.format(SQL_INCREMENT, table, column, column, auditSB, idColumn);
+        });
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Query result cache to invalidate on the flushes (see {@link GenericJpaDao#getQueryCache()}).
+     *
+     * @param queryCache the query result cache, <code>null</code> if disabled
+     */
+    public void setQueryCache(QueryResultCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+    }
+
+    /**
+     * Buffered updates triggering a flush, ahead of the timer.
+     *
+     * @param flushThreshold flush threshold, at least 1
+     */
+    public void setFlushThreshold(int flushThreshold) {
+        if (flushThreshold < 1) {
+            throw new IllegalArgumentException("#setFlushThreshold :: flush threshold should be at least 1");
+        }
+
+        this.flushThreshold = flushThreshold;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("#setBatchSize :: batch size should be at least 1");
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Updates accepted, including the ones coalesced.
+     *
+     * @return the accepted updates
+     */
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    /**
+     * Updates merged into an already buffered update of the same property (i.e. writes saved).
+     *
+     * @return the coalesced updates
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    /**
+     * Whether the property is text indexed, {@link Searchable} or {@link FullText} : on its field or its
+     * getter.
+     */
+    private static boolean isTextIndexed(final Class<?> entityCls, final String property) {
+        final Field field = FieldUtils.getField(entityCls, property, true);
+        if (Objects.nonNull(field)
+                && (field.isAnnotationPresent(Searchable.class) || field.isAnnotationPresent(FullText.class))) {
+            return true;
+        }
+
+        final String getterName = "get" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (Class<?> cls = entityCls; Objects.nonNull(cls); cls = cls.getSuperclass()) {
+            for (final Method method : cls.getDeclaredMethods()) {
+                if (getterName.equals(method.getName()) && method.getParameterCount() == 0
+                        && (method.isAnnotationPresent(Searchable.class)
+                                || method.isAnnotationPresent(FullText.class))) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+
+    // FieldKey
+    // ------------------------------------------------------------------------
+
+    private static final class FieldKey {
+
+        private final Class<?> entityCls;
+        private final Integer id;
+        private final String property;
+
+        private FieldKey(final Class<?> entityCls, final Integer id, final String property) {
+            this.entityCls = entityCls;
+            this.id = id;
+            this.property = property;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityCls, id, property);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof FieldKey)) {
+                return false;
+            }
+
+            final FieldKey other = (FieldKey) obj;
+            return entityCls.equals(other.entityCls) && id.equals(other.id) && property.equals(other.property);
+        }
+
+    }
+
+
+    // PendingUpdate
+    // ------------------------------------------------------------------------
+
+    /**
+     * Buffered update of a property : a value set, or an increment.
+     */
+    static final class PendingUpdate {
+
+        final boolean isSet;
+        final Object value;
+        final long delta;
+
+        private PendingUpdate(final boolean isSet, final Object value, final long delta) {
+            this.isSet = isSet;
+            this.value = value;
+            this.delta = delta;
+        }
+
+        boolean isSet() {
+            return isSet;
+        }
+
+        /**
+         * Coalesces the next update of the property into this one.
+         */
+        PendingUpdate then(final PendingUpdate next) {
+            if (next.isSet) {
+                return next; // last writer wins
+            }
+
+            if (!isSet) {
+                return increment(delta + next.delta);
+            }
+
+            final long base = value instanceof Number ? ((Number) value).longValue() : 0L;
+            return set(base + next.delta);
+        }
+
+        static PendingUpdate set(final Object value) {
+            return new PendingUpdate(true, value, 0L);
+        }
+
+        static PendingUpdate increment(final long delta) {
+            return new PendingUpdate(false, null, delta);
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+
+/**
+ * Cache of the compiled JPQL query templates, keyed by the query shape (entity, criteria tree of
+ * types and properties, query type ..). The values of the criteria are NOT part of the key, and are
+ * bound to the template on each execution.
+ *
+ * <p>
+ * The number of query shapes in an application is limited, so the cache is bounded by a simple
+ * size limit: once full, the new shapes are compiled for every use and not retained.
+ * </p>
+ *
+ * @param <T> Type of the compiled template
+ */
+public final class JpqlTemplateCache<T> {
+
+    private final int maxSize;
+    private final Map<String, T> templates;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    JpqlTemplateCache(final int maxSize) {
+        super();
+
+        // init
+        this.maxSize = maxSize;
+        this.templates = new ConcurrentHashMap<>();
+
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Returns the template cached against the shape, compiling (and caching) it if not cached.
+     *
+     * @param shapeKey query shape key
+     * @param compiler template compiler
+     *
+     * @return the compiled template
+     */
+    T get(final String shapeKey, final Supplier<T> compiler) {
+        final T cachedTemplate = templates.get(shapeKey);
+        if (Objects.nonNull(cachedTemplate)) {
+            hits.increment();
+            return cachedTemplate;
+        }
+
+        misses.increment();
+
+        final T template = compiler.get();
+        if (templates.size() < maxSize) {
+            templates.putIfAbsent(shapeKey, template);
+        }
+
+        return template;
+    }
+
+    /**
+     * Evicts all the cached templates.
+     */
+    public void clear() {
+        templates.clear();
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int getSize() {
+        return templates.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "JpqlTemplateCache [size=" + templates.size() + ", hits=" + hits.sum() + ", misses=" + misses.sum()
+                + "]";
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+
+/**
+ * {@link Iterator} over the Hibernate {@link ScrollableResults} of an entity query.
+ *
+ * <p>
+ * The iterated entities are detached from the {@link Session} in batches of the detach size, so the
+ * persistence context (and the memory) doesn't grow with the number of rows read. The results are
+ * closed when exhausted, or on {@link #close()}.
+ * </p>
+ *
+ * @param <E> Type of the entity
+ */
+final class ScrollIterator<E> implements Iterator<E>, AutoCloseable {
+
+    private final Session session;
+    private final ScrollableResults results;
+    private final int detachSize;
+
+    private final List<E> attached;
+
+    private Boolean hasNext; // look-ahead, null till read
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    ScrollIterator(final Session session, final ScrollableResults results, final int detachSize) {
+        super();
+
+        // init
+        this.session = session;
+        this.results = results;
+        this.detachSize = Math.max(1, detachSize);
+
+        this.attached = new ArrayList<>(this.detachSize);
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean hasNext() {
+        if (Objects.isNull(hasNext)) {
+            hasNext = results.next();
+            if (!hasNext) {
+                this.close();
+            }
+        }
+
+        return hasNext;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("#next :: no more results");
+        }
+
+        hasNext = null;
+
+        // Detach the earlier batch
+        if (attached.size() >= detachSize) {
+            this.detachAll();
+        }
+
+        final E entity = (E) results.get(0);
+        attached.add(entity);
+
+        return entity;
+    }
+
+    @Override
+    public void close() {
+        results.close();
+        this.detachAll();
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private void detachAll() {
+        if (session.isOpen()) {
+            attached.forEach(session::evict);
+        }
+
+        attached.clear();
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+/**
+ * Execution of a query slower than the threshold of the {@link SlowQueryRecorder}.
+ */
+public final class SlowQueryRecord {
+
+    private final String shape;
+    private final String jpql;
+    private final List<String> sqls;
+    private final List<String> params;
+
+    private final long elapsedMillis;
+    private final int rowCount;
+    private final String explain;
+
+    private final LocalDateTime executedOn;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private SlowQueryRecord(String shape, String jpql, List<String> sqls, List<String> params, long elapsedMillis,
+            int rowCount, String explain, LocalDateTime executedOn) {
+        super();
+
+        // init
+        this.shape = shape;
+        this.jpql = jpql;
+        this.sqls = List.copyOf(sqls);
+        this.params = List.copyOf(params);
+
+        this.elapsedMillis = elapsedMillis;
+        this.rowCount = rowCount;
+        this.explain = explain;
+
+        this.executedOn = executedOn;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Shape of the query, i.e. the query type, the entity and the criteria types and properties.
+     *
+     * @return the query shape
+     */
+    public String getShape() {
+        return shape;
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    /**
+     * SQL statements run by the query, the query itself first.
+     *
+     * @return the SQL statements
+     */
+    public List<String> getSqls() {
+        return sqls;
+    }
+
+    /**
+     * Bound parameters, redacted to their types (and sizes).
+     *
+     * @return the redacted parameters, in the order of the query parameters
+     */
+    public List<String> getParams() {
+        return params;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Plan of the query (<code>EXPLAIN FORMAT=JSON</code>).
+     *
+     * @return the plan, <code>null</code> if not captured (e.g. explained recently for the shape)
+     */
+    public String getExplain() {
+        return explain;
+    }
+
+    public LocalDateTime getExecutedOn() {
+        return executedOn;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "SlowQueryRecord [elapsedMillis=" + elapsedMillis + ", rowCount=" + rowCount + ", shape=" + shape
+                + ", sqls=" + sqls + ", params=" + params + ", explain=" + explain + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    public static SlowQueryRecord of(String shape, String jpql, List<String> sqls, List<String> params,
+            long elapsedMillis, int rowCount, String explain) {
+        return new SlowQueryRecord(shape, jpql, sqls, params, elapsedMillis, rowCount, explain,
+                LocalDateTime.now());
+    }
+
+}
@@ -0,0 +1,365 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.engine.spi.TypedValue;
+import org.hibernate.query.QueryParameter;
+import org.hibernate.query.spi.QueryImplementor;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mandark.jira.app.persistence.orm.JpaQueryBuilder.JpaQuery;
+import com.mandark.jira.app.persistence.orm.JpaQueryBuilder.QueryType;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.OrderBy;
+
+
+/**
+ * Times the query executions of the {@link GenericJpaDao}, and records the ones slower than the
+ * threshold (see {@link SlowQueryRecord}) : with their SQL, their (redacted) parameters, their row count
+ * and their plan (<code>EXPLAIN FORMAT=JSON</code>).
+ *
+ * <p>
+ * The records are kept in a bounded ring of the recent ones, aggregated by the query shape (the top
+ * offenders), and written to the slow query log (logger {@value #SLOW_QUERY_LOGGER}, a rolling file). A
+ * shape is explained at most once per explain interval, on the connection the query ran on (e.g. of the
+ * read replica), with the parameters bound by their mapped types.
+ * </p>
+ */
+public class SlowQueryRecorder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryRecorder.class);
+
+    static final String SLOW_QUERY_LOGGER = "com.mandark.jira.slowquery";
+
+    private static final Logger SLOW_QUERY_LOG = LoggerFactory.getLogger(SLOW_QUERY_LOGGER);
+
+    private static final String SQL_EXPLAIN = "EXPLAIN FORMAT=JSON ";
+
+
+    private final Map<String, SlowQueryStats> statsByShape;
+    private final AtomicLong dropped;
+
+    private SlowQueryRecord[] ring;
+    private long ringNext;
+
+    private long thresholdMillis;
+    private long explainIntervalMillis;
+    private int maxShapes;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public SlowQueryRecorder() {
+        super();
+
+        // init
+        this.statsByShape = new ConcurrentHashMap<>();
+        this.dropped = new AtomicLong();
+
+        this.ring = new SlowQueryRecord[200];
+        this.thresholdMillis = 500;
+        this.explainIntervalMillis = 60_000;
+        this.maxShapes = 1000;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Runs the query execution, timed, and records it if slow. The recording never fails the execution.
+     *
+     * @param queryType type of the query, for its shape
+     * @param entityCls the entity type queried
+     * @param criteria query criteria (optional)
+     * @param orderBy query order (optional)
+     * @param query the query executed
+     * @param execution the execution of the query
+     * @param rowCounter row count of the execution result
+     *
+     * @return the execution result
+     */
+    <T> T record(final QueryType queryType, final Class<?> entityCls, final Criteria criteria, final OrderBy orderBy,
+            final Query query, final Supplier<T> execution, final ToIntFunction<T> rowCounter) {
+        final List<String> sqls;
+        final long startNanos = System.nanoTime();
+
+        final T result;
+        SqlCaptureInspector.begin();
+        try {
+            result = execution.get();
+        } finally {
+            sqls = SqlCaptureInspector.end();
+        }
+
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (elapsedMillis < thresholdMillis) {
+            return result;
+        }
+
+        try {
+            final String shape = JpaQuery.shapeOf(queryType, entityCls, criteria, orderBy, null, null, null);
+            this.onSlowQuery(shape, query, sqls, elapsedMillis, rowCounter.applyAsInt(result));
+
+        } catch (RuntimeException e) {
+            LOGGER.warn("#record :: failed to record the slow query of {} : {}", entityCls.getSimpleName(),
+                    e.getMessage());
+        }
+
+        return result;
+    }
+
+    /**
+     * Slowest query shapes, by their total time.
+     *
+     * @param limit max shapes
+     *
+     * @return the top offenders, slowest first
+     */
+    public List<SlowQueryStats> getTopShapes(final int limit) {
+        return statsByShape.values().stream().map(SlowQueryStats::snapshot)
+                .sorted(Comparator.comparingLong(SlowQueryStats::getTotalMillis).reversed()) //
+                .limit(Math.max(0, limit)) //
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recent slow queries, from the ring.
+     *
+     * @param limit max records
+     *
+     * @return the recent records, latest first
+     */
+    public synchronized List<SlowQueryRecord> getRecent(final int limit) {
+        final List<SlowQueryRecord> records = new ArrayList<>();
+        for (long i = ringNext - 1; i >= 0 && i >= ringNext - ring.length && records.size() < limit; i--) {
+            records.add(ring[(int) (i % ring.length)]);
+        }
+
+        return records;
+    }
+
+    /**
+     * Clears the recorded queries and the shape stats.
+     */
+    public synchronized void reset() {
+        statsByShape.clear();
+        ring = new SlowQueryRecord[ring.length];
+        ringNext = 0;
+        dropped.set(0);
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private void onSlowQuery(final String shape, final Query query, final List<String> sqls, final long elapsedMillis,
+            final int rowCount) {
+        // Stats :: bounded number of shapes
+        SlowQueryStats stats = statsByShape.get(shape);
+        if (Objects.isNull(stats)) {
+            if (statsByShape.size() >= maxShapes) {
+                dropped.incrementAndGet();
+                LOGGER.debug("#onSlowQuery :: max shapes reached, not tracking {}", shape);
+            } else {
+                stats = statsByShape.computeIfAbsent(shape, SlowQueryStats::new);
+            }
+        }
+
+        // Params :: positional, as bound to the SQL
+        final List<TypedValue> paramValues = paramValuesOf(query);
+
+        // Explain :: the query (first statement), once per interval for a shape
+        final QueryImplementor<?> hibernateQuery = query.unwrap(QueryImplementor.class);
+
+        String explain = null;
+        final boolean isExplained = Objects.nonNull(stats)
+                && stats.claimExplain(System.currentTimeMillis(), explainIntervalMillis);
+        if (isExplained && !sqls.isEmpty()) {
+            explain = this.explain((SharedSessionContractImplementor) hibernateQuery.getProducer(), sqls.get(0),
+                    paramValues);
+        }
+
+        final String jpql = hibernateQuery.getQueryString();
+        final List<String> redactedParams = paramValues.stream().map(v -> redact(v.getValue()))
+                .collect(Collectors.toList());
+
+        final SlowQueryRecord record = SlowQueryRecord.of(shape, jpql, sqls, redactedParams, elapsedMillis,
+                rowCount, explain);
+        if (Objects.nonNull(stats)) {
+            stats.add(record);
+        }
+
+        synchronized (this) {
+            ring[(int) (ringNext++ % ring.length)] = record;
+        }
+
+        SLOW_QUERY_LOG.warn("{} ms, {} rows :: {} :: {} :: params {}{}", elapsedMillis, rowCount, shape,
+                sqls.isEmpty() ? jpql : sqls.get(0), redactedParams,
+                Objects.isNull(explain) ? "" : " :: explain " + explain.replaceAll("\\s*\\n\\s*", " "));
+    }
+
+    /**
+     * Explains the SQL on the connection of the session, i.e. on the database it ran on.
+     */
+    private String explain(final SharedSessionContractImplementor session, final String sql,
+            final List<TypedValue> paramValues) {
+        // Parameters :: as many as the placeholders, else the SQL is not the one bound
+        final long placeholders = sql.chars().filter(c -> c == '?').count();
+        if (placeholders != paramValues.size()) {
+            LOGGER.debug("#explain :: {} parameters for {} placeholders, not explained", paramValues.size(),
+                    placeholders);
+            return null;
+        }
+
+        try (final PreparedStatement pstmt = session.connection().prepareStatement(SQL_EXPLAIN + sql)) {
+            for (int i = 0; i < paramValues.size(); i++) {
+                final TypedValue param = paramValues.get(i);
+                if (Objects.nonNull(param.getType())) {
+                    param.getType().nullSafeSet(pstmt, param.getValue(), i + 1, session);
+                } else {
+                    pstmt.setObject(i + 1, param.getValue());
+                }
+            }
+
+            try (final ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+
+        } catch (SQLException | HibernateException e) {
+            LOGGER.warn("#explain :: failed to explain the slow query : {}", e.getMessage());
+            return null;
+        }
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Executions taking at least this long are recorded.
+     *
+     * @param thresholdMillis threshold in milliseconds
+     */
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdMillis = Math.max(0, thresholdMillis);
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    /**
+     * Number of the recent slow queries kept.
+     *
+     * @param capacity ring capacity, at least 1
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("#setCapacity :: capacity should be at least 1");
+        }
+
+        this.ring = new SlowQueryRecord[capacity];
+        this.ringNext = 0;
+    }
+
+    /**
+     * Min time between the EXPLAINs of a query shape.
+     *
+     * @param explainIntervalMillis explain interval in milliseconds
+     */
+    public void setExplainIntervalMillis(long explainIntervalMillis) {
+        this.explainIntervalMillis = Math.max(0, explainIntervalMillis);
+    }
+
+    public void setMaxShapes(int maxShapes) {
+        if (maxShapes < 1) {
+            throw new IllegalArgumentException("#setMaxShapes :: max shapes should be at least 1");
+        }
+
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * Slow queries of the shapes not tracked, beyond the max shapes.
+     *
+     * @return the untracked slow queries
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    /**
+     * Values of the query parameters (<code>param_N</code>), with their mapped types (if known), in the
+     * parameter order, the collections expanded as in the SQL.
+     */
+    static List<TypedValue> paramValuesOf(final Query query) {
+        final List<Parameter<?>> params = new ArrayList<>(query.getParameters());
+        params.sort(Comparator.comparingInt(SlowQueryRecorder::paramIndexOf).thenComparing(Parameter::getName));
+
+        final List<TypedValue> paramValues = new ArrayList<>();
+        for (final Parameter<?> param : params) {
+            final Type type = param instanceof QueryParameter ? ((QueryParameter<?>) param).getHibernateType() : null;
+            final Object value = query.getParameterValue(param);
+            if (value instanceof Collection) {
+                ((Collection<?>) value).forEach(v -> paramValues.add(new TypedValue(type, v)));
+            } else {
+                paramValues.add(new TypedValue(type, value));
+            }
+        }
+
+        return paramValues;
+    }
+
+    private static int paramIndexOf(final Parameter<?> param) {
+        final String name = Objects.isNull(param.getName()) ? "" : param.getName();
+        final String index = name.substring(name.lastIndexOf('_') + 1);
+        return index.chars().allMatch(Character::isDigit) && !index.isEmpty() ? Integer.parseInt(index)
+                : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Parameter value redacted to its type, with the size of the texts and the collections.
+     */
+    static String redact(final Object value) {
+        if (Objects.isNull(value)) {
+            return "null";
+        }
+
+        final String typeName = value.getClass().getSimpleName();
+        if (value instanceof CharSequence) {
+            return typeName + "(" + ((CharSequence) value).length() + ")";
+
+        } else if (value instanceof Collection) {
+            return typeName + "(" + ((Collection<?>) value).size() + ")";
+        }
+
+        return typeName;
+    }
+
+}
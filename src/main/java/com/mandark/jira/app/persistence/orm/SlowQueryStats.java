@@ -0,0 +1,111 @@
+package com.mandark.jira.app.persistence.orm;
+
+
+/**
+ * Slow executions of a query shape, as recorded by the {@link SlowQueryRecorder}.
+ */
+public final class SlowQueryStats {
+
+    private final String shape;
+
+    private long count;
+    private long totalMillis;
+    private long maxMillis;
+
+    private SlowQueryRecord lastRecord;
+    private long lastExplainedAt;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    SlowQueryStats(final String shape) {
+        super();
+
+        // init
+        this.shape = shape;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    synchronized void add(final SlowQueryRecord record) {
+        count++;
+        totalMillis += record.getElapsedMillis();
+        maxMillis = Math.max(maxMillis, record.getElapsedMillis());
+
+        lastRecord = record;
+    }
+
+    /**
+     * Claims the EXPLAIN of the shape, at most one per interval.
+     *
+     * @return true if the shape is to be explained now
+     */
+    synchronized boolean claimExplain(final long now, final long intervalMillis) {
+        if (lastExplainedAt != 0 && now - lastExplainedAt < intervalMillis) {
+            return false;
+        }
+
+        lastExplainedAt = now;
+        return true;
+    }
+
+    /**
+     * Copy of the stats, consistent across its counters.
+     */
+    synchronized SlowQueryStats snapshot() {
+        final SlowQueryStats snapshot = new SlowQueryStats(shape);
+        snapshot.count = count;
+        snapshot.totalMillis = totalMillis;
+        snapshot.maxMillis = maxMillis;
+        snapshot.lastRecord = lastRecord;
+
+        return snapshot;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public String getShape() {
+        return shape;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public long getAvgMillis() {
+        return count == 0 ? 0 : totalMillis / count;
+    }
+
+    /**
+     * Latest slow execution of the shape.
+     *
+     * @return the last record
+     */
+    public SlowQueryRecord getLastRecord() {
+        return lastRecord;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "SlowQueryStats [shape=" + shape + ", count=" + count + ", totalMillis=" + totalMillis
+                + ", maxMillis=" + maxMillis + "]";
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mandark.jira.spi.app.persistence.IDao;
+import com.mandark.jira.spi.app.persistence.IEntity;
+
+
+/**
+ * Hard deletes (purges) the soft deleted {@link JpaAuditEntity}s, once past the retention, in the
+ * background.
+ *
+ * <p>
+ * Each run purges the entities of every (root) audit entity type in small batches, each in its own
+ * transaction, pausing between the batches : so the row locks are held only for a batch, and the
+ * replicas get to apply a batch before the next one. The dependent entities go with their owners, as
+ * mapped (cascades).
+ * </p>
+ */
+public class SoftDeletePurger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoftDeletePurger.class);
+
+
+    private final IDao<Integer> dao;
+    private final TransactionTemplate txTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private int batchSize;
+    private long pauseMillis;
+    private long retentionSeconds;
+    private int maxBatches;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public SoftDeletePurger(final IDao<Integer> dao, final PlatformTransactionManager transactionManager,
+            final EntityManagerFactory entityManagerFactory) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(dao) || Objects.isNull(transactionManager) || Objects.isNull(entityManagerFactory)) {
+            throw new IllegalArgumentException(
+                    "#SoftDeletePurger :: DAO / TransactionManager / EntityManagerFactory is NULL");
+        }
+
+        // init
+        this.dao = dao;
+        this.entityManagerFactory = entityManagerFactory;
+
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.batchSize = 100;
+        this.pauseMillis = 200;
+        this.retentionSeconds = 0;
+        this.maxBatches = 100;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Purges the soft deleted entities past the retention, of all the audit entity types.
+     */
+    public void purge() {
+        final LocalDateTime deletedBefore = LocalDateTime.now().minusSeconds(retentionSeconds);
+
+        for (final Class<? extends IEntity<Integer>> entityCls : this.getSoftDeletableClasses()) {
+            try {
+                final int purged = this.purge(entityCls, deletedBefore);
+                if (purged > 0) {
+                    LOGGER.info("#purge :: purged {} soft deleted {}", purged, entityCls.getSimpleName());
+                }
+
+            } catch (RuntimeException e) {
+                LOGGER.error("#purge :: failed to purge the soft deleted {} : {}", entityCls.getSimpleName(),
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private int purge(final Class<? extends IEntity<Integer>> entityCls, final LocalDateTime deletedBefore) {
+        int purged = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            // Batch :: own transaction
+            final Integer count = txTemplate.execute(status -> dao.purgeDeleted(entityCls, deletedBefore, batchSize));
+            purged += Objects.isNull(count) ? 0 : count;
+
+            if (Objects.isNull(count) || count < batchSize) {
+                break; // all purged
+            }
+
+            // Throttle
+            if (!this.pause()) {
+                break;
+            }
+        }
+
+        return purged;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("#pause :: interrupted, stopping the purge");
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Class<? extends IEntity<Integer>>> getSoftDeletableClasses() {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        final List<Class<? extends IEntity<Integer>>> entityClasses = new ArrayList<>();
+        for (final EntityPersister persister : sessionFactory.getMetamodel().entityPersisters().values()) {
+            // Root entities only, the purge of the root covers the sub-classes
+            if (!persister.getEntityName().equals(persister.getRootEntityName())) {
+                continue;
+            }
+
+            final Class<?> mappedCls = persister.getMappedClass();
+            if (Objects.nonNull(mappedCls) && JpaAuditEntity.class.isAssignableFrom(mappedCls)) {
+                entityClasses.add((Class<? extends IEntity<Integer>>) mappedCls);
+            }
+        }
+
+        return entityClasses;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Entities purged per transaction.
+     *
+     * @param batchSize batch size, at least 1
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("#setBatchSize :: batch size should be at least 1");
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Pause between the batches, for the replicas to catch up.
+     *
+     * @param pauseMillis pause in milliseconds, <code>0</code> for none
+     */
+    public void setPauseMillis(long pauseMillis) {
+        this.pauseMillis = Math.max(0, pauseMillis);
+    }
+
+    /**
+     * Time the soft deleted entities are kept for, before the purge.
+     *
+     * @param retention retention in seconds
+     */
+    public void setRetention(long retention) {
+        this.retentionSeconds = Math.max(0, retention);
+    }
+
+    /**
+     * Max batches of an entity type per run, the rest is left to the next runs.
+     *
+     * @param maxBatches max batches, at least 1
+     */
+    public void setMaxBatches(int maxBatches) {
+        if (maxBatches < 1) {
+            throw new IllegalArgumentException("#setMaxBatches :: max batches should be at least 1");
+        }
+
+        this.maxBatches = maxBatches;
+    }
+
+}
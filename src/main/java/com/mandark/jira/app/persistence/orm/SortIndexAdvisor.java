@@ -0,0 +1,314 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.Column;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mandark.jira.spi.app.query.AndCriteria;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.EqualsCriteria;
+
+
+/**
+ * Checks whether the sort of a query is backed by an index of the entity table, and warns when it
+ * is not, as the database then sorts all the matching rows for every page (filesort) instead of
+ * reading just the page from the index.
+ *
+ * <p>
+ * An index backs the sort if its columns start with the columns matched for equality in the
+ * criteria (any order), followed by the sort columns (in order) : each in its sort direction (read
+ * forwards), or each in the reverse direction (read backwards). So a mixed ASC / DESC sort is backed
+ * only by an index declaring the same mix (or its reverse). The unique identifier tie-breaker, sorted
+ * as the last sort property, is implicitly the last (ascending) column of every InnoDB secondary index.
+ * </p>
+ *
+ * <p>
+ * The indexes are read from the mapping annotations ({@link Table#indexes()},
+ * {@link Table#uniqueConstraints()}, unique {@link Column}s and {@link JoinColumn}s).
+ * </p>
+ */
+class SortIndexAdvisor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortIndexAdvisor.class);
+
+
+    // Constructor
+
+    SortIndexAdvisor() {
+        super();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Warns if the sort properties are not backed by any of the entity indexes.
+     *
+     * @param entityCls the entity type
+     * @param criteria query criteria (optional)
+     * @param sortProps sort properties, excluding the unique identifier tie-breaker
+     * @param sortDirs sort directions of the properties, <code>true</code> for ascending
+     *
+     * @return <code>true</code> if the sort is backed by an index.
+     */
+    boolean check(final Class<?> entityCls, final Criteria criteria, final List<String> sortProps,
+            final List<Boolean> sortDirs) {
+        // Sanity checks
+        if (Objects.isNull(sortProps) || sortProps.isEmpty()) {
+            return true; // Primary Key order
+        }
+
+        // Columns
+        final Set<String> equalCols = this.getEqualityProperties(criteria).stream() //
+                .map(p -> this.getColumnName(entityCls, p)) //
+                .collect(Collectors.toSet());
+        final List<String> sortCols = sortProps.stream() //
+                .map(p -> this.getColumnName(entityCls, p)) //
+                .collect(Collectors.toList());
+
+        // Indexes
+        for (final IndexColumns index : this.getIndexes(entityCls)) {
+            if (this.isBacking(index, equalCols, sortCols, sortDirs)) {
+                return true;
+            }
+        }
+
+        // Suggestion :: read backwards if the last sort property is descending, for the tie-breaker
+        final List<String> suggestedCols = new ArrayList<>(equalCols);
+        final boolean isBackwards = !sortDirs.get(sortDirs.size() - 1);
+        for (int i = 0; i < sortCols.size(); i++) {
+            suggestedCols.add(sortCols.get(i) + (sortDirs.get(i) != isBackwards ? "" : " DESC"));
+        }
+        LOGGER.warn("#check :: no index backs the sort of {} by {} (equality filters : {}), consider an index on {}",
+                entityCls.getSimpleName(), sortProps, equalCols, suggestedCols);
+
+        return false;
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private boolean isBacking(final IndexColumns index, final Set<String> equalCols, final List<String> sortCols,
+            final List<Boolean> sortDirs) {
+        // Skip the leading equality columns
+        final List<String> indexCols = index.columns;
+        int idx = 0;
+        while (idx < indexCols.size() && equalCols.contains(indexCols.get(idx))) {
+            idx++;
+        }
+
+        // Sort columns :: all read forwards, or all backwards
+        Boolean isForward = null;
+        for (int i = 0; i < sortCols.size(); i++) {
+            final String sortCol = sortCols.get(i);
+            if (idx < indexCols.size() && indexCols.get(idx).equals(sortCol)) {
+                final boolean isColForward = index.ascs.get(idx).booleanValue() == sortDirs.get(i).booleanValue();
+                if (Objects.nonNull(isForward) && isForward.booleanValue() != isColForward) {
+                    return false;
+                }
+
+                isForward = isColForward;
+                idx++;
+                continue;
+            }
+
+            // equality column in the sort is a constant
+            if (equalCols.contains(sortCol)) {
+                continue;
+            }
+
+            return false;
+        }
+
+        // Tie-breaker :: sorted as the last sort property, by the identifier column of the index (if
+        // declared), else by the implicit ascending one
+        if (Objects.isNull(isForward)) {
+            return true;
+        }
+
+        final boolean isIdAsc = sortDirs.get(sortDirs.size() - 1);
+        if (idx < indexCols.size() && indexCols.get(idx).equals(normalize(JpaEntity.FIELD_ID))) {
+            return (index.ascs.get(idx).booleanValue() == isIdAsc) == isForward.booleanValue();
+        }
+
+        return idx < indexCols.size() || isIdAsc == isForward.booleanValue();
+    }
+
+    private Set<String> getEqualityProperties(final Criteria criteria) {
+        final Set<String> properties = new HashSet<>();
+        if (criteria instanceof EqualsCriteria) {
+            properties.add(((EqualsCriteria) criteria).getProperty());
+
+        } else if (criteria instanceof AndCriteria) {
+            for (final Criteria cr : ((AndCriteria) criteria).getCriteriaList()) {
+                if (cr instanceof EqualsCriteria) {
+                    properties.add(((EqualsCriteria) cr).getProperty());
+                }
+            }
+        }
+
+        return properties;
+    }
+
+
+    // Mapping Annotations
+
+    private List<IndexColumns> getIndexes(final Class<?> entityCls) {
+        final List<IndexColumns> indexes = new ArrayList<>();
+
+        // Primary Key
+        indexes.add(IndexColumns.ascending(Arrays.asList(normalize(JpaEntity.FIELD_ID))));
+
+        // Table :: indexes (with their column directions) and unique constraints
+        final Table table = entityCls.getAnnotation(Table.class);
+        if (Objects.nonNull(table)) {
+            for (final Index index : table.indexes()) {
+                final IndexColumns indexCols = new IndexColumns();
+                for (final String columnStr : index.columnList().split(",")) {
+                    final String[] columnParts = columnStr.trim().split("\\s+");
+                    indexCols.columns.add(normalize(columnParts[0]));
+                    indexCols.ascs.add(columnParts.length < 2 || !"DESC".equalsIgnoreCase(columnParts[1]));
+                }
+                indexes.add(indexCols);
+            }
+
+            for (final UniqueConstraint uc : table.uniqueConstraints()) {
+                final List<String> indexCols = Arrays.stream(uc.columnNames()) //
+                        .map(SortIndexAdvisor::normalize) //
+                        .collect(Collectors.toList());
+                indexes.add(IndexColumns.ascending(indexCols));
+            }
+        }
+
+        // Unique Columns and Foreign Keys
+        for (final AnnotatedElement element : this.getMappedElements(entityCls)) {
+            final Column column = element.getAnnotation(Column.class);
+            if (Objects.nonNull(column) && column.unique()) {
+                indexes.add(IndexColumns.ascending(
+                        Arrays.asList(normalize(this.getColumnName(element, column.name())))));
+            }
+
+            final JoinColumn joinColumn = element.getAnnotation(JoinColumn.class);
+            if (Objects.nonNull(joinColumn)) {
+                indexes.add(IndexColumns.ascending(
+                        Arrays.asList(normalize(this.getColumnName(element, joinColumn.name())))));
+            }
+        }
+
+        return indexes;
+    }
+
+    private String getColumnName(final Class<?> entityCls, final String property) {
+        for (final AnnotatedElement element : this.getMappedElements(entityCls)) {
+            if (!property.equals(this.getPropertyName(element))) {
+                continue;
+            }
+
+            final Column column = element.getAnnotation(Column.class);
+            if (Objects.nonNull(column)) {
+                return normalize(this.getColumnName(element, column.name()));
+            }
+
+            final JoinColumn joinColumn = element.getAnnotation(JoinColumn.class);
+            if (Objects.nonNull(joinColumn)) {
+                return normalize(this.getColumnName(element, joinColumn.name()));
+            }
+        }
+
+        return normalize(property);
+    }
+
+    private String getColumnName(final AnnotatedElement element, final String annotatedName) {
+        return annotatedName.isBlank() ? this.getPropertyName(element) : annotatedName;
+    }
+
+    private String getPropertyName(final AnnotatedElement element) {
+        if (element instanceof Field) {
+            return ((Field) element).getName();
+        }
+
+        final String methodName = ((Method) element).getName();
+        final String propName = methodName.startsWith("is") ? methodName.substring(2) : methodName.substring(3);
+        return Character.toLowerCase(propName.charAt(0)) + propName.substring(1);
+    }
+
+    /**
+     * Fields and getters (of the entity and its super classes) carrying the column mappings.
+     */
+    private List<AnnotatedElement> getMappedElements(final Class<?> entityCls) {
+        final List<AnnotatedElement> elements = new ArrayList<>();
+        for (Class<?> cls = entityCls; Objects.nonNull(cls) && cls != Object.class; cls = cls.getSuperclass()) {
+            for (final Field field : cls.getDeclaredFields()) {
+                if (hasColumnMapping(field)) {
+                    elements.add(field);
+                }
+            }
+
+            for (final Method method : cls.getDeclaredMethods()) {
+                final String methodName = method.getName();
+                final boolean isGetter = method.getParameterCount() == 0
+                        && (methodName.startsWith("get") && methodName.length() > 3
+                                || methodName.startsWith("is") && methodName.length() > 2);
+                if (isGetter && hasColumnMapping(method)) {
+                    elements.add(method);
+                }
+            }
+        }
+
+        return elements;
+    }
+
+    private static boolean hasColumnMapping(final AnnotatedElement element) {
+        final List<Class<? extends Annotation>> mappingTypes = Arrays.asList(Column.class, JoinColumn.class);
+        return mappingTypes.stream().anyMatch(element::isAnnotationPresent);
+    }
+
+    /**
+     * Normalizes the property/column names, to match them irrespective of the naming strategy
+     * (<code>createdOn</code> matches <code>created_on</code>).
+     */
+    private static String normalize(final String name) {
+        return name.replace("_", "").replace("`", "").toLowerCase();
+    }
+
+
+    // Index Columns
+    // ------------------------------------------------------------------------
+
+    /**
+     * Columns of an index, with their directions (<code>true</code> for ascending).
+     */
+    private static final class IndexColumns {
+
+        private final List<String> columns = new ArrayList<>();
+        private final List<Boolean> ascs = new ArrayList<>();
+
+        static IndexColumns ascending(final List<String> columns) {
+            final IndexColumns indexCols = new IndexColumns();
+            indexCols.columns.addAll(columns);
+            columns.forEach(c -> indexCols.ascs.add(true));
+            return indexCols;
+        }
+
+    }
+
+}
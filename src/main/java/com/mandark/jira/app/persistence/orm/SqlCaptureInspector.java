@@ -0,0 +1,65 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+
+/**
+ * Hibernate statement inspector capturing the SQL statements prepared by the current thread, between a
+ * {@link #begin()} and an {@link #end()} (see {@link SlowQueryRecorder}), and counting them against the
+ * budget of the current request (see {@link StatementBudget}). The statements are not changed.
+ *
+ * <p>
+ * Registered through the <code>hibernate.session_factory.statement_inspector</code> setting.
+ * </p>
+ */
+public class SqlCaptureInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_CAPTURED = 10;
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String inspect(final String sql) {
+        final List<String> captured = CAPTURED.get();
+        if (Objects.nonNull(captured) && captured.size() < MAX_CAPTURED) {
+            captured.add(sql);
+        }
+
+        StatementBudget.onStatement(sql);
+        return sql;
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    /**
+     * Starts capturing the statements of the current thread.
+     */
+    static void begin() {
+        CAPTURED.set(new ArrayList<>());
+    }
+
+    /**
+     * Stops capturing the statements of the current thread.
+     *
+     * @return the statements captured since the {@link #begin()}, in their order
+     */
+    static List<String> end() {
+        final List<String> captured = CAPTURED.get();
+        CAPTURED.remove();
+
+        return Objects.isNull(captured) ? new ArrayList<>() : captured;
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.util.Objects;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mandark.jira.app.persistence.orm.StatementTally.ShapeTally;
+import com.mandark.jira.spi.lang.ServiceException;
+
+
+/**
+ * Statement budget of the requests, and their N+1 statements : the statements run by the thread of a
+ * request, between a {@link #begin(String)} and an {@link #end()} (e.g. by a web interceptor), are
+ * counted by the {@link SqlCaptureInspector}.
+ *
+ * <p>
+ * A request running more statements than the budget is logged, or failed (fail on exceeded). The
+ * statements of a shape repeated at least the repeat threshold within a request, typically the lazy
+ * loads of a <code>toDTO</code> per entity (<code>hibernate.enable_lazy_load_no_trans</code>), are
+ * logged with the entity association lazily loaded (from the Hibernate load events) and the
+ * application call site.
+ * </p>
+ *
+ * <p>
+ * The statements run on the other threads (e.g. the parallel reads of the {@link JpaAsyncDao}) are not
+ * counted.
+ * </p>
+ */
+public class StatementBudget
+        implements InitializeCollectionEventListener, LoadEventListener, PostLoadEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementBudget.class);
+
+    private static final ThreadLocal<StatementTally> TALLY = new ThreadLocal<>();
+
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private int maxStatements;
+    private int repeatThreshold;
+    private boolean failOnExceeded;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public StatementBudget(final EntityManagerFactory entityManagerFactory) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(entityManagerFactory)) {
+            throw new IllegalArgumentException("#StatementBudget :: EntityManagerFactory is NULL");
+        }
+
+        // init
+        this.entityManagerFactory = entityManagerFactory;
+
+        this.maxStatements = 100;
+        this.repeatThreshold = 10;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Registers the lazy load listeners with the Hibernate session factory, ahead of the default ones :
+     * so a lazy load is announced before its statement.
+     */
+    public void init() {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        final EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.prependListeners(EventType.INIT_COLLECTION, this);
+        registry.prependListeners(EventType.LOAD, this);
+        registry.appendListeners(EventType.POST_LOAD, this);
+
+        LOGGER.info("#init :: statement budget {}, repeat threshold {}, fail on exceeded {}", maxStatements,
+                repeatThreshold, failOnExceeded);
+    }
+
+    /**
+     * Starts counting the statements of the request, on the current thread.
+     *
+     * @param requestName name of the request, for the logs
+     */
+    public void begin(final String requestName) {
+        TALLY.set(new StatementTally(requestName, maxStatements, repeatThreshold, failOnExceeded));
+    }
+
+    /**
+     * Stops counting the statements of the request, and logs the request if over the budget, or with the
+     * repeated statements.
+     */
+    public void end() {
+        final StatementTally tally = TALLY.get();
+        TALLY.remove();
+
+        if (Objects.isNull(tally)) {
+            return;
+        }
+
+        if (tally.isOverBudget()) {
+            LOGGER.warn("#end :: {} ran {} statements, over the budget of {}", tally.getRequestName(),
+                    tally.getStatementCount(), tally.getMaxStatements());
+        }
+
+        for (final ShapeTally shapeTally : tally.getRepeatedShapes()) {
+            LOGGER.warn("#end :: {} repeated statements (N+1) :: {}", tally.getRequestName(), shapeTally);
+        }
+    }
+
+
+    // Hibernate Listener Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void onInitializeCollection(final InitializeCollectionEvent event) {
+        final StatementTally tally = TALLY.get();
+        if (Objects.nonNull(tally) && Objects.nonNull(event.getCollection().getRole())) {
+            tally.onLazyLoad(associationOf(event.getCollection().getRole()));
+        }
+    }
+
+    @Override
+    public void onLoad(final LoadEvent event, final LoadType loadType) {
+        // Proxy initialization (lazy to-one), eager to-one of a loaded entity
+        final StatementTally tally = TALLY.get();
+        if (Objects.nonNull(tally) && (loadType == IMMEDIATE_LOAD || loadType == INTERNAL_LOAD_EAGER)) {
+            tally.onLazyLoad(simpleNameOf(event.getEntityClassName()) + " (" + loadType.getName() + ")");
+        }
+    }
+
+    @Override
+    public void onPostLoad(final PostLoadEvent event) {
+        // Loaded :: from the statement, or the cache (without a statement)
+        final StatementTally tally = TALLY.get();
+        if (Objects.nonNull(tally)) {
+            tally.onLazyLoad(null);
+        }
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Max statements of a request.
+     *
+     * @param maxStatements statement budget, 0 for no budget
+     */
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = Math.max(0, maxStatements);
+    }
+
+    /**
+     * Min repetitions of a statement shape within a request, to report it as N+1.
+     *
+     * @param repeatThreshold repeat threshold, at least 2
+     */
+    public void setRepeatThreshold(int repeatThreshold) {
+        if (repeatThreshold < 2) {
+            throw new IllegalArgumentException("#setRepeatThreshold :: repeat threshold should be at least 2");
+        }
+
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    /**
+     * Fails the statements of a request over the budget, else only logs the request.
+     *
+     * @param failOnExceeded true to fail the requests over the budget
+     */
+    public void setFailOnExceeded(boolean failOnExceeded) {
+        this.failOnExceeded = failOnExceeded;
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    /**
+     * Counts the statement against the budget of the current request, if any.
+     *
+     * @throws ServiceException if the request is over the budget, and to be failed
+     */
+    static void onStatement(final String sql) {
+        final StatementTally tally = TALLY.get();
+        if (Objects.isNull(tally)) {
+            return;
+        }
+
+        tally.add(sql);
+        if (tally.isFailOnExceeded() && tally.isOverBudget()) {
+            final String errMsg = String.format("#onStatement :: %s is over the statement budget of %d",
+                    tally.getRequestName(), tally.getMaxStatements());
+            throw new ServiceException(errMsg, ServiceException.DEFAULT_USER_MESSAGE);
+        }
+    }
+
+    /**
+     * Entity association of the collection role, e.g. <code>Issue.comments</code>.
+     */
+    private static String associationOf(final String role) {
+        final int propIdx = role.lastIndexOf('.');
+        return propIdx < 0 ? role : simpleNameOf(role.substring(0, propIdx)) + role.substring(propIdx);
+    }
+
+    private static String simpleNameOf(final String className) {
+        return Objects.isNull(className) ? "?" : className.substring(className.lastIndexOf('.') + 1);
+    }
+
+}
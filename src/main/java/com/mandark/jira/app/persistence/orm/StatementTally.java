@@ -0,0 +1,186 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+
+/**
+ * Statements of a request (see {@link StatementBudget}) : their count against the budget, and the
+ * count per statement shape, with the lazy load that caused the statements of a shape, for the shapes
+ * repeated at least the repeat threshold (N+1).
+ *
+ * <p>
+ * Used by the thread of the request only, so not synchronized.
+ * </p>
+ */
+final class StatementTally {
+
+    private static final Pattern PARAM_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    private static final int MAX_SHAPES = 200;
+
+    private static final String APP_PACKAGE = "com.mandark.jira.";
+    private static final String PERSISTENCE_PACKAGE = "com.mandark.jira.app.persistence.";
+
+
+    private final String requestName;
+    private final int maxStatements;
+    private final int repeatThreshold;
+    private final boolean failOnExceeded;
+
+    private final Map<String, ShapeTally> shapes;
+
+    private int statementCount;
+    private String pendingCause;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    StatementTally(final String requestName, final int maxStatements, final int repeatThreshold,
+            final boolean failOnExceeded) {
+        super();
+
+        // init
+        this.requestName = requestName;
+        this.maxStatements = maxStatements;
+        this.repeatThreshold = repeatThreshold;
+        this.failOnExceeded = failOnExceeded;
+
+        this.shapes = new LinkedHashMap<>();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Counts the statement, and its shape.
+     */
+    void add(final String sql) {
+        statementCount++;
+
+        // Cause :: the lazy load announced just before, if any
+        final String cause = pendingCause;
+        pendingCause = null;
+
+        final String shape = shapeOf(sql);
+        ShapeTally shapeTally = shapes.get(shape);
+        if (Objects.isNull(shapeTally)) {
+            if (shapes.size() >= MAX_SHAPES) {
+                return;
+            }
+
+            shapeTally = new ShapeTally(shape);
+            shapes.put(shape, shapeTally);
+        }
+
+        shapeTally.count++;
+        if (Objects.isNull(shapeTally.cause)) {
+            shapeTally.cause = cause;
+        }
+
+        // Repeated :: the application call site, once per shape
+        if (shapeTally.count == repeatThreshold) {
+            shapeTally.callSite = callSite();
+        }
+    }
+
+    /**
+     * Announces the lazy load (entity association) about to run its statement.
+     */
+    void onLazyLoad(final String cause) {
+        this.pendingCause = cause;
+    }
+
+    boolean isOverBudget() {
+        return maxStatements > 0 && statementCount > maxStatements;
+    }
+
+    /**
+     * Shapes repeated at least the repeat threshold, the most repeated first.
+     */
+    List<ShapeTally> getRepeatedShapes() {
+        return shapes.values().stream() //
+                .filter(s -> s.count >= repeatThreshold) //
+                .sorted((s1, s2) -> Integer.compare(s2.count, s1.count)) //
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    String getRequestName() {
+        return requestName;
+    }
+
+    int getMaxStatements() {
+        return maxStatements;
+    }
+
+    int getStatementCount() {
+        return statementCount;
+    }
+
+    boolean isFailOnExceeded() {
+        return failOnExceeded;
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    /**
+     * Shape of the statement :: the parameter lists (IN clauses) collapsed, so the chunks of a read are
+     * the same shape.
+     */
+    static String shapeOf(final String sql) {
+        return PARAM_LIST.matcher(sql.trim()).replaceAll("?");
+    }
+
+    /**
+     * First application frame outside the persistence layer (the service, the controller ..).
+     */
+    private static String callSite() {
+        for (final StackTraceElement frame : Thread.currentThread().getStackTrace()) {
+            final String className = frame.getClassName();
+            if (className.startsWith(APP_PACKAGE) && !className.startsWith(PERSISTENCE_PACKAGE)) {
+                return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName() + ":"
+                        + frame.getLineNumber();
+            }
+        }
+
+        return null;
+    }
+
+
+    // Shape Tally
+    // ------------------------------------------------------------------------
+
+    static final class ShapeTally {
+
+        final String shape;
+
+        int count;
+        String cause; // entity association lazily loaded, if known
+        String callSite;
+
+        ShapeTally(final String shape) {
+            this.shape = shape;
+        }
+
+        @Override
+        public String toString() {
+            return count + " x " + (Objects.isNull(cause) ? "(no lazy load)" : cause) + " at "
+                    + (Objects.isNull(callSite) ? "(unknown)" : callSite) + " :: " + shape;
+        }
+
+    }
+
+}
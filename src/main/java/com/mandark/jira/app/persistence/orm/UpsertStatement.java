@@ -0,0 +1,229 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.hibernate.type.Type;
+
+
+/**
+ * MySQL <code>INSERT .. ON DUPLICATE KEY UPDATE</code> statement of an entity, built from its
+ * Hibernate mapping (single table entities only).
+ *
+ * <p>
+ * On a duplicate key, all the columns are updated except the identifier, the conflict key and the
+ * created audit columns. For the {@link JpaAuditEntity}s the updated timestamp is set (as by
+ * {@link JpaLogInterceptor}) and the version is incremented. When version checked, the existing row is
+ * updated only if its version matches the entity version (else left untouched), and the version is
+ * assigned last, as MySQL applies the assignments from left to right.
+ * </p>
+ */
+final class UpsertStatement {
+
+    private final AbstractEntityPersister persister;
+    private final boolean isAudit;
+    private final boolean isVersionChecked;
+
+    private final List<Integer> insertProps; // property indexes
+    private final String sql;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private UpsertStatement(final AbstractEntityPersister persister, final List<String> conflictKeys,
+            final boolean isVersionChecked) {
+        super();
+
+        // init
+        this.persister = persister;
+        this.isAudit = JpaAuditEntity.class.isAssignableFrom(persister.getMappedClass());
+        this.isVersionChecked = isVersionChecked && persister.isVersioned();
+
+        this.insertProps = new ArrayList<>();
+        this.sql = this.buildSql(conflictKeys);
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Binds the entity values (and the updated timestamp) to the statement parameters.
+     *
+     * @param pstmt statement prepared with {@link #getSql()}
+     * @param entity the entity
+     * @param updatedOn updated timestamp, for the audit entities
+     * @param session current session
+     */
+    void bind(final PreparedStatement pstmt, final Object entity, final Object updatedOn,
+            final SharedSessionContractImplementor session) throws SQLException {
+        final Type[] propTypes = persister.getPropertyTypes();
+        final Object[] propValues = persister.getPropertyValues(entity);
+
+        // Version :: seed the new entities
+        if (persister.isVersioned() && Objects.isNull(propValues[persister.getVersionProperty()])) {
+            propValues[persister.getVersionProperty()] = persister.getVersionType().seed(session);
+        }
+
+        // Insert values
+        int index = 1;
+        persister.getIdentifierType().nullSafeSet(pstmt, persister.getIdentifier(entity, session), index, session);
+        index += persister.getIdentifierColumnNames().length;
+
+        for (final int propIdx : insertProps) {
+            propTypes[propIdx].nullSafeSet(pstmt, propValues[propIdx], index, session);
+            index += persister.getPropertyColumnNames(propIdx).length;
+        }
+
+        // Update values
+        if (isAudit) {
+            final int updatedOnIdx = persister.getEntityMetamodel().getPropertyIndex(JpaAuditEntity.FIELD_UPDATED_ON);
+            propTypes[updatedOnIdx].nullSafeSet(pstmt, updatedOn, index, session);
+        }
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private String buildSql(final List<String> conflictKeys) {
+        final String[] propNames = persister.getPropertyNames();
+        final Type[] propTypes = persister.getPropertyTypes();
+        final boolean[] propInsertable = persister.getPropertyInsertability();
+
+        // Insert columns
+        final List<String> insertCols = new ArrayList<>(Arrays.asList(persister.getIdentifierColumnNames()));
+        final List<String> updateCols = new ArrayList<>();
+        for (int i = 0; i < propNames.length; i++) {
+            final String[] propCols = persister.getPropertyColumnNames(i);
+            if (propTypes[i].isCollectionType() || !propInsertable[i] || Objects.isNull(propCols)
+                    || propCols.length == 0 || Arrays.stream(propCols).anyMatch(Objects::isNull)) {
+                continue; // collections, formulas ..
+            }
+
+            insertProps.add(i);
+            insertCols.addAll(Arrays.asList(propCols));
+
+            if (!this.isUpdatable(i, conflictKeys)) {
+                continue;
+            }
+
+            updateCols.addAll(Arrays.asList(propCols));
+        }
+
+        final String versionCol = persister.isVersioned() //
+                ? persister.getPropertyColumnNames(persister.getVersionProperty())[0]
+                : null;
+        final String versionMatch = String.format("%s = VALUES(%s)", versionCol, versionCol);
+
+        // Update assignments
+        final List<String> assignments = new ArrayList<>();
+        for (final String col : updateCols) {
+            final String value = String.format("VALUES(%s)", col);
+            assignments.add(this.assignment(col, value, versionMatch));
+        }
+
+        if (isAudit) {
+            final String updatedOnCol = this.getColumn(JpaAuditEntity.FIELD_UPDATED_ON);
+            assignments.add(this.assignment(updatedOnCol, "?", versionMatch));
+        }
+
+        if (Objects.nonNull(versionCol)) {
+            assignments.add(this.assignment(versionCol, versionCol + " + 1", versionMatch)); // last
+        }
+
+        // SQL
+        final String params = insertCols.stream().map(c -> "?").collect(Collectors.joining(", "));
+        return String.format("INSERT INTO %s (%s) VALUES (%s) ON DUPLICATE KEY UPDATE %s", persister.getTableName(),
+                String.join(", ", insertCols), params, String.join(", ", assignments));
+    }
+
+    private boolean isUpdatable(final int propIdx, final List<String> conflictKeys) {
+        final String propName = persister.getPropertyNames()[propIdx];
+        if (conflictKeys.contains(propName) || !persister.getPropertyUpdateability()[propIdx]) {
+            return false;
+        }
+
+        if (persister.isVersioned() && propIdx == persister.getVersionProperty()) {
+            return false; // assigned last
+        }
+
+        return !isAudit || !(JpaAuditEntity.FIELD_CREATED_BY.equals(propName)
+                || JpaAuditEntity.FIELD_CREATED_ON.equals(propName)
+                || JpaAuditEntity.FIELD_UPDATED_ON.equals(propName));
+    }
+
+    private String assignment(final String column, final String value, final String versionMatch) {
+        if (!isVersionChecked) {
+            return String.format("%s = %s", column, value);
+        }
+
+        return String.format("%s = IF(%s, %s, %s)", column, versionMatch, value, column);
+    }
+
+    private String getColumn(final String propName) {
+        return persister.getPropertyColumnNames(propName)[0];
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    String getSql() {
+        return sql;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "UpsertStatement [sql=" + sql + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Builds the upsert statement of the entity.
+     *
+     * @param persister Hibernate persister of the entity
+     * @param conflictKeys properties of the unique key expected to conflict (not updated)
+     * @param isVersionChecked <code>true</code> to update the existing rows only on a version match
+     *
+     * @return the upsert statement
+     */
+    static UpsertStatement of(final AbstractEntityPersister persister, final String[] conflictKeys,
+            final boolean isVersionChecked) {
+        // Sanity checks
+        if (!(persister instanceof SingleTableEntityPersister) || persister.isMultiTable()) {
+            final String errMsg = String.format("#of :: upsert supports single table entities only : %s",
+                    persister.getEntityName());
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        final List<String> propNames = Arrays.asList(persister.getPropertyNames());
+        final List<String> keys = Objects.isNull(conflictKeys) ? new ArrayList<>() : Arrays.asList(conflictKeys);
+        for (final String key : keys) {
+            if (!propNames.contains(key) && !JpaEntity.FIELD_ID.equals(key)) {
+                final String errMsg = String.format("#of :: unknown conflict key property %s of %s", key,
+                        persister.getEntityName());
+                throw new IllegalArgumentException(errMsg);
+            }
+        }
+
+        return new UpsertStatement(persister, keys, isVersionChecked);
+    }
+
+}
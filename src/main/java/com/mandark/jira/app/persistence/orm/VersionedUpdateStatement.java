@@ -0,0 +1,177 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.hibernate.type.Type;
+
+
+/**
+ * Version checked <code>UPDATE .. WHERE id = ? AND version = ?</code> statement of an entity, built from
+ * its Hibernate mapping (single table, versioned entities only).
+ *
+ * <p>
+ * All the updatable columns are set from the entity, except the version (incremented by the statement)
+ * and the created audit columns. An update count of <code>0</code> means the stored version moved on
+ * (or the entry is gone) since the entity was read.
+ * </p>
+ */
+final class VersionedUpdateStatement {
+
+    private final AbstractEntityPersister persister;
+
+    private final List<Integer> updateProps; // property indexes
+    private final String sql;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private VersionedUpdateStatement(final AbstractEntityPersister persister) {
+        super();
+
+        // init
+        this.persister = persister;
+
+        this.updateProps = new ArrayList<>();
+        this.sql = this.buildSql();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Binds the entity values, identifier and (expected) version to the statement parameters.
+     *
+     * @param pstmt statement prepared with {@link #getSql()}
+     * @param entity the entity
+     * @param session current session
+     */
+    void bind(final PreparedStatement pstmt, final Object entity, final SharedSessionContractImplementor session)
+            throws SQLException {
+        final Type[] propTypes = persister.getPropertyTypes();
+        final Object[] propValues = persister.getPropertyValues(entity);
+
+        // Set values
+        int index = 1;
+        for (final int propIdx : updateProps) {
+            propTypes[propIdx].nullSafeSet(pstmt, propValues[propIdx], index, session);
+            index += persister.getPropertyColumnNames(propIdx).length;
+        }
+
+        // Where :: id and version
+        persister.getIdentifierType().nullSafeSet(pstmt, persister.getIdentifier(entity, session), index, session);
+        index += persister.getIdentifierColumnNames().length;
+
+        persister.getVersionType().nullSafeSet(pstmt, persister.getVersion(entity), index, session);
+    }
+
+    /**
+     * Sets the version of the entity as stored by a successful update, i.e. the next version.
+     *
+     * @param entity the (updated) entity
+     * @param session current session
+     */
+    @SuppressWarnings("unchecked")
+    void incrementVersion(final Object entity, final SharedSessionContractImplementor session) {
+        final Object nextVersion = persister.getVersionType().next(persister.getVersion(entity), session);
+        persister.setPropertyValue(entity, persister.getVersionProperty(), nextVersion);
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private String buildSql() {
+        final String[] propNames = persister.getPropertyNames();
+        final Type[] propTypes = persister.getPropertyTypes();
+        final boolean[] propUpdatable = persister.getPropertyUpdateability();
+
+        // Set columns
+        final List<String> assignments = new ArrayList<>();
+        for (int i = 0; i < propNames.length; i++) {
+            final String[] propCols = persister.getPropertyColumnNames(i);
+            if (propTypes[i].isCollectionType() || !propUpdatable[i] || Objects.isNull(propCols)
+                    || propCols.length == 0 || Arrays.stream(propCols).anyMatch(Objects::isNull)) {
+                continue; // collections, formulas ..
+            }
+
+            if (i == persister.getVersionProperty() || JpaAuditEntity.FIELD_CREATED_BY.equals(propNames[i])
+                    || JpaAuditEntity.FIELD_CREATED_ON.equals(propNames[i])) {
+                continue;
+            }
+
+            updateProps.add(i);
+            for (final String col : propCols) {
+                assignments.add(col + " = ?");
+            }
+        }
+
+        final String versionCol = persister.getPropertyColumnNames(persister.getVersionProperty())[0];
+        assignments.add(String.format("%s = %s + 1", versionCol, versionCol));
+
+        // Where
+        final List<String> conditions = new ArrayList<>();
+        for (final String idCol : persister.getIdentifierColumnNames()) {
+            conditions.add(idCol + " = ?");
+        }
+        conditions.add(versionCol + " = ?");
+
+        // SQL
+        return String.format("UPDATE %s SET %s WHERE %s", persister.getTableName(), String.join(", ", assignments),
+                String.join(" AND ", conditions));
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    String getSql() {
+        return sql;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "VersionedUpdateStatement [sql=" + sql + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Builds the versioned update statement of the entity.
+     *
+     * @param persister Hibernate persister of the entity
+     *
+     * @return the versioned update statement
+     */
+    static VersionedUpdateStatement of(final AbstractEntityPersister persister) {
+        // Sanity checks
+        if (!(persister instanceof SingleTableEntityPersister) || persister.isMultiTable()) {
+            final String errMsg = String.format("#of :: versioned update supports single table entities only : %s",
+                    persister.getEntityName());
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        if (!persister.isVersioned()) {
+            final String errMsg = String.format("#of :: %s has no version", persister.getEntityName());
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        return new VersionedUpdateStatement(persister);
+    }
+
+}
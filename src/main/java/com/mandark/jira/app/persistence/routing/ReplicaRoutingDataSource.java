@@ -0,0 +1,278 @@
+package com.mandark.jira.app.persistence.routing;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+/**
+ * {@link javax.sql.DataSource} routing the connections of the read-only transactions
+ * (<code>@Transactional(readOnly = true)</code>) to the read replica pools, and all the others to the
+ * primary.
+ *
+ * <p>
+ * The replica pools are created from the replica JDBC URLs, with the settings (driver, credentials, pool
+ * size) of the primary pool. Without any replica URL, all the connections are of the primary.
+ * </p>
+ *
+ * <p>
+ * The route is decided when the connection is acquired, which for the JPA transactions is at their
+ * begin, i.e. before the read-only flag is known : so this data source must be wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, which acquires the connection on its first statement.
+ * </p>
+ *
+ * <p>
+ * <b>Read your writes</b> : after the commit of a (read-write) transaction, the read-only transactions of
+ * the same client (see {@link RoutingContext}) are routed to the primary for the configured window, as the
+ * replicas may lag behind.
+ * </p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA_PREFIX = "replica-";
+
+    private static final int WRITES_SWEEP_SIZE = 10_000;
+
+
+    private final BasicDataSource primary;
+    private final List<BasicDataSource> replicas;
+
+    private final AtomicInteger nextReplica;
+    private final Map<String, Long> lastWrites; // client key - last commit time (ms)
+
+    private String replicaUrls;
+    private ReplicaSelection selection;
+    private long readYourWritesMillis;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public ReplicaRoutingDataSource(final BasicDataSource primary) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(primary)) {
+            throw new IllegalArgumentException("#ReplicaRoutingDataSource :: primary DataSource is NULL");
+        }
+
+        // init
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+
+        this.nextReplica = new AtomicInteger();
+        this.lastWrites = new ConcurrentHashMap<>();
+
+        this.selection = ReplicaSelection.ROUND_ROBIN;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public void afterPropertiesSet() {
+        // Replica Pools
+        if (Objects.nonNull(replicaUrls)) {
+            for (final String url : replicaUrls.split(",")) {
+                if (!url.isBlank()) {
+                    replicas.add(this.createReplica(url.trim()));
+                }
+            }
+        }
+
+        // Targets
+        final Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA_PREFIX + i, replicas.get(i));
+        }
+
+        this.setTargetDataSources(targets);
+        this.setDefaultTargetDataSource(primary);
+        super.afterPropertiesSet();
+
+        LOGGER.info("#afterPropertiesSet :: {} read replica(s), {} selection, read-your-writes window {} ms",
+                replicas.size(), selection, readYourWritesMillis);
+    }
+
+    /**
+     * Closes the replica pools (the primary pool is managed on its own).
+     */
+    public void close() {
+        for (final BasicDataSource replica : replicas) {
+            try {
+                replica.close();
+            } catch (SQLException e) {
+                LOGGER.warn("#close :: failed to close the replica pool {} : {}", replica.getUrl(), e.getMessage());
+            }
+        }
+    }
+
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty()) {
+            return PRIMARY;
+        }
+
+        // Read-Write
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            this.registerWrite();
+            return PRIMARY;
+        }
+
+        // Read-Only
+        if (this.isReadingOwnWrites()) {
+            return PRIMARY;
+        }
+
+        return REPLICA_PREFIX + this.selectReplica();
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private BasicDataSource createReplica(final String url) {
+        final BasicDataSource replica = new BasicDataSource();
+        replica.setDriverClassName(primary.getDriverClassName());
+        replica.setUrl(url);
+        replica.setUsername(primary.getUsername());
+        replica.setPassword(primary.getPassword());
+
+        replica.setMaxTotal(primary.getMaxTotal());
+        replica.setMaxIdle(primary.getMaxIdle());
+        replica.setDefaultReadOnly(true);
+
+        return replica;
+    }
+
+    private int selectReplica() {
+        final int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        if (selection != ReplicaSelection.LEAST_LOADED) {
+            return start;
+        }
+
+        // Least active connections, starting from the next in turn
+        int selected = start;
+        for (int i = 1; i < replicas.size(); i++) {
+            final int idx = (start + i) % replicas.size();
+            if (replicas.get(idx).getNumActive() < replicas.get(selected).getNumActive()) {
+                selected = idx;
+            }
+        }
+
+        return selected;
+    }
+
+
+    // Read your writes
+
+    /**
+     * Records the write of the current client on the commit of the current (read-write) transaction.
+     */
+    private void registerWrite() {
+        final String clientKey = RoutingContext.current();
+        if (readYourWritesMillis <= 0 || Objects.isNull(clientKey)
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                ReplicaRoutingDataSource.this.markWrite(clientKey);
+            }
+
+        });
+    }
+
+    private void markWrite(final String clientKey) {
+        final long now = System.currentTimeMillis();
+        lastWrites.put(clientKey, now);
+
+        // Sweep the expired writes
+        if (lastWrites.size() > WRITES_SWEEP_SIZE) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > readYourWritesMillis);
+        }
+    }
+
+    private boolean isReadingOwnWrites() {
+        final String clientKey = RoutingContext.current();
+        if (readYourWritesMillis <= 0 || Objects.isNull(clientKey)) {
+            return false;
+        }
+
+        final Long writtenAt = lastWrites.get(clientKey);
+        if (Objects.isNull(writtenAt)) {
+            return false;
+        }
+
+        if (System.currentTimeMillis() - writtenAt > readYourWritesMillis) {
+            lastWrites.remove(clientKey, writtenAt);
+            return false;
+        }
+
+        return true;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * JDBC URLs of the read replicas.
+     *
+     * @param replicaUrls comma separated replica URLs, blank for none
+     */
+    public void setReplicaUrls(String replicaUrls) {
+        this.replicaUrls = replicaUrls;
+    }
+
+    public void setSelection(ReplicaSelection selection) {
+        this.selection = Objects.isNull(selection) ? ReplicaSelection.ROUND_ROBIN : selection;
+    }
+
+    /**
+     * Window after a write, the reads of the same client are routed to the primary for.
+     *
+     * @param readYourWritesWindow window in seconds, <code>0</code> to disable
+     */
+    public void setReadYourWritesWindow(int readYourWritesWindow) {
+        this.readYourWritesMillis = readYourWritesWindow * 1000L;
+    }
+
+    /**
+     * Active connections of the primary and the replica pools, by pool name.
+     *
+     * @return the active connections
+     */
+    public Map<String, Integer> getActiveConnections() {
+        final Map<String, Integer> activeConns = new HashMap<>();
+        activeConns.put(PRIMARY, primary.getNumActive());
+        for (int i = 0; i < replicas.size(); i++) {
+            activeConns.put(REPLICA_PREFIX + i, replicas.get(i).getNumActive());
+        }
+
+        return activeConns;
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.mandark.jira.app.persistence.routing;
+
+
+/**
+ * Selection of the read replica serving a read-only transaction.
+ */
+public enum ReplicaSelection {
+
+    /** Each replica in turn. */
+    ROUND_ROBIN,
+
+    /** The replica with the least active connections (in turn, on a tie). */
+    LEAST_LOADED;
+
+}
@@ -0,0 +1,52 @@
+package com.mandark.jira.app.persistence.routing;
+
+import java.util.Objects;
+
+
+/**
+ * Client (session) of the current thread, for the read-your-writes routing : the reads of a client are
+ * sent to the primary for a while after its writes, so it doesn't read the stale replicas.
+ *
+ * <p>
+ * The client key is bound per request (e.g. by a web interceptor), and must be unbound after.
+ * </p>
+ *
+ * @see ReplicaRoutingDataSource
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<String> CLIENT_KEY = new ThreadLocal<>();
+
+
+    private RoutingContext() {
+        super();
+        // Utility Class
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    public static void bind(final String clientKey) {
+        // Sanity checks
+        if (Objects.isNull(clientKey)) {
+            throw new IllegalArgumentException("#bind :: client key is NULL");
+        }
+
+        CLIENT_KEY.set(clientKey);
+    }
+
+    public static void unbind() {
+        CLIENT_KEY.remove();
+    }
+
+    /**
+     * Client key of the current thread.
+     *
+     * @return the client key, <code>null</code> if not bound
+     */
+    public static String current() {
+        return CLIENT_KEY.get();
+    }
+
+}
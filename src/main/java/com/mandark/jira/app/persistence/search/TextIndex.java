@@ -0,0 +1,442 @@
+package com.mandark.jira.app.persistence.search;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+
+/**
+ * In-memory inverted index of a text property of an entity type, with the postings (entity IDs) of the
+ * trigrams and the tokens of the property values.
+ *
+ * <p>
+ * The index answers the candidates of a <code>LIKE '%text%'</code> : the entities whose value has all
+ * the trigrams of the text (or, for a text shorter than a trigram, a token containing the text). The
+ * candidates are a superset of the matches, the like is still to be applied on them. The values are
+ * case and accent folded, as compared by the (default) case and accent insensitive collations.
+ * </p>
+ *
+ * <p>
+ * The index is saved to its file on the shutdown, and the file is removed once loaded : so a missing
+ * file means an index to be rebuilt, also after a crash. Each rebuild starts a new generation, the
+ * writes of the older rebuilds are discarded.
+ * </p>
+ */
+final class TextIndex {
+
+    static final int GRAM_SIZE = 3;
+
+    private static final String FILE_HEADER = "text-index:1";
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+
+    private final String entityName;
+    private final String idProperty;
+    private final String property;
+    private final Path file;
+
+    private final ReadWriteLock lock;
+    private final Map<Integer, String> docs;
+    private final Map<String, Set<Integer>> grams;
+    private final Map<String, Set<Integer>> tokens;
+
+    private int generation;
+    private boolean ready;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    TextIndex(final String entityName, final String idProperty, final String property, final Path file) {
+        super();
+
+        // init
+        this.entityName = entityName;
+        this.idProperty = idProperty;
+        this.property = property;
+        this.file = file;
+
+        this.lock = new ReentrantReadWriteLock();
+        this.docs = new HashMap<>();
+        this.grams = new HashMap<>();
+        this.tokens = new HashMap<>();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Indexes the (new) value of the entity property, replacing the earlier value.
+     */
+    void put(final Integer id, final String value) {
+        lock.writeLock().lock();
+        try {
+            this.unindex(id);
+            this.index(id, normalize(value));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the value read by the rebuild of the generation, unless the entity is already indexed (by
+     * a later write).
+     *
+     * @return false when the generation is over, i.e. the rebuild is to be abandoned
+     */
+    boolean putIfAbsent(final int inGeneration, final Integer id, final String value) {
+        lock.writeLock().lock();
+        try {
+            if (inGeneration != generation) {
+                return false;
+            }
+
+            if (!docs.containsKey(id)) {
+                this.index(id, normalize(value));
+            }
+
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(final Integer id) {
+        lock.writeLock().lock();
+        try {
+            this.unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clears the index for a rebuild. The index is not used until the rebuild is over.
+     *
+     * @return the generation of the rebuild
+     */
+    int reset() {
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            grams.clear();
+            tokens.clear();
+
+            ready = false;
+            return ++generation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the index ready, at the end of the rebuild of the generation.
+     */
+    boolean markReady(final int inGeneration) {
+        lock.writeLock().lock();
+        try {
+            if (inGeneration == generation) {
+                ready = true;
+            }
+
+            return ready;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Candidate IDs of the entities whose property value contains the text.
+     *
+     * @param text the like text, as bound to the query
+     * @param maxCandidates max candidates worth an ID pre-filter
+     *
+     * @return the candidates, <code>null</code> if the index can't narrow the search (not ready, wildcards,
+     *         too short a text, too many candidates)
+     */
+    Set<Integer> candidates(final String text, final int maxCandidates) {
+        final String query = normalize(text);
+        if (Objects.isNull(query) || query.isEmpty() || hasWildcard(query)) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+
+            final Set<Integer> candidates = query.length() >= GRAM_SIZE ? this.gramCandidates(query)
+                    : this.tokenCandidates(query, maxCandidates);
+            return Objects.isNull(candidates) || candidates.size() > maxCandidates ? null : candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    // Methods :: File
+
+    /**
+     * Loads the index from its file, and removes the file.
+     *
+     * @return true if loaded, false if the index is to be rebuilt
+     */
+    boolean load() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!FILE_HEADER.equals(reader.readLine())) {
+                return false;
+            }
+
+            String line;
+            while (Objects.nonNull(line = reader.readLine())) {
+                final int tabIdx = line.indexOf('\t');
+                this.index(Integer.valueOf(line.substring(0, tabIdx)), unescape(line.substring(tabIdx + 1)));
+            }
+
+            ready = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Saves the (ready) index to its file.
+     */
+    void save() throws IOException {
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+
+            Files.createDirectories(file.getParent());
+
+            final Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try (final BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                writer.write(FILE_HEADER);
+                writer.newLine();
+
+                for (final Map.Entry<Integer, String> doc : docs.entrySet()) {
+                    writer.write(doc.getKey() + "\t" + escape(doc.getValue()));
+                    writer.newLine();
+                }
+            }
+
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private void index(final Integer id, final String value) {
+        if (Objects.isNull(value)) {
+            return;
+        }
+
+        docs.put(id, value);
+        gramsOf(value).forEach(g -> grams.computeIfAbsent(g, k -> new HashSet<>()).add(id));
+        tokensOf(value).forEach(t -> tokens.computeIfAbsent(t, k -> new HashSet<>()).add(id));
+    }
+
+    private void unindex(final Integer id) {
+        final String value = docs.remove(id);
+        if (Objects.isNull(value)) {
+            return;
+        }
+
+        gramsOf(value).forEach(g -> removePosting(grams, g, id));
+        tokensOf(value).forEach(t -> removePosting(tokens, t, id));
+    }
+
+    private Set<Integer> gramCandidates(final String query) {
+        // Postings :: smallest first
+        final List<Set<Integer>> postings = new ArrayList<>();
+        for (final String gram : gramsOf(query)) {
+            final Set<Integer> gramPostings = grams.get(gram);
+            if (Objects.isNull(gramPostings)) {
+                return new HashSet<>();
+            }
+
+            postings.add(gramPostings);
+        }
+
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        final Set<Integer> candidates = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+
+        return candidates;
+    }
+
+    private Set<Integer> tokenCandidates(final String query, final int maxCandidates) {
+        // Text spanning the tokens :: not served
+        if (!query.chars().allMatch(Character::isLetterOrDigit)) {
+            return null;
+        }
+
+        final Set<Integer> candidates = new HashSet<>();
+        for (final Map.Entry<String, Set<Integer>> token : tokens.entrySet()) {
+            if (token.getKey().contains(query)) {
+                candidates.addAll(token.getValue());
+                if (candidates.size() > maxCandidates) {
+                    return null;
+                }
+            }
+        }
+
+        return candidates;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    String getEntityName() {
+        return entityName;
+    }
+
+    String getIdProperty() {
+        return idProperty;
+    }
+
+    String getProperty() {
+        return property;
+    }
+
+    boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "TextIndex [" + entityName + "." + property + ", docs=" + docs.size() + ", grams=" + grams.size()
+                + ", tokens=" + tokens.size() + ", ready=" + ready + "]";
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    static String normalize(final String value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+
+        final String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> gramsOf(final String value) {
+        final Set<String> valueGrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            valueGrams.add(value.substring(i, i + GRAM_SIZE));
+        }
+
+        return valueGrams;
+    }
+
+    private static Set<String> tokensOf(final String value) {
+        final Set<String> valueTokens = new HashSet<>();
+
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            final boolean isTokenChar = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+            if (isTokenChar && start < 0) {
+                start = i;
+            } else if (!isTokenChar && start >= 0) {
+                valueTokens.add(value.substring(start, i));
+                start = -1;
+            }
+        }
+
+        return valueTokens;
+    }
+
+    private static void removePosting(final Map<String, Set<Integer>> postings, final String term,
+            final Integer id) {
+        final Set<Integer> termPostings = postings.get(term);
+        if (Objects.nonNull(termPostings) && termPostings.remove(id) && termPostings.isEmpty()) {
+            postings.remove(term);
+        }
+    }
+
+    /**
+     * LIKE wildcards (and the escape) in the text :: not a plain containment.
+     */
+    private static boolean hasWildcard(final String query) {
+        return query.indexOf('%') >= 0 || query.indexOf('_') >= 0 || query.indexOf('\\') >= 0;
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+
+    private static String unescape(final String value) {
+        final StringBuilder valueSB = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                valueSB.append(c);
+                continue;
+            }
+
+            final char escaped = value.charAt(++i);
+            valueSB.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped == 't' ? '\t' : escaped);
+        }
+
+        return valueSB.toString();
+    }
+
+}
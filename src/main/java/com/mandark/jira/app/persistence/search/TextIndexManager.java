@@ -0,0 +1,529 @@
+package com.mandark.jira.app.persistence.search;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.EntityType;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mandark.jira.spi.app.persistence.IEntity;
+import com.mandark.jira.spi.app.persistence.Searchable;
+import com.mandark.jira.spi.app.query.AndCriteria;
+import com.mandark.jira.spi.app.query.CompoundCriteria;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.LikeCriteria;
+
+
+/**
+ * Text indexes of the {@link Searchable} entity properties (see {@link TextIndex}), and the pre-filter
+ * of the like criteria on these properties.
+ *
+ * <p>
+ * The indexes are kept in memory, and saved under the index base directory on the shutdown; an index
+ * without its file is rebuilt from the database in the background, and is not used until rebuilt. The
+ * indexes are updated after the commit of the entity inserts / updates / deletes (Hibernate post-commit
+ * listeners). The writes bypassing the persistence context are reported by the DAO, see
+ * {@link #indexOnCommit(Collection)} and {@link #invalidate(Class, Collection)}.
+ * </p>
+ *
+ * <p>
+ * A like criteria on an indexed property is pre-filtered by the IDs of its candidates, e.g.
+ * <code>summary LIKE '%crash%'</code> as <code>id IN (:candidates) AND summary LIKE '%crash%'</code>,
+ * and as no match at all without any candidates. The like itself stays, as the candidates are a
+ * superset of the matches.
+ * </p>
+ */
+public class TextIndexManager implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TextIndexManager.class);
+
+    private static final String JPQL_REBUILD = "SELECT e.%s, e.%s FROM %s e WHERE e.%s > :after ORDER BY e.%s";
+
+    private static final String INDEX_FILE_EXT = ".idx";
+
+
+    private final transient EntityManagerFactory entityManagerFactory;
+    private final transient Path indexBase;
+
+    private final transient Map<Class<?>, Map<String, TextIndex>> indexes; // by (root) entity type, by property
+
+    private transient ExecutorService rebuildExecutor;
+
+    private int maxCandidates;
+    private int rebuildBatchSize;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public TextIndexManager(final EntityManagerFactory entityManagerFactory, final String indexBase) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(entityManagerFactory)) {
+            throw new IllegalArgumentException("#TextIndexManager :: EntityManagerFactory is NULL");
+        }
+
+        if (Objects.isNull(indexBase) || indexBase.isBlank()) {
+            throw new IllegalArgumentException("#TextIndexManager :: index base directory is BLANK");
+        }
+
+        // init
+        this.entityManagerFactory = entityManagerFactory;
+        this.indexBase = Paths.get(indexBase);
+
+        this.indexes = new HashMap<>();
+
+        this.maxCandidates = 1000;
+        this.rebuildBatchSize = 1000;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Opens the indexes of the searchable properties (rebuilding the ones not saved), and registers the
+     * index updates with the Hibernate session factory.
+     */
+    public void init() {
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+            final Thread thread = new Thread(r, "text-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (final EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+            final Class<?> entityCls = entityType.getJavaType();
+            if (!this.isRoot(entityCls) || !Integer.class.equals(entityType.getIdType().getJavaType())) {
+                continue;
+            }
+
+            final String idProperty = entityType.getId(Integer.class).getName();
+            final Map<String, TextIndex> entityIndexes = new LinkedHashMap<>();
+            for (final String property : searchablePropertiesOf(entityCls)) {
+                final Path file = indexBase.resolve(entityType.getName()).resolve(property + INDEX_FILE_EXT);
+                entityIndexes.put(property, new TextIndex(entityType.getName(), idProperty, property, file));
+            }
+
+            if (!entityIndexes.isEmpty()) {
+                indexes.put(entityCls, entityIndexes);
+            }
+        }
+
+        // Listeners :: before the rebuilds, to catch the writes during the rebuild
+        if (!indexes.isEmpty()) {
+            final SessionFactoryImplementor sessionFactory = entityManagerFactory
+                    .unwrap(SessionFactoryImplementor.class);
+
+            final EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                    .getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+            registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+            registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        }
+
+        // Load :: or rebuild
+        for (final Map<String, TextIndex> entityIndexes : indexes.values()) {
+            for (final TextIndex index : entityIndexes.values()) {
+                if (!this.load(index)) {
+                    this.rebuild(index);
+                }
+            }
+        }
+
+        LOGGER.info("#init :: text indexes of {} entity types under {}", indexes.size(), indexBase);
+    }
+
+    /**
+     * Stops the rebuilds, and saves the (ready) indexes.
+     */
+    public void close() {
+        rebuildExecutor.shutdownNow();
+        try {
+            rebuildExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("#close :: interrupted waiting for the text index rebuilds");
+        }
+
+        for (final Map<String, TextIndex> entityIndexes : indexes.values()) {
+            for (final TextIndex index : entityIndexes.values()) {
+                try {
+                    index.save();
+                    LOGGER.info("#close :: saved {}", index);
+
+                } catch (IOException e) {
+                    LOGGER.error("#close :: failed to save {}, to be rebuilt : {}", index, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pre-filters the like criteria on the indexed properties by the IDs of their candidates.
+     *
+     * @param entityCls the entity type queried
+     * @param criteria the query criteria
+     *
+     * @return the pre-filtered criteria, the criteria itself if there is nothing to pre-filter
+     */
+    public Criteria prefilter(final Class<?> entityCls, final Criteria criteria) {
+        if (Objects.isNull(criteria) || indexes.isEmpty()) {
+            return criteria;
+        }
+
+        final Map<String, TextIndex> entityIndexes = this.indexesOf(entityCls);
+        return entityIndexes.isEmpty() ? criteria : this.prefilter(entityIndexes, criteria);
+    }
+
+    /**
+     * Whether the entity type has indexed properties.
+     *
+     * @param entityCls the entity type
+     *
+     * @return true if any property of the entity type is indexed
+     */
+    public boolean isIndexed(final Class<?> entityCls) {
+        return !indexes.isEmpty() && !this.indexesOf(entityCls).isEmpty();
+    }
+
+    /**
+     * Indexes the entities written bypassing the persistence context (so not seen by the listeners),
+     * after the commit.
+     *
+     * @param entities the written entities, in their new state
+     */
+    public void indexOnCommit(final Collection<? extends IEntity<Integer>> entities) {
+        if (indexes.isEmpty() || Objects.isNull(entities) || entities.isEmpty()) {
+            return;
+        }
+
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        // Values :: as of now, the entities may change till the commit
+        final List<Runnable> puts = new ArrayList<>();
+        for (final IEntity<Integer> e : entities) {
+            final Map<String, TextIndex> entityIndexes = this.indexesOf(e.getClass());
+            if (entityIndexes.isEmpty()) {
+                continue;
+            }
+
+            final EntityPersister persister = sessionFactory.getMetamodel().entityPersister(e.getClass());
+            for (final TextIndex index : entityIndexes.values()) {
+                final String value = (String) persister.getPropertyValue(e, index.getProperty());
+                puts.add(() -> index.put(e.getId(), value));
+            }
+        }
+
+        this.afterCommit(() -> puts.forEach(Runnable::run));
+    }
+
+    /**
+     * Invalidates the indexes of the properties changed by a bulk statement, rebuilt after the commit.
+     *
+     * @param entityCls the entity type updated
+     * @param changedProps the changed properties, <code>null</code> for all of them (bulk delete)
+     */
+    public void invalidate(final Class<?> entityCls, final Collection<String> changedProps) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+
+        final Map<String, TextIndex> entityIndexes = this.indexesOf(entityCls);
+        for (final String property : Objects.isNull(changedProps) ? entityIndexes.keySet() : changedProps) {
+            final TextIndex index = entityIndexes.get(property);
+            if (Objects.isNull(index)) {
+                continue;
+            }
+
+            LOGGER.info("#invalidate :: bulk update of {}.{}, index to be rebuilt", index.getEntityName(),
+                    property);
+            index.reset(); // not used from now on
+            this.afterCommit(() -> this.rebuild(index));
+        }
+    }
+
+
+    // Methods :: Listeners
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        this.put(event.getPersister(), event.getId(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+        this.put(event.getPersister(), event.getId(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        if (event.getId() instanceof Integer) {
+            this.indexesOf(event.getPersister().getMappedClass()).values()
+                    .forEach(index -> index.remove((Integer) event.getId()));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent event) {
+        // not committed, not indexed
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent event) {
+        // not committed, not indexed
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent event) {
+        // not committed, not indexed
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(final EntityPersister persister) {
+        return !this.indexesOf(persister.getMappedClass()).isEmpty();
+    }
+
+    /**
+     * @deprecated still abstract in Hibernate 5.4, see {@link #requiresPostCommitHandling(EntityPersister)}
+     */
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(final EntityPersister persister) {
+        return this.requiresPostCommitHandling(persister);
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private Criteria prefilter(final Map<String, TextIndex> entityIndexes, final Criteria criteria) {
+        if (criteria instanceof CompoundCriteria) {
+            final List<Criteria> criteriaList = new ArrayList<>();
+            for (final Criteria cr : ((CompoundCriteria) criteria).getCriteriaList()) {
+                criteriaList.add(this.prefilter(entityIndexes, cr));
+            }
+
+            return criteria instanceof AndCriteria ? Criteria.and(criteriaList) : Criteria.or(criteriaList);
+        }
+
+        if (!(criteria instanceof LikeCriteria)) {
+            return criteria;
+        }
+
+        final LikeCriteria likeCriteria = (LikeCriteria) criteria;
+        final TextIndex index = entityIndexes.get(likeCriteria.getProperty());
+        final Set<Integer> candidates = Objects.isNull(index) ? null
+                : index.candidates(likeCriteria.getValue(), maxCandidates);
+        if (Objects.isNull(candidates)) {
+            return criteria;
+        }
+
+        LOGGER.debug("#prefilter :: {} candidates of {}", candidates.size(), likeCriteria);
+        return candidates.isEmpty() ? Criteria.none()
+                : Criteria.and(Criteria.in(index.getIdProperty(), candidates), likeCriteria);
+    }
+
+    private void put(final EntityPersister persister, final Serializable id, final Object entity) {
+        if (!(id instanceof Integer)) {
+            return;
+        }
+
+        for (final TextIndex index : this.indexesOf(persister.getMappedClass()).values()) {
+            index.put((Integer) id, (String) persister.getPropertyValue(entity, index.getProperty()));
+        }
+    }
+
+    private Map<String, TextIndex> indexesOf(final Class<?> entityCls) {
+        for (Class<?> cls = entityCls; Objects.nonNull(cls); cls = cls.getSuperclass()) {
+            final Map<String, TextIndex> entityIndexes = indexes.get(cls);
+            if (Objects.nonNull(entityIndexes)) {
+                return entityIndexes;
+            }
+        }
+
+        return Map.of();
+    }
+
+    private boolean isRoot(final Class<?> entityCls) {
+        final Set<EntityType<?>> entityTypes = entityManagerFactory.getMetamodel().getEntities();
+        return entityTypes.stream().map(EntityType::getJavaType)
+                .noneMatch(cls -> !cls.equals(entityCls) && cls.isAssignableFrom(entityCls));
+    }
+
+    private boolean load(final TextIndex index) {
+        try {
+            if (index.load()) {
+                LOGGER.info("#load :: loaded {}", index);
+                return true;
+            }
+
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("#load :: failed to load the index of {}.{}, to be rebuilt : {}", index.getEntityName(),
+                    index.getProperty(), e.getMessage());
+        }
+
+        return false;
+    }
+
+    private void rebuild(final TextIndex index) {
+        final int generation = index.reset();
+        rebuildExecutor.execute(() -> this.rebuild(index, generation));
+    }
+
+    private void rebuild(final TextIndex index, final int generation) {
+        final String idProp = index.getIdProperty();
+        final String jpql = String.format(JPQL_REBUILD, idProp, index.getProperty(), index.getEntityName(), idProp,
+                idProp);
+
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            // Keyset batches :: the soft deleted entities too, a superset is fine
+            Integer after = Integer.MIN_VALUE;
+            List<Object[]> rows;
+            do {
+                rows = entityManager.createQuery(jpql, Object[].class).setParameter("after", after)
+                        .setMaxResults(rebuildBatchSize).getResultList();
+                entityManager.clear();
+
+                for (final Object[] row : rows) {
+                    if (!index.putIfAbsent(generation, (Integer) row[0], (String) row[1])) {
+                        LOGGER.debug("#rebuild :: rebuild of {}.{} superseded", index.getEntityName(),
+                                index.getProperty());
+                        return;
+                    }
+
+                    after = (Integer) row[0];
+                }
+            } while (rows.size() == rebuildBatchSize && !Thread.currentThread().isInterrupted());
+
+            if (!Thread.currentThread().isInterrupted() && index.markReady(generation)) {
+                LOGGER.info("#rebuild :: rebuilt {}", index);
+            }
+
+        } catch (RuntimeException e) {
+            LOGGER.error("#rebuild :: failed to rebuild the index of {}.{} : {}", index.getEntityName(),
+                    index.getProperty(), e.getMessage(), e);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void afterCommit(final Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+
+        });
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Max candidates of a pre-filter, a like with more candidates runs as such.
+     *
+     * @param maxCandidates max candidates, at least 1
+     */
+    public void setMaxCandidates(int maxCandidates) {
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException("#setMaxCandidates :: max candidates should be at least 1");
+        }
+
+        this.maxCandidates = maxCandidates;
+    }
+
+    public void setRebuildBatchSize(int rebuildBatchSize) {
+        if (rebuildBatchSize < 1) {
+            throw new IllegalArgumentException("#setRebuildBatchSize :: batch size should be at least 1");
+        }
+
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    /**
+     * Number of the entities indexed, by index (entity.property).
+     *
+     * @return the index sizes, -1 for the indexes not ready
+     */
+    public Map<String, Integer> getIndexSizes() {
+        final Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (final Map<String, TextIndex> entityIndexes : indexes.values()) {
+            for (final TextIndex index : entityIndexes.values()) {
+                sizes.put(index.getEntityName() + "." + index.getProperty(), index.isReady() ? index.size() : -1);
+            }
+        }
+
+        return sizes;
+    }
+
+
+    // Static Utilities
+    // ------------------------------------------------------------------------
+
+    private static List<String> searchablePropertiesOf(final Class<?> entityCls) {
+        final List<String> properties = new ArrayList<>();
+        for (Class<?> cls = entityCls; Objects.nonNull(cls); cls = cls.getSuperclass()) {
+            for (final Field field : cls.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Searchable.class) && String.class.equals(field.getType())) {
+                    properties.add(field.getName());
+                }
+            }
+
+            for (final Method method : cls.getDeclaredMethods()) {
+                final String name = method.getName();
+                if (method.isAnnotationPresent(Searchable.class) && String.class.equals(method.getReturnType())
+                        && name.startsWith("get") && name.length() > 3) {
+                    properties.add(Character.toLowerCase(name.charAt(3)) + name.substring(4));
+                }
+            }
+        }
+
+        return properties;
+    }
+
+}
@@ -30,6 +30,14 @@ public abstract class AbstractDTO<T> {
         }
     }
 
+    /**
+     * Constructor of the projections, which are built from the selected properties of the object (see
+     * {@link com.mandark.jira.spi.app.persistence.Projection}) and not the object itself.
+     */
+    protected AbstractDTO() {
+        super();
+    }
+
 
     // Methods
     // ------------------------------------------------------------------------
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.mandark.jira.spi.app.persistence.IAuditEntity;
 import com.mandark.jira.spi.app.persistence.IEntity;
+import com.mandark.jira.spi.app.persistence.Projection;
 
 
 /**
@@ -27,6 +28,20 @@ public abstract class EntityDTO<K, E extends IEntity<K>> extends AbstractDTO<E>
         this(e, true);
     }
 
+    /**
+     * Constructor of the projections (see {@link Projection}), from the selected entity properties.
+     * 
+     * @param id unique identifier of the entity
+     * @param version version of the entity, <code>null</code> if not selected / not an audit entity
+     */
+    protected EntityDTO(K id, Integer version) {
+        super();
+
+        // init
+        this.id = id;
+        this.version = version;
+    }
+
     protected EntityDTO(E e, boolean withAuditInfo) {
         super(e);
 
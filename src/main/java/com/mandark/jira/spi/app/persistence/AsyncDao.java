@@ -0,0 +1,82 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.OrderBy;
+
+
+/**
+ * Asynchronous (non-blocking) facade of the {@link IDao} reads, to fan out the independent reads of a
+ * request in parallel, e.g.
+ *
+ * <pre>
+ * final CompletableFuture&lt;Issue&gt; issue = asyncDao.read(Issue.class, issueId);
+ * final CompletableFuture&lt;List&lt;Comment&gt;&gt; comments = asyncDao.find(Comment.class, byIssue, null, 1, 50);
+ *
+ * CompletableFuture.allOf(issue, comments).join();
+ * </pre>
+ *
+ * <p>
+ * Each read runs in its own (read-only) transaction, on its own connection : it doesn't see the
+ * uncommitted changes of the calling transaction, and the entities returned are detached.
+ * </p>
+ *
+ * @param <K> extends {@link java.io.Serializable} Type of Unique Identifier
+ *
+ * @see IDao
+ */
+public interface AsyncDao<K> {
+
+    // Read
+
+    /**
+     * Fetches the entity with the passed identifier and type.
+     *
+     * @param entityCls the entity type
+     * @param id entity identifier
+     *
+     * @return future of the entity, or <code>null</code> if not found
+     */
+    <E extends IEntity<K>> CompletableFuture<E> read(Class<E> entityCls, K id);
+
+    /**
+     * Fetches the entities with the passed identifiers and type.
+     *
+     * @param entityCls the entity type
+     * @param idList entity Unique identifiers
+     *
+     * @return future of the entities, in the order of the identifiers
+     */
+    <E extends IEntity<K>> CompletableFuture<List<E>> read(Class<E> entityCls, Collection<K> idList);
+
+
+    // Find
+
+    /**
+     * Gets the total count of a given entity entries with the passed entity select criteria.
+     *
+     * @param entityCls the entity type
+     * @param criteria entity select criteria
+     *
+     * @return future of the count of entities matching the {@link Criteria}
+     */
+    <E extends IEntity<K>> CompletableFuture<Integer> count(Class<E> entityCls, Criteria criteria);
+
+    /**
+     * Fetches/selects a List of entities matching in the order with the given criteria paginated.
+     *
+     * @param entityCls the entity type
+     * @param criteria entity select criteria
+     * @param orderBy order by property
+     * @param pageNo pagination - page number
+     * @param pageSize pagination - page size
+     *
+     * @return future of the entities matching the {@link Criteria}
+     */
+    <E extends IEntity<K>> CompletableFuture<List<E>> find(Class<E> entityCls, Criteria criteria, OrderBy orderBy,
+            int pageNo, int pageSize);
+
+}
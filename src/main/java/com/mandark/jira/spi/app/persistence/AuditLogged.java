@@ -0,0 +1,42 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Marks an {@link IEntity} for the change history : every update of the entity is recorded in the
+ * (append-only) audit log, as one entry per changed property with its old and new values, e.g.
+ *
+ * <pre>
+ * &#64;AuditLogged(exclude = {"viewCount"})
+ * public class Issue extends JpaAuditEntity {
+ *     ...
+ * </pre>
+ *
+ * <p>
+ * The audit log is written asynchronously, after the commit of the updating transaction. The collection
+ * properties, the version and the updated audit properties are not recorded.
+ * </p>
+ *
+ * <p>
+ * The changes are captured on the flush : the DAO writes bypassing it (the statement updates and deletes,
+ * the versioned updates, the upserts and the write-behind updates) are rejected for these entities.
+ * </p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AuditLogged {
+
+    /**
+     * Properties whose changes are not recorded.
+     *
+     * @return the excluded properties
+     */
+    String[] exclude() default {};
+
+}
@@ -0,0 +1,136 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.util.Objects;
+
+
+/**
+ * How the matching entries of a search are to be counted.
+ *
+ * <ul>
+ * <li>{@link CountType#EXACT} : counts all the matching entries (<code>COUNT(*)</code>), which scans
+ * them all.</li>
+ * <li>{@link CountType#CAPPED} : counts the matching entries up to the cap, and stops there. The cost
+ * is bounded by the cap, irrespective of the table size.</li>
+ * <li>{@link CountType#ESTIMATE} : reads the row estimate from the table statistics, without a scan.
+ * The statistics know nothing of the criteria nor of the soft deleted rows, so the filtered counts and the
+ * counts of the soft deletable entities fall back to the capped count.</li>
+ * </ul>
+ *
+ * @see EntityCount
+ */
+public final class CountStrategy {
+
+    /** Default cap of the capped (and the filtered estimate) counts. */
+    public static final int DEFAULT_CAP = 1000;
+
+    private static final CountStrategy EXACT = new CountStrategy(CountType.EXACT, 0);
+
+
+    private final CountType type;
+    private final int cap;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private CountStrategy(CountType type, int cap) {
+        super();
+
+        // init
+        this.type = type;
+        this.cap = cap;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public CountType getType() {
+        return type;
+    }
+
+    /**
+     * Maximum number of the entries counted.
+     *
+     * @return the cap, <code>0</code> for the exact counts
+     */
+    public int getCap() {
+        return cap;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "CountStrategy [type=" + type + ", cap=" + cap + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    public static CountStrategy exact() {
+        return EXACT;
+    }
+
+    public static CountStrategy capped(int cap) {
+        // Sanity checks
+        if (cap < 1) {
+            throw new IllegalArgumentException("#capped :: count cap should be at least 1");
+        }
+
+        return new CountStrategy(CountType.CAPPED, cap);
+    }
+
+    /**
+     * Table statistics estimate, falling back to a count capped at the passed cap for the filtered
+     * searches and the soft deletable entities.
+     *
+     * @param cap cap of the fallback counts
+     *
+     * @return estimate count strategy
+     */
+    public static CountStrategy estimate(int cap) {
+        // Sanity checks
+        if (cap < 1) {
+            throw new IllegalArgumentException("#estimate :: count cap should be at least 1");
+        }
+
+        return new CountStrategy(CountType.ESTIMATE, cap);
+    }
+
+    /**
+     * Parses the count strategy name (case insensitive), as passed by the clients.
+     *
+     * @param type count type name, <code>null</code> for the exact count
+     * @param cap cap of the capped / estimate counts
+     *
+     * @return count strategy
+     */
+    public static CountStrategy of(String type, int cap) {
+        if (Objects.isNull(type) || type.trim().isEmpty()) {
+            return EXACT;
+        }
+
+        final CountType countType;
+        try {
+            countType = CountType.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("#of :: unknown count strategy : " + type, e);
+        }
+
+        switch (countType) {
+            case CAPPED:
+                return capped(cap);
+
+            case ESTIMATE:
+                return estimate(cap);
+
+            default:
+                return EXACT;
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.mandark.jira.spi.app.persistence;
+
+
+/**
+ * Kind of an entity count, i.e. how far the count can be trusted.
+ *
+ * @see CountStrategy
+ * @see EntityCount
+ */
+public enum CountType {
+
+    /** Exact number of the matching entries. */
+    EXACT,
+
+    /** Lower bound : at least these many entries match ("1000+"). */
+    CAPPED,
+
+    /** Approximate number of the entries, from the table statistics. */
+    ESTIMATE;
+
+}
@@ -0,0 +1,77 @@
+package com.mandark.jira.spi.app.persistence;
+
+
+/**
+ * Count of the entities matching a search, along with its {@link CountType}. A count is reported as
+ * {@link CountType#EXACT} whenever it is known to be exact, e.g. a capped count below the cap.
+ *
+ * @see CountStrategy
+ */
+public final class EntityCount {
+
+    private final int value;
+    private final CountType type;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private EntityCount(int value, CountType type) {
+        super();
+
+        // init
+        this.value = value;
+        this.type = type;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public int getValue() {
+        return value;
+    }
+
+    public CountType getType() {
+        return type;
+    }
+
+    public boolean isExact() {
+        return type == CountType.EXACT;
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case CAPPED:
+                return value + "+";
+
+            case ESTIMATE:
+                return "~" + value;
+
+            default:
+                return String.valueOf(value);
+        }
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    public static EntityCount exact(int value) {
+        return new EntityCount(value, CountType.EXACT);
+    }
+
+    public static EntityCount capped(int value) {
+        return new EntityCount(value, CountType.CAPPED);
+    }
+
+    public static EntityCount estimate(int value) {
+        return new EntityCount(value, CountType.ESTIMATE);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Declares a FULLTEXT index on a (text) property of an {@link IEntity}, e.g.
+ *
+ * <pre>
+ * public class Issue extends JpaAuditEntity {
+ *
+ *     &#64;FullText
+ *     private String description;
+ *     ...
+ * </pre>
+ *
+ * <p>
+ * The <code>like</code> criteria on the property are run as a full-text match (boolean mode), of the
+ * words starting with each of the like words, in any order. So a like of a part of a word (e.g. "rash"
+ * for "crash") doesn't match. The likes with the words shorter than the server's minimum token size (or
+ * with the stop words) run as such.
+ * </p>
+ *
+ * <p>
+ * The index is created on the startup, as the schema update doesn't create it.
+ * </p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface FullText {
+
+}
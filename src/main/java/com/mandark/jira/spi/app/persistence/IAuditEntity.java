@@ -18,6 +18,7 @@ import java.time.LocalDateTime;
  * <li>createdOn - Created timestamp</li>
  * <li>updatedBy - Info of user who last updated</li>
  * <li>updatedOn - Last Updated timestamp</li>
+ * <li>deletedOn - Deleted timestamp, of the soft deleted objects</li>
  * </ul>
  *
  * @param <K> Type Parameter of the Entity Identifier
@@ -121,4 +122,27 @@ public interface IAuditEntity<K> extends IEntity<K> {
 
 
 
+    // Soft Delete
+
+    /**
+     * Returns when the object is (soft) deleted. The soft deleted objects are excluded from the reads,
+     * and purged (hard deleted) later on.
+     * 
+     * @return the deleted on timestamp, <code>null</code> if not deleted
+     */
+    LocalDateTime getDeletedOn();
+
+    /**
+     * Sets the deleted timestamp
+     * 
+     * <p>
+     * <b>Note :</b> This is supposed to be set by the soft delete of the DAO.
+     * </p>
+     * 
+     * @param deletedOn the deleted on date
+     */
+    void setDeletedOn(LocalDateTime deletedOn);
+
+
+
 }
\ No newline at end of file
@@ -2,10 +2,14 @@ package com.mandark.jira.spi.app.persistence;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import com.mandark.jira.spi.app.query.Criteria;
 import com.mandark.jira.spi.app.query.OrderBy;
@@ -68,9 +72,105 @@ public interface IDao<K> {
      */
     void update(Collection<? extends IEntity<K>> inEntities);
 
+    /**
+     * Updates the properties of all the entities matching the criteria, with a single (bulk) statement
+     * and without loading them.
+     * 
+     * <p>
+     * The statement bypasses the persistence context (and the entity listeners); for the audited
+     * entities the version and the updated timestamp are bumped by the statement itself.
+     * </p>
+     * 
+     * @param entityCls the entity type
+     * @param criteria entity select criteria (mandatory)
+     * @param values new values of the properties, by property name
+     * 
+     * @return number of the entities updated
+     */
+    <E extends IEntity<K>> int updateWhere(Class<E> entityCls, Criteria criteria, Map<String, Object> values);
+
+    /**
+     * Updates the entities in JDBC batches, each entity only if its version still matches the stored one
+     * (<code>UPDATE .. WHERE id = ? AND version = ?</code>). A stale entity doesn't fail the others : it is
+     * left untouched and reported as a conflict.
+     *
+     * <p>
+     * The updated entities get their new version. The entities are to be versioned, and are written as
+     * they are (all the updatable properties).
+     * </p>
+     *
+     * @param inEntities The entities collection to be updated.
+     *
+     * @return the updated and the conflicting entity identifiers
+     */
+    UpdateResult<K> updateVersioned(Collection<? extends IEntity<K>> inEntities);
+
+    /**
+     * Reads the entities, applies the mutation and updates them as {@link #updateVersioned(Collection)}.
+     * The conflicting entities are read again (fresh) and the mutation re-applied, up to the max retries.
+     *
+     * <p>
+     * The mutation may be applied more than once, to different states of an entity : it is to be
+     * idempotent, and free of the side effects.
+     * </p>
+     *
+     * @param entityCls the entity type
+     * @param idList collection of entity Unique Identifiers
+     * @param mutation changes of an entity
+     * @param maxRetries max re-read and re-apply attempts of the conflicting entities, <code>0</code> for
+     *        none
+     *
+     * @return the updated and the (still) conflicting entity identifiers, and the identifiers of the
+     *         entities not found
+     */
+    <E extends IEntity<K>> UpdateResult<K> updateVersioned(Class<E> entityCls, Collection<K> idList,
+            Consumer<? super E> mutation, int maxRetries);
+
 
+    // Upsert
 
-    // TODO :: add Delete (soft)
+    /**
+     * Inserts the entities, or updates the existing entries on a duplicate key (insert or update), in
+     * JDBC batches and without loading the existing entries.
+     * 
+     * <p>
+     * The duplicates are detected on the unique identifier or any unique key. The properties of the
+     * conflict key are not updated (nor the created audit properties). The existing entries of the
+     * entities with a version are updated only if the version matches (else left untouched); the
+     * entities without a version overwrite the existing entries.
+     * </p>
+     * 
+     * <p>
+     * The identifiers of the new entities are assigned before the insert; an entity matching an existing
+     * entry by the (non identifier) conflict key is set the identifier of the existing entry.
+     * </p>
+     * 
+     * @param inEntities The entities collection to be upserted.
+     * @param conflictKeys properties of the unique key expected to conflict
+     */
+    void upsert(Collection<? extends IEntity<K>> inEntities, String... conflictKeys);
+
+
+
+    // Delete (soft)
+
+    /**
+     * Deletes the entity softly, i.e. marks it as deleted (see {@link IAuditEntity#getDeletedOn()}). The
+     * soft deleted entities are excluded from all the reads, and are purged (hard deleted) later on in
+     * the background, see {@link #purgeDeleted(Class, LocalDateTime, int)}.
+     * 
+     * @param entityCls the entity type, an {@link IAuditEntity}
+     * @param id Unique Identifier of the Entity
+     */
+    void delete(Class<? extends IEntity<K>> entityCls, K id);
+
+    /**
+     * Deletes the entities softly, see {@link #delete(Class, Object)}.
+     * 
+     * @param entityCls the entity type, an {@link IAuditEntity}
+     * @param idList collection of entity Unique Identifiers
+     */
+    void delete(Class<? extends IEntity<K>> entityCls, Collection<K> idList);
 
 
     // Purge
@@ -91,6 +191,35 @@ public interface IDao<K> {
      */
     void purge(Class<? extends IEntity<K>> entityCls, Collection<K> idList);
 
+    /**
+     * Deletes all the entities matching the criteria, with a single (bulk) statement and without loading
+     * them : the {@link IAuditEntity} entities softly (as {@link #delete(Class, Collection)}, the already
+     * deleted ones left as they are), the others are purged (hard delete).
+     * 
+     * <p>
+     * The statement bypasses the persistence context, i.e. the JPA cascades and the entity listeners
+     * are NOT applied.
+     * </p>
+     * 
+     * @param entityCls the entity type
+     * @param criteria entity select criteria (mandatory)
+     * 
+     * @return number of the entities deleted
+     */
+    <E extends IEntity<K>> int deleteWhere(Class<E> entityCls, Criteria criteria);
+
+    /**
+     * Purges (hard delete) a batch of the entities soft deleted before the passed timestamp, along with
+     * their cascades. Meant for the background purge, one batch per transaction.
+     * 
+     * @param entityCls the entity type, an {@link IAuditEntity}
+     * @param deletedBefore purges the entities deleted before this timestamp
+     * @param batchSize maximum number of the entities to purge
+     * 
+     * @return number of the entities purged, less than the batch size when there are no more
+     */
+    <E extends IEntity<K>> int purgeDeleted(Class<E> entityCls, LocalDateTime deletedBefore, int batchSize);
+
 
     // Read
     // ------------------------------------------------------------------------
@@ -108,12 +237,14 @@ public interface IDao<K> {
     <E extends IEntity<K>> E read(Class<E> entityCls, K id, boolean errorIfNotFound);
 
     /**
-     * Fetches the entities with the passed identifiers and type.
+     * Fetches the entities with the passed identifiers and type. The large identifier collections are
+     * read in chunks.
      * 
      * @param entityCls the entity type
      * @param inIdList entity Unique identifiers
      * 
-     * @return {@link List} of entity objects
+     * @return {@link List} of entity objects, in the order of the identifiers (the ones not found are
+     *         skipped)
      */
     <E extends IEntity<K>> List<E> read(Class<E> entityCls, Collection<K> inIdList);
 
@@ -167,6 +298,19 @@ public interface IDao<K> {
      */
     <E extends IEntity<K>> int count(Class<E> entityCls, Criteria criteria);
 
+    /**
+     * Counts the entities matching the passed entity select criteria, as per the {@link CountStrategy}.
+     * The exact count scans all the matching entries, which on the large tables can cost more than
+     * reading a page; the capped and the estimate counts bound this cost, at the cost of precision.
+     * 
+     * @param entityCls the entity type
+     * @param criteria entity select criteria (optional)
+     * @param strategy count strategy
+     * 
+     * @return {@link EntityCount} of the entities matching the {@link Criteria}, with its type
+     */
+    <E extends IEntity<K>> EntityCount count(Class<E> entityCls, Criteria criteria, CountStrategy strategy);
+
     /**
      * Fetches/selects a List of entities matching with the given criteria paginated.
      * 
@@ -194,6 +338,113 @@ public interface IDao<K> {
             int pageSize);
 
 
+    /**
+     * Fetches/selects a page of entities matching the given criteria, along with the total count of the
+     * matching entities.
+     * 
+     * <p>
+     * The count is skipped when the page itself tells it (a partial page is the last page). Else it
+     * may run in parallel with the page query, on a separate connection : i.e. outside the current
+     * transaction, not seeing its uncommitted changes.
+     * </p>
+     * 
+     * @param entityCls the entity type
+     * @param criteria entity select criteria (optional)
+     * @param orderBy order by properties (optional)
+     * @param pageNo pagination - page number
+     * @param pageSize pagination - page size
+     * 
+     * @return {@link Page} of entity objects matching the {@link Criteria}, with their total count
+     */
+    <E extends IEntity<K>> Page<E> findPage(Class<E> entityCls, Criteria criteria, OrderBy orderBy, int pageNo,
+            int pageSize);
+
+
+    // Projection
+
+    /**
+     * Fetches/selects the passed properties (only) of the entities matching the given criteria, in the
+     * order, paginated. No entities are loaded (nor managed), so the unselected columns and the
+     * associations are neither read nor hydrated.
+     * 
+     * @param entityCls the entity type
+     * @param criteria entity select criteria (optional)
+     * @param orderBy order by properties (optional)
+     * @param properties properties to select (dot separated for the nested properties)
+     * @param pageNo pagination - page number
+     * @param pageSize pagination - page size
+     * 
+     * @return {@link List} of property value maps (by property name, in the selected order)
+     */
+    <E extends IEntity<K>> List<Map<String, Object>> findProperties(Class<E> entityCls, Criteria criteria,
+            OrderBy orderBy, List<String> properties, int pageNo, int pageSize);
+
+    /**
+     * Fetches/selects the {@link Projection}s of the entities matching the given criteria, in the order,
+     * paginated. The projections are built (constructed) by the query itself from the projected
+     * properties, without loading the entities.
+     * 
+     * @param entityCls the entity type
+     * @param projectionCls projection type, annotated with {@link Projection}
+     * @param criteria entity select criteria (optional)
+     * @param orderBy order by properties (optional)
+     * @param pageNo pagination - page number
+     * @param pageSize pagination - page size
+     * 
+     * @return {@link List} of the projections of entities matching the {@link Criteria}
+     */
+    <E extends IEntity<K>, P> List<P> findProjections(Class<E> entityCls, Class<P> projectionCls, Criteria criteria,
+            OrderBy orderBy, int pageNo, int pageSize);
+
+
+    // Seek
+
+    /**
+     * Fetches/selects a slice of entities matching with the given criteria, positioned after the passed
+     * (opaque) pagination token. This keyset pagination neither skips the earlier rows (OFFSET) nor
+     * counts the matching rows, which keeps the cost of deep pages same as the first one.
+     * 
+     * <p>
+     * The entities are ordered by the {@link OrderBy} properties and their unique identifier as a
+     * tie-breaker. The NULL sort property values are ordered as by the database (first, ascending in
+     * MySQL).
+     * </p>
+     * 
+     * @param entityCls the entity type
+     * @param criteria entity select criteria (optional)
+     * @param orderBy order by properties (optional, defaults to the unique identifier)
+     * @param after pagination token of the previous slice, <code>null</code> for the first slice
+     * @param pageSize pagination - page size
+     * 
+     * @return {@link Slice} of entity objects with the next slice token
+     */
+    <E extends IEntity<K>> Slice<E> seek(Class<E> entityCls, Criteria criteria, OrderBy orderBy, String after,
+            int pageSize);
+
+
+    // Stream
+
+    /**
+     * Streams all the entities matching with the given criteria, in the order, reading them over a single
+     * forward-only database cursor (no OFFSET pages). The entities are detached as the stream moves on,
+     * so the memory stays flat irrespective of the number of entities read.
+     * 
+     * <p>
+     * The stream holds an open cursor (and its connection) : it must be consumed within the transaction
+     * and closed after use (try-with-resources). No other query can run on the connection while the
+     * stream is open, so the lazy associations of the streamed entities can't be loaded.
+     * </p>
+     * 
+     * @param entityCls the entity type
+     * @param criteria entity select criteria (optional)
+     * @param orderBy order by properties (optional)
+     * @param fetchSize number of the entities held in the persistence context before they are detached
+     * 
+     * @return {@link Stream} of entity objects matching the {@link Criteria}
+     */
+    <E extends IEntity<K>> Stream<E> stream(Class<E> entityCls, Criteria criteria, OrderBy orderBy, int fetchSize);
+
+
 
     // Other Utilities
 
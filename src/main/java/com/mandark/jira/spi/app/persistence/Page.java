@@ -0,0 +1,95 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * A page of an offset paginated read, along with the total count of the matching entries.
+ *
+ * @param <T> Type of the items
+ *
+ * @see Slice
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final int pageNo;
+    private final int pageSize;
+
+    private final int totalCount;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private Page(List<T> items, int pageNo, int pageSize, int totalCount) {
+        super();
+
+        // init
+        this.items = Objects.isNull(items) ? new ArrayList<>() : new ArrayList<>(items);
+        this.pageNo = pageNo;
+        this.pageSize = pageSize;
+
+        this.totalCount = totalCount;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public int getPageNo() {
+        return pageNo;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Maps the items of this page, retaining the pagination info.
+     *
+     * @param mapper item mapper function
+     *
+     * @return page of mapped items
+     */
+    public <R> Page<R> map(Function<T, R> mapper) {
+        final List<R> mappedItems = items.stream().map(mapper).collect(Collectors.toList());
+        return new Page<>(mappedItems, pageNo, pageSize, totalCount);
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "Page [items=" + items.size() + ", pageNo=" + pageNo + ", pageSize=" + pageSize + ", totalCount="
+                + totalCount + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    public static <T> Page<T> of(List<T> items, int pageNo, int pageSize, int totalCount) {
+        return new Page<>(items, pageNo, pageSize, totalCount);
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import com.mandark.jira.spi.app.query.Criteria;
+
+
+/**
+ * Metrics of the persistence operations (save, read, count, find ..) : the latency, the rows and the
+ * failures of each operation, by the entity type, the operation and the shape of its criteria, e.g.
+ *
+ * <pre>
+ * return metrics.record(Issue.class, "find", criteria, () -&gt; dao.find(..), List::size);
+ * </pre>
+ *
+ * <p>
+ * The shape of the criteria is its structure (criteria types and properties), without the values : the
+ * same search with different values is the same series.
+ * </p>
+ */
+public interface PersistenceMetrics {
+
+    /**
+     * Runs the operation, timed, and records its latency and its row count, or its failure. The failure
+     * is re-thrown as such.
+     *
+     * @param entityCls the entity type
+     * @param operation name of the operation
+     * @param criteria criteria of the operation (optional)
+     * @param action the operation
+     * @param rowCounter row count of the operation result
+     *
+     * @return the operation result
+     */
+    <T> T record(Class<?> entityCls, String operation, Criteria criteria, Supplier<T> action,
+            ToIntFunction<? super T> rowCounter);
+
+}
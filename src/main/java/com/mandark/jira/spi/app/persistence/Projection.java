@@ -0,0 +1,42 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Marks a class (typically an {@link com.mandark.jira.spi.app.EntityDTO}) as a projection of an
+ * {@link IEntity}, built directly from the selected entity properties instead of the (managed) entity.
+ *
+ * <p>
+ * The class must have a public constructor with the parameters matching the projected properties, in
+ * the same order and of the property types, e.g.
+ * </p>
+ *
+ * <pre>
+ * &#64;Projection({"id", "version", "name", "owner.name"})
+ * public class ProjectLiteDTO extends EntityDTO&lt;Integer, Project&gt; {
+ *
+ *     public ProjectLiteDTO(Integer id, Integer version, String name, String ownerName) {
+ *         ...
+ * </pre>
+ *
+ * @see IDao#findProjections(Class, Class, com.mandark.jira.spi.app.query.Criteria,
+ *      com.mandark.jira.spi.app.query.OrderBy, int, int)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Projection {
+
+    /**
+     * Entity properties (dot separated for the nested properties) passed to the constructor.
+     *
+     * @return the projected properties, in the constructor parameter order
+     */
+    String[] value();
+
+}
@@ -1,6 +1,11 @@
 package com.mandark.jira.spi.app.persistence;
 
+import java.util.List;
+import java.util.Map;
+
 import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.Keyset;
+import com.mandark.jira.spi.app.query.OrderBy;
 
 
 /**
@@ -41,6 +46,85 @@ public interface QueryBuilder<Q> {
      */
     <E extends IEntity<?>> Q toQuery(Class<E> entityCls, Criteria inCriteria);
 
+    /**
+     * Given a {@link IEntity} and a {@link Criteria} constructs a Query object to find matching entries
+     * from the DataStote / DataBase, ordered by the {@link OrderBy} properties.
+     * 
+     * <p>
+     * The unique identifier is always added as the last sort property (tie-breaker), so that the order
+     * is deterministic across the pages, even with a <code>null</code> {@link OrderBy}.
+     * </p>
+     * 
+     * @param entityCls {@link Class} of the {@link IEntity}
+     * @param inCriteria input {@link Criteria} object (optional)
+     * @param orderBy order by properties (optional)
+     * 
+     * @return Query object built for the Entity.
+     */
+    <E extends IEntity<?>> Q toQuery(Class<E> entityCls, Criteria inCriteria, OrderBy orderBy);
+
+    /**
+     * Given a {@link IEntity} and a {@link Criteria} constructs a Query object to find matching entries
+     * from the DataStote / DataBase, ordered by the {@link OrderBy} properties (and the unique
+     * identifier), positioned after the passed {@link Keyset}.
+     * 
+     * @param entityCls {@link Class} of the {@link IEntity}
+     * @param inCriteria input {@link Criteria} object (optional)
+     * @param orderBy order by properties (optional)
+     * @param after position of the last read entry, <code>null</code> to read from the start
+     * 
+     * @return Query object built for the Entity.
+     */
+    <E extends IEntity<?>> Q toSeekQuery(Class<E> entityCls, Criteria inCriteria, OrderBy orderBy, Keyset after);
+
+
+    /**
+     * Given a {@link IEntity} and a {@link Criteria} constructs a Query object to select the passed
+     * properties (only) of the matching entries, ordered by the {@link OrderBy} properties (and the
+     * unique identifier).
+     * 
+     * <p>
+     * With a result class, each row is built by its constructor taking the selected properties (in the
+     * order), else the rows are the tuples of the property values.
+     * </p>
+     * 
+     * @param entityCls {@link Class} of the {@link IEntity}
+     * @param inCriteria input {@link Criteria} object (optional)
+     * @param orderBy order by properties (optional)
+     * @param properties properties to select (dot separated for the nested properties)
+     * @param resultCls class of the result rows (optional)
+     * 
+     * @return Query object built for the Entity.
+     */
+    <E extends IEntity<?>> Q toProjectionQuery(Class<E> entityCls, Criteria inCriteria, OrderBy orderBy,
+            List<String> properties, Class<?> resultCls);
+
+
+    // To Bulk Statement
+
+    /**
+     * Given a {@link IEntity} and a {@link Criteria} constructs a single (bulk) statement to update the
+     * properties of all the matching entries in the DataStote / DataBase.
+     * 
+     * @param entityCls {@link Class} of the {@link IEntity}
+     * @param inCriteria input {@link Criteria} object
+     * @param values new values of the properties, by property name
+     * 
+     * @return Update statement built for the Entity.
+     */
+    <E extends IEntity<?>> Q toUpdateQuery(Class<E> entityCls, Criteria inCriteria, Map<String, Object> values);
+
+    /**
+     * Given a {@link IEntity} and a {@link Criteria} constructs a single (bulk) statement to delete all
+     * the matching entries from the DataStote / DataBase.
+     * 
+     * @param entityCls {@link Class} of the {@link IEntity}
+     * @param inCriteria input {@link Criteria} object
+     * 
+     * @return Delete statement built for the Entity.
+     */
+    <E extends IEntity<?>> Q toDeleteQuery(Class<E> entityCls, Criteria inCriteria);
+
 
 
     // Default Methods
@@ -54,5 +138,18 @@ public interface QueryBuilder<Q> {
         return this.toQuery(entityCls, inCriteria);
     }
 
+    /**
+     * Given a {@link IEntity} and a {@link Criteria} constructs a Query object to select the unique
+     * identifiers (only) of the matching entries, e.g. to count them up to a limit.
+     * 
+     * @param entityCls {@link Class} of the {@link IEntity}
+     * @param inCriteria input {@link Criteria} object (optional)
+     * 
+     * @return Query object built for the Entity.
+     */
+    default <E extends IEntity<?>> Q toIdQuery(Class<E> entityCls, Criteria inCriteria) {
+        return this.toQuery(entityCls, inCriteria);
+    }
+
 
 }
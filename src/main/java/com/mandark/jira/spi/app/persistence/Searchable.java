@@ -0,0 +1,32 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Marks a (text) property of an {@link IEntity} for the text search : the property is kept in an
+ * inverted index, and the <code>like</code> criteria on it are served by the index, e.g.
+ *
+ * <pre>
+ * public class Issue extends JpaAuditEntity {
+ *
+ *     &#64;Searchable
+ *     private String summary;
+ *     ...
+ * </pre>
+ *
+ * <p>
+ * The index is maintained from the entity writes. The property is not to be updated through the
+ * {@link WriteBehind} buffer, as those writes are not seen by the index.
+ * </p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Searchable {
+
+}
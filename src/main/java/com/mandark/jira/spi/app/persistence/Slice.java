@@ -0,0 +1,111 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.mandark.jira.spi.app.query.Keyset;
+
+
+/**
+ * A page of a keyset (seek) paginated read. Unlike the offset pagination, it doesn't know the total
+ * count, only whether there is a next page and the token to fetch it.
+ *
+ * @param <T> Type of the items
+ *
+ * @see Keyset
+ */
+public final class Slice<T> {
+
+    private final List<T> items;
+    private final int pageSize;
+
+    private final String after;
+    private final String next;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private Slice(List<T> items, int pageSize, String after, String next) {
+        super();
+
+        // init
+        this.items = Objects.isNull(items) ? new ArrayList<>() : new ArrayList<>(items);
+        this.pageSize = pageSize;
+
+        this.after = after;
+        this.next = next;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Token this slice was read after.
+     *
+     * @return the input token, <code>null</code> for the first page
+     */
+    public String getAfter() {
+        return after;
+    }
+
+    /**
+     * Token to read the next slice.
+     *
+     * @return the next page token, <code>null</code> if this is the last page
+     */
+    public String getNext() {
+        return next;
+    }
+
+    public boolean hasNext() {
+        return Objects.nonNull(next);
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Maps the items of this slice, retaining the pagination info.
+     *
+     * @param mapper item mapper function
+     *
+     * @return slice of mapped items
+     */
+    public <R> Slice<R> map(Function<T, R> mapper) {
+        final List<R> mappedItems = items.stream().map(mapper).collect(Collectors.toList());
+        return new Slice<>(mappedItems, pageSize, after, next);
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "Slice [items=" + items.size() + ", pageSize=" + pageSize + ", after=" + after + ", next=" + next + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    public static <T> Slice<T> of(List<T> items, int pageSize, String after, String next) {
+        return new Slice<>(items, pageSize, after, next);
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.mandark.jira.spi.app.persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+
+/**
+ * Outcome of a versioned (optimistic lock checked) bulk update : the entities updated, the entities in
+ * conflict, i.e. left untouched as their version changed (or they were deleted) since read, and the
+ * entities not found when read for the update.
+ *
+ * @param <K> Type of the Unique Identifier
+ */
+public final class UpdateResult<K> {
+
+    private final List<K> updated;
+    private final List<K> conflicts;
+    private final List<K> notFound;
+    private final int attempts;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private UpdateResult(List<K> updated, List<K> conflicts, List<K> notFound, int attempts) {
+        super();
+
+        // init
+        this.updated = Objects.isNull(updated) ? new ArrayList<>() : new ArrayList<>(updated);
+        this.conflicts = Objects.isNull(conflicts) ? new ArrayList<>() : new ArrayList<>(conflicts);
+        this.notFound = Objects.isNull(notFound) ? new ArrayList<>() : new ArrayList<>(notFound);
+        this.attempts = attempts;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    public List<K> getUpdated() {
+        return Collections.unmodifiableList(updated);
+    }
+
+    public List<K> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    /**
+     * Entities not found (or soft deleted) when read for the update, so neither updated nor in conflict.
+     *
+     * @return the identifiers not found
+     */
+    public List<K> getNotFound() {
+        return Collections.unmodifiableList(notFound);
+    }
+
+    /**
+     * Number of the update attempts, the first one included.
+     *
+     * @return the attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "UpdateResult [updated=" + updated.size() + ", conflicts=" + conflicts + ", notFound=" + notFound
+                + ", attempts=" + attempts + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    public static <K> UpdateResult<K> of(List<K> updated, List<K> conflicts, int attempts) {
+        return new UpdateResult<>(updated, conflicts, null, attempts);
+    }
+
+    public static <K> UpdateResult<K> of(List<K> updated, List<K> conflicts, List<K> notFound, int attempts) {
+        return new UpdateResult<>(updated, conflicts, notFound, attempts);
+    }
+
+}
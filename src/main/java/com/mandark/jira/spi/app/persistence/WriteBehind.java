@@ -0,0 +1,56 @@
+package com.mandark.jira.spi.app.persistence;
+
+
+/**
+ * Write-behind buffer of the high frequency property updates (view counts, vote tallies, last viewed
+ * timestamps ..), coalesced in memory per entity property and written later in batches, e.g.
+ *
+ * <pre>
+ * writeBehind.increment(Issue.class, issueId, "viewCount", 1);
+ * writeBehind.set(Issue.class, issueId, "lastViewedOn", LocalDateTime.now());
+ * </pre>
+ *
+ * <p>
+ * The increments of a property add up, and the last value set wins (an increment after a set adds to
+ * the set value). The writes bypass the persistence context : the entity is not loaded nor locked, and
+ * the reads see the buffered updates only once written. The version of the entity is incremented by the
+ * write, so a concurrent update of the loaded entity fails its optimistic lock check.
+ * </p>
+ *
+ * @param <K> extends {@link java.io.Serializable} Type of Unique Identifier
+ */
+public interface WriteBehind<K> {
+
+    /**
+     * Increments the (numeric) property of the entity.
+     *
+     * @param entityCls the entity type
+     * @param id entity identifier
+     * @param property the property
+     * @param delta increment, negative to decrement
+     */
+    void increment(Class<? extends IEntity<K>> entityCls, K id, String property, long delta);
+
+    /**
+     * Sets the property of the entity, overriding the buffered updates of the property.
+     *
+     * @param entityCls the entity type
+     * @param id entity identifier
+     * @param property the property
+     * @param value new value of the property
+     */
+    void set(Class<? extends IEntity<K>> entityCls, K id, String property, Object value);
+
+    /**
+     * Writes all the buffered updates.
+     */
+    void flush();
+
+    /**
+     * Number of the buffered (coalesced) property updates, waiting to be written.
+     *
+     * @return the pending updates
+     */
+    int getPending();
+
+}
@@ -33,6 +33,10 @@ public interface Criteria {
         return new LikeCriteria(property, value);
     }
 
+    public static FullTextCriteria match(String property, String text) {
+        return new FullTextCriteria(property, text);
+    }
+
     public static MinCriteria min(String property, Object value) {
         return new MinCriteria(property, value);
     }
@@ -49,6 +53,15 @@ public interface Criteria {
         return new NullCriteria(property);
     }
 
+    /**
+     * Criteria matching nothing.
+     * 
+     * @return the none criteria
+     */
+    public static NoneCriteria none() {
+        return new NoneCriteria();
+    }
+
 
     // Criteria :: Compound
 
@@ -0,0 +1,434 @@
+package com.mandark.jira.spi.app.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+
+/**
+ * Normalizes and simplifies a {@link Criteria} tree before it is turned into a query, to an equivalent
+ * tree :
+ *
+ * <ul>
+ * <li>the nested {@link AndCriteria} / {@link OrCriteria} are flattened, and the single child compounds
+ * replaced by the child</li>
+ * <li>the duplicate criteria are dropped</li>
+ * <li>the {@link EqualsCriteria} / {@link InCriteria} of a property in an OR are merged into an IN; the IN
+ * of a single value is turned into an EQUALS</li>
+ * <li>the criteria of a property in an AND are merged : the IN lists intersected, the {@link MinCriteria}
+ * / {@link MaxCriteria} tightened to a single range, the values out of the range dropped</li>
+ * <li>the contradictions (an empty IN, <code>x = 1 AND x = 2</code>, an empty range ..) are reduced to a
+ * {@link NoneCriteria}, dropped from an OR and failing an AND</li>
+ * </ul>
+ *
+ * <p>
+ * The criteria of a property are merged only if all their values are of the same type (no numeric
+ * widening), and the case insensitive and the LIKE criteria are left as they are.
+ * </p>
+ */
+public final class CriteriaOptimizer {
+
+
+    // Constructor
+
+    private CriteriaOptimizer() {
+        super();
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Optimizes the criteria tree.
+     *
+     * @param criteria the criteria, <code>null</code> for none
+     *
+     * @return the optimized criteria : a {@link NoneCriteria} if it matches nothing, <code>null</code> if it
+     *         matches everything
+     */
+    public static Criteria optimize(final Criteria criteria) {
+        if (Objects.isNull(criteria)) {
+            return null;
+        }
+
+        return normalize(criteria);
+    }
+
+    /**
+     * Checks if the (optimized) criteria matches nothing.
+     *
+     * @param criteria the criteria
+     *
+     * @return <code>true</code> if the criteria is a {@link NoneCriteria}
+     */
+    public static boolean isNone(final Criteria criteria) {
+        return criteria instanceof NoneCriteria;
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static Criteria normalize(final Criteria criteria) {
+        if (criteria instanceof AndCriteria) {
+            return normalizeAnd((AndCriteria) criteria);
+
+        } else if (criteria instanceof OrCriteria) {
+            return normalizeOr((OrCriteria) criteria);
+
+        } else if (criteria instanceof InCriteria) {
+            final InCriteria inCriteria = (InCriteria) criteria;
+            return inOf(inCriteria.getProperty(), inCriteria.getValues());
+        }
+
+        return criteria;
+    }
+
+
+    // AND
+
+    private static Criteria normalizeAnd(final AndCriteria andCriteria) {
+        // Flatten :: the always true children dropped, an always false child fails all
+        final List<Criteria> children = new ArrayList<>();
+        for (final Criteria cr : andCriteria.getCriteriaList()) {
+            final Criteria child = normalize(cr);
+            if (Objects.isNull(child)) {
+                continue;
+            }
+
+            if (isNone(child)) {
+                return child;
+            }
+
+            if (child instanceof AndCriteria) {
+                children.addAll(((AndCriteria) child).getCriteriaList());
+            } else {
+                children.add(child);
+            }
+        }
+
+        // Merge :: the criteria of a property, at the place of its first criteria
+        final Map<Object, List<Criteria>> groups = groupByProperty(dedup(children));
+
+        final List<Criteria> merged = new ArrayList<>();
+        for (final Map.Entry<Object, List<Criteria>> group : groups.entrySet()) {
+            if (!(group.getKey() instanceof String)) {
+                merged.addAll(group.getValue());
+                continue;
+            }
+
+            final List<Criteria> groupCriteria = mergeConjunction((String) group.getKey(), group.getValue());
+            if (groupCriteria.size() == 1 && isNone(groupCriteria.get(0))) {
+                return groupCriteria.get(0);
+            }
+
+            merged.addAll(groupCriteria);
+        }
+
+        if (merged.isEmpty()) {
+            return null;
+        }
+
+        return merged.size() == 1 ? merged.get(0) : new AndCriteria(merged);
+    }
+
+    /**
+     * Merges the (AND) criteria of a property.
+     *
+     * @return the merged criteria, a single {@link NoneCriteria} on a contradiction
+     */
+    private static List<Criteria> mergeConjunction(final String property, final List<Criteria> group) {
+        if (group.size() == 1 || !isSameValueType(group)) {
+            return group;
+        }
+
+        Object equal = null;
+        Set<Object> inValues = null;
+        Object min = null;
+        Object max = null;
+        boolean isNull = false;
+        boolean isNotNull = false;
+
+        final List<Criteria> others = new ArrayList<>(); // as they are
+        for (final Criteria cr : group) {
+            if (cr instanceof EqualsCriteria && !((EqualsCriteria) cr).isIgnoreCase()) {
+                final Object value = ((EqualsCriteria) cr).getValue();
+                if (Objects.nonNull(equal) && !equal.equals(value)) {
+                    return List.of(Criteria.none());
+                }
+                equal = value;
+
+            } else if (cr instanceof InCriteria) {
+                final Collection<?> values = ((InCriteria) cr).getValues();
+                if (Objects.isNull(inValues)) {
+                    inValues = new LinkedHashSet<>(values);
+                } else {
+                    inValues.retainAll(new HashSet<>(values));
+                }
+
+            } else if (cr instanceof MinCriteria) {
+                final Object value = ((MinCriteria) cr).getValue();
+                min = Objects.isNull(min) || compare(value, min) > 0 ? value : min;
+
+            } else if (cr instanceof MaxCriteria) {
+                final Object value = ((MaxCriteria) cr).getValue();
+                max = Objects.isNull(max) || compare(value, max) < 0 ? value : max;
+
+            } else if (cr instanceof NullCriteria) {
+                isNull = true;
+
+            } else if (cr instanceof NotNullCriteria) {
+                isNotNull = true;
+
+            } else {
+                others.add(cr);
+            }
+        }
+
+        // NULL :: no value matches
+        final boolean hasValueCriteria = Objects.nonNull(equal) || Objects.nonNull(inValues) || Objects.nonNull(min)
+                || Objects.nonNull(max) || !others.isEmpty();
+        if (isNull) {
+            return isNotNull || hasValueCriteria ? List.of(Criteria.none()) : List.of(Criteria.isNull(property));
+        }
+
+        final List<Criteria> merged = new ArrayList<>();
+
+        // Values :: within the range
+        if (Objects.nonNull(equal) || Objects.nonNull(inValues)) {
+            final Set<Object> values = Objects.isNull(inValues) ? new LinkedHashSet<>() : inValues;
+            if (Objects.nonNull(equal)) {
+                if (Objects.nonNull(inValues) && !inValues.contains(equal)) {
+                    return List.of(Criteria.none());
+                }
+
+                values.clear();
+                values.add(equal);
+            }
+
+            final Object minValue = min;
+            final Object maxValue = max;
+            values.removeIf(v -> (Objects.nonNull(minValue) && compare(v, minValue) <= 0)
+                    || (Objects.nonNull(maxValue) && compare(v, maxValue) >= 0));
+
+            final Criteria valuesCriteria = inOf(property, values);
+            if (isNone(valuesCriteria)) {
+                return List.of(valuesCriteria);
+            }
+
+            merged.add(valuesCriteria);
+
+        } else {
+            // Range
+            if (Objects.nonNull(min) && Objects.nonNull(max) && compare(min, max) >= 0) {
+                return List.of(Criteria.none());
+            }
+
+            if (Objects.nonNull(min)) {
+                merged.add(Criteria.min(property, min));
+            }
+
+            if (Objects.nonNull(max)) {
+                merged.add(Criteria.max(property, max));
+            }
+        }
+
+        merged.addAll(others);
+
+        // NOT NULL :: implied by any other criteria
+        if (isNotNull && merged.isEmpty()) {
+            merged.add(Criteria.notNull(property));
+        }
+
+        return merged;
+    }
+
+
+    // OR
+
+    private static Criteria normalizeOr(final OrCriteria orCriteria) {
+        // Flatten :: the always false children dropped, an always true child matches all
+        final List<Criteria> children = new ArrayList<>();
+        for (final Criteria cr : orCriteria.getCriteriaList()) {
+            final Criteria child = normalize(cr);
+            if (Objects.isNull(child)) {
+                return null;
+            }
+
+            if (isNone(child)) {
+                continue;
+            }
+
+            if (child instanceof OrCriteria) {
+                children.addAll(((OrCriteria) child).getCriteriaList());
+            } else {
+                children.add(child);
+            }
+        }
+
+        // Merge :: the EQUALS / IN of a property into an IN, at the place of the first one
+        final Map<Object, List<Criteria>> groups = groupByProperty(dedup(children));
+
+        final List<Criteria> merged = new ArrayList<>();
+        for (final Map.Entry<Object, List<Criteria>> group : groups.entrySet()) {
+            final List<Criteria> groupCriteria = group.getValue();
+            if (!(group.getKey() instanceof String) || groupCriteria.size() == 1) {
+                merged.addAll(groupCriteria);
+                continue;
+            }
+
+            final List<Criteria> valueCriteria = groupCriteria.stream() //
+                    .filter(CriteriaOptimizer::isValueList) //
+                    .collect(Collectors.toList());
+            if (valueCriteria.size() < 2 || !isSameValueType(valueCriteria)) {
+                merged.addAll(groupCriteria);
+                continue;
+            }
+
+            final Set<Object> values = new LinkedHashSet<>();
+            for (final Criteria cr : valueCriteria) {
+                values.addAll(valuesOf(cr));
+            }
+
+            merged.add(inOf((String) group.getKey(), values));
+            groupCriteria.stream().filter(cr -> !isValueList(cr)).forEach(merged::add);
+        }
+
+        if (merged.isEmpty()) {
+            return Criteria.none();
+        }
+
+        return merged.size() == 1 ? merged.get(0) : new OrCriteria(merged);
+    }
+
+
+    // Utilities
+
+    /**
+     * IN criteria of the (distinct) values : a {@link NoneCriteria} if there is none, an
+     * {@link EqualsCriteria} if there is just one.
+     */
+    private static Criteria inOf(final String property, final Collection<?> values) {
+        if (Objects.isNull(values) || values.isEmpty()) {
+            return Criteria.none();
+        }
+
+        final List<Object> distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+        if (distinctValues.size() == 1) {
+            return Criteria.equal(property, distinctValues.get(0));
+        }
+
+        return Criteria.in(property, distinctValues);
+    }
+
+    /**
+     * Groups the criteria by their property, in the order of their first criteria; the compound criteria
+     * are groups on their own.
+     */
+    private static Map<Object, List<Criteria>> groupByProperty(final List<Criteria> criteriaList) {
+        final Map<Object, List<Criteria>> groups = new LinkedHashMap<>();
+        for (final Criteria cr : criteriaList) {
+            final Object groupKey = cr instanceof PropertyCriteria ? ((PropertyCriteria<?>) cr).getProperty() : cr;
+            groups.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(cr);
+        }
+
+        return groups;
+    }
+
+    private static List<Criteria> dedup(final List<Criteria> criteriaList) {
+        final Set<String> keys = new HashSet<>();
+        return criteriaList.stream() //
+                .filter(cr -> keys.add(keyOf(cr))) //
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isValueList(final Criteria criteria) {
+        return criteria instanceof InCriteria
+                || (criteria instanceof EqualsCriteria && !((EqualsCriteria) criteria).isIgnoreCase());
+    }
+
+    private static Collection<?> valuesOf(final Criteria criteria) {
+        if (criteria instanceof InCriteria) {
+            return ((InCriteria) criteria).getValues();
+        }
+
+        if (criteria instanceof PropertyCriteria && Objects.nonNull(((PropertyCriteria<?>) criteria).getValue())) {
+            return Collections.singletonList(((PropertyCriteria<?>) criteria).getValue());
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Checks if all the values of the criteria are of the same type, and comparable for the MIN / MAX.
+     */
+    private static boolean isSameValueType(final List<Criteria> criteriaList) {
+        Class<?> valueCls = null;
+        for (final Criteria cr : criteriaList) {
+            for (final Object value : valuesOf(cr)) {
+                if (Objects.isNull(value)) {
+                    return false;
+                }
+
+                if ((cr instanceof MinCriteria || cr instanceof MaxCriteria) && !(value instanceof Comparable)) {
+                    return false;
+                }
+
+                if (Objects.nonNull(valueCls) && !valueCls.equals(value.getClass())) {
+                    return false;
+                }
+
+                valueCls = value.getClass();
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compares the values of the same (comparable) type, as checked by {@link #isSameValueType(List)}.
+     */
+    @SuppressWarnings("unchecked")
+    private static int compare(final Object value, final Object other) {
+        return ((Comparable<Object>) value).compareTo(other);
+    }
+
+    /**
+     * Key of the criteria for the duplicate detection : the compound criteria children and the IN values
+     * are sorted, and the values are typed.
+     */
+    private static String keyOf(final Criteria criteria) {
+        final StringBuilder keySB = new StringBuilder(criteria.getClass().getSimpleName());
+        if (criteria instanceof CompoundCriteria) {
+            final List<String> childKeys = ((CompoundCriteria) criteria).getCriteriaList().stream() //
+                    .map(CriteriaOptimizer::keyOf) //
+                    .sorted() //
+                    .collect(Collectors.toList());
+            keySB.append('(').append(String.join(",", childKeys)).append(')');
+
+        } else if (criteria instanceof PropertyCriteria) {
+            keySB.append(':').append(((PropertyCriteria<?>) criteria).getProperty());
+            if (criteria instanceof EqualsCriteria && ((EqualsCriteria) criteria).isIgnoreCase()) {
+                keySB.append(":ic");
+            }
+
+            final List<String> values = valuesOf(criteria).stream() //
+                    .map(v -> Objects.isNull(v) ? "null" : v.getClass().getSimpleName() + ":" + v) //
+                    .sorted() //
+                    .collect(Collectors.toList());
+            keySB.append('=').append(values);
+        }
+
+        return keySB.toString();
+    }
+
+}
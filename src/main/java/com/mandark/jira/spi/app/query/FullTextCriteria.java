@@ -0,0 +1,70 @@
+package com.mandark.jira.spi.app.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+
+/**
+ * A {@link PropertyCriteria} criteria to match the Data Property value with the words starting with
+ * each of the words of the passed text, with a full-text index of the property.
+ */
+public class FullTextCriteria extends PropertyCriteria<String> {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}_]+");
+
+
+    // Constructor
+
+    FullTextCriteria(String property, String text) {
+        super(property, text);
+    }
+
+
+    // Getters and Setters
+
+    /**
+     * Words of the text, the full-text operators and the punctuation dropped.
+     *
+     * @return the words, in the order of the text
+     */
+    public List<String> getWords() {
+        final List<String> words = new ArrayList<>();
+        if (Objects.isNull(value)) {
+            return words;
+        }
+
+        for (final String word : WORD_SEPARATOR.split(value)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+
+        return words;
+    }
+
+    /**
+     * Text in the boolean mode syntax, every word required as a prefix, e.g. <code>+crash* +report*</code>.
+     *
+     * @return boolean mode search text
+     */
+    public String getBooleanQuery() {
+        final StringBuilder querySB = new StringBuilder();
+        for (final String word : this.getWords()) {
+            querySB.append(querySB.length() == 0 ? "" : " ").append('+').append(word).append('*');
+        }
+
+        return querySB.toString();
+    }
+
+
+    // Object Methods
+
+    @Override
+    public String toString() {
+        return "FullTextCriteria [property=" + property + ", text=" + value + "]";
+    }
+
+
+}
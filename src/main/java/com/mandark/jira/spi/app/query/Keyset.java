@@ -0,0 +1,274 @@
+package com.mandark.jira.spi.app.query;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.mandark.jira.spi.lang.ValidationException;
+
+
+/**
+ * Position of the last read entry in a keyset (seek) paginated read. It holds the values of the
+ * {@link OrderBy} properties of the last entry, followed by its unique identifier.
+ *
+ * <p>
+ * The position travels to the clients as an opaque, url safe token (see {@link #encode()} and
+ * {@link #decode(String, List)}), that they pass back to fetch the next page. The token holds the values
+ * only, decoded as the types of the sort properties : the enum values by their name, within the enum type
+ * of the property.
+ * </p>
+ */
+public final class Keyset {
+
+    private static final String VALUE_SEPARATOR = ",";
+    private static final String TYPE_SEPARATOR = ":";
+
+    private static final String NULL_TYPE = "0";
+
+    private final List<Object> sortValues;
+    private final Object id;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    private Keyset(List<Object> sortValues, Object id) {
+        super();
+
+        // init
+        this.sortValues = Objects.isNull(sortValues) ? new ArrayList<>() : new ArrayList<>(sortValues);
+        this.id = id;
+    }
+
+
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Values of the {@link OrderBy} properties of the last read entry, in the order of the properties.
+     *
+     * @return sort property values, the NULL values included
+     */
+    public List<Object> getSortValues() {
+        return Collections.unmodifiableList(sortValues);
+    }
+
+    /**
+     * Unique Identifier of the last read entry, the tie-breaker of the sort.
+     *
+     * @return the unique identifier
+     */
+    public Object getId() {
+        return id;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Encodes the position as an opaque token.
+     *
+     * @return url safe token
+     */
+    public String encode() {
+        final List<String> valueStrs = new ArrayList<>();
+        for (final Object value : sortValues) {
+            valueStrs.add(encodeValue(value));
+        }
+        valueStrs.add(encodeValue(id));
+
+        final String tokenStr = String.join(VALUE_SEPARATOR, valueStrs);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(tokenStr.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return "Keyset [sortValues=" + sortValues + ", id=" + id + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    public static Keyset of(List<Object> sortValues, Object id) {
+        // Sanity checks
+        if (Objects.isNull(id)) {
+            throw new IllegalArgumentException("Keyset#of :: entry ID is NULL");
+        }
+
+        return new Keyset(sortValues, id);
+    }
+
+    /**
+     * Decodes the token built by {@link #encode()}, checking its values against the types of the sort
+     * properties.
+     *
+     * @param token opaque token
+     * @param types types of the {@link OrderBy} properties, followed by the type of the unique identifier
+     *
+     * @return the position, or <code>null</code> if the token is blank (first page).
+     *
+     * @throws ValidationException if the token is malformed, or doesn't match the types
+     */
+    public static Keyset decode(String token, List<Class<?>> types) {
+        // Sanity checks
+        if (Objects.isNull(token) || token.isBlank()) {
+            return null;
+        }
+
+        if (Objects.isNull(types) || types.isEmpty()) {
+            throw new IllegalArgumentException("Keyset#decode :: value types are EMPTY");
+        }
+
+        try {
+            final byte[] tokenBytes = Base64.getUrlDecoder().decode(token.trim());
+            final String tokenStr = new String(tokenBytes, StandardCharsets.UTF_8);
+
+            final String[] valueStrs = tokenStr.split(VALUE_SEPARATOR, -1);
+            if (valueStrs.length != types.size()) {
+                throw new IllegalArgumentException("Keyset :: token doesn't match the sort order");
+            }
+
+            final List<Object> values = new ArrayList<>();
+            for (int i = 0; i < valueStrs.length; i++) {
+                values.add(decodeValue(valueStrs[i], types.get(i)));
+            }
+
+            // Last value is the ID
+            final Object id = values.remove(values.size() - 1);
+            return Keyset.of(values, id);
+
+        } catch (RuntimeException e) {
+            final String errMsg = String.format("Keyset#decode :: invalid pagination token : %s", token);
+            throw new ValidationException(errMsg, e);
+        }
+    }
+
+
+    // Private Utilities
+    // ------------------------------------------------------------------------
+
+    private static String encodeValue(final Object value) {
+        if (Objects.isNull(value)) {
+            return NULL_TYPE + TYPE_SEPARATOR;
+        }
+
+        final String type;
+        final String valueStr;
+        if (value instanceof String) {
+            type = "s";
+            valueStr = (String) value;
+        } else if (value instanceof Integer) {
+            type = "i";
+            valueStr = value.toString();
+        } else if (value instanceof Long) {
+            type = "l";
+            valueStr = value.toString();
+        } else if (value instanceof Double) {
+            type = "d";
+            valueStr = value.toString();
+        } else if (value instanceof BigDecimal) {
+            type = "n";
+            valueStr = value.toString();
+        } else if (value instanceof Boolean) {
+            type = "b";
+            valueStr = value.toString();
+        } else if (value instanceof LocalDateTime) {
+            type = "t";
+            valueStr = value.toString();
+        } else if (value instanceof LocalDate) {
+            type = "a";
+            valueStr = value.toString();
+        } else if (value instanceof Date) {
+            type = "m";
+            valueStr = String.valueOf(((Date) value).getTime());
+        } else if (value instanceof Enum) {
+            type = "e";
+            valueStr = ((Enum<?>) value).name();
+        } else {
+            final String errMsg = String.format("Keyset :: unsupported sort value type : %s", value.getClass());
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        return type + TYPE_SEPARATOR + URLEncoder.encode(valueStr, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes the value, of the expected type : the enum constant is looked up within the expected enum
+     * type, never a type named by the token.
+     */
+    private static Object decodeValue(final String typedValueStr, final Class<?> expectedType) {
+        final int sepIdx = typedValueStr.indexOf(TYPE_SEPARATOR);
+        final String type = typedValueStr.substring(0, sepIdx);
+        final String valueStr = URLDecoder.decode(typedValueStr.substring(sepIdx + 1), StandardCharsets.UTF_8);
+
+        if (NULL_TYPE.equals(type)) {
+            return null;
+        }
+
+        // Enum
+        if (Objects.nonNull(expectedType) && expectedType.isEnum()) {
+            if (!"e".equals(type)) {
+                throw new IllegalArgumentException("Keyset :: not an enum value : " + typedValueStr);
+            }
+
+            return enumValueOf(expectedType, valueStr);
+        }
+
+        final Object value = decodeValue(type, valueStr);
+        if (Objects.nonNull(expectedType) && !ClassUtils.isAssignable(value.getClass(), expectedType, true)) {
+            final String errMsg = String.format("Keyset :: value of type %s, expected %s", value.getClass(),
+                    expectedType);
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        return value;
+    }
+
+    private static Object decodeValue(final String type, final String valueStr) {
+        switch (type) {
+            case "s":
+                return valueStr;
+            case "i":
+                return Integer.valueOf(valueStr);
+            case "l":
+                return Long.valueOf(valueStr);
+            case "d":
+                return Double.valueOf(valueStr);
+            case "n":
+                return new BigDecimal(valueStr);
+            case "b":
+                return Boolean.valueOf(valueStr);
+            case "t":
+                return LocalDateTime.parse(valueStr);
+            case "a":
+                return LocalDate.parse(valueStr);
+            case "m":
+                return new Date(Long.parseLong(valueStr));
+            default:
+                throw new IllegalArgumentException("Keyset :: unknown value type : " + type);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValueOf(final Class<?> enumCls, final String name) {
+        return Enum.valueOf((Class<? extends Enum>) enumCls, name);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.mandark.jira.spi.app.query;
+
+
+/**
+ * A {@link Criteria} matching no Data at all, e.g. the result of optimizing a contradicting criteria
+ * (see {@link CriteriaOptimizer}). The queries with this criteria are answered without a database
+ * round trip.
+ */
+public class NoneCriteria implements Criteria {
+
+    // Constructor
+
+    NoneCriteria() {
+        super();
+    }
+
+
+    // Object Methods
+
+    @Override
+    public String toString() {
+        return "NoneCriteria []";
+    }
+
+
+}
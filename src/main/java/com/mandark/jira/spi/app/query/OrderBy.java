@@ -11,11 +11,18 @@ import com.mandark.jira.spi.lang.ValidationException;
 
 /**
  * Class to provide a way to sort the entities
+ *
+ * <p>
+ * Each of the properties has its own sort direction. The constructors sort all the properties in the
+ * same direction, while {@link #asc(String)}, {@link #desc(String)} and {@link #then(String, boolean)}
+ * build the mixed direction sorts.
+ * </p>
  */
 public final class OrderBy {
 
     private final boolean isAsc;
     private final List<String> properties;
+    private final List<Boolean> directions;
 
 
     // Constructors
@@ -27,6 +34,7 @@ public final class OrderBy {
 
     public OrderBy(boolean isAsc, List<String> properties) {
         this.properties = Objects.isNull(properties) ? new ArrayList<>() : new ArrayList<>(properties);
+        this.directions = new ArrayList<>(Collections.nCopies(this.properties.size(), isAsc));
         this.isAsc = isAsc;
     }
 
@@ -41,9 +49,16 @@ public final class OrderBy {
         }
 
         this.properties = Arrays.asList(properties);
+        this.directions = new ArrayList<>(Collections.nCopies(this.properties.size(), isAsc));
         this.isAsc = isAsc;
     }
 
+    private OrderBy(List<String> properties, List<Boolean> directions) {
+        this.properties = new ArrayList<>(properties);
+        this.directions = new ArrayList<>(directions);
+        this.isAsc = directions.isEmpty() ? false : directions.get(0);
+    }
+
 
     // Getters and Setters
     // ------------------------------------------------------------------------
@@ -52,8 +67,76 @@ public final class OrderBy {
         return Collections.unmodifiableList(this.properties);
     }
 
+    /**
+     * Sort direction of the (first) property.
+     *
+     * @return <code>true</code> if sorted in ascending order.
+     */
     public boolean isAsc() {
         return isAsc;
     }
 
+    /**
+     * Sort direction of the property at the passed index.
+     *
+     * @param index index of the property in {@link #getProperties()}
+     *
+     * @return <code>true</code> if the property is sorted in ascending order.
+     */
+    public boolean isAsc(int index) {
+        return directions.get(index);
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Adds a property to sort by, after the current properties.
+     *
+     * @param property name of the property
+     * @param isAsc sort direction of the property
+     *
+     * @return a new {@link OrderBy} with the property added.
+     */
+    public OrderBy then(String property, boolean isAsc) {
+        // Sanity check
+        if (Objects.isNull(property) || property.isBlank()) {
+            throw new ValidationException("#OrderBy :: property is BLANK");
+        }
+
+        final List<String> newProperties = new ArrayList<>(this.properties);
+        final List<Boolean> newDirections = new ArrayList<>(this.directions);
+        newProperties.add(property.trim());
+        newDirections.add(isAsc);
+
+        return new OrderBy(newProperties, newDirections);
+    }
+
+
+    // Object Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        final List<String> propStrs = new ArrayList<>();
+        for (int i = 0; i < properties.size(); i++) {
+            propStrs.add(properties.get(i) + (directions.get(i) ? " ASC" : " DESC"));
+        }
+
+        return "OrderBy [properties=" + propStrs + "]";
+    }
+
+
+    // Factory Methods
+    // ------------------------------------------------------------------------
+
+    public static OrderBy asc(String property) {
+        return new OrderBy(new ArrayList<>(), new ArrayList<>()).then(property, true);
+    }
+
+    public static OrderBy desc(String property) {
+        return new OrderBy(new ArrayList<>(), new ArrayList<>()).then(property, false);
+    }
+
 }
@@ -8,15 +8,26 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mandark.jira.spi.app.EntityDTO;
 import com.mandark.jira.spi.app.SearchQuery;
+import com.mandark.jira.spi.app.persistence.AsyncDao;
+import com.mandark.jira.spi.app.persistence.CountStrategy;
+import com.mandark.jira.spi.app.persistence.EntityCount;
 import com.mandark.jira.spi.app.persistence.IDao;
 import com.mandark.jira.spi.app.persistence.IEntity;
+import com.mandark.jira.spi.app.persistence.Page;
+import com.mandark.jira.spi.app.persistence.PersistenceMetrics;
+import com.mandark.jira.spi.app.persistence.Projection;
+import com.mandark.jira.spi.app.persistence.Slice;
+import com.mandark.jira.spi.app.persistence.WriteBehind;
 import com.mandark.jira.spi.app.query.Criteria;
 import com.mandark.jira.spi.app.query.OrderBy;
 import com.mandark.jira.spi.lang.NotImplementedException;
@@ -25,6 +36,11 @@ import com.mandark.jira.spi.lang.ObjectNotFoundException;
 /**
  * Abstract implementation of {@link EntityService} for Entities
  * 
+ * <p>
+ * The {@link EntityService} (read) methods run in read-only transactions, which are routed to the read
+ * replicas, when configured.
+ * </p>
+ * 
  * @param <E> Type Parameter for the Entity
  * @param <ED> DTO Type of the Entity
  */
@@ -35,6 +51,10 @@ public abstract class AbstractEntityService<K, E extends IEntity<K>, ED extends
 
     protected final IDao<K> dao;
 
+    protected AsyncDao<K> asyncDao; // parallel reads (optional)
+    protected WriteBehind<K> writeBehind; // coalesced counter updates (optional)
+    protected PersistenceMetrics metrics; // operation latency, rows and errors (optional)
+
 
     // Constructor
     // ------------------------------------------------------------------------
@@ -47,6 +67,39 @@ public abstract class AbstractEntityService<K, E extends IEntity<K>, ED extends
     }
 
 
+    // Getters and Setters
+    // ------------------------------------------------------------------------
+
+    /**
+     * Sets the {@link AsyncDao}, for the services fanning out their independent reads in parallel.
+     * 
+     * @param asyncDao the async DAO
+     */
+    public void setAsyncDao(AsyncDao<K> asyncDao) {
+        this.asyncDao = asyncDao;
+    }
+
+    /**
+     * Sets the {@link WriteBehind}, for the services updating the counters (view counts, votes ..) of
+     * their entities at a high rate.
+     * 
+     * @param writeBehind the write-behind buffer
+     */
+    public void setWriteBehind(WriteBehind<K> writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Sets the {@link PersistenceMetrics}, measuring the read / count / find / search operations of the
+     * service (including the DTO conversions), by their criteria shape.
+     * 
+     * @param metrics the metrics
+     */
+    public void setMetrics(PersistenceMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+
     // Abstract Methods
     // ------------------------------------------------------------------------
 
@@ -63,6 +116,15 @@ public abstract class AbstractEntityService<K, E extends IEntity<K>, ED extends
         return this.getEntityClass().getSimpleName();
     }
 
+    /**
+     * Runs the operation of the service, measured when the {@link PersistenceMetrics} are set.
+     */
+    protected <T> T measure(final String operation, final Criteria criteria, final Supplier<T> action,
+            final ToIntFunction<? super T> rowCounter) {
+        return Objects.isNull(metrics) ? action.get()
+                : metrics.record(this.getEntityClass(), operation, criteria, action, rowCounter);
+    }
+
     protected List<ED> toDTOs(Collection<E> entityObjs) {
         // Sanity checks
         if (Objects.isNull(entityObjs) || entityObjs.isEmpty()) {
@@ -127,7 +189,8 @@ public abstract class AbstractEntityService<K, E extends IEntity<K>, ED extends
         }
 
         // Count
-        final int count = this.dao.count(this.getEntityClass(), criteria);
+        final int count = this.measure("count", criteria, () -> this.dao.count(this.getEntityClass(), criteria),
+                c -> 1);
         LOGGER.debug("# of entity objects found for critera :: {} - {} : {}", this.getEntityClass(), criteria, count);
 
         return count;
@@ -144,13 +207,60 @@ public abstract class AbstractEntityService<K, E extends IEntity<K>, ED extends
         }
 
         // Find
-        final List<E> entityObjs = this.dao.find(this.getEntityClass(), criteria, orderBy, pageNo, pageSize);
-        return this.toDTOs(entityObjs);
+        return this.measure("find", criteria, () -> {
+            final List<E> entityObjs = this.dao.find(this.getEntityClass(), criteria, orderBy, pageNo, pageSize);
+            return this.toDTOs(entityObjs);
+        }, List::size);
+    }
+
+
+    /**
+     * Finds the {@link Projection}s of the entities matching the criteria, built from the projected
+     * properties by the query itself, without loading the entities (see {@link IDao#findProjections}).
+     * 
+     * @param projectionCls projection type, annotated with {@link Projection}
+     * @param criteria entity select criteria
+     * @param orderBy order by properties (optional)
+     * @param pageNo pagination - page number
+     * @param pageSize pagination - page size
+     * 
+     * @return {@link List} of the projections
+     */
+    protected <P> List<P> findProjections(Class<P> projectionCls, Criteria criteria, OrderBy orderBy, int pageNo,
+            int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(criteria)) {
+            throw new IllegalArgumentException("#findProjections :: entity Criteria is NULL");
+        }
+
+        // Find
+        return this.measure("findProjections", criteria, () -> this.dao.findProjections(this.getEntityClass(),
+                projectionCls, criteria, orderBy, pageNo, pageSize), List::size);
+    }
+
+
+    protected Slice<ED> seek(Criteria criteria, OrderBy orderBy, String after, int pageSize) {
+        // Seek
+        return this.measure("seek", criteria, () -> {
+            final Slice<E> entitySlice = this.dao.seek(this.getEntityClass(), criteria, orderBy, after, pageSize);
+            return entitySlice.map(this::toDTO);
+        }, sl -> sl.getItems().size());
     }
 
 
     // Search
 
+    /**
+     * Sort order of the keyset paginated searches. Defaults to the unique identifier.
+     * 
+     * @param searchQuery the search query
+     * 
+     * @return {@link OrderBy} of the search, <code>null</code> to sort by the unique identifier.
+     */
+    protected OrderBy asOrderBy(final SearchQuery<? extends E> searchQuery) {
+        return null;
+    }
+
     protected Criteria asCriteria(final SearchQuery<? extends E> searchQuery) {
         final String errMsg = String.format("Search is not Implemented for : %s", this.getEntityName());
         LOGGER.error(errMsg);
@@ -162,21 +272,25 @@ public abstract class AbstractEntityService<K, E extends IEntity<K>, ED extends
     // ------------------------------------------------------------------------
 
     @Override
+    @Transactional(readOnly = true)
     public ED read(final K id) {
         // Sanity checks
         if (Objects.isNull(id)) {
             throw new IllegalArgumentException("#read :: Entity ID is BLANK");
         }
 
-        // entity
-        final E entityObj = dao.read(this.getEntityClass(), id, false);
+        return this.measure("read", null, () -> {
+            // entity
+            final E entityObj = dao.read(this.getEntityClass(), id, false);
 
-        // toDTO
-        final ED entityDTO = this.toDTO(entityObj);
-        return entityDTO;
+            // toDTO
+            final ED entityDTO = this.toDTO(entityObj);
+            return entityDTO;
+        }, dto -> 1);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ED read(final K id, final boolean errorIfNotFound) {
         // Read
         final ED entityObj = this.read(id);
@@ -193,45 +307,53 @@ public abstract class AbstractEntityService<K, E extends IEntity<K>, ED extends
 
 
     @Override
+    @Transactional(readOnly = true)
     public Map<K, ED> read(final Collection<K> inIds) {
         // Sanity checks
         if (Objects.isNull(inIds) || inIds.isEmpty()) {
             return new HashMap<>();
         }
 
-        // Read :: IDs
-        final Set<K> ids = inIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
-        final List<E> entityObjs = this.dao.read(this.getEntityClass(), ids);
-        if (Objects.isNull(entityObjs) || entityObjs.isEmpty()) {
-            return new HashMap<>();
-        }
-
-        // asMap
-        final Map<K, ED> entityDTOmap = entityObjs.stream() //
-                .filter(Objects::nonNull) //
-                .collect(Collectors.toMap(E::getId, this::toDTO));
-
-        return entityDTOmap;
+        return this.measure("read", null, () -> {
+            // Read :: IDs
+            final Set<K> ids = inIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+            final List<E> entityObjs = this.dao.read(this.getEntityClass(), ids);
+            if (Objects.isNull(entityObjs) || entityObjs.isEmpty()) {
+                return new HashMap<K, ED>();
+            }
+
+            // asMap
+            final Map<K, ED> entityDTOmap = entityObjs.stream() //
+                    .filter(Objects::nonNull) //
+                    .collect(Collectors.toMap(E::getId, this::toDTO));
+
+            return entityDTOmap;
+        }, Map::size);
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public int count() {
-        return this.dao.count(this.getEntityClass());
+        return this.measure("count", null, () -> this.dao.count(this.getEntityClass()), c -> 1);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ED> read(int pageNo, int pageSize) {
-        // Read
-        final List<E> entityObjs = this.dao.read(this.getEntityClass(), pageNo, pageSize);
-
-        // toDTOs
-        final List<ED> entityDTOs = this.toDTOs(entityObjs);
-        return entityDTOs;
+        return this.measure("read", null, () -> {
+            // Read
+            final List<E> entityObjs = this.dao.read(this.getEntityClass(), pageNo, pageSize);
+
+            // toDTOs
+            final List<ED> entityDTOs = this.toDTOs(entityObjs);
+            return entityDTOs;
+        }, List::size);
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public int count(SearchQuery<? extends E> searchQuery) {
         // Sanity checks
         if (Objects.isNull(searchQuery)) {
@@ -242,13 +364,34 @@ public abstract class AbstractEntityService<K, E extends IEntity<K>, ED extends
         final Criteria criteria = this.asCriteria(searchQuery);
 
         // Count
-        final int count = this.dao.count(this.getEntityClass(), criteria);
+        final int count = this.measure("count", criteria, () -> this.dao.count(this.getEntityClass(), criteria),
+                c -> 1);
         LOGGER.debug("# of objects found for search :: {} - {} : {}", this.getEntityClass(), criteria, count);
 
         return count;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public EntityCount count(SearchQuery<? extends E> searchQuery, CountStrategy strategy) {
+        // Sanity checks
+        if (Objects.isNull(searchQuery)) {
+            throw new IllegalArgumentException("#count :: SearchQuery object is NULL");
+        }
+
+        // SearchQuery as Criteria
+        final Criteria criteria = this.asCriteria(searchQuery);
+
+        // Count
+        final EntityCount count = this.measure("count", criteria,
+                () -> this.dao.count(this.getEntityClass(), criteria, strategy), c -> 1);
+        LOGGER.debug("# of objects found for search :: {} - {} : {}", this.getEntityClass(), criteria, count);
+
+        return count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ED> search(SearchQuery<? extends E> searchQuery, int pageNo, int pageSize) {
         // Sanity checks
         if (Objects.isNull(searchQuery)) {
@@ -259,8 +402,67 @@ public abstract class AbstractEntityService<K, E extends IEntity<K>, ED extends
         final Criteria criteria = this.asCriteria(searchQuery);
 
         // Find
-        final List<E> entityObjs = this.dao.find(this.getEntityClass(), criteria, pageNo, pageSize);
-        return this.toDTOs(entityObjs);
+        return this.measure("search", criteria, () -> {
+            final List<E> entityObjs = this.dao.find(this.getEntityClass(), criteria, pageNo, pageSize);
+            return this.toDTOs(entityObjs);
+        }, List::size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <P> List<P> search(SearchQuery<? extends E> searchQuery, Class<P> projectionCls, int pageNo,
+            int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(searchQuery)) {
+            throw new IllegalArgumentException("#search :: SearchQuery object is NULL");
+        }
+
+        // SearchQuery as Criteria
+        final Criteria criteria = this.asCriteria(searchQuery);
+        final OrderBy orderBy = this.asOrderBy(searchQuery);
+
+        // Find
+        return this.measure("search", criteria, () -> this.dao.findProjections(this.getEntityClass(),
+                projectionCls, criteria, orderBy, pageNo, pageSize), List::size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ED> searchPage(SearchQuery<? extends E> searchQuery, int pageNo, int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(searchQuery)) {
+            throw new IllegalArgumentException("#searchPage :: SearchQuery object is NULL");
+        }
+
+        // SearchQuery as Criteria
+        final Criteria criteria = this.asCriteria(searchQuery);
+        final OrderBy orderBy = this.asOrderBy(searchQuery);
+
+        // Find
+        return this.measure("searchPage", criteria, () -> {
+            final Page<E> entityPage = this.dao.findPage(this.getEntityClass(), criteria, orderBy, pageNo,
+                    pageSize);
+            LOGGER.debug("# of objects found for search :: {} - {} : {}", this.getEntityClass(), criteria,
+                    entityPage.getTotalCount());
+
+            return entityPage.map(this::toDTO);
+        }, p -> p.getItems().size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ED> seek(SearchQuery<? extends E> searchQuery, String after, int pageSize) {
+        // Sanity checks
+        if (Objects.isNull(searchQuery)) {
+            throw new IllegalArgumentException("#seek :: SearchQuery object is NULL");
+        }
+
+        // SearchQuery as Criteria
+        final Criteria criteria = this.asCriteria(searchQuery);
+        final OrderBy orderBy = this.asOrderBy(searchQuery);
+
+        // Seek
+        return this.seek(criteria, orderBy, after, pageSize);
     }
 
 
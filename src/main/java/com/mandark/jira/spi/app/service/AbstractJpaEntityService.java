@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +13,7 @@ import com.mandark.jira.spi.app.EntityBean;
 import com.mandark.jira.spi.app.EntityDTO;
 import com.mandark.jira.spi.app.persistence.IDao;
 import com.mandark.jira.spi.app.persistence.IEntity;
+import com.mandark.jira.spi.app.persistence.UpdateResult;
 import com.mandark.jira.spi.lang.NotImplementedException;
 
 
@@ -116,6 +118,51 @@ public abstract class AbstractJpaEntityService<K, E extends IEntity<K>, EB exten
         LOGGER.debug("Successfully updated entity object : {} - {}", id, entity);
     }
 
+    /**
+     * Applies the mutation to the entities and updates them, version checked; the conflicting entities
+     * are re-read and the mutation re-applied, up to the max retries.
+     *
+     * @see IDao#updateVersioned(Class, Collection, Consumer, int)
+     */
+    protected UpdateResult<K> update(final Collection<K> idsList, final Consumer<? super E> mutation,
+            final int maxRetries) {
+        // Sanity checks
+        if (Objects.isNull(mutation)) {
+            throw new IllegalArgumentException("#update :: mutation is NULL");
+        }
+
+        // Update
+        final UpdateResult<K> result = this.dao.updateVersioned(this.getEntityClass(), idsList, mutation, maxRetries);
+        LOGGER.debug("Completed updating entity objects : {}", result);
+
+        return result;
+    }
+
+
+    // Delete (soft)
+
+    protected void delete(final K id) {
+        // Sanity checks
+        if (Objects.isNull(id)) {
+            throw new IllegalArgumentException("#delete :: Entity ID is NULL");
+        }
+
+        // Delete
+        this.dao.delete(this.getEntityClass(), id);
+        LOGGER.debug("Successfully deleted entity object[id] : {}", id);
+    }
+
+    protected void delete(Collection<K> idsList) {
+        // Sanity checks
+        if (Objects.isNull(idsList) || idsList.isEmpty()) {
+            return;
+        }
+
+        // Delete
+        this.dao.delete(this.getEntityClass(), idsList);
+        LOGGER.debug("Successfully completed deleting entity objects : {}", idsList.size());
+    }
+
 
     // Purge
 
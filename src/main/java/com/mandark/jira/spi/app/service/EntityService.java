@@ -6,7 +6,12 @@ import java.util.Map;
 
 import com.mandark.jira.spi.app.EntityDTO;
 import com.mandark.jira.spi.app.SearchQuery;
+import com.mandark.jira.spi.app.persistence.CountStrategy;
+import com.mandark.jira.spi.app.persistence.EntityCount;
 import com.mandark.jira.spi.app.persistence.IEntity;
+import com.mandark.jira.spi.app.persistence.Page;
+import com.mandark.jira.spi.app.persistence.Projection;
+import com.mandark.jira.spi.app.persistence.Slice;
 
 
 /**
@@ -83,6 +88,16 @@ public interface EntityService<K, E extends IEntity<K>, ED extends EntityDTO<K,
      */
     int count(SearchQuery<? extends E> searchQuery);
 
+    /**
+     * Get the count of the entity objects matching the search query, as per the count strategy.
+     * 
+     * @param searchQuery the search query
+     * @param strategy count strategy (exact, capped or estimate)
+     * 
+     * @return {@link EntityCount} of the matching entity objects, with its type.
+     */
+    EntityCount count(SearchQuery<? extends E> searchQuery, CountStrategy strategy);
+
     /**
      * Read entity objects paginated.
      * 
@@ -93,5 +108,42 @@ public interface EntityService<K, E extends IEntity<K>, ED extends EntityDTO<K,
      */
     List<ED> search(SearchQuery<? extends E> searchQuery, int pageNo, int pageSize);
 
+    /**
+     * Read the projections of the entity objects matching the search query paginated. The projections
+     * are built from the selected entity properties, without loading the entity objects.
+     * 
+     * @param searchQuery the search query
+     * @param projectionCls projection type, annotated with {@link Projection}
+     * @param pageNo pagination - page number
+     * @param pageSize pagination - page size
+     * 
+     * @return A {@link List} of the projections of entity.
+     */
+    <P> List<P> search(SearchQuery<? extends E> searchQuery, Class<P> projectionCls, int pageNo, int pageSize);
+
+    /**
+     * Read entity objects matching the search query paginated, along with their total count. Unlike
+     * {@link #count(SearchQuery)} and {@link #search(SearchQuery, int, int)} called one after the other,
+     * the count is skipped for the last page, and otherwise runs in parallel with the page query.
+     * 
+     * @param searchQuery the search query
+     * @param pageNo pagination - page number
+     * @param pageSize pagination - page size
+     * 
+     * @return A {@link Page} of {@link EntityDTO} objects of entity, with their total count.
+     */
+    Page<ED> searchPage(SearchQuery<? extends E> searchQuery, int pageNo, int pageSize);
+
+    /**
+     * Read entity objects matching the search query, keyset (seek) paginated.
+     * 
+     * @param searchQuery the search query
+     * @param after pagination token of the previous slice, <code>null</code> for the first slice
+     * @param pageSize pagination - page size
+     * 
+     * @return A {@link Slice} of {@link EntityDTO} objects of entity, with the next slice token.
+     */
+    Slice<ED> seek(SearchQuery<? extends E> searchQuery, String after, int pageSize);
+
 
 }
\ No newline at end of file
@@ -6,6 +6,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import com.mandark.jira.spi.app.persistence.Page;
+import com.mandark.jira.spi.app.persistence.Slice;
+
 
 /**
  * Paginated response.
@@ -56,6 +59,16 @@ public final class PageResult {
         return new PageResult(pagination, items);
     }
 
+    public static PageResult with(Page<?> page) {
+        final Pagination pagination = Pagination.with(page.getTotalCount(), page.getPageNo(), page.getPageSize());
+        return new PageResult(pagination, page.getItems());
+    }
+
+    public static PageResult with(Slice<?> slice) {
+        final Pagination pagination = Pagination.seek(slice.getPageSize(), slice.getAfter(), slice.getNext());
+        return new PageResult(pagination, slice.getItems());
+    }
+
     public static PageResult singlePage(Collection<?> items) {
         final int itemsCount = Objects.isNull(items) ? 0 : items.size();
         return new PageResult(Pagination.singlePage(itemsCount), items);
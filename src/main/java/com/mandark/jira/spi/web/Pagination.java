@@ -1,6 +1,11 @@
 package com.mandark.jira.spi.web;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mandark.jira.spi.app.persistence.CountType;
+import com.mandark.jira.spi.app.persistence.EntityCount;
 
 
 /**
@@ -8,7 +13,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  */
 public final class Pagination {
 
+    /** Total count of the keyset paginated results, which are not counted. */
+    public static final int UNKNOWN_COUNT = -1;
+
     private final int totalCount;
+    private final CountType countType;
 
     private final int pageNo;
     private final int pageSize;
@@ -18,14 +27,40 @@ public final class Pagination {
     private final int pageFirst;
     private final int pageLast;
 
+    // Keyset
+    private final String after;
+    private final String next;
+    private final boolean hasNext;
+
 
     // Constructor
 
-    private Pagination(int totalCount, int pageNo, int pageSize) {
+    private Pagination(int pageSize, String after, String next) {
+        super();
+
+        // initialize
+        this.totalCount = UNKNOWN_COUNT;
+        this.countType = null;
+
+        this.pageNo = 0;
+        this.pageSize = pageSize;
+
+        this.totalPages = 0;
+
+        this.pageFirst = 0;
+        this.pageLast = 0;
+
+        this.after = after;
+        this.next = next;
+        this.hasNext = next != null;
+    }
+
+    private Pagination(int totalCount, CountType countType, int pageNo, int pageSize) {
         super();
 
         // initialize
         this.totalCount = totalCount;
+        this.countType = countType;
 
         this.pageNo = pageNo;
         this.pageSize = pageSize;
@@ -38,6 +73,11 @@ public final class Pagination {
 
         this.pageFirst = prevPageLast + (remaining > 0 ? 1 : 0);
         this.pageLast = prevPageLast + (remaining < pageSize ? remaining : pageSize);
+
+        this.after = null;
+        this.next = null;
+        // capped :: more entries beyond the last counted page
+        this.hasNext = pageNo < totalPages || (countType == CountType.CAPPED && pageNo == totalPages);
     }
 
 
@@ -47,6 +87,17 @@ public final class Pagination {
         return totalCount;
     }
 
+    /**
+     * Type of the total count : exact, capped (at least the total count) or estimate. With a capped or
+     * an estimate count, the total pages are approximate as well.
+     * 
+     * @return the count type, <code>null</code> for the keyset pagination (not counted)
+     */
+    @JsonInclude(Include.NON_NULL)
+    public CountType getCountType() {
+        return countType;
+    }
+
     public int getPageNo() {
         return pageNo;
     }
@@ -70,12 +121,28 @@ public final class Pagination {
         return pageLast;
     }
 
+    @JsonInclude(Include.NON_NULL)
+    public String getAfter() {
+        return after;
+    }
+
+    @JsonInclude(Include.NON_NULL)
+    public String getNext() {
+        return next;
+    }
+
+    @JsonProperty("hasNext")
+    public boolean hasNext() {
+        return hasNext;
+    }
+
 
     // Object Methods
 
     @Override
     public String toString() {
-        return "Pagination [totalCount=" + totalCount + ", pageNo=" + pageNo + ", pageSize=" + pageSize + "]";
+        return "Pagination [totalCount=" + totalCount + ", countType=" + countType + ", pageNo=" + pageNo
+                + ", pageSize=" + pageSize + ", next=" + next + "]";
     }
 
 
@@ -83,11 +150,37 @@ public final class Pagination {
     // ------------------------------------------------------------------------
 
     public static Pagination with(int totalCount, int pageNo, int pageSize) {
-        return new Pagination(totalCount, pageNo, pageSize);
+        return new Pagination(totalCount, CountType.EXACT, pageNo, pageSize);
+    }
+
+    /**
+     * Offset pagination with a (possibly capped or estimate) count, see {@link EntityCount}.
+     * 
+     * @param count total count of the results, with its type
+     * @param pageNo page number
+     * @param pageSize page size
+     * 
+     * @return offset pagination
+     */
+    public static Pagination with(EntityCount count, int pageNo, int pageSize) {
+        return new Pagination(count.getValue(), count.getType(), pageNo, pageSize);
     }
 
     public static Pagination singlePage(int count) {
-        return new Pagination(count, 1, count);
+        return new Pagination(count, CountType.EXACT, 1, count);
+    }
+
+    /**
+     * Keyset (seek) pagination, with the opaque tokens of the current and the next page.
+     * 
+     * @param pageSize page size
+     * @param after token the current page is read after, <code>null</code> for the first page
+     * @param next token to read the next page, <code>null</code> for the last page
+     * 
+     * @return keyset pagination
+     */
+    public static Pagination seek(int pageSize, String after, String next) {
+        return new Pagination(pageSize, after, next);
     }
 
 }
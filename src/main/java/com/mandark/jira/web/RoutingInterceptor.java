@@ -0,0 +1,69 @@
+package com.mandark.jira.web;
+
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.mandark.jira.app.persistence.routing.RoutingContext;
+
+
+/**
+ * Binds the client of the request to the {@link RoutingContext}, so its reads after a write are routed
+ * to the primary database (read your writes).
+ *
+ * <p>
+ * The client is identified by its HTTP session, else by the {@value WebConstants#REQ_HEADER_CLIENT_ID}
+ * header. Without either, the request is not bound : its writes aren't tracked (an anonymous client
+ * couldn't read them back anyway), and its reads are routed as any other.
+ * </p>
+ */
+public class RoutingInterceptor implements HandlerInterceptor {
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        final String clientKey = this.getClientKey(request);
+        if (Objects.nonNull(clientKey)) {
+            RoutingContext.bind(clientKey);
+        }
+
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        RoutingContext.unbind();
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Client key of the request.
+     *
+     * @return the client key, <code>null</code> for an anonymous client
+     */
+    private String getClientKey(final HttpServletRequest request) {
+        final HttpSession session = request.getSession(false);
+        if (Objects.nonNull(session)) {
+            return "session:" + session.getId();
+        }
+
+        final String clientId = request.getHeader(WebConstants.REQ_HEADER_CLIENT_ID);
+        if (Objects.nonNull(clientId) && !clientId.isBlank()) {
+            return "client:" + clientId;
+        }
+
+        return null;
+    }
+
+}
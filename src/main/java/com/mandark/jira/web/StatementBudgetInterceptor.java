@@ -0,0 +1,53 @@
+package com.mandark.jira.web;
+
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.mandark.jira.app.persistence.orm.StatementBudget;
+
+
+/**
+ * Counts the statements of the request against the {@link StatementBudget}, and reports its N+1
+ * statements once completed.
+ */
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+
+    private final StatementBudget statementBudget;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public StatementBudgetInterceptor(final StatementBudget statementBudget) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(statementBudget)) {
+            throw new IllegalArgumentException("#StatementBudgetInterceptor :: StatementBudget is NULL");
+        }
+
+        // init
+        this.statementBudget = statementBudget;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statementBudget.begin(request.getMethod() + " " + request.getRequestURI());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        statementBudget.end();
+    }
+
+}
@@ -18,6 +18,13 @@ public class WebConstants {
 
     public static final String REQ_PARAM_PAGE_NO = "pn";
     public static final String REQ_PARAM_PAGE_SIZE = "ps";
+    public static final String REQ_PARAM_PAGE_AFTER = "after";
+    public static final String REQ_PARAM_PAGE_COUNT = "count"; // exact | capped | estimate
+
+
+    // Request Headers
+
+    public static final String REQ_HEADER_CLIENT_ID = "X-Client-Id";
 
 
     // Pagination
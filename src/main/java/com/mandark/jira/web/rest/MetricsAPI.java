@@ -0,0 +1,61 @@
+package com.mandark.jira.web.rest;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mandark.jira.app.persistence.metrics.OperationMetrics;
+import com.mandark.jira.app.persistence.metrics.PrometheusFormat;
+import com.mandark.jira.spi.web.Responses;
+
+
+/**
+ * Metrics API of the persistence operations (see {@link OperationMetrics}), of all the layers, in the
+ * Prometheus text format : to be scraped.
+ */
+@RestController
+@RequestMapping("/admin/metrics")
+public class MetricsAPI extends AbstractAPI {
+
+    private final List<OperationMetrics> operationMetrics;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public MetricsAPI(final List<OperationMetrics> operationMetrics) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(operationMetrics)) {
+            throw new IllegalArgumentException("#MetricsAPI :: OperationMetrics list is NULL");
+        }
+
+        // init
+        this.operationMetrics = operationMetrics;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @GetMapping
+    public ResponseEntity<String> getMetrics() {
+        return ResponseEntity.ok() //
+                .header(HttpHeaders.CONTENT_TYPE, PrometheusFormat.CONTENT_TYPE) //
+                .body(PrometheusFormat.write(operationMetrics));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        operationMetrics.forEach(OperationMetrics::reset);
+        return Responses.noContent();
+    }
+
+}
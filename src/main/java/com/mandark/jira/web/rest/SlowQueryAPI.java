@@ -0,0 +1,70 @@
+package com.mandark.jira.web.rest;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mandark.jira.app.persistence.orm.SlowQueryRecord;
+import com.mandark.jira.app.persistence.orm.SlowQueryRecorder;
+import com.mandark.jira.app.persistence.orm.SlowQueryStats;
+import com.mandark.jira.spi.web.Responses;
+
+
+/**
+ * Admin API of the slow queries (see {@link SlowQueryRecorder}) : the top offenders by query shape, and
+ * the recent slow queries.
+ */
+@RestController
+@RequestMapping("/admin/slow-queries")
+public class SlowQueryAPI extends AbstractAPI {
+
+    private static final String DEFAULT_LIMIT = "20";
+
+
+    private final SlowQueryRecorder slowQueryRecorder;
+
+
+    // Constructor
+    // ------------------------------------------------------------------------
+
+    public SlowQueryAPI(final SlowQueryRecorder slowQueryRecorder) {
+        super();
+
+        // Sanity checks
+        if (Objects.isNull(slowQueryRecorder)) {
+            throw new IllegalArgumentException("#SlowQueryAPI :: SlowQueryRecorder is NULL");
+        }
+
+        // init
+        this.slowQueryRecorder = slowQueryRecorder;
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    @GetMapping
+    public ResponseEntity<List<SlowQueryStats>> getTopShapes(
+            @RequestParam(name = "limit", defaultValue = DEFAULT_LIMIT) final int limit) {
+        return ResponseEntity.ok(slowQueryRecorder.getTopShapes(limit));
+    }
+
+    @GetMapping("/recent")
+    public ResponseEntity<List<SlowQueryRecord>> getRecent(
+            @RequestParam(name = "limit", defaultValue = DEFAULT_LIMIT) final int limit) {
+        return ResponseEntity.ok(slowQueryRecorder.getRecent(limit));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        slowQueryRecorder.reset();
+        return Responses.noContent();
+    }
+
+}
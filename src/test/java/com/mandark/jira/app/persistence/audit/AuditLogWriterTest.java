@@ -0,0 +1,206 @@
+package com.mandark.jira.app.persistence.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link AuditLogWriter} backpressure on a full buffer, and the drain of the buffer on close.
+ */
+public class AuditLogWriterTest {
+
+    private static final String WRITER_THREAD = "audit-log-writer";
+
+
+    private final List<String> writtenProps = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> callerWrittenProps = Collections.synchronizedList(new ArrayList<>());
+
+    private final CountDownLatch writerBlocked = new CountDownLatch(1);
+    private final CountDownLatch writerReleased = new CountDownLatch(1);
+    private volatile boolean blockWriter;
+
+    private AuditLogWriter writer;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        writer = new AuditLogWriter(fakeDataSource());
+        writer.setFlushIntervalMillis(10);
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void writesOverflowOnFullBuffer() throws Exception {
+        writer.setCapacity(2);
+        writer.setBatchSize(1);
+        writer.setOfferTimeoutMillis(1);
+        writer.init();
+
+        // Writer :: busy with the first record
+        blockWriter = true;
+        writer.append(recordsOf("p0"));
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+
+        // Buffer :: 2 records, the third written by the caller
+        writer.append(recordsOf("p1", "p2", "p3"));
+
+        assertEquals(Collections.singletonList("p3"), callerWrittenProps);
+        assertEquals(1L, writer.getOverflowed());
+        assertEquals(2, writer.getPending());
+
+        writerReleased.countDown();
+        writer.close();
+
+        assertEquals(4L, writer.getWritten());
+        assertEquals(0, writer.getPending());
+        assertTrue(writtenProps.containsAll(Arrays.asList("p0", "p1", "p2", "p3")));
+    }
+
+    @Test
+    public void drainsBufferOnClose() {
+        writer.setBatchSize(3);
+        writer.setFlushIntervalMillis(60_000);
+        writer.init();
+
+        final String[] props = IntStream.range(0, 10).mapToObj(i -> "p" + i).toArray(String[]::new);
+        writer.append(recordsOf(props));
+        writer.close();
+
+        assertEquals(10L, writer.getWritten());
+        assertEquals(0L, writer.getOverflowed());
+        assertEquals(Arrays.asList(props), writtenProps);
+    }
+
+    @Test
+    public void writesRightAwayAfterClose() {
+        writer.init();
+        writer.close();
+
+        writer.append(recordsOf("late"));
+
+        assertEquals(Collections.singletonList("late"), callerWrittenProps);
+        assertEquals(1L, writer.getWritten());
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static List<AuditRecord> recordsOf(final String... props) {
+        return Arrays.stream(props)
+                .map(p -> AuditRecord.of("Issue", 1, 1, p, "a", "b", "tester", LocalDateTime.now()))
+                .collect(Collectors.toList());
+    }
+
+    private DataSource fakeDataSource() {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {DataSource.class},
+                (p, method, args) -> {
+                    if ("getConnection".equals(method.getName())) {
+                        return fakeConnection();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "createStatement":
+                            return fakeStatement();
+                        case "prepareStatement":
+                            return fakePreparedStatement();
+                        case "setAutoCommit":
+                        case "commit":
+                        case "rollback":
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private Statement fakeStatement() {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Statement.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "execute":
+                            return false;
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Insert statement recording the property (4th parameter) of the batched records; the batch of the
+     * writer thread is blocked while {@link #blockWriter}.
+     */
+    private PreparedStatement fakePreparedStatement() {
+        final List<String> batch = new ArrayList<>();
+        final String[] prop = new String[1];
+
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "setString":
+                            if ((Integer) args[0] == 4) {
+                                prop[0] = (String) args[1];
+                            }
+                            return null;
+                        case "addBatch":
+                            batch.add(prop[0]);
+                            return null;
+                        case "executeBatch":
+                            final boolean isWriterThread = WRITER_THREAD.equals(Thread.currentThread().getName());
+                            if (isWriterThread && blockWriter) {
+                                blockWriter = false;
+                                writerBlocked.countDown();
+                                writerReleased.await(5, TimeUnit.SECONDS);
+                            }
+
+                            writtenProps.addAll(batch);
+                            if (!isWriterThread) {
+                                callerWrittenProps.addAll(batch);
+                            }
+                            return new int[batch.size()];
+                        case "setInt":
+                        case "setNull":
+                        case "setTimestamp":
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+}
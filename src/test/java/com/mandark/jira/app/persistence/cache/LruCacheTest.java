@@ -0,0 +1,82 @@
+package com.mandark.jira.app.persistence.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link LruCache} eviction and time-to-live.
+ */
+public class LruCacheTest {
+
+    private final AtomicLong nanoClock = new AtomicLong();
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final LruCache cache = new LruCache(new CacheSpec(2, 0, CachePolicy.LRU), nanoClock::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a"); // b is now the least recently used
+
+        cache.put("c", 3);
+
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void expiresAfterTtl() {
+        final LruCache cache = new LruCache(new CacheSpec(10, 60, CachePolicy.LRU), nanoClock::get);
+        cache.put("a", 1);
+
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertTrue(cache.contains("a"));
+
+        nanoClock.incrementAndGet();
+        assertFalse(cache.contains("a"));
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void sweepsExpiredOnWrite() {
+        final LruCache cache = new LruCache(new CacheSpec(10, 60, CachePolicy.LRU), nanoClock::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        cache.put("c", 3);
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.evictionCount());
+    }
+
+    @Test
+    public void removesAndClears() {
+        final LruCache cache = new LruCache(new CacheSpec(10, 0, CachePolicy.LRU), nanoClock::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        cache.remove("a");
+        assertEquals(1, cache.keys().size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.evictionCount());
+    }
+
+}
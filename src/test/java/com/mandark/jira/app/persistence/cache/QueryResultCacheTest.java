@@ -0,0 +1,178 @@
+package com.mandark.jira.app.persistence.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.mandark.jira.app.persistence.cache.QueryResultCache.QueryKey;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.OrderBy;
+
+
+/**
+ * {@link QueryResultCache} keys, generations and invalidation.
+ */
+public class QueryResultCacheTest {
+
+    private final QueryResultCache cache = new QueryResultCache(new CacheSpec(100, 0, CachePolicy.LRU));
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void keysByCanonicalQuery() {
+        final QueryKey key = cache.keyOf(Issue.class, Criteria.equal("status", "OPEN"), OrderBy.asc("title"), "1");
+
+        assertEquals(key, cache.keyOf(Issue.class, Criteria.equal("status", "OPEN"), OrderBy.asc("title"), "1"));
+        assertNotEquals(key, cache.keyOf(Issue.class, Criteria.equal("status", "DONE"), OrderBy.asc("title"), "1"));
+        assertNotEquals(key, cache.keyOf(Issue.class, Criteria.equal("status", "OPEN"), OrderBy.asc("title"), "2"));
+        assertNotEquals(key, cache.keyOf(Issue.class, Criteria.equal("status", "OPEN"), null, null));
+        assertEquals(Collections.singleton("status"), cache.keyOf(Issue.class,
+                Criteria.and(Criteria.equal("status", "OPEN"), Criteria.min("status", "A")), null, null)
+                .getProperties());
+    }
+
+    @Test
+    public void cachesResultOfCurrentGeneration() {
+        final QueryKey key = cache.keyOf(Issue.class, null, null, null);
+
+        cache.put(key, 42, cache.generation(Issue.class));
+
+        assertEquals(42, cache.get(key));
+    }
+
+    @Test
+    public void skipsResultReadAcrossInvalidation() {
+        final QueryKey key = cache.keyOf(Issue.class, null, null, null);
+        final long generation = cache.generation(Issue.class);
+
+        cache.invalidate(Issue.class, null); // concurrent write
+        cache.put(key, 42, generation);
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void invalidatesResultsOfChangedProperties() {
+        final QueryKey statusKey = cache.keyOf(Issue.class, Criteria.equal("status", "OPEN"), null, null);
+        final QueryKey titleKey = cache.keyOf(Issue.class, null, OrderBy.asc("title"), "1");
+        final QueryKey reporterKey = cache.keyOf(Issue.class, Criteria.equal("reporter.name", "a"), null, null);
+        this.putAll(Issue.class, statusKey, titleKey, reporterKey);
+
+        cache.invalidate(Issue.class, Arrays.asList("status", "reporter.email"));
+
+        assertNull(cache.get(statusKey));
+        assertEquals(1, cache.get(titleKey));
+        assertNull(cache.get(reporterKey));
+    }
+
+    @Test
+    public void invalidatesAllResultsOfUnknownChanges() {
+        final QueryKey statusKey = cache.keyOf(Issue.class, Criteria.equal("status", "OPEN"), null, null);
+        final QueryKey titleKey = cache.keyOf(Issue.class, null, OrderBy.asc("title"), "1");
+        this.putAll(Issue.class, statusKey, titleKey);
+
+        cache.invalidate(Issue.class, null);
+
+        assertNull(cache.get(statusKey));
+        assertNull(cache.get(titleKey));
+    }
+
+    @Test
+    public void invalidatesRelatedTypes() {
+        final QueryKey issueKey = cache.keyOf(Issue.class, null, null, null);
+        final QueryKey bugKey = cache.keyOf(Bug.class, null, null, null);
+        final QueryKey projectKey = cache.keyOf(Project.class, null, null, null);
+        this.putAll(Issue.class, issueKey);
+        this.putAll(Bug.class, bugKey);
+        this.putAll(Project.class, projectKey);
+
+        cache.invalidate(Bug.class, null);
+
+        assertNull(cache.get(issueKey));
+        assertNull(cache.get(bugKey));
+        assertEquals(1, cache.get(projectKey));
+    }
+
+    @Test
+    public void invalidatesAgainAfterTransaction() throws InterruptedException {
+        final QueryKey key = cache.keyOf(Issue.class, null, null, null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(Issue.class, null);
+
+            // written in the transaction :: not cached
+            cache.put(key, 42, cache.generation(Issue.class));
+            assertNull(cache.get(key));
+
+            // cached by a concurrent reader, before the commit
+            final Thread reader = new Thread(() -> cache.put(key, 7, cache.generation(Issue.class)));
+            reader.start();
+            reader.join();
+            assertEquals(7, cache.get(key));
+
+            final List<TransactionSynchronization> synchronizations =
+                    TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                    TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNull(cache.get(key));
+        assertNull(TransactionSynchronizationManager.getResource(cache));
+    }
+
+    @Test
+    public void clearsAllResults() {
+        final QueryKey issueKey = cache.keyOf(Issue.class, null, null, null);
+        final QueryKey projectKey = cache.keyOf(Project.class, null, null, "1");
+        this.putAll(Issue.class, issueKey);
+        this.putAll(Project.class, projectKey);
+        final long generation = cache.generation(Issue.class);
+
+        cache.clear();
+
+        assertNull(cache.get(issueKey));
+        assertNull(cache.get(projectKey));
+        assertNotEquals(generation, cache.generation(Issue.class));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private void putAll(final Class<?> entityCls, final QueryKey... keys) {
+        for (final QueryKey key : keys) {
+            cache.put(key, 1, cache.generation(entityCls));
+        }
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    private static class Issue {
+
+    }
+
+    private static class Bug extends Issue {
+
+    }
+
+    private static class Project {
+
+    }
+
+}
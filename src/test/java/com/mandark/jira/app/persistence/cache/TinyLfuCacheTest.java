@@ -0,0 +1,69 @@
+package com.mandark.jira.app.persistence.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link TinyLfuCache} eviction and time-to-live.
+ */
+public class TinyLfuCacheTest {
+
+    private final AtomicLong nanoClock = new AtomicLong();
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void evictsBeyondMaxSize() {
+        final TinyLfuCache cache = new TinyLfuCache(new CacheSpec(10, 0, CachePolicy.TINY_LFU), nanoClock::get,
+                Runnable::run);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.size() <= 10, "size " + cache.size());
+        assertTrue(cache.evictionCount() >= 90, "evictions " + cache.evictionCount());
+    }
+
+    @Test
+    public void keepsFrequentlyUsedOverOneHitWonders() {
+        final TinyLfuCache cache = new TinyLfuCache(new CacheSpec(10, 0, CachePolicy.TINY_LFU), nanoClock::get,
+                Runnable::run);
+        cache.put("hot", 1);
+        for (int i = 0; i < 9; i++) {
+            cache.put("warm" + i, i); // full, the frequency sketch is sized on the half full cache
+        }
+
+        for (int i = 0; i < 20; i++) {
+            cache.get("hot");
+        }
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(1, cache.get("hot"));
+    }
+
+    @Test
+    public void expiresAfterTtl() {
+        final TinyLfuCache cache = new TinyLfuCache(new CacheSpec(10, 60, CachePolicy.TINY_LFU), nanoClock::get,
+                Runnable::run);
+        cache.put("a", 1);
+
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertEquals(1, cache.get("a"));
+
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertNull(cache.get("a"));
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.mandark.jira.app.persistence.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link LatencyHistogram} buckets, and the counts up to the bounds.
+ */
+public class LatencyHistogramTest {
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void bucketsSmallValuesExactly() {
+        for (int value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.upperValueOf(value));
+        }
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT - 1; i++) {
+            final long upperValue = LatencyHistogram.upperValueOf(i);
+
+            assertEquals(i, LatencyHistogram.indexOf(upperValue));
+            assertEquals(i + 1, LatencyHistogram.indexOf(upperValue + 1));
+        }
+
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.upperValueOf(LatencyHistogram.BUCKET_COUNT - 1));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE));
+    }
+
+    @Test
+    public void bucketsWithinPrecision() {
+        for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            final long lowerValue = LatencyHistogram.upperValueOf(i - 1) + 1;
+            final long width = LatencyHistogram.upperValueOf(i) - lowerValue + 1;
+
+            assertTrue(width <= Math.max(1, lowerValue / 8), "bucket " + i);
+        }
+    }
+
+    @Test
+    public void countsBucketsWithinBounds() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(479); // 448 - 479
+        histogram.record(600); // 576 - 639
+        histogram.record(2_000_000);
+
+        assertArrayEquals(new long[] {2, 3, 3, 4}, histogram.cumulativeCounts(new long[] {500, 1_000, 1_000_000}));
+        assertEquals(100 + 479 + 600 + 2_000_000, histogram.getSumMicros());
+    }
+
+    @Test
+    public void doesNotCountBucketAcrossBound() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(490); // 480 - 511
+
+        assertArrayEquals(new long[] {0, 1, 1}, histogram.cumulativeCounts(new long[] {500, 511}));
+    }
+
+    @Test
+    public void clampsValuesOutOfRange() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertArrayEquals(new long[] {1, 1, 2}, histogram.cumulativeCounts(new long[] {0, 1}));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getSumMicros());
+    }
+
+}
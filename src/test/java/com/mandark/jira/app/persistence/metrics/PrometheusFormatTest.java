@@ -0,0 +1,122 @@
+package com.mandark.jira.app.persistence.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.spi.app.query.Criteria;
+
+
+/**
+ * {@link PrometheusFormat} text of the {@link OperationMetrics}.
+ */
+public class PrometheusFormatTest {
+
+    private static final Criteria CRITERIA = Criteria.equal("status", "OPEN");
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void writesSeriesOfOperation() {
+        final OperationMetrics metrics = new OperationMetrics("dao");
+        metrics.record(Issue.class, "find", CRITERIA, () -> Arrays.asList(1, 2, 3, 4), List::size);
+        assertThrows(IllegalStateException.class,
+                () -> metrics.record(Issue.class, "find", CRITERIA, PrometheusFormatTest::failingFind, List::size));
+        metrics.getSeries().get(0).latency.record(3_000_000);
+
+        final String text = PrometheusFormat.write(Collections.singletonList(metrics));
+
+        final String labels = "layer=\"dao\",entity=\"Issue\",operation=\"find\",shape=\""
+                + OperationMetrics.shapeHashOf(CRITERIA) + "\"";
+        assertLine(text, "jira_persistence_operation_seconds_bucket{" + labels + ",le=\"2.5\"} 2");
+        assertLine(text, "jira_persistence_operation_seconds_bucket{" + labels + ",le=\"5\"} 3");
+        assertLine(text, "jira_persistence_operation_seconds_bucket{" + labels + ",le=\"+Inf\"} 3");
+        assertLine(text, "jira_persistence_operation_seconds_count{" + labels + "} 3");
+        assertLine(text, "jira_persistence_operation_rows_total{" + labels + "} 4");
+        assertLine(text, "jira_persistence_operation_errors_total{" + labels + "} 1");
+        assertLine(text, "jira_persistence_operation_dropped_total{layer=\"dao\"} 0");
+    }
+
+    @Test
+    public void writesEachFamilyOnce() {
+        final OperationMetrics daoMetrics = new OperationMetrics("dao");
+        daoMetrics.record(Issue.class, "find", null, () -> 1, v -> 1);
+        final OperationMetrics serviceMetrics = new OperationMetrics("service");
+        serviceMetrics.record(Issue.class, "find", null, () -> 1, v -> 1);
+
+        final String text = PrometheusFormat.write(Arrays.asList(daoMetrics, serviceMetrics));
+
+        assertEquals(1, countOf(text, "# TYPE jira_persistence_operation_seconds histogram\n"));
+        assertEquals(1, countOf(text, "# TYPE jira_persistence_operation_rows_total counter\n"));
+        assertEquals(2, countOf(text, "jira_persistence_operation_seconds_count{"));
+        assertLine(text, "jira_persistence_operation_rows_total{layer=\"service\",entity=\"Issue\","
+                + "operation=\"find\",shape=\"none\"} 1");
+    }
+
+    @Test
+    public void escapesLabelValues() {
+        final OperationMetrics metrics = new OperationMetrics("a\"b\\c");
+        metrics.record(Issue.class, "find\nall", null, () -> null, v -> 0);
+
+        final String text = PrometheusFormat.write(Collections.singletonList(metrics));
+
+        assertLine(text, "jira_persistence_operation_rows_total{layer=\"a\\\"b\\\\c\",entity=\"Issue\","
+                + "operation=\"find\\nall\",shape=\"none\"} 0");
+    }
+
+    @Test
+    public void writesDroppedOperations() {
+        final OperationMetrics metrics = new OperationMetrics("dao");
+        metrics.setMaxSeries(1);
+        metrics.record(Issue.class, "find", null, () -> 1, v -> 1);
+        metrics.record(Issue.class, "count", null, () -> 1, v -> 1);
+
+        final String text = PrometheusFormat.write(Collections.singletonList(metrics));
+
+        assertEquals(1, countOf(text, "jira_persistence_operation_seconds_count{"));
+        assertLine(text, "jira_persistence_operation_dropped_total{layer=\"dao\"} 1");
+    }
+
+    @Test
+    public void writesNothingWithoutMetrics() {
+        assertEquals("", PrometheusFormat.write(Collections.emptyList()));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static void assertLine(final String text, final String line) {
+        assertTrue(Arrays.asList(text.split("\n")).contains(line), line + " not in\n" + text);
+    }
+
+    private static List<Integer> failingFind() {
+        throw new IllegalStateException("find failed");
+    }
+
+    private static int countOf(final String text, final String part) {
+        int count = 0;
+        for (int idx = text.indexOf(part); idx >= 0; idx = text.indexOf(part, idx + 1)) {
+            count++;
+        }
+
+        return count;
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    private static final class Issue {
+
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.app.persistence.orm.HibernateMappings.Comment;
+import com.mandark.jira.app.persistence.orm.HibernateMappings.Label;
+import com.mandark.jira.spi.app.query.CompoundCriteria;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.FullTextCriteria;
+
+
+/**
+ * {@link FullTextSearch} FULLTEXT index creation, and the like criteria run as a match unless a word isn't
+ * indexed.
+ */
+public class FullTextSearchTest {
+
+    private static final int MIN_TOKEN_SIZE = 4;
+
+
+    private final List<String> ddls = new ArrayList<>();
+    private final List<String> indexedColumns = new ArrayList<>();
+
+    private FullTextSearch fullTextSearch;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        fullTextSearch = new FullTextSearch(fakeEntityManagerFactory(), this.fakeDataSource());
+    }
+
+
+    // Tests :: Indexes
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void createsMissingIndexesAndReadsMinTokenSize() {
+        fullTextSearch.init();
+
+        assertEquals(Collections.singletonList("ALTER TABLE comments ADD FULLTEXT INDEX ft_comments_text (text)"),
+                ddls);
+        assertEquals(MIN_TOKEN_SIZE, fullTextSearch.getMinTokenSize());
+    }
+
+    @Test
+    public void skipsExistingIndexes() {
+        indexedColumns.add("TEXT");
+        fullTextSearch.setMinTokenSize(2);
+
+        fullTextSearch.init();
+
+        assertTrue(ddls.isEmpty(), ddls.toString());
+        assertEquals(2, fullTextSearch.getMinTokenSize(), "configured min token size kept");
+    }
+
+
+    // Tests :: Rewrite
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void matchesIndexedWords() {
+        fullTextSearch.init();
+
+        final Criteria criteria = fullTextSearch.rewrite(Comment.class, Criteria.like("text", "login crash"));
+
+        assertTrue(criteria instanceof FullTextCriteria, String.valueOf(criteria));
+        assertEquals("+login* +crash*", ((FullTextCriteria) criteria).getBooleanQuery());
+    }
+
+    @Test
+    public void fallsBackToLikeOnUnindexedWords() {
+        fullTextSearch.init();
+
+        for (final String text : new String[] {"db crash", "crash of login", "log%in", " "}) {
+            final Criteria likeCriteria = Criteria.like("text", text);
+            assertSame(likeCriteria, fullTextSearch.rewrite(Comment.class, likeCriteria), text);
+        }
+    }
+
+    @Test
+    public void rewritesNestedCriteriaOfFullTextProperties() {
+        fullTextSearch.init();
+
+        final Criteria criteria = fullTextSearch.rewrite(Comment.class,
+                Criteria.and(Criteria.equal("id", 1), Criteria.like("text", "login")));
+        final List<Criteria> criteriaList = ((CompoundCriteria) criteria).getCriteriaList();
+
+        assertTrue(criteriaList.get(1) instanceof FullTextCriteria, String.valueOf(criteria));
+
+        final Criteria labelLike = Criteria.like("name", "login");
+        assertSame(labelLike, fullTextSearch.rewrite(Label.class, labelLike));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static EntityManagerFactory fakeEntityManagerFactory() {
+        return (EntityManagerFactory) Proxy.newProxyInstance(FullTextSearchTest.class.getClassLoader(),
+                new Class<?>[] {EntityManagerFactory.class}, (p, method, args) -> {
+                    if ("unwrap".equals(method.getName())) {
+                        return HibernateMappings.sessionFactory();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private DataSource fakeDataSource() {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {DataSource.class},
+                (p, method, args) -> {
+                    if ("getConnection".equals(method.getName())) {
+                        return this.fakeConnection();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "setAutoCommit":
+                        case "close":
+                            return null;
+                        case "prepareStatement":
+                            return this.fakeIndexStatement();
+                        case "createStatement":
+                            return this.fakeStatement();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * FULLTEXT indexes of the table, one (single column) index per indexed column.
+     */
+    private PreparedStatement fakeIndexStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "setString":
+                        case "close":
+                            return null;
+                        case "executeQuery":
+                            return this.fakeResultSet(indexedColumns.iterator());
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private Statement fakeStatement() {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Statement.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "execute":
+                            ddls.add((String) args[0]);
+                            return false;
+                        case "executeQuery":
+                            return this.fakeResultSet(Collections.singletonList("min token size").iterator());
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private ResultSet fakeResultSet(final Iterator<String> rows) {
+        final String[] row = {null};
+
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ResultSet.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            row[0] = rows.hasNext() ? rows.next() : null;
+                            return row[0] != null;
+                        case "getString":
+                            return row[0];
+                        case "getInt":
+                            return (Integer) args[0] == 3 ? 1 : MIN_TOKEN_SIZE;
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+}
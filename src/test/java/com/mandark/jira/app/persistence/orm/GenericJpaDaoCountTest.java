@@ -0,0 +1,211 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.Table;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.spi.app.persistence.CountStrategy;
+import com.mandark.jira.spi.app.persistence.CountType;
+import com.mandark.jira.spi.app.persistence.EntityCount;
+import com.mandark.jira.spi.app.persistence.QueryBuilder;
+import com.mandark.jira.spi.app.query.Criteria;
+
+
+/**
+ * {@link GenericJpaDao#count(Class, Criteria, CountStrategy)} strategies : capped at the cap, estimated from
+ * the table statistics, and their fallbacks.
+ */
+public class GenericJpaDaoCountTest {
+
+    private static final int CAP = 100;
+
+
+    private final List<String> queries = new ArrayList<>();
+    private final List<Object> queryParams = new ArrayList<>();
+
+    private int matchCount;
+    private Long tableRows;
+    private GenericJpaDao dao;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        dao = new GenericJpaDao();
+        dao.setEntityManager(this.fakeEntityManager());
+        dao.queryBuilder = this.fakeQueryBuilder();
+    }
+
+
+    // Tests :: Capped
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void countsExactBelowCap() {
+        matchCount = 42;
+
+        final EntityCount count = dao.count(PlainEntity.class, Criteria.equal("status", "DONE"),
+                CountStrategy.capped(CAP));
+
+        assertEquals(42, count.getValue());
+        assertEquals(CountType.EXACT, count.getType());
+        assertEquals(Collections.singletonList("toIdQuery:" + (CAP + 1)), queries);
+    }
+
+    @Test
+    public void countsCappedAboveCap() {
+        matchCount = 5000;
+
+        final EntityCount count = dao.count(PlainEntity.class, Criteria.equal("status", "DONE"),
+                CountStrategy.capped(CAP));
+
+        assertEquals(CAP, count.getValue());
+        assertEquals(CountType.CAPPED, count.getType());
+        assertEquals(CAP + "+", count.toString());
+    }
+
+
+    // Tests :: Estimate
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void estimatesFromTableStatistics() {
+        tableRows = 2_000_000L;
+
+        final EntityCount count = dao.count(PlainEntity.class, null, CountStrategy.estimate(CAP));
+
+        assertEquals(2_000_000, count.getValue());
+        assertEquals(CountType.ESTIMATE, count.getType());
+        assertEquals(Collections.singletonList("tableRows"), queries);
+        assertEquals(Collections.singletonList("plain_entities"), queryParams);
+    }
+
+    @Test
+    public void countsSmallTablesCapped() {
+        tableRows = 50L;
+        matchCount = 48;
+
+        final EntityCount count = dao.count(PlainEntity.class, null, CountStrategy.estimate(CAP));
+
+        assertEquals(48, count.getValue());
+        assertEquals(CountType.EXACT, count.getType());
+    }
+
+    @Test
+    public void countsFilteredSearchesCapped() {
+        tableRows = 2_000_000L;
+        matchCount = 5000;
+
+        final EntityCount count = dao.count(PlainEntity.class, Criteria.equal("status", "DONE"),
+                CountStrategy.estimate(CAP));
+
+        assertEquals(CountType.CAPPED, count.getType());
+        assertEquals(Collections.singletonList("toIdQuery:" + (CAP + 1)), queries, "statistics not read");
+    }
+
+    @Test
+    public void countsSoftDeletableEntitiesCapped() {
+        tableRows = 2_000_000L;
+        matchCount = 5000;
+
+        final EntityCount count = dao.count(AuditedEntity.class, null, CountStrategy.estimate(CAP));
+
+        assertEquals(CountType.CAPPED, count.getType());
+        assertEquals(Collections.singletonList("toIdQuery:" + (CAP + 1)), queries, "statistics not read");
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private EntityManager fakeEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {EntityManager.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "setFlushMode":
+                            return null;
+                        case "createNativeQuery":
+                            queries.add("tableRows");
+                            return this.fakeTableRowsQuery();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private Query fakeTableRowsQuery() {
+        return (Query) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Query.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "setParameter":
+                            queryParams.add(args[1]);
+                            return p;
+                        case "getResultList":
+                            return Collections.singletonList(tableRows);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private QueryBuilder<Query> fakeQueryBuilder() {
+        return (QueryBuilder<Query>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {QueryBuilder.class}, (p, method, args) -> {
+                    if ("toIdQuery".equals(method.getName())) {
+                        return this.fakeIdQuery();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Query fakeIdQuery() {
+        final int[] maxResults = {Integer.MAX_VALUE};
+
+        return (Query) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Query.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "setMaxResults":
+                            maxResults[0] = (Integer) args[0];
+                            queries.add("toIdQuery:" + maxResults[0]);
+                            return p;
+                        case "getResultList":
+                            return IntStream.rangeClosed(1, Math.min(matchCount, maxResults[0])).boxed()
+                                    .collect(Collectors.toList());
+                        case "toString":
+                            return "FakeQuery#toIdQuery";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    @Table(name = "plain_entities")
+    public static class PlainEntity extends JpaEntity {
+
+    }
+
+    @Table(name = "audited_entities")
+    public static class AuditedEntity extends JpaAuditEntity {
+
+    }
+
+}
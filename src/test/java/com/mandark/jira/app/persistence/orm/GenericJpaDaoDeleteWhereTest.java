@@ -0,0 +1,137 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.spi.app.persistence.AuditLogged;
+import com.mandark.jira.spi.app.persistence.QueryBuilder;
+import com.mandark.jira.spi.app.query.Criteria;
+
+
+/**
+ * {@link GenericJpaDao#deleteWhere(Class, Criteria)} statements : the soft deletable entities marked
+ * deleted, the others purged.
+ */
+public class GenericJpaDaoDeleteWhereTest {
+
+    private static final int MATCH_COUNT = 3;
+
+
+    private final List<String> builderCalls = new ArrayList<>();
+    private final List<Map<?, ?>> updateValues = new ArrayList<>();
+
+    private GenericJpaDao dao;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        dao = new GenericJpaDao();
+        dao.setEntityManager(fakeEntityManager());
+        dao.queryBuilder = fakeQueryBuilder();
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void marksSoftDeletableEntitiesDeleted() {
+        final int count = dao.deleteWhere(AuditedEntity.class, Criteria.equal("status", "DONE"));
+
+        assertEquals(MATCH_COUNT, count);
+        assertEquals(Collections.singletonList("toUpdateQuery"), builderCalls);
+        assertEquals(Collections.singleton(JpaAuditEntity.FIELD_DELETED_ON), updateValues.get(0).keySet());
+    }
+
+    @Test
+    public void purgesOtherEntities() {
+        final int count = dao.deleteWhere(PlainEntity.class, Criteria.equal("status", "DONE"));
+
+        assertEquals(MATCH_COUNT, count);
+        assertEquals(Collections.singletonList("toDeleteQuery"), builderCalls);
+    }
+
+    @Test
+    public void rejectsAuditLoggedEntities() {
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.deleteWhere(LoggedEntity.class, Criteria.equal("status", "DONE")));
+        assertTrue(builderCalls.isEmpty());
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static EntityManager fakeEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(GenericJpaDaoDeleteWhereTest.class.getClassLoader(),
+                new Class<?>[] {EntityManager.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "flush":
+                        case "clear":
+                        case "setFlushMode":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private QueryBuilder<Query> fakeQueryBuilder() {
+        final Query query = (Query) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Query.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "executeUpdate":
+                            return MATCH_COUNT;
+                        case "toString":
+                            return "FakeQuery";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        return (QueryBuilder<Query>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {QueryBuilder.class}, (p, method, args) -> {
+                    builderCalls.add(method.getName());
+                    if ("toUpdateQuery".equals(method.getName())) {
+                        updateValues.add((Map<?, ?>) args[2]);
+                    }
+
+                    return query;
+                });
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    public static class AuditedEntity extends JpaAuditEntity {
+
+    }
+
+    public static class PlainEntity extends JpaEntity {
+
+    }
+
+    @AuditLogged
+    public static class LoggedEntity extends JpaAuditEntity {
+
+    }
+
+}
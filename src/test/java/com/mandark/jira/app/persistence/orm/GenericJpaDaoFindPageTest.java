@@ -0,0 +1,195 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.mandark.jira.spi.app.persistence.Page;
+import com.mandark.jira.spi.app.persistence.QueryBuilder;
+import com.mandark.jira.spi.app.query.Criteria;
+
+
+/**
+ * {@link GenericJpaDao#findPage(Class, Criteria, com.mandark.jira.spi.app.query.OrderBy, int, int)} counts :
+ * in parallel in a read-only transaction, skipped on the last page.
+ */
+public class GenericJpaDaoFindPageTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final long TOTAL_COUNT = 42L;
+
+
+    private final List<String> builderCalls = Collections.synchronizedList(new ArrayList<>());
+    private final List<TransactionDefinition> transactions = new ArrayList<>();
+    private final List<Runnable> countTasks = new ArrayList<>();
+
+    private List<PlainEntity> pageItems;
+    private GenericJpaDao dao;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        dao = new GenericJpaDao();
+        dao.setEntityManager(fakeEntityManager());
+        dao.queryBuilder = fakeQueryBuilder();
+        dao.setCountExecutor(countTasks::add);
+        dao.setTransactionManager(new FakeTransactionManager());
+
+        pageItems = entitiesOf(PAGE_SIZE);
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void countsFullPageInReadOnlyTransaction() {
+        final Page<PlainEntity> page = this.findPageRunningCount(2);
+
+        assertEquals(TOTAL_COUNT, page.getTotalCount());
+        assertEquals(PAGE_SIZE, page.getItems().size());
+
+        assertEquals(1, transactions.size());
+        assertTrue(transactions.get(0).isReadOnly());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW,
+                transactions.get(0).getPropagationBehavior());
+    }
+
+    @Test
+    public void countsLastPageFromItems() {
+        pageItems = entitiesOf(3);
+
+        final Page<PlainEntity> page = dao.findPage(PlainEntity.class, Criteria.equal("status", "DONE"), null, 2,
+                PAGE_SIZE);
+
+        assertEquals(PAGE_SIZE + 3, page.getTotalCount());
+        assertEquals(Collections.singletonList("toQuery"), builderCalls, "the count cancelled before it ran");
+    }
+
+    @Test
+    public void countsSequentiallyWithoutTransactionManager() {
+        dao.setTransactionManager(null);
+
+        final Page<PlainEntity> page = dao.findPage(PlainEntity.class, Criteria.equal("status", "DONE"), null, 1,
+                PAGE_SIZE);
+
+        assertEquals(TOTAL_COUNT, page.getTotalCount());
+        assertEquals(Arrays.asList("toQuery", "toCountQuery"), builderCalls);
+        assertTrue(countTasks.isEmpty() && transactions.isEmpty());
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Finds the page, running the parallel count once it is submitted (as the count executor would).
+     */
+    private Page<PlainEntity> findPageRunningCount(final int pageNo) {
+        dao.setCountExecutor(task -> {
+            countTasks.add(task);
+            task.run();
+        });
+
+        return dao.findPage(PlainEntity.class, Criteria.equal("status", "DONE"), null, pageNo, PAGE_SIZE);
+    }
+
+    private static List<PlainEntity> entitiesOf(final int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(PlainEntity::new).collect(Collectors.toList());
+    }
+
+    private static EntityManager fakeEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(GenericJpaDaoFindPageTest.class.getClassLoader(),
+                new Class<?>[] {EntityManager.class}, (p, method, args) -> {
+                    if ("setFlushMode".equals(method.getName())) {
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private QueryBuilder<Query> fakeQueryBuilder() {
+        return (QueryBuilder<Query>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {QueryBuilder.class}, (p, method, args) -> {
+                    builderCalls.add(method.getName());
+                    return fakeQuery(method.getName());
+                });
+    }
+
+    private Query fakeQuery(final String builderMethod) {
+        return (Query) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Query.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "setFirstResult":
+                        case "setMaxResults":
+                            return p;
+                        case "getResultList":
+                            return pageItems;
+                        case "getSingleResult":
+                            return TOTAL_COUNT;
+                        case "toString":
+                            return "FakeQuery#" + builderMethod;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    public static class PlainEntity extends JpaEntity {
+
+        PlainEntity(final Integer id) {
+            super();
+            this.setId(id);
+        }
+
+    }
+
+    /**
+     * Transaction manager recording the definitions of the transactions.
+     */
+    private final class FakeTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(final TransactionDefinition definition) {
+            transactions.add(definition);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(final TransactionStatus status) {
+            // nothing to commit
+        }
+
+        @Override
+        public void rollback(final TransactionStatus status) {
+            // nothing to roll back
+        }
+
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.spi.app.persistence.Projection;
+import com.mandark.jira.spi.app.persistence.QueryBuilder;
+import com.mandark.jira.spi.app.query.Criteria;
+
+
+/**
+ * {@link GenericJpaDao} projections : selected properties mapped by name, and the projection classes checked
+ * before any query.
+ */
+public class GenericJpaDaoProjectionTest {
+
+    private final List<Object> selections = new ArrayList<>();
+    private final List<Integer> pageBounds = new ArrayList<>();
+
+    private List<?> rows;
+    private GenericJpaDao dao;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        dao = new GenericJpaDao();
+        dao.setEntityManager(fakeEntityManager());
+        dao.queryBuilder = this.fakeQueryBuilder();
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void mapsTuplesByProperty() {
+        rows = Arrays.asList(new Object[] {1, "alpha"}, new Object[] {2, "beta"});
+
+        final List<Map<String, Object>> results = dao.findProperties(PlainEntity.class,
+                Criteria.equal("status", "DONE"), null, Arrays.asList("id", "name"), 3, 20);
+
+        assertEquals(Arrays.asList(valueMap(1, "alpha"), valueMap(2, "beta")), results);
+        assertEquals(Arrays.asList(40, 20), pageBounds);
+    }
+
+    @Test
+    public void mapsSinglePropertyValues() {
+        rows = Arrays.asList("alpha", "beta");
+
+        final List<Map<String, Object>> results = dao.findProperties(PlainEntity.class, null, null,
+                Arrays.asList("name"), 1, 20);
+
+        assertEquals("beta", results.get(1).get("name"));
+        assertEquals(1, results.get(1).size());
+    }
+
+    @Test
+    public void selectsAnnotatedProperties() {
+        rows = Arrays.asList(new PlainSummary(1, "alpha"));
+
+        final List<PlainSummary> results = dao.findProjections(PlainEntity.class, PlainSummary.class, null, null,
+                1, 20);
+
+        assertEquals(1, results.size());
+        assertEquals(Arrays.asList(Arrays.asList("id", "name"), PlainSummary.class), selections);
+    }
+
+    @Test
+    public void rejectsProjectionsWithoutAnnotationOrConstructor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.findProjections(PlainEntity.class, String.class, null, null, 1, 20));
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.findProjections(PlainEntity.class, UnbuildableSummary.class, null, null, 1, 20));
+        assertTrue(selections.isEmpty(), "no query built");
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static Map<String, Object> valueMap(final Integer id, final String name) {
+        final Map<String, Object> valueMap = new LinkedHashMap<>();
+        valueMap.put("id", id);
+        valueMap.put("name", name);
+        return valueMap;
+    }
+
+    private static EntityManager fakeEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(GenericJpaDaoProjectionTest.class.getClassLoader(),
+                new Class<?>[] {EntityManager.class}, (p, method, args) -> {
+                    if ("setFlushMode".equals(method.getName())) {
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private QueryBuilder<Query> fakeQueryBuilder() {
+        return (QueryBuilder<Query>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {QueryBuilder.class}, (p, method, args) -> {
+                    if ("toProjectionQuery".equals(method.getName())) {
+                        selections.add(args[3]);
+                        selections.add(args[4]);
+                        return this.fakeQuery();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Query fakeQuery() {
+        return (Query) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Query.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "setFirstResult":
+                        case "setMaxResults":
+                            pageBounds.add((Integer) args[0]);
+                            return p;
+                        case "getResultList":
+                            return rows;
+                        case "toString":
+                            return "FakeQuery#toProjectionQuery";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    public static class PlainEntity extends JpaEntity {
+
+    }
+
+    @Projection({"id", "name"})
+    public static class PlainSummary {
+
+        public PlainSummary(final Integer id, final String name) {
+            super();
+        }
+
+    }
+
+    @Projection({"id", "name"})
+    public static class UnbuildableSummary {
+
+        public UnbuildableSummary(final Integer id) {
+            super();
+        }
+
+    }
+
+}
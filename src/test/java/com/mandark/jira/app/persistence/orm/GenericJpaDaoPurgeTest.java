@@ -0,0 +1,201 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link GenericJpaDao#purge(Class, java.util.Collection)} over an entity manager that, as Hibernate,
+ * refuses to remove a detached instance.
+ */
+public class GenericJpaDaoPurgeTest {
+
+    private static final int JDBC_BATCH_SIZE = 50;
+    private static final int PURGE_BATCH_SIZE = 100; // jpa.purge.batch_size
+
+
+    private FakeEntityManager fakeEntityManager;
+    private GenericJpaDao dao;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        fakeEntityManager = new FakeEntityManager();
+
+        dao = new GenericJpaDao();
+        dao.setEntityManager(fakeEntityManager.proxy());
+        dao.setBatchSize(JDBC_BATCH_SIZE);
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void purgesBatchLargerThanJdbcBatchSize() {
+        final List<Integer> ids = idsTo(PURGE_BATCH_SIZE);
+
+        dao.purge(PurgedEntity.class, ids);
+
+        assertEquals(ids, fakeEntityManager.removedIds);
+        assertEquals(1, fakeEntityManager.clearCount, "cleared once, between the 2 JDBC batches");
+    }
+
+    @Test
+    public void purgesPartialLastBatch() {
+        final List<Integer> ids = idsTo(JDBC_BATCH_SIZE * 2 + 7);
+
+        dao.purge(PurgedEntity.class, ids);
+
+        assertEquals(ids, fakeEntityManager.removedIds);
+        assertEquals(2, fakeEntityManager.clearCount);
+    }
+
+    @Test
+    public void purgesWithinJdbcBatchSizeWithoutClear() {
+        final List<Integer> ids = idsTo(JDBC_BATCH_SIZE);
+
+        dao.purge(PurgedEntity.class, ids);
+
+        assertEquals(ids, fakeEntityManager.removedIds);
+        assertEquals(0, fakeEntityManager.clearCount);
+    }
+
+    @Test
+    public void skipsMissingEntities() {
+        fakeEntityManager.missingIds.addAll(Arrays.asList(3, 60));
+
+        dao.purge(PurgedEntity.class, idsTo(PURGE_BATCH_SIZE));
+
+        assertEquals(PURGE_BATCH_SIZE - 2, fakeEntityManager.removedIds.size());
+        assertTrue(!fakeEntityManager.removedIds.contains(3) && !fakeEntityManager.removedIds.contains(60));
+    }
+
+
+    @Test
+    public void purgesWithDefaultBatchSize() {
+        final List<Integer> ids = idsTo(PURGE_BATCH_SIZE);
+        dao.setBatchSize(0);
+
+        dao.purge(PurgedEntity.class, ids);
+
+        assertEquals(ids, fakeEntityManager.removedIds);
+        assertEquals(1, fakeEntityManager.clearCount);
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static List<Integer> idsTo(final int count) {
+        return IntStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    public static class PurgedEntity extends JpaEntity {
+
+        PurgedEntity(final Integer id) {
+            super();
+            this.setId(id);
+        }
+
+    }
+
+    /**
+     * Entity manager of the purge :: the multi loaded entities are managed until cleared, and only the
+     * managed ones can be removed.
+     */
+    private static final class FakeEntityManager {
+
+        final Set<Object> managed = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<Integer> removedIds = new ArrayList<>();
+        final List<Integer> missingIds = new ArrayList<>();
+
+        int clearCount;
+
+        EntityManager proxy() {
+            return (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {EntityManager.class}, (p, method, args) -> {
+                        switch (method.getName()) {
+                            case "unwrap":
+                                return session();
+                            case "remove":
+                                if (!managed.contains(args[0])) {
+                                    throw new IllegalArgumentException("Removing a detached instance");
+                                }
+                                managed.remove(args[0]);
+                                removedIds.add(((PurgedEntity) args[0]).getId());
+                                return null;
+                            case "clear":
+                                managed.clear();
+                                clearCount++;
+                                return null;
+                            case "flush":
+                            case "setFlushMode":
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        private Session session() {
+            return (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Session.class},
+                    (p, method, args) -> {
+                        if ("byMultipleIds".equals(method.getName())) {
+                            return multiLoadAccess();
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private MultiIdentifierLoadAccess<?> multiLoadAccess() {
+            return (MultiIdentifierLoadAccess<?>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] {MultiIdentifierLoadAccess.class}, (p, method, args) -> {
+                        switch (method.getName()) {
+                            case "withBatchSize":
+                                return p;
+                            case "multiLoad":
+                                final List<Object> entities = new ArrayList<>();
+                                for (final Object id : (List<?>) args[0]) {
+                                    final PurgedEntity entity =
+                                            missingIds.contains(id) ? null : new PurgedEntity((Integer) id);
+                                    if (Objects.nonNull(entity)) {
+                                        managed.add(entity);
+                                    }
+                                    entities.add(entity);
+                                }
+                                return entities;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+    }
+
+}
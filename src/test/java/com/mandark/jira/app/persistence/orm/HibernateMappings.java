@@ -0,0 +1,152 @@
+package com.mandark.jira.app.persistence.orm;
+
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import com.mandark.jira.spi.app.persistence.FullText;
+
+
+/**
+ * Hibernate mappings of the test entities, for the statements built from them : the session factory is
+ * built with the MySQL dialect, without any database.
+ */
+final class HibernateMappings {
+
+    private static SessionFactoryImplementor sessionFactory;
+
+
+    private HibernateMappings() {
+        super();
+        // Utility Class
+    }
+
+
+    // Methods
+    // ------------------------------------------------------------------------
+
+    static synchronized SessionFactoryImplementor sessionFactory() {
+        if (Objects.isNull(sessionFactory)) {
+            final StandardServiceRegistryBuilder registryBuilder = new StandardServiceRegistryBuilder()
+                    .applySetting("hibernate.dialect", "org.hibernate.dialect.MySQL8Dialect")
+                    .applySetting("hibernate.temp.use_jdbc_metadata_defaults", "false");
+
+            sessionFactory = (SessionFactoryImplementor) new MetadataSources(registryBuilder.build())
+                    .addAnnotatedClass(Label.class) //
+                    .addAnnotatedClass(Issue.class) //
+                    .addAnnotatedClass(Comment.class) //
+                    .buildMetadata().buildSessionFactory();
+        }
+
+        return sessionFactory;
+    }
+
+    static AbstractEntityPersister persisterOf(final Class<?> entityCls) {
+        return (AbstractEntityPersister) sessionFactory().getMetamodel().entityPersister(entityCls);
+    }
+
+    /**
+     * Session of the mappings, to bind the statement parameters (it never connects).
+     *
+     * @return a new session, to be closed
+     */
+    static SessionImplementor openSession() {
+        return (SessionImplementor) sessionFactory().openSession();
+    }
+
+
+    // Entities
+    // ------------------------------------------------------------------------
+
+    /**
+     * Versioned entity, with a unique name.
+     */
+    @Entity
+    @Table(name = "labels")
+    public static class Label extends JpaEntity {
+
+        private String name;
+        private String color;
+        private Integer version;
+
+        @Column(name = "name", unique = true)
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Column(name = "color")
+        public String getColor() {
+            return color;
+        }
+
+        public void setColor(String color) {
+            this.color = color;
+        }
+
+        @Version
+        @Column(name = "version")
+        public Integer getVersion() {
+            return version;
+        }
+
+        public void setVersion(Integer version) {
+            this.version = version;
+        }
+
+    }
+
+    /**
+     * Audit entity.
+     */
+    @Entity
+    @Table(name = "issues")
+    public static class Issue extends JpaAuditEntity {
+
+        private String summary;
+
+        @Column(name = "summary")
+        public String getSummary() {
+            return summary;
+        }
+
+        public void setSummary(String summary) {
+            this.summary = summary;
+        }
+
+    }
+
+    /**
+     * Entity without a version, with a full-text property.
+     */
+    @Entity
+    @Table(name = "comments")
+    public static class Comment extends JpaEntity {
+
+        private String text;
+
+        @FullText
+        @Column(name = "text")
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String text) {
+            this.text = text;
+        }
+
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedNameImpl;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link IdSequenceInitializer} seed statements of the {@link JpaEntity} identifier allocations.
+ */
+public class IdSequenceInitializerTest {
+
+    private static final String SEGMENT = "issues";
+
+
+    private final List<String> sqls = new ArrayList<>();
+    private final List<Object> seedParams = new ArrayList<>();
+
+    private long maxId;
+    private IdSequenceInitializer initializer;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        initializer = new IdSequenceInitializer(unsupported(EntityManagerFactory.class),
+                unsupported(DataSource.class));
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void seedsAfterMaxId() throws Exception {
+        maxId = 41;
+
+        initializer.seed(this.fakeConnection(), tableGenerator(1), "issues", "id");
+
+        assertEquals(Arrays.asList(
+                "CREATE TABLE IF NOT EXISTS id_sequences (sequence_name VARCHAR(255) NOT NULL, next_val BIGINT, "
+                        + "PRIMARY KEY (sequence_name))",
+                "SELECT COALESCE(MAX(id), 0) FROM issues",
+                "INSERT INTO id_sequences (sequence_name, next_val) VALUES (?, ?) "
+                        + "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))"),
+                sqls);
+        assertEquals(Arrays.asList(SEGMENT, 42L), seedParams);
+    }
+
+    @Test
+    public void seedsEmptyTableFromInitialValue() throws Exception {
+        maxId = 0;
+
+        initializer.seed(this.fakeConnection(), tableGenerator(1000), "issues", "id");
+
+        assertEquals(Arrays.asList(SEGMENT, 1000L), seedParams);
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Table generator of the {@link JpaEntity} allocation table, as configured by Hibernate.
+     */
+    private static TableGenerator tableGenerator(final int initialValue) throws IllegalAccessException {
+        final TableGenerator tableGenerator = new TableGenerator();
+        FieldUtils.writeField(tableGenerator, "qualifiedTableName",
+                new QualifiedNameImpl(null, null, Identifier.toIdentifier(JpaEntity.ID_TABLE)), true);
+        FieldUtils.writeField(tableGenerator, "segmentColumnName", JpaEntity.ID_SEGMENT_COLUMN, true);
+        FieldUtils.writeField(tableGenerator, "valueColumnName", JpaEntity.ID_VALUE_COLUMN, true);
+        FieldUtils.writeField(tableGenerator, "segmentValue", SEGMENT, true);
+        FieldUtils.writeField(tableGenerator, "initialValue", initialValue, true);
+
+        return tableGenerator;
+    }
+
+    private static <T> T unsupported(final Class<T> cls) {
+        return cls.cast(Proxy.newProxyInstance(IdSequenceInitializerTest.class.getClassLoader(),
+                new Class<?>[] {cls}, (p, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "createStatement":
+                            return fakeStatement();
+                        case "prepareStatement":
+                            sqls.add((String) args[0]);
+                            return fakeSeedStatement();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private Statement fakeStatement() {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Statement.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "execute":
+                            sqls.add((String) args[0]);
+                            return false;
+                        case "executeQuery":
+                            sqls.add((String) args[0]);
+                            return fakeMaxIdResult();
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private ResultSet fakeMaxIdResult() {
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ResultSet.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return true;
+                        case "getLong":
+                            return maxId;
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private PreparedStatement fakeSeedStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "setString":
+                        case "setLong":
+                            seedParams.add(args[1]);
+                            return null;
+                        case "executeUpdate":
+                            return 1;
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.mandark.jira.spi.app.persistence.IDao;
+import com.mandark.jira.spi.lang.ServiceUnavailableException;
+
+
+/**
+ * {@link JpaAsyncDao} reads : each in a new read-only transaction, limited to the max concurrency, and
+ * failed as unavailable when the executor rejects them.
+ */
+public class JpaAsyncDaoTest {
+
+    private final List<TransactionDefinition> transactions = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicInteger runningReads = new AtomicInteger();
+    private final AtomicInteger maxRunningReads = new AtomicInteger();
+
+    private CountDownLatch readStarted;
+    private CountDownLatch readRelease;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        readStarted = new CountDownLatch(1);
+        readRelease = new CountDownLatch(0);
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void readsInNewReadOnlyTransaction() throws Exception {
+        final JpaAsyncDao asyncDao = new JpaAsyncDao(this.fakeDao(), new FakeTransactionManager(), Runnable::run, 2);
+
+        final CompletableFuture<PlainEntity> future = asyncDao.read(PlainEntity.class, 7);
+
+        assertEquals(Integer.valueOf(7), future.get().getId());
+        assertEquals(1, transactions.size());
+        assertTrue(transactions.get(0).isReadOnly());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, transactions.get(0).getPropagationBehavior());
+        assertEquals(2, asyncDao.getAvailablePermits(), "permit released");
+    }
+
+    @Test
+    public void limitsConcurrentReads() throws Exception {
+        readRelease = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final JpaAsyncDao asyncDao = new JpaAsyncDao(this.fakeDao(), new FakeTransactionManager(), executor, 1);
+
+            final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(asyncDao.count(PlainEntity.class, null));
+            }
+
+            assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+            assertEquals(0, asyncDao.getAvailablePermits());
+
+            readRelease.countDown();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+            assertEquals(1, maxRunningReads.get());
+            assertEquals(1, asyncDao.getAvailablePermits());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failsRejectedReadsAsUnavailable() {
+        final JpaAsyncDao asyncDao = new JpaAsyncDao(this.fakeDao(), new FakeTransactionManager(), task -> {
+            throw new RejectedExecutionException("saturated");
+        }, 2);
+
+        final CompletableFuture<PlainEntity> future = asyncDao.read(PlainEntity.class, 7);
+
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof ServiceUnavailableException, String.valueOf(e.getCause()));
+        assertTrue(transactions.isEmpty());
+    }
+
+    @Test
+    public void rejectsConcurrencyBelowOne() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new JpaAsyncDao(this.fakeDao(), new FakeTransactionManager(), Runnable::run, 0));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    private IDao<Integer> fakeDao() {
+        return (IDao<Integer>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {IDao.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "read":
+                            return new PlainEntity((Integer) args[1]);
+                        case "count":
+                            return this.blockingCount();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private int blockingCount() throws InterruptedException {
+        maxRunningReads.accumulateAndGet(runningReads.incrementAndGet(), Math::max);
+        try {
+            readStarted.countDown();
+            readRelease.await(5, TimeUnit.SECONDS);
+            return 0;
+        } finally {
+            runningReads.decrementAndGet();
+        }
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    public static class PlainEntity extends JpaEntity {
+
+        PlainEntity(final Integer id) {
+            super();
+            this.setId(id);
+        }
+
+    }
+
+    /**
+     * Transaction manager recording the definitions of the transactions.
+     */
+    private final class FakeTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(final TransactionDefinition definition) {
+            transactions.add(definition);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(final TransactionStatus status) {
+            // nothing to commit
+        }
+
+        @Override
+        public void rollback(final TransactionStatus status) {
+            // nothing to roll back
+        }
+
+    }
+
+}
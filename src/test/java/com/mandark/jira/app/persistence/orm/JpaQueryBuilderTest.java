@@ -0,0 +1,218 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.app.persistence.orm.JpaQueryBuilder.JpaQuery;
+import com.mandark.jira.app.persistence.orm.JpaQueryBuilder.QueryType;
+import com.mandark.jira.app.persistence.orm.JpaQueryBuilder.Selection;
+import com.mandark.jira.spi.app.query.Criteria;
+import com.mandark.jira.spi.app.query.Keyset;
+import com.mandark.jira.spi.app.query.OrderBy;
+
+
+/**
+ * JPQL compiled by the {@link JpaQueryBuilder}, without an entity manager.
+ */
+public class JpaQueryBuilderTest {
+
+    private static final OrderBy NAME_ASC_RANK_DESC = OrderBy.asc("name").then("rank", false);
+
+
+    // Tests :: Shape
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void shapesCriteriaValuesAlike() {
+        final Criteria criteria = Criteria.and(Criteria.equal("name", "a"), Criteria.min("rank", 1));
+        final Criteria otherValues = Criteria.and(Criteria.equal("name", "z"), Criteria.min("rank", 9));
+
+        assertEquals(shapeOf(QueryType.SORTED, criteria, NAME_ASC_RANK_DESC),
+                shapeOf(QueryType.SORTED, otherValues, NAME_ASC_RANK_DESC));
+    }
+
+    @Test
+    public void shapesCriteriaTreeApart() {
+        final Criteria criteria = Criteria.and(Criteria.equal("name", "a"), Criteria.min("rank", 1));
+        final String shape = shapeOf(QueryType.SORTED, criteria, NAME_ASC_RANK_DESC);
+
+        // property, criteria type, combinator, order, query type
+        assertNotEquals(shape, shapeOf(QueryType.SORTED,
+                Criteria.and(Criteria.equal("title", "a"), Criteria.min("rank", 1)), NAME_ASC_RANK_DESC));
+        assertNotEquals(shape, shapeOf(QueryType.SORTED,
+                Criteria.and(Criteria.equal("name", "a"), Criteria.max("rank", 1)), NAME_ASC_RANK_DESC));
+        assertNotEquals(shape, shapeOf(QueryType.SORTED,
+                Criteria.or(Criteria.equal("name", "a"), Criteria.min("rank", 1)), NAME_ASC_RANK_DESC));
+        assertNotEquals(shape, shapeOf(QueryType.SORTED, criteria, OrderBy.asc("name")));
+        assertNotEquals(shape, shapeOf(QueryType.COUNT, criteria, NAME_ASC_RANK_DESC));
+    }
+
+    @Test
+    public void compilesTemplateWithParamsInBindingOrder() {
+        final Criteria criteria = Criteria.and(Criteria.equal("name", "a"), Criteria.min("rank", 1));
+
+        final JpaQuery query = new JpaQuery(QueryType.SELECT, SeekedEntity.class, criteria, null, null, null, null);
+
+        assertEquals("SELECT ins FROM SeekedEntity ins WHERE (ins.name = :param_1 AND ins.rank > :param_2)",
+                query.getQueryString());
+        assertEquals(Arrays.asList("param_1", "param_2"), query.getQueryParams());
+        assertEquals(Arrays.asList("a", 1), JpaQuery.paramValuesOf(criteria, null));
+    }
+
+
+    // Tests :: Projection
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void selectsPropertiesSortedWithIdTieBreaker() {
+        final JpaQuery query = projectionQuery(null);
+
+        assertEquals("SELECT ins.id, ins.name FROM SeekedEntity ins WHERE ins.name = :param_1 "
+                + "ORDER BY ins.name ASC, ins.id ASC", query.getQueryString());
+    }
+
+    @Test
+    public void constructsResultClass() {
+        final JpaQuery query = projectionQuery(SeekedSummary.class);
+
+        assertTrue(query.getQueryString().startsWith(
+                "SELECT NEW " + SeekedSummary.class.getName() + "(ins.id, ins.name) FROM SeekedEntity ins"),
+                query.getQueryString());
+    }
+
+    @Test
+    public void shapesSelectionsApart() {
+        final Criteria criteria = Criteria.equal("name", "a");
+        final List<String> properties = Arrays.asList("id", "name");
+
+        final String tupleShape = JpaQuery.shapeOf(QueryType.PROJECTION, SeekedEntity.class, criteria, null, null,
+                null, new Selection(properties, null));
+        final String resultShape = JpaQuery.shapeOf(QueryType.PROJECTION, SeekedEntity.class, criteria, null, null,
+                null, new Selection(properties, SeekedSummary.class));
+        final String otherPropsShape = JpaQuery.shapeOf(QueryType.PROJECTION, SeekedEntity.class, criteria, null,
+                null, null, new Selection(Arrays.asList("id", "rank"), null));
+
+        assertNotEquals(tupleShape, resultShape);
+        assertNotEquals(tupleShape, otherPropsShape);
+    }
+
+
+    // Tests :: IN Lists
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void padsInValuesToBucketSize() {
+        assertEquals(8, JpaQuery.paddedValues(idsTo(1)).size());
+        assertEquals(8, JpaQuery.paddedValues(idsTo(8)).size());
+        assertEquals(16, JpaQuery.paddedValues(idsTo(9)).size());
+        assertEquals(512, JpaQuery.paddedValues(idsTo(300)).size());
+        assertEquals(1024, JpaQuery.paddedValues(idsTo(1024)).size());
+        assertEquals(2048, JpaQuery.paddedValues(idsTo(1025)).size());
+        assertEquals(3072, JpaQuery.paddedValues(idsTo(3000)).size());
+        assertTrue(JpaQuery.paddedValues(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void padsInValuesWithLastValue() {
+        final List<Object> paddedValues = JpaQuery.paddedValues(Arrays.asList(3, 1, 2));
+
+        assertEquals(Arrays.asList(3, 1, 2, 2, 2, 2, 2, 2), paddedValues);
+    }
+
+    @Test
+    public void bindsPaddedInValues() {
+        final Criteria criteria = Criteria.in("rank", idsTo(5));
+
+        assertEquals(Collections.singletonList(JpaQuery.paddedValues(idsTo(5))),
+                JpaQuery.paramValuesOf(criteria, null));
+    }
+
+
+    // Tests :: Seek
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void seeksAfterValues() {
+        final Keyset after = Keyset.of(Arrays.asList("b", 3), 7);
+
+        final JpaQuery query = seekQuery(NAME_ASC_RANK_DESC, after);
+
+        assertTrue(query.getQueryString().endsWith("WHERE ((ins.name > :param_1) "
+                + "OR (ins.name = :param_1 AND (ins.rank < :param_2 OR ins.rank IS NULL)) "
+                + "OR (ins.name = :param_1 AND ins.rank = :param_2 AND ins.id < :param_3)) "
+                + "ORDER BY ins.name ASC, ins.rank DESC, ins.id DESC"), query.getQueryString());
+        assertEquals(Arrays.asList("b", 3, 7), JpaQuery.paramValuesOf(null, after));
+    }
+
+    @Test
+    public void seeksAfterNullValues() {
+        final Keyset after = Keyset.of(Arrays.asList(null, null), 7);
+
+        final JpaQuery query = seekQuery(NAME_ASC_RANK_DESC, after);
+
+        // ascending :: the non NULL names after; descending :: nothing after a NULL rank
+        assertTrue(query.getQueryString().contains("WHERE ((ins.name IS NOT NULL) "
+                + "OR (ins.name IS NULL AND ins.rank IS NULL AND ins.id < :param_1)) "), query.getQueryString());
+        assertEquals(Collections.singletonList(7), JpaQuery.paramValuesOf(null, after));
+    }
+
+    @Test
+    public void shapesNullPositionsApart() {
+        final String valuesShape = JpaQuery.shapeOf(QueryType.SEEK, SeekedEntity.class, null, NAME_ASC_RANK_DESC,
+                Keyset.of(Arrays.asList("a", 1), 1), null, null);
+        final String otherValuesShape = JpaQuery.shapeOf(QueryType.SEEK, SeekedEntity.class, null,
+                NAME_ASC_RANK_DESC, Keyset.of(Arrays.asList("z", 9), 9), null, null);
+        final String nullShape = JpaQuery.shapeOf(QueryType.SEEK, SeekedEntity.class, null, NAME_ASC_RANK_DESC,
+                Keyset.of(Arrays.asList(null, 1), 1), null, null);
+
+        assertEquals(valuesShape, otherValuesShape);
+        assertNotEquals(valuesShape, nullShape);
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static List<Integer> idsTo(final int count) {
+        return IntStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+    }
+
+    private static String shapeOf(final QueryType queryType, final Criteria criteria, final OrderBy orderBy) {
+        return JpaQuery.shapeOf(queryType, SeekedEntity.class, criteria, orderBy, null, null, null);
+    }
+
+    private static JpaQuery projectionQuery(final Class<?> resultCls) {
+        return new JpaQuery(QueryType.PROJECTION, SeekedEntity.class, Criteria.equal("name", "a"),
+                OrderBy.asc("name"), null, null, new Selection(Arrays.asList("id", "name"), resultCls));
+    }
+
+    private static JpaQuery seekQuery(final OrderBy orderBy, final Keyset after) {
+        return new JpaQuery(QueryType.SEEK, SeekedEntity.class, null, orderBy, after, null, null);
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    public static class SeekedEntity extends JpaEntity {
+
+    }
+
+    public static class SeekedSummary {
+
+        public SeekedSummary(final Integer id, final String name) {
+            super();
+        }
+
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.app.persistence.orm.JpaWriteBehind.PendingUpdate;
+import com.mandark.jira.spi.app.persistence.AuditLogged;
+import com.mandark.jira.spi.app.persistence.FullText;
+import com.mandark.jira.spi.app.persistence.Searchable;
+
+
+/**
+ * {@link JpaWriteBehind} coalescing of the buffered updates, and the properties it accepts.
+ */
+public class JpaWriteBehindTest {
+
+    // Tests :: Coalescing
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void sumsIncrements() {
+        final PendingUpdate update = PendingUpdate.increment(2).then(PendingUpdate.increment(-5));
+
+        assertFalse(update.isSet());
+        assertEquals(-3L, update.delta);
+    }
+
+    @Test
+    public void incrementsSetValue() {
+        final PendingUpdate update = PendingUpdate.set(10).then(PendingUpdate.increment(3));
+
+        assertTrue(update.isSet());
+        assertEquals(13L, update.value);
+    }
+
+    @Test
+    public void incrementsNullSetValueFromZero() {
+        final PendingUpdate update = PendingUpdate.set(null).then(PendingUpdate.increment(3));
+
+        assertTrue(update.isSet());
+        assertEquals(3L, update.value);
+    }
+
+    @Test
+    public void keepsLastSetValue() {
+        assertEquals("b", PendingUpdate.set("a").then(PendingUpdate.set("b")).value);
+
+        final PendingUpdate update = PendingUpdate.increment(4).then(PendingUpdate.set(1));
+        assertTrue(update.isSet());
+        assertEquals(1, update.value);
+    }
+
+
+    // Tests :: Properties
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void rejectsIdentifierAndVersion() {
+        final JpaWriteBehind writeBehind = writeBehind();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> writeBehind.set(IndexedEntity.class, 1, JpaEntity.FIELD_ID, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> writeBehind.set(IndexedEntity.class, 1, JpaAuditEntity.FIELD_VERSION, 2));
+    }
+
+    @Test
+    public void rejectsTextIndexedProperties() {
+        final JpaWriteBehind writeBehind = writeBehind();
+
+        assertThrows(IllegalArgumentException.class, () -> writeBehind.set(IndexedEntity.class, 1, "summary", "a"));
+        assertThrows(IllegalArgumentException.class,
+                () -> writeBehind.set(IndexedEntity.class, 1, "description", "a"));
+        assertThrows(IllegalArgumentException.class, () -> writeBehind.set(IndexedEntity.class, 1, "title", "a"));
+        assertThrows(IllegalArgumentException.class,
+                () -> writeBehind.set(IndexedSubEntity.class, 1, "summary", "a"));
+    }
+
+    @Test
+    public void rejectsAuditLoggedEntities() {
+        final JpaWriteBehind writeBehind = writeBehind();
+
+        assertThrows(IllegalArgumentException.class, () -> writeBehind.increment(LoggedEntity.class, 1, "votes", 1));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Write behind over an entity manager factory and a data source unused by the checks before the mapping.
+     */
+    private static JpaWriteBehind writeBehind() {
+        return new JpaWriteBehind(unsupported(EntityManagerFactory.class), unsupported(DataSource.class));
+    }
+
+    private static <T> T unsupported(final Class<T> cls) {
+        return cls.cast(Proxy.newProxyInstance(JpaWriteBehindTest.class.getClassLoader(), new Class<?>[] {cls},
+                (p, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    public static class IndexedEntity extends JpaEntity {
+
+        @Searchable
+        private String summary;
+
+        @FullText
+        private String description;
+
+        private String title;
+
+        @Searchable
+        public String getTitle() {
+            return title;
+        }
+
+    }
+
+    public static class IndexedSubEntity extends IndexedEntity {
+
+    }
+
+    @AuditLogged
+    public static class LoggedEntity extends JpaAuditEntity {
+
+        private int votes;
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link JpqlTemplateCache} hits, misses and size bound.
+ */
+public class JpqlTemplateCacheTest {
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void compilesShapeOnce() {
+        final JpqlTemplateCache<Object> cache = new JpqlTemplateCache<>(10);
+        final AtomicInteger compileCount = new AtomicInteger();
+
+        final Object template = cache.get("shape", () -> compileCount.incrementAndGet());
+        assertSame(template, cache.get("shape", () -> compileCount.incrementAndGet()));
+
+        assertEquals(1, compileCount.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void compilesShapesBeyondMaxSizeEveryTime() {
+        final JpqlTemplateCache<Object> cache = new JpqlTemplateCache<>(1);
+        cache.get("first", Object::new);
+
+        final Object template = cache.get("second", Object::new);
+
+        assertNotSame(template, cache.get("second", Object::new));
+        assertEquals(1, cache.getSize());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void recompilesAfterClear() {
+        final JpqlTemplateCache<Object> cache = new JpqlTemplateCache<>(10);
+        final Object template = cache.get("shape", Object::new);
+
+        cache.clear();
+
+        assertNotSame(template, cache.get("shape", Object::new));
+        assertEquals(2, cache.getMissCount());
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link ScrollIterator} detaching the iterated entities in batches, and closing the results.
+ */
+public class ScrollIteratorTest {
+
+    private static final int DETACH_SIZE = 2;
+
+
+    private final List<Object> evicted = new ArrayList<>();
+    private int closeCount;
+
+    private List<String> rows;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        rows = Arrays.asList("a", "b", "c", "d", "e");
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void detachesEarlierBatchOnNext() {
+        final ScrollIterator<String> iterator = this.iterator();
+
+        assertEquals("a", iterator.next());
+        assertEquals("b", iterator.next());
+        assertTrue(evicted.isEmpty());
+
+        assertEquals("c", iterator.next());
+        assertEquals(Arrays.asList("a", "b"), evicted);
+    }
+
+    @Test
+    public void detachesAndClosesWhenExhausted() {
+        final ScrollIterator<String> iterator = this.iterator();
+
+        final List<String> read = new ArrayList<>();
+        iterator.forEachRemaining(read::add);
+
+        assertEquals(rows, read);
+        assertEquals(rows, evicted);
+        assertEquals(1, closeCount);
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    public void detachesReadOnClose() {
+        final ScrollIterator<String> iterator = this.iterator();
+        iterator.next();
+        iterator.close();
+
+        assertEquals(Collections.singletonList("a"), evicted);
+        assertEquals(1, closeCount);
+    }
+
+    @Test
+    public void looksAheadOnce() {
+        final ScrollIterator<String> iterator = this.iterator();
+
+        assertTrue(iterator.hasNext());
+        assertTrue(iterator.hasNext());
+        assertEquals("a", iterator.next());
+
+        rows = Collections.emptyList();
+        assertFalse(this.iterator().hasNext());
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private ScrollIterator<String> iterator() {
+        return new ScrollIterator<>(fakeSession(), fakeResults(rows), DETACH_SIZE);
+    }
+
+    private Session fakeSession() {
+        return (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Session.class},
+                (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "isOpen":
+                            return true;
+                        case "evict":
+                            evicted.add(args[0]);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private ScrollableResults fakeResults(final List<String> results) {
+        final int[] position = {-1};
+
+        return (ScrollableResults) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ScrollableResults.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++position[0] < results.size();
+                        case "get":
+                            return results.get(position[0]);
+                        case "close":
+                            closeCount++;
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+
+import org.hibernate.engine.spi.TypedValue;
+import org.hibernate.query.QueryParameter;
+import org.hibernate.type.IntegerType;
+import org.hibernate.type.StringType;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link SlowQueryRecorder} parameters : in the SQL order with their mapped types, and redacted.
+ */
+public class SlowQueryRecorderTest {
+
+    // Tests :: Parameters
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void ordersParamsByIndex() {
+        final Map<Parameter<?>, Object> params = new LinkedHashMap<>();
+        params.put(param("param_10", IntegerType.INSTANCE), 10);
+        params.put(param("param_2", StringType.INSTANCE), "b");
+        params.put(param("param_1", StringType.INSTANCE), "a");
+
+        final List<TypedValue> paramValues = SlowQueryRecorder.paramValuesOf(fakeQuery(params));
+
+        assertEquals(Arrays.asList("a", "b", 10), valuesOf(paramValues));
+        assertEquals(Arrays.asList(StringType.INSTANCE, StringType.INSTANCE, IntegerType.INSTANCE),
+                paramValues.stream().map(TypedValue::getType).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void expandsCollectionParams() {
+        final Map<Parameter<?>, Object> params = new LinkedHashMap<>();
+        params.put(param("param_2", StringType.INSTANCE), "c");
+        params.put(param("param_1", IntegerType.INSTANCE), Arrays.asList(1, 2, 3));
+
+        final List<TypedValue> paramValues = SlowQueryRecorder.paramValuesOf(fakeQuery(params));
+
+        assertEquals(Arrays.asList(1, 2, 3, "c"), valuesOf(paramValues));
+        assertEquals(IntegerType.INSTANCE, paramValues.get(2).getType(), "element type of the collection");
+    }
+
+    @Test
+    public void leavesTypeOfPlainParamsUnknown() {
+        final Map<Parameter<?>, Object> params = new LinkedHashMap<>();
+        params.put(plainParam("param_1"), "a");
+
+        final List<TypedValue> paramValues = SlowQueryRecorder.paramValuesOf(fakeQuery(params));
+
+        assertEquals(1, paramValues.size());
+        assertNull(paramValues.get(0).getType());
+    }
+
+
+    // Tests :: Redaction
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void redactsToTypeAndSize() {
+        assertEquals("null", SlowQueryRecorder.redact(null));
+        assertEquals("String(6)", SlowQueryRecorder.redact("secret"));
+        assertEquals("HashSet(2)", SlowQueryRecorder.redact(new HashSet<>(Arrays.asList(1, 2))));
+        assertEquals("Integer", SlowQueryRecorder.redact(42));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static List<Object> valuesOf(final List<TypedValue> paramValues) {
+        return paramValues.stream().map(TypedValue::getValue).collect(Collectors.toList());
+    }
+
+    private static QueryParameter<?> param(final String name, final Type type) {
+        return (QueryParameter<?>) Proxy.newProxyInstance(SlowQueryRecorderTest.class.getClassLoader(),
+                new Class<?>[] {QueryParameter.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                        case "toString":
+                            return name;
+                        case "getHibernateType":
+                            return type;
+                        case "hashCode":
+                            return name.hashCode();
+                        case "equals":
+                            return p == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Parameter<?> plainParam(final String name) {
+        return (Parameter<?>) Proxy.newProxyInstance(SlowQueryRecorderTest.class.getClassLoader(),
+                new Class<?>[] {Parameter.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                        case "toString":
+                            return name;
+                        case "hashCode":
+                            return name.hashCode();
+                        case "equals":
+                            return p == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Query fakeQuery(final Map<Parameter<?>, Object> params) {
+        return (Query) Proxy.newProxyInstance(SlowQueryRecorderTest.class.getClassLoader(),
+                new Class<?>[] {Query.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "getParameters":
+                            return params.keySet();
+                        case "getParameterValue":
+                            return params.get(args[0]);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+}
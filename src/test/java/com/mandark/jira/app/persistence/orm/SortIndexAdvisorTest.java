@@ -0,0 +1,126 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import javax.persistence.Column;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.spi.app.query.Criteria;
+
+
+/**
+ * {@link SortIndexAdvisor} index matching, of the sort columns and their directions.
+ */
+public class SortIndexAdvisorTest {
+
+    private final SortIndexAdvisor advisor = new SortIndexAdvisor();
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void backsSortReadForwards() {
+        assertTrue(advisor.check(IndexedEntity.class, null, Arrays.asList("status", "createdOn"),
+                Arrays.asList(true, true)));
+    }
+
+    @Test
+    public void backsSortReadBackwards() {
+        assertTrue(advisor.check(IndexedEntity.class, null, Arrays.asList("status", "createdOn"),
+                Arrays.asList(false, false)));
+    }
+
+    @Test
+    public void doesNotBackMixedSortWithSingleDirectionIndex() {
+        assertFalse(advisor.check(IndexedEntity.class, null, Arrays.asList("status", "createdOn"),
+                Arrays.asList(true, false)));
+        assertFalse(advisor.check(IndexedEntity.class, null, Arrays.asList("status", "createdOn"),
+                Arrays.asList(false, true)));
+    }
+
+    @Test
+    public void backsMixedSortWithSameMixIndex() {
+        // priority DESC, updated_on (, id) :: read backwards
+        assertTrue(advisor.check(IndexedEntity.class, null, Arrays.asList("priority", "updatedOn"),
+                Arrays.asList(true, false)));
+        // read forwards
+        assertTrue(advisor.check(IndexedEntity.class, null, Arrays.asList("priority", "updatedOn"),
+                Arrays.asList(false, true)));
+        assertFalse(advisor.check(IndexedEntity.class, null, Arrays.asList("priority", "updatedOn"),
+                Arrays.asList(true, true)));
+    }
+
+    @Test
+    public void checksTieBreakerDirection() {
+        // severity, due_on DESC (, id ASC) :: read forwards, the identifier tie-breaker sorted DESC
+        assertFalse(advisor.check(IndexedEntity.class, null, Arrays.asList("severity", "dueOn"),
+                Arrays.asList(true, false)));
+        // severity, due_on DESC, id DESC
+        assertTrue(advisor.check(SortedByIdEntity.class, null, Arrays.asList("severity", "dueOn"),
+                Arrays.asList(true, false)));
+    }
+
+    @Test
+    public void skipsEqualityColumnDirection() {
+        final Criteria criteria = Criteria.equal("status", "OPEN");
+
+        assertTrue(advisor.check(IndexedEntity.class, criteria, Arrays.asList("createdOn"), Arrays.asList(false)));
+        assertTrue(advisor.check(IndexedEntity.class, criteria, Arrays.asList("status", "createdOn"),
+                Arrays.asList(true, false)));
+    }
+
+    @Test
+    public void doesNotBackUnindexedSort() {
+        assertFalse(advisor.check(IndexedEntity.class, null, Arrays.asList("title"), Arrays.asList(true)));
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    @Table(name = "indexed_entity", indexes = {@Index(columnList = "status, created_on"),
+            @Index(columnList = "priority DESC, updated_on"), @Index(columnList = "severity, due_on DESC")})
+    public static class IndexedEntity extends JpaEntity {
+
+        @Column(name = "status")
+        private String status;
+
+        @Column(name = "priority")
+        private Integer priority;
+
+        @Column(name = "title")
+        private String title;
+
+        @Column(name = "created_on")
+        private String createdOn;
+
+        @Column(name = "updated_on")
+        private String updatedOn;
+
+        @Column(name = "severity")
+        private Integer severity;
+
+        @Column(name = "due_on")
+        private String dueOn;
+
+    }
+
+    @Table(name = "sorted_by_id_entity", indexes = {@Index(columnList = "severity, due_on DESC, id DESC")})
+    public static class SortedByIdEntity extends JpaEntity {
+
+        @Column(name = "severity")
+        private Integer severity;
+
+        @Column(name = "due_on")
+        private String dueOn;
+
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.app.persistence.orm.StatementTally.ShapeTally;
+
+
+/**
+ * {@link StatementTally} budget and repeated statement shapes (N+1) of a request.
+ */
+public class StatementTallyTest {
+
+    private static final String SELECT_ISSUE = "select i.id, i.title from issue i where i.id=?";
+    private static final String SELECT_COMMENTS = "select c.id from comment c where c.issue_id=?";
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void collapsesParamLists() {
+        assertEquals("select * from issue where id in (?) and status=?",
+                StatementTally.shapeOf("  select * from issue where id in (?, ?,?) and status=? "));
+        assertEquals(StatementTally.shapeOf("select * from issue where id in (?, ?)"),
+                StatementTally.shapeOf("select * from issue where id in (?, ?, ?, ?)"));
+    }
+
+    @Test
+    public void reportsShapesRepeatedAtThreshold() {
+        final StatementTally tally = new StatementTally("GET /issues", 0, 3, false);
+        addTimes(tally, SELECT_ISSUE, 2);
+        addTimes(tally, SELECT_COMMENTS, 3);
+
+        assertEquals(5, tally.getStatementCount());
+        final List<ShapeTally> repeatedShapes = tally.getRepeatedShapes();
+        assertEquals(1, repeatedShapes.size());
+        assertEquals(SELECT_COMMENTS, repeatedShapes.get(0).shape);
+        assertEquals(3, repeatedShapes.get(0).count);
+
+        tally.add(SELECT_ISSUE);
+        tally.add(SELECT_ISSUE);
+        assertEquals(SELECT_ISSUE, tally.getRepeatedShapes().get(0).shape, "the most repeated first");
+    }
+
+    @Test
+    public void keepsCauseOfFirstLazyLoad() {
+        final StatementTally tally = new StatementTally("GET /issues", 0, 2, false);
+        tally.add(SELECT_ISSUE);
+        tally.onLazyLoad("Issue.comments");
+        tally.add(SELECT_COMMENTS);
+        tally.onLazyLoad("Issue.watchers");
+        tally.add(SELECT_COMMENTS);
+        tally.add(SELECT_ISSUE);
+
+        final List<ShapeTally> repeatedShapes = tally.getRepeatedShapes();
+        assertEquals(2, repeatedShapes.size());
+        for (final ShapeTally shapeTally : repeatedShapes) {
+            if (SELECT_COMMENTS.equals(shapeTally.shape)) {
+                assertEquals("Issue.comments", shapeTally.cause);
+            } else {
+                assertNull(shapeTally.cause, "a lazy load is the cause of the next statement only");
+            }
+        }
+    }
+
+    @Test
+    public void checksBudget() {
+        final StatementTally tally = new StatementTally("GET /issues", 2, 10, true);
+        addTimes(tally, SELECT_ISSUE, 2);
+        assertFalse(tally.isOverBudget());
+
+        tally.add(SELECT_COMMENTS);
+        assertTrue(tally.isOverBudget());
+    }
+
+    @Test
+    public void doesNotBudgetWithoutMax() {
+        final StatementTally tally = new StatementTally("GET /issues", 0, 10, false);
+        addTimes(tally, SELECT_ISSUE, 1_000);
+
+        assertFalse(tally.isOverBudget());
+    }
+
+    @Test
+    public void countsStatementsBeyondMaxShapes() {
+        final StatementTally tally = new StatementTally("GET /issues", 0, 2, false);
+        for (int i = 0; i < 300; i++) {
+            tally.add("select * from issue_" + i);
+        }
+        addTimes(tally, SELECT_ISSUE, 5);
+
+        assertEquals(305, tally.getStatementCount());
+        assertTrue(tally.getRepeatedShapes().isEmpty(), "the shapes beyond the max are not tracked");
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static void addTimes(final StatementTally tally, final String sql, final int times) {
+        for (int i = 0; i < times; i++) {
+            tally.add(sql);
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.app.persistence.orm.HibernateMappings.Issue;
+import com.mandark.jira.app.persistence.orm.HibernateMappings.Label;
+
+
+/**
+ * {@link UpsertStatement} SQL built from the entity mappings, and its parameters.
+ */
+public class UpsertStatementTest {
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void updatesAllButIdentifier() {
+        final UpsertStatement upsertStmt = UpsertStatement.of(persisterOf(Label.class), new String[] {"id"}, false);
+
+        assertEquals("INSERT INTO labels (id, color, name, version) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+                + "color = VALUES(color), name = VALUES(name), version = version + 1", upsertStmt.getSql());
+    }
+
+    @Test
+    public void updatesOnVersionMatchButConflictKey() {
+        final UpsertStatement upsertStmt = UpsertStatement.of(persisterOf(Label.class), new String[] {"name"}, true);
+
+        assertEquals("INSERT INTO labels (id, color, name, version) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+                + "color = IF(version = VALUES(version), VALUES(color), color), "
+                + "version = IF(version = VALUES(version), version + 1, version)", upsertStmt.getSql());
+    }
+
+    @Test
+    public void setsUpdatedTimestampOfAuditEntities() {
+        final AbstractEntityPersister persister = persisterOf(Issue.class);
+        final String sql = UpsertStatement.of(persister, new String[] {"id"}, false).getSql();
+        final String updates = sql.substring(sql.indexOf("ON DUPLICATE KEY UPDATE"));
+
+        assertTrue(updates.endsWith(columnOf(persister, JpaAuditEntity.FIELD_UPDATED_ON) + " = ?"), sql);
+        for (final String createdProp : Arrays.asList(JpaAuditEntity.FIELD_CREATED_BY,
+                JpaAuditEntity.FIELD_CREATED_ON)) {
+            assertFalse(updates.contains(columnOf(persister, createdProp) + " ="), sql);
+        }
+    }
+
+    @Test
+    public void rejectsUnknownConflictKey() {
+        assertThrows(IllegalArgumentException.class,
+                () -> UpsertStatement.of(persisterOf(Label.class), new String[] {"title"}, false));
+    }
+
+    @Test
+    public void bindsEntityAndSeedsVersion() throws Exception {
+        final AbstractEntityPersister persister = persisterOf(Label.class);
+        final UpsertStatement upsertStmt = UpsertStatement.of(persister, new String[] {"name"}, true);
+
+        final Label label = new Label();
+        label.setId(7);
+        label.setName("bug");
+        label.setColor("red");
+
+        final Map<Integer, Object> params = new TreeMap<>();
+        try (final SessionImplementor session = HibernateMappings.openSession()) {
+            upsertStmt.bind(fakeStatement(params), label, null, session);
+        }
+
+        assertEquals(Arrays.asList(7, "red", "bug", 0), List.copyOf(params.values()));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static AbstractEntityPersister persisterOf(final Class<?> entityCls) {
+        return HibernateMappings.persisterOf(entityCls);
+    }
+
+    private static String columnOf(final AbstractEntityPersister persister, final String propName) {
+        return persister.getPropertyColumnNames(propName)[0];
+    }
+
+    /**
+     * Statement recording its parameters by index.
+     */
+    private static PreparedStatement fakeStatement(final Map<Integer, Object> params) {
+        return (PreparedStatement) Proxy.newProxyInstance(UpsertStatementTest.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (p, method, args) -> {
+                    if (method.getName().startsWith("set") && args.length >= 2 && args[0] instanceof Integer) {
+                        params.put((Integer) args[0], "setNull".equals(method.getName()) ? null : args[1]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
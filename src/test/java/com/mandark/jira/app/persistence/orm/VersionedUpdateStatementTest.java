@@ -0,0 +1,104 @@
+package com.mandark.jira.app.persistence.orm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.app.persistence.orm.HibernateMappings.Comment;
+import com.mandark.jira.app.persistence.orm.HibernateMappings.Label;
+
+
+/**
+ * {@link VersionedUpdateStatement} SQL built from the entity mappings, its parameters and version increment.
+ */
+public class VersionedUpdateStatementTest {
+
+    private Label label;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        label = new Label();
+        label.setId(7);
+        label.setName("bug");
+        label.setColor("red");
+        label.setVersion(3);
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void checksIdentifierAndVersion() {
+        final VersionedUpdateStatement updateStmt = VersionedUpdateStatement.of(persisterOf(Label.class));
+
+        assertEquals("UPDATE labels SET color = ?, name = ?, version = version + 1 WHERE id = ? AND version = ?",
+                updateStmt.getSql());
+    }
+
+    @Test
+    public void rejectsUnversionedEntities() {
+        assertThrows(IllegalArgumentException.class, () -> VersionedUpdateStatement.of(persisterOf(Comment.class)));
+    }
+
+    @Test
+    public void bindsValuesThenIdentifierAndVersion() throws Exception {
+        final VersionedUpdateStatement updateStmt = VersionedUpdateStatement.of(persisterOf(Label.class));
+
+        final Map<Integer, Object> params = new TreeMap<>();
+        try (final SessionImplementor session = HibernateMappings.openSession()) {
+            updateStmt.bind(fakeStatement(params), label, session);
+        }
+
+        assertEquals(Arrays.asList("red", "bug", 7, 3), List.copyOf(params.values()));
+    }
+
+    @Test
+    public void incrementsVersionAsStored() {
+        final VersionedUpdateStatement updateStmt = VersionedUpdateStatement.of(persisterOf(Label.class));
+
+        try (final SessionImplementor session = HibernateMappings.openSession()) {
+            updateStmt.incrementVersion(label, session);
+        }
+
+        assertEquals(Integer.valueOf(4), label.getVersion());
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static AbstractEntityPersister persisterOf(final Class<?> entityCls) {
+        return HibernateMappings.persisterOf(entityCls);
+    }
+
+    /**
+     * Statement recording its parameters by index.
+     */
+    private static PreparedStatement fakeStatement(final Map<Integer, Object> params) {
+        return (PreparedStatement) Proxy.newProxyInstance(VersionedUpdateStatementTest.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (p, method, args) -> {
+                    if (method.getName().startsWith("set") && args.length >= 2 && args[0] instanceof Integer) {
+                        params.put((Integer) args[0], "setNull".equals(method.getName()) ? null : args[1]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.mandark.jira.app.persistence.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+
+/**
+ * {@link ReplicaRoutingDataSource} routing between a primary and a replica pool (of a fake JDBC driver) :
+ * the read-only transactions to the replica, the others and the reads of the own writes to the primary.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:fake:primary";
+    private static final String REPLICA_URL = "jdbc:fake:replica";
+
+
+    private BasicDataSource primary;
+    private ReplicaRoutingDataSource routingDataSource;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        primary = new BasicDataSource();
+        primary.setDriverClassName(FakeDriver.class.getName());
+        primary.setUrl(PRIMARY_URL);
+
+        routingDataSource = new ReplicaRoutingDataSource(primary);
+        routingDataSource.setReplicaUrls(REPLICA_URL);
+        routingDataSource.setReadYourWritesWindow(60);
+        routingDataSource.afterPropertiesSet();
+
+        RoutingContext.unbind();
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void routesReadOnlyToReplica() throws Exception {
+        assertEquals(REPLICA_URL, this.connectIn(true));
+        assertEquals(PRIMARY_URL, this.connectIn(false));
+    }
+
+    @Test
+    public void routesReadsOfOwnWritesToPrimary() throws Exception {
+        RoutingContext.bind("session:1");
+        assertEquals(PRIMARY_URL, this.connectIn(false));
+        assertEquals(PRIMARY_URL, this.connectIn(true));
+
+        // Other client
+        RoutingContext.bind("session:2");
+        assertEquals(REPLICA_URL, this.connectIn(true));
+    }
+
+    @Test
+    public void routesReadsToReplicaWithoutClient() throws Exception {
+        assertEquals(PRIMARY_URL, this.connectIn(false));
+        assertEquals(REPLICA_URL, this.connectIn(true));
+    }
+
+    @Test
+    public void routesToPrimaryWithoutReplicas() throws Exception {
+        routingDataSource = new ReplicaRoutingDataSource(primary);
+        routingDataSource.setReplicaUrls(" ");
+        routingDataSource.afterPropertiesSet();
+
+        assertEquals(PRIMARY_URL, this.connectIn(true));
+        assertTrue(routingDataSource.getActiveConnections().keySet().contains("primary"));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Connects in a committed transaction (with synchronization, as the JPA transactions).
+     *
+     * @return the URL of the connected pool
+     */
+    private String connectIn(final boolean isReadOnly) throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(isReadOnly);
+        try (final Connection connection = routingDataSource.getConnection()) {
+            final String url = connection.getCatalog();
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+            return url;
+
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+
+    // Fakes
+    // ------------------------------------------------------------------------
+
+    /**
+     * JDBC driver of connections doing nothing, with their URL as catalog.
+     */
+    public static class FakeDriver implements Driver {
+
+        @Override
+        public Connection connect(final String url, final Properties info) {
+            if (!this.acceptsURL(url)) {
+                return null;
+            }
+
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (p, method, args) -> {
+                        switch (method.getName()) {
+                            case "getCatalog":
+                            case "toString":
+                                return url;
+                            case "isValid":
+                            case "getAutoCommit":
+                                return true;
+                            case "isClosed":
+                            case "isReadOnly":
+                                return false;
+                            case "getTransactionIsolation":
+                                return Connection.TRANSACTION_READ_COMMITTED;
+                            case "hashCode":
+                                return System.identityHashCode(p);
+                            case "equals":
+                                return p == args[0];
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        @Override
+        public boolean acceptsURL(final String url) {
+            return url.startsWith("jdbc:fake:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.mandark.jira.app.persistence.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link TextIndex} candidates of the like texts, its incremental updates and its file.
+ */
+public class TextIndexTest {
+
+    private static final int MAX_CANDIDATES = 100;
+
+
+    private Path file;
+    private TextIndex index;
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = Files.createTempDirectory("text-index").resolve("Issue.summary.idx");
+        index = newIndex(file);
+        index.markReady(index.reset());
+
+        index.put(1, "Login page crashes");
+        index.put(2, "Logout button");
+        index.put(3, "Crash on login");
+    }
+
+
+    // Tests :: Candidates
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void findsCandidatesOfAllTrigrams() {
+        assertEquals(ids(1, 3), index.candidates("login", MAX_CANDIDATES));
+        assertEquals(ids(1, 3), index.candidates("crash", MAX_CANDIDATES));
+        assertEquals(ids(2), index.candidates("logou", MAX_CANDIDATES));
+        assertEquals(ids(), index.candidates("signup", MAX_CANDIDATES));
+    }
+
+    @Test
+    public void findsShortTextsInTokens() {
+        assertEquals(ids(2, 3), index.candidates("on", MAX_CANDIDATES));
+        assertNull(index.candidates("n ", MAX_CANDIDATES), "text spanning the tokens");
+    }
+
+    @Test
+    public void foldsCaseAndAccents() {
+        index.put(4, "Caf\u00e9 cr\u00e8me");
+
+        assertEquals(ids(4), index.candidates("CAFE", MAX_CANDIDATES));
+        assertEquals(ids(4), index.candidates("cr\u00e8me", MAX_CANDIDATES));
+    }
+
+    @Test
+    public void leavesUnnarrowedSearches() {
+        assertNull(index.candidates("log%in", MAX_CANDIDATES), "wildcard");
+        assertNull(index.candidates("log", 1), "too many candidates");
+        assertNull(newIndex(file).candidates("login", MAX_CANDIDATES), "not ready");
+    }
+
+
+    // Tests :: Updates
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void replacesAndRemovesValues() {
+        index.put(3, "Timeout on save");
+        assertEquals(ids(1), index.candidates("login", MAX_CANDIDATES));
+        assertEquals(ids(3), index.candidates("timeout", MAX_CANDIDATES));
+
+        index.remove(1);
+        assertEquals(ids(), index.candidates("login", MAX_CANDIDATES));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void discardsRebuildsOfEarlierGenerations() {
+        final int generation = index.reset();
+        index.put(1, "Login page crashes");
+
+        assertTrue(index.putIfAbsent(generation, 1, "stale login value"));
+        assertTrue(index.putIfAbsent(generation, 2, "Logout button"));
+        assertTrue(index.markReady(generation));
+        assertEquals(ids(), index.candidates("stale", MAX_CANDIDATES), "later write kept");
+
+        final int nextGeneration = index.reset();
+        assertFalse(index.putIfAbsent(generation, 3, "Crash on login"));
+        assertFalse(index.markReady(generation));
+        assertTrue(index.markReady(nextGeneration));
+    }
+
+
+    // Tests :: File
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void loadsSavedIndexOnce() throws Exception {
+        index.put(4, "Tab\tand\nnew line \\ kept");
+        index.save();
+
+        final TextIndex loaded = newIndex(file);
+        assertTrue(loaded.load());
+        assertTrue(loaded.isReady());
+        assertEquals(4, loaded.size());
+        assertEquals(ids(1, 3), loaded.candidates("login", MAX_CANDIDATES));
+        assertEquals(ids(4), loaded.candidates("and\nnew line", MAX_CANDIDATES));
+
+        assertFalse(Files.exists(file), "file removed once loaded");
+        assertFalse(newIndex(file).load());
+    }
+
+    @Test
+    public void skipsSaveOfIndexNotReady() throws Exception {
+        index.reset();
+        index.save();
+
+        assertFalse(Files.exists(file));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static TextIndex newIndex(final Path file) {
+        return new TextIndex("Issue", "id", "summary", file);
+    }
+
+    private static Set<Integer> ids(final Integer... ids) {
+        return ids.length == 0 ? Collections.emptySet() : new HashSet<>(Arrays.asList(ids));
+    }
+
+}
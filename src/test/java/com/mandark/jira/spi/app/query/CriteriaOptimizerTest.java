@@ -0,0 +1,150 @@
+package com.mandark.jira.spi.app.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * {@link CriteriaOptimizer} simplifications, to an equivalent criteria tree.
+ */
+public class CriteriaOptimizerTest {
+
+    // Tests :: Structure
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void keepsNullCriteria() {
+        assertNull(CriteriaOptimizer.optimize(null));
+    }
+
+    @Test
+    public void flattensNestedCompounds() {
+        final Criteria criteria = Criteria.and(Criteria.equal("a", 1),
+                Criteria.and(Criteria.equal("b", 2), Criteria.and(Criteria.like("c", "x%"))));
+
+        assertOptimized(Criteria.and(Criteria.equal("a", 1), Criteria.equal("b", 2), Criteria.like("c", "x%")),
+                criteria);
+    }
+
+    @Test
+    public void replacesSingleChildCompound() {
+        assertOptimized(Criteria.equal("a", 1), Criteria.or(Criteria.and(Criteria.equal("a", 1))));
+    }
+
+    @Test
+    public void dropsDuplicates() {
+        assertOptimized(Criteria.like("a", "x%"), Criteria.and(Criteria.like("a", "x%"), Criteria.like("a", "x%")));
+        assertOptimized(Criteria.in("a", Arrays.asList(1, 2)),
+                Criteria.or(Criteria.in("a", Arrays.asList(1, 2)), Criteria.in("a", Arrays.asList(2, 1))));
+    }
+
+
+    // Tests :: OR
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void mergesEqualsOfPropertyIntoIn() {
+        final Criteria criteria = Criteria.or(Criteria.equal("a", 1), Criteria.like("b", "x%"),
+                Criteria.in("a", Arrays.asList(2, 1)));
+
+        assertOptimized(Criteria.or(Criteria.in("a", Arrays.asList(1, 2)), Criteria.like("b", "x%")), criteria);
+    }
+
+    @Test
+    public void doesNotMergeValuesOfOtherTypes() {
+        final Criteria criteria = Criteria.or(Criteria.equal("a", 1), Criteria.equal("a", 2L));
+
+        assertOptimized(criteria, criteria);
+    }
+
+    @Test
+    public void doesNotMergeIgnoreCaseEquals() {
+        final Criteria criteria = Criteria.or(Criteria.equalIgnoreCase("a", "x"), Criteria.equal("a", "y"));
+
+        assertOptimized(criteria, criteria);
+    }
+
+    @Test
+    public void dropsContradictionsFromOr() {
+        assertOptimized(Criteria.equal("b", 1),
+                Criteria.or(Criteria.in("a", Collections.emptyList()), Criteria.equal("b", 1)));
+        assertTrue(CriteriaOptimizer.isNone(CriteriaOptimizer.optimize(
+                Criteria.or(Criteria.none(), Criteria.in("a", Collections.emptyList())))));
+    }
+
+
+    // Tests :: AND
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void intersectsInLists() {
+        assertOptimized(Criteria.in("a", Arrays.asList(2, 3)),
+                Criteria.and(Criteria.in("a", Arrays.asList(1, 2, 3)), Criteria.in("a", Arrays.asList(3, 2, 4))));
+        assertOptimized(Criteria.equal("a", 2),
+                Criteria.and(Criteria.in("a", Arrays.asList(1, 2)), Criteria.in("a", Arrays.asList(2, 3))));
+    }
+
+    @Test
+    public void tightensRange() {
+        final Criteria criteria = Criteria.and(Criteria.min("a", 1), Criteria.max("a", 9), Criteria.min("a", 3),
+                Criteria.max("a", 7));
+
+        assertOptimized(Criteria.and(Criteria.min("a", 3), Criteria.max("a", 7)), criteria);
+    }
+
+    @Test
+    public void dropsValuesOutOfRange() {
+        final Criteria criteria = Criteria.and(Criteria.in("a", Arrays.asList(1, 5, 9)), Criteria.min("a", 1),
+                Criteria.max("a", 9));
+
+        assertOptimized(Criteria.equal("a", 5), criteria);
+    }
+
+    @Test
+    public void reducesContradictionsToNone() {
+        assertNone(Criteria.and(Criteria.equal("a", 1), Criteria.equal("a", 2)));
+        assertNone(Criteria.and(Criteria.equal("a", 1), Criteria.in("a", Arrays.asList(2, 3))));
+        assertNone(Criteria.and(Criteria.min("a", 5), Criteria.max("a", 5)));
+        assertNone(Criteria.and(Criteria.equal("a", 1), Criteria.min("a", 1)));
+        assertNone(Criteria.and(Criteria.isNull("a"), Criteria.notNull("a")));
+        assertNone(Criteria.and(Criteria.isNull("a"), Criteria.equal("a", 1)));
+        assertNone(Criteria.and(Criteria.equal("b", 1), Criteria.in("a", Collections.emptyList())));
+    }
+
+    @Test
+    public void dropsNotNullImpliedByValues() {
+        assertOptimized(Criteria.equal("a", 1), Criteria.and(Criteria.notNull("a"), Criteria.equal("a", 1)));
+        assertOptimized(Criteria.notNull("a"), Criteria.and(Criteria.notNull("a"), Criteria.notNull("a")));
+    }
+
+    @Test
+    public void doesNotMergeRangeOfOtherTypes() {
+        final Criteria criteria = Criteria.and(Criteria.min("a", 5), Criteria.max("a", 3L));
+
+        assertOptimized(criteria, criteria);
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    /**
+     * Compares the criteria trees by their text, the criteria having no equality.
+     */
+    private static void assertOptimized(final Criteria expected, final Criteria criteria) {
+        assertEquals(String.valueOf(expected), String.valueOf(CriteriaOptimizer.optimize(criteria)));
+    }
+
+    private static void assertNone(final Criteria criteria) {
+        final Criteria optimized = CriteriaOptimizer.optimize(criteria);
+
+        assertTrue(CriteriaOptimizer.isNone(optimized), String.valueOf(optimized));
+    }
+
+}
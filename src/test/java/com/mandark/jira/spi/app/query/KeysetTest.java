@@ -0,0 +1,119 @@
+package com.mandark.jira.spi.app.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.spi.lang.ValidationException;
+
+
+/**
+ * {@link Keyset} token encoding and decoding.
+ */
+public class KeysetTest {
+
+    private static final List<Class<?>> ID_ONLY = Collections.singletonList(Integer.class);
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void roundTripsSortValueTypes() {
+        final List<Object> sortValues = Arrays.asList("a, b: c%", 7, 8L, 1.5d, new BigDecimal("10.25"), true,
+                LocalDateTime.of(2024, 3, 1, 10, 15, 30), LocalDate.of(2024, 3, 1), new Date(1700000000000L),
+                DayOfWeek.MONDAY);
+        final List<Class<?>> types = Arrays.asList(String.class, int.class, Long.class, double.class,
+                BigDecimal.class, boolean.class, LocalDateTime.class, LocalDate.class, Date.class, DayOfWeek.class,
+                Integer.class);
+
+        final Keyset keyset = Keyset.decode(Keyset.of(sortValues, 42).encode(), types);
+
+        assertEquals(sortValues, keyset.getSortValues());
+        assertEquals(42, keyset.getId());
+    }
+
+    @Test
+    public void roundTripsNullSortValues() {
+        final List<Object> sortValues = Arrays.asList(null, "x", null);
+        final List<Class<?>> types = Arrays.asList(LocalDateTime.class, String.class, DayOfWeek.class,
+                Integer.class);
+
+        final Keyset keyset = Keyset.decode(Keyset.of(sortValues, 3).encode(), types);
+
+        assertEquals(sortValues, keyset.getSortValues());
+        assertEquals(3, keyset.getId());
+    }
+
+    @Test
+    public void decodesEnumWithinSortPropertyType() {
+        final String token = Keyset.of(Arrays.asList(DayOfWeek.FRIDAY), 1).encode();
+
+        final Keyset keyset = Keyset.decode(token, Arrays.asList(DayOfWeek.class, Integer.class));
+
+        assertSame(DayOfWeek.FRIDAY, keyset.getSortValues().get(0));
+    }
+
+    @Test
+    public void rejectsTypeNamedByToken() {
+        // the earlier format, naming the enum type
+        final String token = tokenOf("e:java.time.DayOfWeek%3AFRIDAY,i:1");
+
+        assertThrows(ValidationException.class,
+                () -> Keyset.decode(token, Arrays.asList(DayOfWeek.class, Integer.class)));
+        assertThrows(ValidationException.class,
+                () -> Keyset.decode(tokenOf("e:FRIDAY,i:1"), Arrays.asList(String.class, Integer.class)));
+    }
+
+    @Test
+    public void rejectsValueOfOtherType() {
+        final String token = Keyset.of(Arrays.asList("7"), 1).encode();
+
+        assertThrows(ValidationException.class,
+                () -> Keyset.decode(token, Arrays.asList(Integer.class, Integer.class)));
+    }
+
+    @Test
+    public void rejectsTokenOfOtherSortOrder() {
+        final String token = Keyset.of(Arrays.asList("a", "b"), 1).encode();
+
+        assertThrows(ValidationException.class,
+                () -> Keyset.decode(token, Arrays.asList(String.class, Integer.class)));
+    }
+
+    @Test
+    public void rejectsMalformedToken() {
+        assertThrows(ValidationException.class, () -> Keyset.decode("not base64 !", ID_ONLY));
+        assertThrows(ValidationException.class, () -> Keyset.decode(tokenOf("x:1"), ID_ONLY));
+        assertThrows(ValidationException.class, () -> Keyset.decode(tokenOf("0:"), ID_ONLY));
+    }
+
+    @Test
+    public void decodesBlankTokenAsFirstPage() {
+        assertNull(Keyset.decode(null, ID_ONLY));
+        assertNull(Keyset.decode(" ", ID_ONLY));
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static String tokenOf(final String tokenStr) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(tokenStr.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.mandark.jira.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mandark.jira.app.persistence.routing.RoutingContext;
+
+
+/**
+ * {@link RoutingInterceptor} client keys : by session, else by client header, none for anonymous requests.
+ */
+public class RoutingInterceptorTest {
+
+    private final RoutingInterceptor interceptor = new RoutingInterceptor();
+
+
+    // Setup
+    // ------------------------------------------------------------------------
+
+    @BeforeEach
+    public void setUp() {
+        RoutingContext.unbind();
+    }
+
+
+    // Tests
+    // ------------------------------------------------------------------------
+
+    @Test
+    public void bindsSession() {
+        interceptor.preHandle(fakeRequest("s1", "c1"), null, null);
+
+        assertEquals("session:s1", RoutingContext.current());
+    }
+
+    @Test
+    public void bindsClientHeaderWithoutSession() {
+        interceptor.preHandle(fakeRequest(null, "c1"), null, null);
+
+        assertEquals("client:c1", RoutingContext.current());
+    }
+
+    @Test
+    public void leavesAnonymousRequestUnbound() {
+        interceptor.preHandle(fakeRequest(null, " "), null, null);
+
+        assertNull(RoutingContext.current());
+    }
+
+    @Test
+    public void unbindsAfterCompletion() {
+        interceptor.preHandle(fakeRequest("s1", null), null, null);
+        interceptor.afterCompletion(null, null, null, null);
+
+        assertNull(RoutingContext.current());
+    }
+
+
+    // Private Methods
+    // ------------------------------------------------------------------------
+
+    private static HttpServletRequest fakeRequest(final String sessionId, final String clientId) {
+        final HttpSession session = Objects.isNull(sessionId) ? null
+                : (HttpSession) Proxy.newProxyInstance(RoutingInterceptorTest.class.getClassLoader(),
+                        new Class<?>[] {HttpSession.class}, (p, method, args) -> {
+                            if ("getId".equals(method.getName())) {
+                                return sessionId;
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                        });
+
+        return (HttpServletRequest) Proxy.newProxyInstance(RoutingInterceptorTest.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class}, (p, method, args) -> {
+                    switch (method.getName()) {
+                        case "getSession":
+                            return session;
+                        case "getHeader":
+                            return WebConstants.REQ_HEADER_CLIENT_ID.equals(args[0]) ? clientId : null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+}